@@ -1,10 +1,16 @@
 package org.example;
 
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.example.config.StartupMode;
+import org.example.web.HttpApiServer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
 
 public class Main {
-    public static void main(String[] args) {
-        ApplicationContext context = new ClassPathXmlApplicationContext("beans.xml");
+    public static void main(String[] args) throws IOException {
+        ConfigurableApplicationContext context = StartupMode.fromSystemProperties().newContext();
+        context.refresh();
+        context.registerShutdownHook();
+        context.getBean(HttpApiServer.class).start();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package org.example.archive;
+
+import java.util.UUID;
+
+/**
+ * Fixed-size Bloom filter over training ids, about 1% false positives at 10 bits per id. Lets a lookup skip the
+ * segments that cannot contain the id without touching the disk.
+ */
+final class BloomFilter {
+
+    private static final int HASHES = 7;
+
+    private final long[] bits;
+
+    BloomFilter(int expectedIds) {
+        this(new long[Math.max(1, (expectedIds * 10 + 63) / 64)]);
+    }
+
+    BloomFilter(long[] bits) {
+        this.bits = bits;
+    }
+
+    void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        long size = bits.length * 64L;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        long size = bits.length * 64L;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    long[] bits() {
+        return bits;
+    }
+}
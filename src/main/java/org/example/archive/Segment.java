@@ -0,0 +1,231 @@
+package org.example.archive;
+
+import org.example.model.Training;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable segment file holding archived trainings sorted by id, in deflate-compressed blocks. The footer is a
+ * sparse index with the first id, offset and length of every block, a Bloom filter of all ids and the date range
+ * covered. Only the footer is kept in memory; a lookup decompresses at most one block.
+ * <pre>
+ * magic | block 0 | ... | block n-1 | footer | footer offset (8 bytes)
+ * </pre>
+ */
+final class Segment implements AutoCloseable {
+
+    private static final int MAGIC = 0x47594d31;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final UUID[] firstIds;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final BloomFilter bloomFilter;
+    private final LocalDate minDate;
+    private final LocalDate maxDate;
+    private final int size;
+
+    private Segment(Path path, FileChannel channel, UUID[] firstIds, long[] offsets, int[] lengths,
+                    BloomFilter bloomFilter, LocalDate minDate, LocalDate maxDate, int size) {
+        this.path = path;
+        this.channel = channel;
+        this.firstIds = firstIds;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.bloomFilter = bloomFilter;
+        this.minDate = minDate;
+        this.maxDate = maxDate;
+        this.size = size;
+    }
+
+    /**
+     * Writes the trainings to a temporary file and moves it into place, so readers never see a partial segment.
+     */
+    static Segment write(Path path, List<Training> trainings, int blockSize) throws IOException {
+        List<Training> sorted = new ArrayList<>(trainings);
+        sorted.sort(Comparator.comparing(Training::getId));
+        int blocks = (sorted.size() + blockSize - 1) / blockSize;
+        BloomFilter bloomFilter = new BloomFilter(sorted.size());
+        LocalDate minDate = LocalDate.MAX;
+        LocalDate maxDate = LocalDate.MIN;
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            long offset = Integer.BYTES;
+            UUID[] firstIds = new UUID[blocks];
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            for (int block = 0; block < blocks; block++) {
+                List<Training> blockTrainings =
+                        sorted.subList(block * blockSize, Math.min(sorted.size(), (block + 1) * blockSize));
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (DataOutputStream blockOut = new DataOutputStream(new DeflaterOutputStream(compressed))) {
+                    blockOut.writeInt(blockTrainings.size());
+                    for (Training training : blockTrainings) {
+                        TrainingCodec.write(blockOut, training);
+                        bloomFilter.add(training.getId());
+                        if (training.getDate() != null) {
+                            minDate = training.getDate().isBefore(minDate) ? training.getDate() : minDate;
+                            maxDate = training.getDate().isAfter(maxDate) ? training.getDate() : maxDate;
+                        }
+                    }
+                }
+                compressed.writeTo(out);
+                firstIds[block] = blockTrainings.get(0).getId();
+                offsets[block] = offset;
+                lengths[block] = compressed.size();
+                offset += compressed.size();
+            }
+            out.writeInt(blocks);
+            for (int block = 0; block < blocks; block++) {
+                out.writeLong(firstIds[block].getMostSignificantBits());
+                out.writeLong(firstIds[block].getLeastSignificantBits());
+                out.writeLong(offsets[block]);
+                out.writeInt(lengths[block]);
+            }
+            long[] bits = bloomFilter.bits();
+            out.writeInt(bits.length);
+            for (long word : bits) {
+                out.writeLong(word);
+            }
+            out.writeLong(minDate.toEpochDay());
+            out.writeLong(maxDate.toEpochDay());
+            out.writeInt(sorted.size());
+            out.writeLong(offset);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    static Segment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            long footerOffset = read(channel, fileSize - Long.BYTES, Long.BYTES).getLong();
+            if (read(channel, 0, Integer.BYTES).getInt() != MAGIC) {
+                throw new IOException("Not a training segment: " + path);
+            }
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(
+                    read(channel, footerOffset, (int) (fileSize - Long.BYTES - footerOffset)).array()));
+            int blocks = footer.readInt();
+            UUID[] firstIds = new UUID[blocks];
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            for (int block = 0; block < blocks; block++) {
+                firstIds[block] = new UUID(footer.readLong(), footer.readLong());
+                offsets[block] = footer.readLong();
+                lengths[block] = footer.readInt();
+            }
+            long[] bits = new long[footer.readInt()];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = footer.readLong();
+            }
+            LocalDate minDate = LocalDate.ofEpochDay(footer.readLong());
+            LocalDate maxDate = LocalDate.ofEpochDay(footer.readLong());
+            int size = footer.readInt();
+            return new Segment(path, channel, firstIds, offsets, lengths, new BloomFilter(bits), minDate, maxDate,
+                    size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Optional<Training> find(UUID id) throws IOException {
+        if (firstIds.length == 0 || !bloomFilter.mightContain(id) || id.compareTo(firstIds[0]) < 0) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = firstIds.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (firstIds[middle].compareTo(id) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        for (Training training : readBlock(low)) {
+            if (training.getId().equals(id)) {
+                return Optional.of(training);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return The trainings matching the predicate, or nothing without reading a block if the dates do not overlap.
+     */
+    List<Training> scan(LocalDate from, LocalDate to, Predicate<Training> predicate) throws IOException {
+        List<Training> matches = new ArrayList<>();
+        if (size == 0 || maxDate.isBefore(from) || minDate.isAfter(to)) {
+            return matches;
+        }
+        for (int block = 0; block < firstIds.length; block++) {
+            for (Training training : readBlock(block)) {
+                if (predicate.test(training)) {
+                    matches.add(training);
+                }
+            }
+        }
+        return matches;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private List<Training> readBlock(int block) throws IOException {
+        ByteBuffer buffer = read(channel, offsets[block], lengths[block]);
+        try (DataInputStream in = new DataInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(buffer.array())))) {
+            int count = in.readInt();
+            List<Training> trainings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                trainings.add(TrainingCodec.read(in));
+            }
+            return trainings;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
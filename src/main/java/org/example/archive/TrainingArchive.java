@@ -0,0 +1,188 @@
+package org.example.archive;
+
+import org.example.exception.ArchiveException;
+import org.example.model.Training;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Disk tier for trainings older than the retention horizon. Every archived month becomes one or more immutable
+ * {@link Segment} files named {@code trainings-<month>-<sequence>.seg}; only their footers are held in memory.
+ * Segments are never rewritten: the trainings of a deleted Trainee or Trainer are hidden by listing the owner in
+ * {@code purged-owners}, which is loaded in full.
+ */
+public class TrainingArchive implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainingArchive.class);
+    private static final String PURGED_OWNERS = "purged-owners";
+
+    private final Path directory;
+    private final int horizonMonths;
+    private final int blockSize;
+    private final NavigableMap<YearMonth, List<Segment>> segments = new ConcurrentSkipListMap<>();
+    private final Set<UUID> purgedOwners = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param directory     Where segment files are kept.
+     * @param horizonMonths Number of months, counting the current one, that stay in memory.
+     * @param blockSize     Number of trainings per compressed block.
+     */
+    public TrainingArchive(String directory, int horizonMonths, int blockSize) {
+        this.directory = Path.of(directory);
+        this.horizonMonths = horizonMonths;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Loads the footers of the segments already on disk.
+     */
+    public void open() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "trainings-*.seg")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    YearMonth month = YearMonth.parse(name.substring("trainings-".length(), "trainings-".length() + 7));
+                    segmentsOf(month).add(Segment.open(file));
+                }
+            }
+            Path purged = directory.resolve(PURGED_OWNERS);
+            if (Files.exists(purged)) {
+                for (String line : Files.readAllLines(purged)) {
+                    if (!line.isBlank()) {
+                        purgedOwners.add(UUID.fromString(line.trim()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ArchiveException("Cannot open training archive in " + directory, e);
+        }
+        logger.info("Training archive opened with {} segments", segmentCount());
+    }
+
+    /**
+     * @return The first month that stays in memory; older months are archived.
+     */
+    public YearMonth horizon(LocalDate today) {
+        return YearMonth.from(today).minusMonths(horizonMonths - 1L);
+    }
+
+    /**
+     * Writes the trainings of a month to a new segment.
+     */
+    public void archive(YearMonth month, Collection<Training> trainings) {
+        if (trainings.isEmpty()) {
+            return;
+        }
+        List<Segment> monthSegments = segmentsOf(month);
+        synchronized (monthSegments) {
+            Path file = directory.resolve(String.format("trainings-%s-%04d.seg", month, monthSegments.size()));
+            try {
+                monthSegments.add(Segment.write(file, new ArrayList<>(trainings), blockSize));
+            } catch (IOException e) {
+                throw new ArchiveException("Cannot write segment " + file, e);
+            }
+        }
+        logger.info("Archived {} trainings of {}", trainings.size(), month);
+    }
+
+    /**
+     * Hides the archived trainings of a deleted Trainee or Trainer from now on, also after a restart.
+     */
+    public synchronized void purgeOwner(UUID ownerId) {
+        if (ownerId == null || isPurged(ownerId)) {
+            return;
+        }
+        Path file = directory.resolve(PURGED_OWNERS);
+        try {
+            Files.writeString(file, ownerId + System.lineSeparator(), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new ArchiveException("Cannot write " + file, e);
+        }
+        purgedOwners.add(ownerId);
+    }
+
+    public Optional<Training> findById(UUID id) {
+        try {
+            for (List<Segment> monthSegments : segments.values()) {
+                for (Segment segment : monthSegments) {
+                    Optional<Training> training = segment.find(id);
+                    if (training.isPresent()) {
+                        return training.filter(this::isVisible);
+                    }
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new ArchiveException("Cannot read training archive", e);
+        }
+    }
+
+    /**
+     * @return Archived trainings dated within {@code [from, to]}; only segments of overlapping months are read.
+     */
+    public List<Training> findByDateRange(LocalDate from, LocalDate to) {
+        List<Training> trainings = new ArrayList<>();
+        try {
+            for (List<Segment> monthSegments
+                    : segments.subMap(YearMonth.from(from), true, YearMonth.from(to), true).values()) {
+                for (Segment segment : monthSegments) {
+                    trainings.addAll(segment.scan(from, to, training -> training.getDate() != null
+                            && !training.getDate().isBefore(from) && !training.getDate().isAfter(to)
+                            && isVisible(training)));
+                }
+            }
+        } catch (IOException e) {
+            throw new ArchiveException("Cannot read training archive", e);
+        }
+        return trainings;
+    }
+
+    public int segmentCount() {
+        return segments.values().stream().mapToInt(List::size).sum();
+    }
+
+    public long size() {
+        return segments.values().stream().flatMap(List::stream).mapToLong(Segment::size).sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (List<Segment> monthSegments : segments.values()) {
+            for (Segment segment : monthSegments) {
+                segment.close();
+            }
+        }
+    }
+
+    private boolean isVisible(Training training) {
+        return !isPurged(training.getTraineeId()) && !isPurged(training.getTrainerId());
+    }
+
+    private boolean isPurged(UUID ownerId) {
+        return ownerId != null && purgedOwners.contains(ownerId);
+    }
+
+    private List<Segment> segmentsOf(YearMonth month) {
+        return segments.computeIfAbsent(month, key -> new CopyOnWriteArrayList<>());
+    }
+}
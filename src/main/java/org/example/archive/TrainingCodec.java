@@ -0,0 +1,85 @@
+package org.example.archive;
+
+import org.example.model.Training;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Compact binary form of a {@link Training}. The boxed type of the duration is kept, so archived trainings are equal
+ * to the ones that were evicted.
+ */
+final class TrainingCodec {
+
+    private static final byte NULL = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLOAT = 4;
+
+    private TrainingCodec() {
+    }
+
+    static void write(DataOutput out, Training training) throws IOException {
+        writeUuid(out, training.getId());
+        writeUuid(out, training.getTraineeId());
+        writeUuid(out, training.getTrainerId());
+        writeUuid(out, training.getTrainingTypeId());
+        out.writeBoolean(training.getName() != null);
+        if (training.getName() != null) {
+            out.writeUTF(training.getName());
+        }
+        out.writeLong(training.getDate() == null ? Long.MIN_VALUE : training.getDate().toEpochDay());
+        Number duration = training.getDuration();
+        if (duration == null) {
+            out.writeByte(NULL);
+        } else if (duration instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt(duration.intValue());
+        } else if (duration instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong(duration.longValue());
+        } else if (duration instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat(duration.floatValue());
+        } else {
+            out.writeByte(DOUBLE);
+            out.writeDouble(duration.doubleValue());
+        }
+        out.writeLong(training.getVersion());
+    }
+
+    static Training read(DataInput in) throws IOException {
+        Training.TrainingBuilder training = Training.builder()
+                .id(readUuid(in))
+                .traineeId(readUuid(in))
+                .trainerId(readUuid(in))
+                .trainingTypeId(readUuid(in))
+                .name(in.readBoolean() ? in.readUTF() : null);
+        long epochDay = in.readLong();
+        training.date(epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay));
+        training.duration(switch (in.readByte()) {
+            case INTEGER -> in.readInt();
+            case LONG -> in.readLong();
+            case FLOAT -> in.readFloat();
+            case DOUBLE -> in.readDouble();
+            default -> null;
+        });
+        return training.version(in.readLong()).build();
+    }
+
+    private static void writeUuid(DataOutput out, UUID uuid) throws IOException {
+        out.writeBoolean(uuid != null);
+        if (uuid != null) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+}
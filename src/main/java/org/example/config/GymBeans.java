@@ -0,0 +1,150 @@
+package org.example.config;
+
+import org.example.archive.TrainingArchive;
+import org.example.dao.impl.TraineeDAOImpl;
+import org.example.dao.impl.TrainerDAOImpl;
+import org.example.dao.impl.TrainingDAOImpl;
+import org.example.event.BackpressureStrategy;
+import org.example.event.ChangeEventBus;
+import org.example.ingest.IngestQueue;
+import org.example.ingest.IngestQueues;
+import org.example.memory.MemoryAccounting;
+import org.example.memory.StoreCompactor;
+import org.example.replication.ReplicationClient;
+import org.example.replication.ReplicationServer;
+import org.example.security.Authenticator;
+import org.example.security.PasswordEncoder;
+import org.example.security.PasswordEncoders;
+import org.example.seed.SeedFileWatcher;
+import org.example.service.ExportService;
+import org.example.service.InMemoryStorage;
+import org.example.service.InMemoryStorageBeanPostProcessor;
+import org.example.service.TraineeService;
+import org.example.service.TrainerService;
+import org.example.service.TrainingService;
+import org.example.tx.StoreTransactionManager;
+import org.example.util.UtilService;
+import org.example.validation.RequestValidator;
+import org.example.web.HttpApiServer;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Programmatic counterpart of {@code beans.xml}. Beans are registered with instance suppliers, so there is no XML to
+ * parse, no classpath to scan and no constructor to resolve reflectively; only the {@code @Autowired} members of the
+ * DAOs and services are still injected by the annotation post-processor. The {@code gym.*} and {@code server.port}
+ * placeholders of the XML are read from the environment with the same defaults.
+ */
+public final class GymBeans {
+
+    private static final String DEFAULT_SEED_FILE = "C:\\Users\\User\\Desktop\\GYM\\src\\main\\resources\\users.json";
+    private static final String DEFAULT_ARCHIVE_DIRECTORY = "archive/trainings";
+
+    private GymBeans() {
+    }
+
+    public static void register(GenericApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        context.getDefaultListableBeanFactory().setAutowireCandidateResolver(
+                new ContextAnnotationAutowireCandidateResolver());
+        context.registerBean(AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME,
+                AutowiredAnnotationBeanPostProcessor.class, AutowiredAnnotationBeanPostProcessor::new);
+
+        context.registerBean("utilService", UtilService.class, UtilService::new);
+        context.registerBean("requestValidator", RequestValidator.class,
+                () -> new RequestValidator(context.getBean(UtilService.class), context.getBean(InMemoryStorage.class)));
+        context.registerBean("changeEventBus", ChangeEventBus.class,
+                () -> new ChangeEventBus(65536, BackpressureStrategy.BLOCK));
+        context.registerBean("storeTransactionManager", StoreTransactionManager.class,
+                () -> new StoreTransactionManager(1024, 8));
+        context.registerBean("passwordEncoder", PasswordEncoder.class,
+                () -> PasswordEncoders.forScheme("plain", 210000));
+        context.registerBean("authenticator", Authenticator.class,
+                () -> new Authenticator(context.getBean(PasswordEncoder.class), 2, 256));
+        context.registerBean("inMemoryStorage", InMemoryStorage.class,
+                () -> new InMemoryStorage(context.getBean(UtilService.class)),
+                definition -> definition.getPropertyValues()
+                        .add("userFilePath", environment.getProperty("user.file.path", DEFAULT_SEED_FILE))
+                        .add("transactionManager", new RuntimeBeanReference("storeTransactionManager")));
+        context.registerBean("inMemoryStorageBeanPostProcessor", InMemoryStorageBeanPostProcessor.class,
+                InMemoryStorageBeanPostProcessor::new);
+        context.registerBean("seedFileWatcher", SeedFileWatcher.class,
+                () -> new SeedFileWatcher(context.getBean(InMemoryStorage.class), context.getBean(ChangeEventBus.class),
+                        1000, 200),
+                definition -> definition.setInitMethodName("start"));
+        context.registerBean("trainingArchive", TrainingArchive.class,
+                () -> new TrainingArchive(environment.getProperty("gym.archive.directory", DEFAULT_ARCHIVE_DIRECTORY),
+                        24, 256),
+                definition -> definition.setInitMethodName("open"));
+
+        context.registerBean("traineeDAOImpl", TraineeDAOImpl.class, TraineeDAOImpl::new);
+        context.registerBean("trainerDAOImpl", TrainerDAOImpl.class, TrainerDAOImpl::new);
+        context.registerBean("trainingDAOImpl", TrainingDAOImpl.class, TrainingDAOImpl::new);
+        context.registerBean("trainingIngestQueue", IngestQueue.class,
+                () -> IngestQueues.trainings(context.getBean(TrainingDAOImpl.class), 4096, 256, 50),
+                definition -> definition.setInitMethodName("start"));
+        context.registerBean("traineeService", TraineeService.class, TraineeService::new);
+        context.registerBean("trainerService", TrainerService.class, TrainerService::new);
+        context.registerBean("trainingService", TrainingService.class, TrainingService::new);
+        context.registerBean("exportService", ExportService.class, ExportService::new);
+
+        Map<String, Long> softLimitsMb = Map.of(
+                "trainingStorage", environment.getProperty("gym.memory.trainings.soft-limit-mb", Long.class, 512L),
+                "userStorage", environment.getProperty("gym.memory.users.soft-limit-mb", Long.class, 256L));
+        Map<String, Long> hardLimitsMb = Map.of(
+                "trainingStorage", environment.getProperty("gym.memory.trainings.hard-limit-mb", Long.class, 768L),
+                "userStorage", environment.getProperty("gym.memory.users.hard-limit-mb", Long.class, 384L));
+        context.registerBean("memoryAccounting", MemoryAccounting.class, () -> new MemoryAccounting(
+                        context.getBean(InMemoryStorage.class), context.getBean(TrainingService.class),
+                        softLimitsMb, hardLimitsMb),
+                definition -> definition.setInitMethodName("start"));
+        double occupancyThreshold = environment.getProperty("gym.compaction.occupancy-threshold", Double.class, 0.25);
+        context.registerBean("storeCompactor", StoreCompactor.class,
+                () -> new StoreCompactor(context.getBean(InMemoryStorage.class), occupancyThreshold),
+                definition -> definition.setInitMethodName("start"));
+
+        context.registerBean("httpApiServer", HttpApiServer.class, () -> new HttpApiServer(
+                context.getBean(TraineeService.class), context.getBean(TrainerService.class),
+                context.getBean(TrainingService.class), environment.getProperty("server.port", Integer.class, 8083), 64));
+
+        context.registerBean("retentionScheduler", ThreadPoolTaskScheduler.class, () -> {
+            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+            scheduler.setPoolSize(1);
+            scheduler.setThreadNamePrefix("retentionScheduler-");
+            return scheduler;
+        });
+        context.registerBean("retentionSchedule", SmartInitializingSingleton.class, () -> () ->
+                context.getBean("retentionScheduler", ThreadPoolTaskScheduler.class).scheduleWithFixedDelay(
+                        context.getBean(TrainingService.class)::archiveExpired,
+                        Instant.now().plusSeconds(60), Duration.ofHours(1)));
+        long compactionIntervalMs = environment.getProperty("gym.compaction.interval-ms", Long.class, 600_000L);
+        context.registerBean("compactionSchedule", SmartInitializingSingleton.class, () -> () ->
+                context.getBean("retentionScheduler", ThreadPoolTaskScheduler.class).scheduleWithFixedDelay(
+                        context.getBean(StoreCompactor.class)::compactSparse,
+                        Instant.now().plusSeconds(120), Duration.ofMillis(compactionIntervalMs)));
+
+        int replicationPort = environment.getProperty("gym.replication.port", Integer.class, 7070);
+        if (environment.matchesProfiles("primary")) {
+            context.registerBean("replicationServer", ReplicationServer.class, () -> new ReplicationServer(
+                            context.getBean(InMemoryStorage.class), context.getBean(ChangeEventBus.class),
+                            replicationPort, 1000),
+                    definition -> definition.setInitMethodName("start"));
+        }
+        if (environment.matchesProfiles("replica")) {
+            context.registerBean("replicationClient", ReplicationClient.class, () -> new ReplicationClient(
+                            context.getBean(InMemoryStorage.class),
+                            environment.getProperty("gym.replication.host", "localhost"), replicationPort),
+                    definition -> definition.setInitMethodName("start"));
+        }
+    }
+}
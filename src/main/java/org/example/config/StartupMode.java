@@ -0,0 +1,41 @@
+package org.example.config;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.Locale;
+
+/**
+ * How the application context is assembled: from {@code beans.xml} with component scanning, or programmatically by
+ * {@link GymBeans} without parsing XML or scanning the classpath. Both produce the same beans under the same names.
+ */
+public enum StartupMode {
+    XML {
+        @Override
+        public ConfigurableApplicationContext newContext() {
+            return new ClassPathXmlApplicationContext(new String[]{"beans.xml"}, false);
+        }
+    },
+    PROGRAMMATIC {
+        @Override
+        public ConfigurableApplicationContext newContext() {
+            GenericApplicationContext context = new GenericApplicationContext();
+            GymBeans.register(context);
+            return context;
+        }
+    };
+
+    /**
+     * @return A context with all bean definitions registered but not refreshed yet, so callers can still add
+     * bean factory post-processors.
+     */
+    public abstract ConfigurableApplicationContext newContext();
+
+    /**
+     * @return The mode named by the {@code gym.startup} system property, XML if it is not set.
+     */
+    public static StartupMode fromSystemProperties() {
+        return valueOf(System.getProperty("gym.startup", "xml").toUpperCase(Locale.ROOT));
+    }
+}
@@ -2,15 +2,28 @@ package org.example.dao;
 
 
 import org.example.dto.TraineeRequestDto;
+import org.example.index.Relationship;
+import org.example.model.Registration;
 import org.example.model.Trainee;
+import org.example.query.Criteria;
+import org.example.query.QueryPlan;
+import org.example.model.User;
+import org.example.stats.LeaderboardEntry;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface TraineeDAO {
     Trainee save(TraineeRequestDto traineeRequestDto);
 
+    /**
+     * Same as {@link #save}, also returning the username and the generated password, if any.
+     */
+    Registration<Trainee> register(TraineeRequestDto traineeRequestDto);
+
     Optional<Trainee> findById(UUID id);
 
     List<Trainee> findAll();
@@ -18,4 +31,22 @@ public interface TraineeDAO {
     void delete(UUID id);
 
     Trainee update(UUID id, TraineeRequestDto traineeRequestDto);
+
+    Trainee update(UUID id, long expectedVersion, TraineeRequestDto traineeRequestDto);
+
+    int countActive();
+
+    List<Trainee> findAllActive();
+
+    int setActive(Collection<UUID> ids, boolean active);
+
+    int setActiveWhere(Predicate<User> predicate, boolean active);
+
+    List<Trainee> find(Criteria<Trainee> criteria);
+
+    QueryPlan<Trainee> explain(Criteria<Trainee> criteria);
+
+    List<Relationship> findTrainers(UUID traineeId);
+
+    List<LeaderboardEntry> suggestTrainers(UUID traineeId, int n);
 }
\ No newline at end of file
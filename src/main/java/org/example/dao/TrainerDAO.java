@@ -2,15 +2,30 @@ package org.example.dao;
 
 
 import org.example.dto.TrainerRequestDto;
+import org.example.index.Relationship;
+import org.example.model.Registration;
 import org.example.model.Trainer;
-
+import org.example.query.Criteria;
+import org.example.query.QueryPlan;
+import org.example.model.User;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerRecommendation;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface TrainerDAO {
     Trainer save(TrainerRequestDto trainerRequestDto);
 
+    /**
+     * Same as {@link #save}, also returning the username and the generated password, if any.
+     */
+    Registration<Trainer> register(TrainerRequestDto trainerRequestDto);
+
     Optional<Trainer> findById(UUID id);
 
     List<Trainer> findAll();
@@ -18,4 +33,24 @@ public interface TrainerDAO {
     void delete(UUID id);
 
     Trainer update(UUID id, TrainerRequestDto trainerRequestDto);
-}
\ No newline at end of file
+
+    Trainer update(UUID id, long expectedVersion, TrainerRequestDto trainerRequestDto);
+
+    int countActive();
+
+    List<Trainer> findAllActive();
+
+    int setActive(Collection<UUID> ids, boolean active);
+
+    int setActiveWhere(Predicate<User> predicate, boolean active);
+
+    List<Trainer> find(Criteria<Trainer> criteria);
+
+    QueryPlan<Trainer> explain(Criteria<Trainer> criteria);
+
+    List<TrainerRecommendation> recommend(String specialization, LocalDate date, int n);
+
+    List<Relationship> findTrainees(UUID trainerId);
+
+    List<LeaderboardEntry> findSimilarTrainers(UUID trainerId, int n);
+}
@@ -3,19 +3,60 @@ package org.example.dao;
 
 import org.example.dto.TrainingRequestDto;
 import org.example.model.Training;
+import org.example.query.Criteria;
+import org.example.query.QueryPlan;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerMetric;
+import org.example.tx.Transaction;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 
 public interface TrainingDAO {
     Training save(TrainingRequestDto trainingRequestDto);
 
+    /**
+     * @param onRejected Called with the position and the cause of every request that could not be saved.
+     * @return The saved trainings in request order, with null at the positions of rejected requests.
+     */
+    List<Training> saveAll(List<TrainingRequestDto> trainingRequestDtos, BiConsumer<Integer, RuntimeException> onRejected);
+
     Optional<Training> findById(UUID id);
 
     List<Training> findAll();
 
     void delete(UUID id);
 
+    /**
+     * Stages the removal of every training of the Trainee in the given transaction.
+     */
+    void deleteAllOfTrainee(UUID traineeId, Transaction transaction);
+
+    /**
+     * Stages the removal of every training of the Trainer in the given transaction.
+     */
+    void deleteAllOfTrainer(UUID trainerId, Transaction transaction);
+
     Training update(UUID id, TrainingRequestDto trainingRequestDto);
+
+    Training update(UUID id, long expectedVersion, TrainingRequestDto trainingRequestDto);
+
+    List<Training> findByDateRange(LocalDate from, LocalDate to);
+
+    int archiveExpired();
+
+    List<LeaderboardEntry> topTrainers(TrainerMetric metric, LocalDate from, LocalDate to, int n);
+
+    List<LeaderboardEntry> topTrainees(LocalDate from, LocalDate to, int n);
+
+    List<LeaderboardEntry> topTrainersThisWeek(TrainerMetric metric, int n);
+
+    List<LeaderboardEntry> topTraineesThisWeek(int n);
+
+    List<Training> find(Criteria<Training> criteria);
+
+    QueryPlan<Training> explain(Criteria<Training> criteria);
 }
\ No newline at end of file
@@ -2,12 +2,31 @@ package org.example.dao.impl;
 
 
 import org.example.dao.TraineeDAO;
+import org.example.dao.TrainingDAO;
 import org.example.dto.TraineeRequestDto;
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.ActiveUserIndex;
+import org.example.index.Relationship;
+import org.example.index.RelationshipGraph;
+import org.example.index.UsernameIndex;
+import org.example.model.Registration;
+import org.example.model.Role;
 import org.example.model.Trainee;
+import org.example.model.Trainer;
 import org.example.model.User;
+import org.example.security.Authenticator;
+import org.example.query.Criteria;
+import org.example.query.QueryEngine;
+import org.example.query.QueryEngines;
+import org.example.query.QueryPlan;
 import org.example.service.InMemoryStorage;
+import org.example.stats.LeaderboardEntry;
+import org.example.tx.StoreTransactionManager;
 import org.example.util.UtilService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the TraineeDAO interface for managing Trainee entities.
@@ -23,9 +43,19 @@ import java.util.*;
 public class TraineeDAOImpl implements TraineeDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(TraineeDAOImpl.class);
+    private static final long ANY_VERSION = -1L;
     private Map<UUID, Trainee> traineeStorage;
     private Map<UUID, User> userStorage;
+    private Map<UUID, Trainer> trainerStorage;
     private UtilService utilService;
+    private ChangeEventBus changeEventBus;
+    private ActiveUserIndex activeUserIndex;
+    private UsernameIndex usernameIndex;
+    private Authenticator authenticator;
+    private StoreTransactionManager transactionManager;
+    private TrainingDAO trainingDAO;
+    private RelationshipGraph relationshipGraph;
+    private QueryEngine<Trainee> queryEngine;
 
     @Autowired
     public void setTraineeStorage(InMemoryStorage inMemoryStorage) {
@@ -42,20 +72,94 @@ public class TraineeDAOImpl implements TraineeDAO {
         this.userStorage = inMemoryStorage.getUserStorage();
     }
 
+    @Autowired
+    public void setTrainerStorage(InMemoryStorage inMemoryStorage) {
+        this.trainerStorage = inMemoryStorage.getTrainerStorage();
+    }
+
+    @Autowired
+    public void setChangeEventBus(ChangeEventBus changeEventBus) {
+        this.changeEventBus = changeEventBus;
+    }
+
+    @Autowired
+    public void setActiveUserIndex(InMemoryStorage inMemoryStorage) {
+        this.activeUserIndex = inMemoryStorage.getActiveUserIndex();
+    }
+
+    @Autowired
+    public void setUsernameIndex(InMemoryStorage inMemoryStorage) {
+        this.usernameIndex = inMemoryStorage.getUsernameIndex();
+    }
+
+    @Autowired
+    public void setAuthenticator(Authenticator authenticator) {
+        this.authenticator = authenticator;
+    }
+
+    @Autowired
+    public void setTransactionManager(StoreTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Autowired
+    public void setTrainingDAO(TrainingDAO trainingDAO) {
+        this.trainingDAO = trainingDAO;
+    }
+
+    @Autowired
+    public void setRelationshipGraph(InMemoryStorage inMemoryStorage) {
+        this.relationshipGraph = inMemoryStorage.getRelationshipGraph();
+    }
+
+    @Autowired
+    public void setQueryEngine(InMemoryStorage inMemoryStorage) {
+        this.queryEngine = QueryEngines.trainees(inMemoryStorage);
+    }
+
     @Override
     public Trainee save(TraineeRequestDto traineeRequestDto) {
-        Trainee trainee = new Trainee();
-        User user = new User();
+        return register(traineeRequestDto).getMember();
+    }
+
+    /**
+     * The password of the request is used if it is valid, otherwise one is generated and returned. The username is
+     * reserved in the index before the commit and released if the commit fails.
+     */
+    @Override
+    public Registration<Trainee> register(TraineeRequestDto traineeRequestDto) {
         if (!utilService.isValidName(traineeRequestDto.getFirstName()) || !utilService.isValidName(traineeRequestDto.getLastName())) {
             logger.error("Invalid firstname or lastname ");
             throw new InvalidInputException("Invalid firstname or lastname");
         }
-        trainee.setId(utilService.generateUniqueKey(traineeStorage));
-        trainee.setAddress(traineeRequestDto.getAddress());
-        trainee.setUserId(saveUser(user, traineeRequestDto));
-        traineeStorage.put(trainee.getId(), trainee);
+        String initialPassword = utilService.isValidPassword(traineeRequestDto.getPassword()) ? null
+                : utilService.generateRandomPassword(10);
+        String password = authenticator.encode(initialPassword != null ? initialPassword
+                : traineeRequestDto.getPassword());
+        UUID traineeId = utilService.generateUniqueKey(traineeStorage);
+        User user = newUser(traineeRequestDto, password);
+        Trainee trainee = Trainee.builder()
+                .id(traineeId)
+                .userId(user.getId())
+                .address(traineeRequestDto.getAddress())
+                .build();
+        try {
+            transactionManager.execute(transaction -> {
+                transaction.put(userStorage, user.getId(), user);
+                transaction.put(traineeStorage, trainee.getId(), trainee);
+                transaction.onApply(() -> {
+                    activeUserIndex.register(trainee.getUserId(), trainee.getId(), Role.TRAINEE, true);
+                    changeEventBus.publish(ChangeType.CREATED, EntityType.USER, user.getId(), user);
+                    changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINEE, trainee.getId(), trainee);
+                });
+                return trainee;
+            });
+        } catch (RuntimeException e) {
+            usernameIndex.remove(user.getUsername(), user.getId());
+            throw e;
+        }
         logger.info("Trainee successfully created");
-        return trainee;
+        return new Registration<>(trainee, user.getUsername(), initialPassword);
     }
 
     @Override
@@ -68,47 +172,205 @@ public class TraineeDAOImpl implements TraineeDAO {
         return new ArrayList<>(traineeStorage.values());
     }
 
+    /**
+     * Removes the Trainee, its trainings and its User in one transaction. The trainings go first and the User last,
+     * so no reader sees a training without its Trainee or a Trainee without its User.
+     */
     @Override
     public void delete(UUID id) {
-        Optional<Trainee> traineeOptional = findById(id);
-        if (traineeOptional.isPresent()) {
-            userStorage.remove(traineeOptional.get().getUserId());
-            traineeStorage.remove(id);
-        } else {
-            logger.error("Trainee not found");
-            throw new NotFoundException("Trainee not found");
-        }
+        transactionManager.execute(transaction -> {
+            Trainee trainee = transaction.get(traineeStorage, id).orElseThrow(() -> {
+                logger.debug("Trainee not found");
+                return new NotFoundException("Trainee not found");
+            });
+            UUID userId = trainee.getUserId();
+            User user = userId == null ? null : transaction.get(userStorage, userId).orElse(null);
+            trainingDAO.deleteAllOfTrainee(id, transaction);
+            transaction.remove(traineeStorage, id);
+            if (userId != null) {
+                transaction.remove(userStorage, userId);
+            }
+            transaction.onApply(() -> {
+                activeUserIndex.remove(userId);
+                relationshipGraph.removeTrainee(id);
+                if (user != null) {
+                    usernameIndex.remove(user.getUsername(), userId);
+                }
+                changeEventBus.publish(ChangeType.DELETED, EntityType.TRAINEE, id, trainee);
+                changeEventBus.publish(ChangeType.DELETED, EntityType.USER, userId, user);
+            });
+            return trainee;
+        });
     }
 
     @Override
     public Trainee update(UUID id, TraineeRequestDto traineeRequestDto) {
-        if (!traineeStorage.containsKey(id)) {
-            throw new NotFoundException("Trainee not found with ID: " + id);
-        }
-        Trainee trainee = traineeStorage.get(id);
-        UUID userId = trainee.getUserId();
-        User user = userStorage.get(userId);
-        utilService.updateFirstName(user, traineeRequestDto.getFirstName());
-        utilService.updateLastName(user, traineeRequestDto.getLastName());
-        utilService.updateUsername(user, traineeRequestDto.getUsername(), userStorage);
-        utilService.updatePassword(user, traineeRequestDto.getPassword());
-        if (utilService.isValid(traineeRequestDto.getAddress())) {
-            trainee.setAddress(traineeRequestDto.getAddress());
+        return update(id, ANY_VERSION, traineeRequestDto);
+    }
+
+    /**
+     * Applies the update only if the stored Trainee still has the expected version. The Trainee and its User are read
+     * and written in one transaction, so an update racing with another change of either, such as an activation, is
+     * retried on the current values. A new username is reserved in the index before the commit and released if the
+     * commit fails.
+     */
+    @Override
+    public Trainee update(UUID id, long expectedVersion, TraineeRequestDto traineeRequestDto) {
+        String password = utilService.isValidPassword(traineeRequestDto.getPassword())
+                ? authenticator.encode(traineeRequestDto.getPassword()) : null;
+        Map<UUID, String> reserved = new HashMap<>(1);
+        Trainee updated;
+        try {
+            updated = transactionManager.execute(transaction -> {
+                Trainee trainee = transaction.get(traineeStorage, id)
+                        .orElseThrow(() -> new NotFoundException("Trainee not found with ID: " + id));
+                if (expectedVersion != ANY_VERSION && trainee.getVersion() != expectedVersion) {
+                    logger.debug("Trainee version conflict");
+                    throw new VersionConflictException("Trainee with ID: " + id + " has version " + trainee.getVersion()
+                            + ", expected " + expectedVersion);
+                }
+                UUID userId = trainee.getUserId();
+                User user = transaction.get(userStorage, userId)
+                        .orElseThrow(() -> new NotFoundException("User not found with ID: " + userId));
+                User updatedUser = utilService.updateFirstName(user, traineeRequestDto.getFirstName());
+                updatedUser = utilService.updateLastName(updatedUser, traineeRequestDto.getLastName());
+                updatedUser = utilService.updateUsername(updatedUser, traineeRequestDto.getUsername(), usernameIndex);
+                updatedUser = password != null ? updatedUser.withPassword(password) : updatedUser;
+                User nextUser = updatedUser.withVersion(user.getVersion() + 1);
+                if (!Objects.equals(user.getUsername(), nextUser.getUsername())) {
+                    reserved.put(userId, nextUser.getUsername());
+                }
+                Trainee next = trainee.toBuilder()
+                        .address(utilService.isValid(traineeRequestDto.getAddress())
+                                ? traineeRequestDto.getAddress() : trainee.getAddress())
+                        .version(trainee.getVersion() + 1)
+                        .build();
+                transaction.put(userStorage, userId, nextUser);
+                transaction.put(traineeStorage, id, next);
+                transaction.onApply(() -> {
+                    usernameIndex.rename(user.getUsername(), nextUser.getUsername(), userId);
+                    changeEventBus.publish(ChangeType.UPDATED, EntityType.USER, userId, nextUser);
+                    changeEventBus.publish(ChangeType.UPDATED, EntityType.TRAINEE, id, next);
+                });
+                return next;
+            });
+        } catch (RuntimeException e) {
+            reserved.forEach((userId, username) -> usernameIndex.remove(username, userId));
+            throw e;
         }
-        traineeStorage.put(id, trainee);
-        userStorage.put(userId, user);
         logger.info("Trainee successfully updated");
-        return trainee;
+        return updated;
+    }
+
+    @Override
+    public int countActive() {
+        return activeUserIndex.activeCount(Role.TRAINEE);
+    }
+
+    @Override
+    public List<Trainee> findAllActive() {
+        List<Trainee> activeTrainees = new ArrayList<>();
+        for (UUID traineeId : activeUserIndex.ownersOf(activeUserIndex.activeOrdinals(Role.TRAINEE))) {
+            Trainee trainee = traineeStorage.get(traineeId);
+            if (trainee != null) {
+                activeTrainees.add(trainee);
+            }
+        }
+        return activeTrainees;
+    }
+
+    @Override
+    public int setActive(Collection<UUID> ids, boolean active) {
+        List<UUID> userIds = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Trainee trainee = traineeStorage.get(id);
+            if (trainee != null) {
+                userIds.add(trainee.getUserId());
+            }
+        }
+        return applyActive(userIds, user -> true, active);
+    }
+
+    @Override
+    public int setActiveWhere(Predicate<User> predicate, boolean active) {
+        return applyActive(activeUserIndex.usersNotInState(Role.TRAINEE, active), predicate, active);
+    }
+
+    @Override
+    public List<Trainee> find(Criteria<Trainee> criteria) {
+        return queryEngine.find(criteria);
+    }
+
+    @Override
+    public QueryPlan<Trainee> explain(Criteria<Trainee> criteria) {
+        return queryEngine.plan(criteria);
+    }
+
+    @Override
+    public List<Relationship> findTrainers(UUID traineeId) {
+        return relationshipGraph.trainersOf(traineeId);
+    }
+
+    /**
+     * Suggests only Trainers that still exist and have an active user.
+     */
+    @Override
+    public List<LeaderboardEntry> suggestTrainers(UUID traineeId, int n) {
+        return relationshipGraph.suggestTrainers(traineeId, trainerId -> {
+            Trainer trainer = trainerStorage.get(trainerId);
+            return trainer != null && activeUserIndex.isActive(trainer.getUserId());
+        }, n);
+    }
+
+    /**
+     * Stages the new state of the matching users not in it yet in one transaction, and flips their bits in the
+     * {@link ActiveUserIndex} on apply, so a concurrent update of one of the Users conflicts instead of overwriting
+     * the state, and the index always agrees with the stored Users.
+     */
+    private int applyActive(Collection<UUID> userIds, Predicate<User> predicate, boolean active) {
+        List<User> changed = transactionManager.execute(transaction -> {
+            List<User> users = new ArrayList<>();
+            for (UUID userId : userIds) {
+                User user = transaction.get(userStorage, userId).orElse(null);
+                if (user == null || user.isActive() == active || !predicate.test(user)) {
+                    continue;
+                }
+                User next = user.toBuilder()
+                        .isActive(active)
+                        .version(user.getVersion() + 1)
+                        .build();
+                transaction.put(userStorage, userId, next);
+                users.add(next);
+            }
+            transaction.onApply(() -> {
+                List<UUID> changedUserIds = new ArrayList<>(users.size());
+                for (User user : users) {
+                    changedUserIds.add(user.getId());
+                }
+                activeUserIndex.setActive(changedUserIds, active);
+                for (User user : users) {
+                    changeEventBus.publish(ChangeType.UPDATED, EntityType.USER, user.getId(), user);
+                }
+            });
+            return users;
+        });
+        logger.info("{} trainees {}", changed.size(), active ? "activated" : "deactivated");
+        return changed.size();
     }
 
-    private UUID saveUser(User user, TraineeRequestDto traineeRequestDto) {
-        user.setId(utilService.generateUniqueKey(userStorage));
-        user.setFirstName(traineeRequestDto.getFirstName());
-        user.setLastName(traineeRequestDto.getLastName());
-        user.setUsername(utilService.generateUsername(user.getFirstName(), user.getLastName(), userStorage));
-        user.setPassword(utilService.generateRandomPassword(10));
-        user.setActive(true);
-        userStorage.put(user.getId(), user);
-        return user.getId();
+    /**
+     * Builds the User of a new Trainee with a username reserved for it.
+     */
+    private User newUser(TraineeRequestDto traineeRequestDto, String password) {
+        UUID userId = utilService.generateUniqueKey(userStorage);
+        return User.builder()
+                .id(userId)
+                .firstName(traineeRequestDto.getFirstName())
+                .lastName(traineeRequestDto.getLastName())
+                .username(utilService.reserveUsername(traineeRequestDto.getFirstName(),
+                        traineeRequestDto.getLastName(), usernameIndex, userId))
+                .password(password)
+                .isActive(true)
+                .build();
     }
-}
+}
\ No newline at end of file
@@ -2,19 +2,41 @@ package org.example.dao.impl;
 
 
 import org.example.dao.TrainerDAO;
+import org.example.dao.TrainingDAO;
 import org.example.dto.TrainerRequestDto;
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.ActiveUserIndex;
+import org.example.index.Relationship;
+import org.example.index.RelationshipGraph;
+import org.example.index.UsernameIndex;
+import org.example.model.Registration;
+import org.example.model.Role;
 import org.example.model.Trainer;
 import org.example.model.User;
+import org.example.security.Authenticator;
+import org.example.query.Criteria;
+import org.example.query.QueryEngine;
+import org.example.query.QueryEngines;
+import org.example.query.QueryPlan;
 import org.example.service.InMemoryStorage;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerLoadIndex;
+import org.example.stats.TrainerRecommendation;
+import org.example.tx.StoreTransactionManager;
 import org.example.util.UtilService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the TrainerDAO interface for managing Trainer entities.
@@ -22,9 +44,19 @@ import java.util.*;
 @Repository
 public class TrainerDAOImpl implements TrainerDAO {
     private static final Logger logger = LoggerFactory.getLogger(TrainerDAOImpl.class);
+    private static final long ANY_VERSION = -1L;
     private Map<UUID, Trainer> trainerStorage;
     private Map<UUID, User> userStorage;
     private UtilService utilService;
+    private ChangeEventBus changeEventBus;
+    private ActiveUserIndex activeUserIndex;
+    private UsernameIndex usernameIndex;
+    private Authenticator authenticator;
+    private StoreTransactionManager transactionManager;
+    private TrainingDAO trainingDAO;
+    private RelationshipGraph relationshipGraph;
+    private QueryEngine<Trainer> queryEngine;
+    private TrainerLoadIndex trainerLoadIndex;
 
     @Autowired
     public void setTrainerStorage(InMemoryStorage storage) {
@@ -41,20 +73,95 @@ public class TrainerDAOImpl implements TrainerDAO {
         this.userStorage = inMemoryStorage.getUserStorage();
     }
 
+    @Autowired
+    public void setChangeEventBus(ChangeEventBus changeEventBus) {
+        this.changeEventBus = changeEventBus;
+    }
+
+    @Autowired
+    public void setActiveUserIndex(InMemoryStorage inMemoryStorage) {
+        this.activeUserIndex = inMemoryStorage.getActiveUserIndex();
+    }
+
+    @Autowired
+    public void setUsernameIndex(InMemoryStorage inMemoryStorage) {
+        this.usernameIndex = inMemoryStorage.getUsernameIndex();
+    }
+
+    @Autowired
+    public void setAuthenticator(Authenticator authenticator) {
+        this.authenticator = authenticator;
+    }
+
+    @Autowired
+    public void setTransactionManager(StoreTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Autowired
+    public void setTrainingDAO(TrainingDAO trainingDAO) {
+        this.trainingDAO = trainingDAO;
+    }
+
+    @Autowired
+    public void setRelationshipGraph(InMemoryStorage inMemoryStorage) {
+        this.relationshipGraph = inMemoryStorage.getRelationshipGraph();
+    }
+
+    @Autowired
+    public void setTrainerLoadIndex(InMemoryStorage inMemoryStorage) {
+        this.trainerLoadIndex = inMemoryStorage.getTrainerLoadIndex();
+    }
+
+    @Autowired
+    public void setQueryEngine(InMemoryStorage inMemoryStorage) {
+        this.queryEngine = QueryEngines.trainers(inMemoryStorage);
+    }
+
     @Override
     public Trainer save(TrainerRequestDto trainerRequestDto) {
-        Trainer trainer = new Trainer();
-        User user = new User();
+        return register(trainerRequestDto).getMember();
+    }
+
+    /**
+     * The password of the request is used if it is valid, otherwise one is generated and returned. The username is
+     * reserved in the index before the commit and released if the commit fails.
+     */
+    @Override
+    public Registration<Trainer> register(TrainerRequestDto trainerRequestDto) {
         if (!utilService.isValidName(trainerRequestDto.getFirstName()) || !utilService.isValidName(trainerRequestDto.getLastName())) {
             logger.error("Invalid firstname or lastname ");
             throw new InvalidInputException("Invalid firstname or lastname");
         }
-        trainer.setId(utilService.generateUniqueKey(trainerStorage));
-        trainer.setUserId(saveUser(user, trainerRequestDto));
-        trainer.setSpecialization(trainerRequestDto.getSpecialization());
-        trainerStorage.put(trainer.getId(), trainer);
+        String initialPassword = utilService.isValidPassword(trainerRequestDto.getPassword()) ? null
+                : utilService.generateRandomPassword(10);
+        String password = authenticator.encode(initialPassword != null ? initialPassword
+                : trainerRequestDto.getPassword());
+        UUID trainerId = utilService.generateUniqueKey(trainerStorage);
+        User user = newUser(trainerRequestDto, password);
+        Trainer trainer = Trainer.builder()
+                .id(trainerId)
+                .userId(user.getId())
+                .specialization(trainerRequestDto.getSpecialization())
+                .build();
+        try {
+            transactionManager.execute(transaction -> {
+                transaction.put(userStorage, user.getId(), user);
+                transaction.put(trainerStorage, trainer.getId(), trainer);
+                transaction.onApply(() -> {
+                    activeUserIndex.register(trainer.getUserId(), trainer.getId(), Role.TRAINER, true);
+                    trainerLoadIndex.register(trainer);
+                    changeEventBus.publish(ChangeType.CREATED, EntityType.USER, user.getId(), user);
+                    changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINER, trainer.getId(), trainer);
+                });
+                return trainer;
+            });
+        } catch (RuntimeException e) {
+            usernameIndex.remove(user.getUsername(), user.getId());
+            throw e;
+        }
         logger.info("Trainer successfully created");
-        return trainer;
+        return new Registration<>(trainer, user.getUsername(), initialPassword);
     }
 
     @Override
@@ -67,48 +174,213 @@ public class TrainerDAOImpl implements TrainerDAO {
         return new ArrayList<>(trainerStorage.values());
     }
 
+    /**
+     * Removes the Trainer, its trainings and its User in one transaction. The trainings go first and the User last,
+     * so no reader sees a training without its Trainer or a Trainer without its User.
+     */
     @Override
     public void delete(UUID id) {
-        Optional<Trainer> trainerOptional = findById(id);
-        if (trainerOptional.isPresent()) {
-            userStorage.remove(trainerOptional.get().getUserId());
-            trainerStorage.remove(id);
-        } else {
-            logger.error("Trainer not found");
-            throw new NotFoundException("Trainer not found");
-        }
+        transactionManager.execute(transaction -> {
+            Trainer trainer = transaction.get(trainerStorage, id).orElseThrow(() -> {
+                logger.debug("Trainer not found");
+                return new NotFoundException("Trainer not found");
+            });
+            UUID userId = trainer.getUserId();
+            User user = userId == null ? null : transaction.get(userStorage, userId).orElse(null);
+            trainingDAO.deleteAllOfTrainer(id, transaction);
+            transaction.remove(trainerStorage, id);
+            if (userId != null) {
+                transaction.remove(userStorage, userId);
+            }
+            transaction.onApply(() -> {
+                activeUserIndex.remove(userId);
+                relationshipGraph.removeTrainer(id);
+                trainerLoadIndex.unregister(id);
+                if (user != null) {
+                    usernameIndex.remove(user.getUsername(), userId);
+                }
+                changeEventBus.publish(ChangeType.DELETED, EntityType.TRAINER, id, trainer);
+                changeEventBus.publish(ChangeType.DELETED, EntityType.USER, userId, user);
+            });
+            return trainer;
+        });
     }
 
     @Override
     public Trainer update(UUID id, TrainerRequestDto trainerRequestDto) {
-        if (!trainerStorage.containsKey(id)) {
-            throw new NotFoundException("Trainer not found with ID: " + id);
-        }
-        Trainer trainer = trainerStorage.get(id);
-        UUID userId = trainer.getUserId();
-        User user = userStorage.get(userId);
-        utilService.updateFirstName(user, trainerRequestDto.getFirstName());
-        utilService.updateLastName(user, trainerRequestDto.getLastName());
-        utilService.updateUsername(user, trainerRequestDto.getUsername(), userStorage);
-        utilService.updatePassword(user, trainerRequestDto.getPassword());
-        if (utilService.isValid(trainerRequestDto.getSpecialization())) {
-            trainer.setSpecialization(trainerRequestDto.getSpecialization());
+        return update(id, ANY_VERSION, trainerRequestDto);
+    }
+
+    /**
+     * Applies the update only if the stored Trainer still has the expected version. The Trainer and its User are read
+     * and written in one transaction, so an update racing with another change of either, such as an activation, is
+     * retried on the current values. A new username is reserved in the index before the commit and released if the
+     * commit fails.
+     */
+    @Override
+    public Trainer update(UUID id, long expectedVersion, TrainerRequestDto trainerRequestDto) {
+        String password = utilService.isValidPassword(trainerRequestDto.getPassword())
+                ? authenticator.encode(trainerRequestDto.getPassword()) : null;
+        Map<UUID, String> reserved = new HashMap<>(1);
+        Trainer updated;
+        try {
+            updated = transactionManager.execute(transaction -> {
+                Trainer trainer = transaction.get(trainerStorage, id)
+                        .orElseThrow(() -> new NotFoundException("Trainer not found with ID: " + id));
+                if (expectedVersion != ANY_VERSION && trainer.getVersion() != expectedVersion) {
+                    logger.debug("Trainer version conflict");
+                    throw new VersionConflictException("Trainer with ID: " + id + " has version " + trainer.getVersion()
+                            + ", expected " + expectedVersion);
+                }
+                UUID userId = trainer.getUserId();
+                User user = transaction.get(userStorage, userId)
+                        .orElseThrow(() -> new NotFoundException("User not found with ID: " + userId));
+                User updatedUser = utilService.updateFirstName(user, trainerRequestDto.getFirstName());
+                updatedUser = utilService.updateLastName(updatedUser, trainerRequestDto.getLastName());
+                updatedUser = utilService.updateUsername(updatedUser, trainerRequestDto.getUsername(), usernameIndex);
+                updatedUser = password != null ? updatedUser.withPassword(password) : updatedUser;
+                User nextUser = updatedUser.withVersion(user.getVersion() + 1);
+                if (!Objects.equals(user.getUsername(), nextUser.getUsername())) {
+                    reserved.put(userId, nextUser.getUsername());
+                }
+                Trainer next = trainer.toBuilder()
+                        .specialization(utilService.isValid(trainerRequestDto.getSpecialization())
+                                ? trainerRequestDto.getSpecialization() : trainer.getSpecialization())
+                        .version(trainer.getVersion() + 1)
+                        .build();
+                transaction.put(userStorage, userId, nextUser);
+                transaction.put(trainerStorage, id, next);
+                transaction.onApply(() -> {
+                    usernameIndex.rename(user.getUsername(), nextUser.getUsername(), userId);
+                    trainerLoadIndex.register(next);
+                    changeEventBus.publish(ChangeType.UPDATED, EntityType.USER, userId, nextUser);
+                    changeEventBus.publish(ChangeType.UPDATED, EntityType.TRAINER, id, next);
+                });
+                return next;
+            });
+        } catch (RuntimeException e) {
+            reserved.forEach((userId, username) -> usernameIndex.remove(username, userId));
+            throw e;
         }
-        trainerStorage.put(id, trainer);
-        userStorage.put(userId, user);
         logger.info("Trainer successfully updated");
-        return trainer;
-    }
-
-    private UUID saveUser(User user, TrainerRequestDto trainerRequestDto) {
-        user.setId(utilService.generateUniqueKey(userStorage));
-        user.setFirstName(trainerRequestDto.getFirstName());
-        user.setLastName(trainerRequestDto.getLastName());
-        user.setUsername(utilService.generateUsername(user.getFirstName(), user.getLastName(), userStorage));
-        user.setPassword(utilService.generateRandomPassword(10));
-        user.setActive(true);
-        userStorage.put(user.getId(), user);
-        return user.getId();
+        return updated;
+    }
+
+    @Override
+    public int countActive() {
+        return activeUserIndex.activeCount(Role.TRAINER);
+    }
+
+    @Override
+    public List<Trainer> findAllActive() {
+        List<Trainer> activeTrainers = new ArrayList<>();
+        for (UUID trainerId : activeUserIndex.ownersOf(activeUserIndex.activeOrdinals(Role.TRAINER))) {
+            Trainer trainer = trainerStorage.get(trainerId);
+            if (trainer != null) {
+                activeTrainers.add(trainer);
+            }
+        }
+        return activeTrainers;
+    }
+
+    @Override
+    public int setActive(Collection<UUID> ids, boolean active) {
+        List<UUID> userIds = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Trainer trainer = trainerStorage.get(id);
+            if (trainer != null) {
+                userIds.add(trainer.getUserId());
+            }
+        }
+        return applyActive(userIds, user -> true, active);
+    }
+
+    @Override
+    public int setActiveWhere(Predicate<User> predicate, boolean active) {
+        return applyActive(activeUserIndex.usersNotInState(Role.TRAINER, active), predicate, active);
+    }
+
+    @Override
+    public List<Trainer> find(Criteria<Trainer> criteria) {
+        return queryEngine.find(criteria);
+    }
+
+    @Override
+    public QueryPlan<Trainer> explain(Criteria<Trainer> criteria) {
+        return queryEngine.plan(criteria);
+    }
+
+    /**
+     * Walks the load-ordered trainers of the specialization and keeps those with an active user and room on the day.
+     */
+    @Override
+    public List<TrainerRecommendation> recommend(String specialization, LocalDate date, int n) {
+        return trainerLoadIndex.recommend(specialization, date, trainerId -> {
+            Trainer trainer = trainerStorage.get(trainerId);
+            return trainer != null && activeUserIndex.isActive(trainer.getUserId());
+        }, n);
+    }
+
+    @Override
+    public List<Relationship> findTrainees(UUID trainerId) {
+        return relationshipGraph.traineesOf(trainerId);
+    }
+
+    @Override
+    public List<LeaderboardEntry> findSimilarTrainers(UUID trainerId, int n) {
+        return relationshipGraph.similarTrainers(trainerId, n);
+    }
+
+    /**
+     * Stages the new state of the matching users not in it yet in one transaction, and flips their bits in the
+     * {@link ActiveUserIndex} on apply, so a concurrent update of one of the Users conflicts instead of overwriting
+     * the state, and the index always agrees with the stored Users.
+     */
+    private int applyActive(Collection<UUID> userIds, Predicate<User> predicate, boolean active) {
+        List<User> changed = transactionManager.execute(transaction -> {
+            List<User> users = new ArrayList<>();
+            for (UUID userId : userIds) {
+                User user = transaction.get(userStorage, userId).orElse(null);
+                if (user == null || user.isActive() == active || !predicate.test(user)) {
+                    continue;
+                }
+                User next = user.toBuilder()
+                        .isActive(active)
+                        .version(user.getVersion() + 1)
+                        .build();
+                transaction.put(userStorage, userId, next);
+                users.add(next);
+            }
+            transaction.onApply(() -> {
+                List<UUID> changedUserIds = new ArrayList<>(users.size());
+                for (User user : users) {
+                    changedUserIds.add(user.getId());
+                }
+                activeUserIndex.setActive(changedUserIds, active);
+                for (User user : users) {
+                    changeEventBus.publish(ChangeType.UPDATED, EntityType.USER, user.getId(), user);
+                }
+            });
+            return users;
+        });
+        logger.info("{} trainers {}", changed.size(), active ? "activated" : "deactivated");
+        return changed.size();
+    }
+
+    /**
+     * Builds the User of a new Trainer with a username reserved for it.
+     */
+    private User newUser(TrainerRequestDto trainerRequestDto, String password) {
+        UUID userId = utilService.generateUniqueKey(userStorage);
+        return User.builder()
+                .id(userId)
+                .firstName(trainerRequestDto.getFirstName())
+                .lastName(trainerRequestDto.getLastName())
+                .username(utilService.reserveUsername(trainerRequestDto.getFirstName(),
+                        trainerRequestDto.getLastName(), usernameIndex, userId))
+                .password(password)
+                .isActive(true)
+                .build();
     }
 
 }
\ No newline at end of file
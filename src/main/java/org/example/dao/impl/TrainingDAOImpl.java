@@ -1,24 +1,48 @@
 package org.example.dao.impl;
 
 
-import org.example.dao.TraineeDAO;
-import org.example.dao.TrainerDAO;
+import org.example.archive.TrainingArchive;
 import org.example.dao.TrainingDAO;
 import org.example.dto.TrainingRequestDto;
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.ActiveUserIndex;
+import org.example.index.PostingIndex;
+import org.example.index.RelationshipGraph;
+import org.example.index.TrainingBuckets;
 import org.example.model.Trainee;
 import org.example.model.Trainer;
 import org.example.model.Training;
 import org.example.model.TrainingType;
+import org.example.query.Criteria;
+import org.example.query.QueryEngine;
+import org.example.query.QueryEngines;
+import org.example.query.QueryPlan;
 import org.example.service.InMemoryStorage;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerMetric;
+import org.example.stats.TrainerLoadIndex;
+import org.example.stats.TrainingStatistics;
+import org.example.tx.StoreTransactionManager;
+import org.example.tx.Transaction;
 import org.example.util.UtilService;
+import org.example.validation.DtoValidator;
+import org.example.validation.FieldError;
+import org.example.validation.RequestValidator;
+import org.example.validation.ValidationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * Implementation of the TrainingDAO interface for managing Training entities.
@@ -26,29 +50,30 @@ import java.util.*;
 @Repository
 public class TrainingDAOImpl implements TrainingDAO {
     private static final Logger logger = LoggerFactory.getLogger(TrainingDAOImpl.class);
+    private static final long ANY_VERSION = -1L;
     private Map<UUID, Training> trainingStorage;
     private UtilService utilService;
     private Map<UUID, Trainee> traineeStorage;
     private Map<UUID, Trainer> trainerStorage;
     private Map<UUID, TrainingType> trainingTypeStorage;
-    private TraineeDAO traineeDAO;
-    private TrainerDAO trainerDAO;
+    private ChangeEventBus changeEventBus;
+    private ActiveUserIndex activeUserIndex;
+    private TrainingStatistics trainingStatistics;
+    private TrainerLoadIndex trainerLoadIndex;
+    private RelationshipGraph relationshipGraph;
+    private TrainingBuckets trainingBuckets;
+    private PostingIndex<UUID> trainingsByTrainer;
+    private PostingIndex<UUID> trainingsByTrainee;
+    private QueryEngine<Training> queryEngine;
+    private TrainingArchive trainingArchive;
+    private StoreTransactionManager transactionManager;
+    private DtoValidator<TrainingRequestDto> trainingValidator;
 
     @Autowired
     public void setTrainingStorage(InMemoryStorage storage) {
         this.trainingStorage = storage.getTrainingStorage();
     }
 
-    @Autowired
-    public void setTraineeDAO(TraineeDAO traineeDAO) {
-        this.traineeDAO = traineeDAO;
-    }
-
-    @Autowired
-    public void setTrainerDAO(TrainerDAO trainerDAO) {
-        this.trainerDAO = trainerDAO;
-    }
-
     @Autowired
     public void setTrainingTypeStorage(InMemoryStorage storage) {
         this.trainingTypeStorage = storage.getTrainingTypeStorage();
@@ -69,38 +94,116 @@ public class TrainingDAOImpl implements TrainingDAO {
         this.utilService = utilService;
     }
 
+    @Autowired
+    public void setChangeEventBus(ChangeEventBus changeEventBus) {
+        this.changeEventBus = changeEventBus;
+    }
+
+    @Autowired
+    public void setActiveUserIndex(InMemoryStorage storage) {
+        this.activeUserIndex = storage.getActiveUserIndex();
+    }
+
+    @Autowired
+    public void setTrainingStatistics(InMemoryStorage storage) {
+        this.trainingStatistics = storage.getTrainingStatistics();
+    }
+
+    @Autowired
+    public void setTrainerLoadIndex(InMemoryStorage storage) {
+        this.trainerLoadIndex = storage.getTrainerLoadIndex();
+    }
+
+    @Autowired
+    public void setRelationshipGraph(InMemoryStorage storage) {
+        this.relationshipGraph = storage.getRelationshipGraph();
+    }
+
+    @Autowired
+    public void setTrainingBuckets(InMemoryStorage storage) {
+        this.trainingBuckets = storage.getTrainingBuckets();
+    }
+
+    @Autowired
+    public void setTrainingPostings(InMemoryStorage storage) {
+        this.trainingsByTrainer = storage.getTrainingsByTrainer();
+        this.trainingsByTrainee = storage.getTrainingsByTrainee();
+    }
+
+    @Autowired
+    public void setQueryEngine(InMemoryStorage storage) {
+        this.queryEngine = QueryEngines.trainings(storage);
+    }
+
+    @Autowired
+    public void setTrainingArchive(TrainingArchive trainingArchive) {
+        this.trainingArchive = trainingArchive;
+    }
+
+    @Autowired
+    public void setTransactionManager(StoreTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Autowired
+    public void setRequestValidator(RequestValidator requestValidator) {
+        this.trainingValidator = requestValidator.getTrainingValidator();
+    }
+
+    /**
+     * The Trainee and Trainer are read in the transaction, so the save conflicts with, and is retried after, a
+     * concurrent deletion of either.
+     */
     @Override
     public Training save(TrainingRequestDto trainingRequestDto) {
-        if (!areFieldsValid(trainingRequestDto)) {
-            throw new InvalidInputException("Missing required fields for creating a training.");
-        }
-        Training training = new Training();
-        training.setId(utilService.generateUniqueKey(trainingStorage));
-        training.setDate(trainingRequestDto.getDate());
-        training.setDuration(trainingRequestDto.getDuration());
-        training.setName(trainingRequestDto.getName());
-        TrainingType trainingType = new TrainingType();
-        trainingType.setId(utilService.generateUniqueKey(trainingTypeStorage));
-        trainingType.setTypeName(trainingRequestDto.getTrainingTypeName());
-        training.setTrainingTypeId(trainingType.getId());
-        Optional<Trainee> optionalTrainee = traineeDAO.findById(trainingRequestDto.getTraineeId());
-        if (optionalTrainee.isEmpty()) {
-            throw new NotFoundException("Trainee with " + trainingRequestDto.getTraineeId() + " Not found");
-        }
-        Optional<Trainer> optionalTrainer = trainerDAO.findById(trainingRequestDto.getTrainerId());
-        if (optionalTrainer.isEmpty()) {
-            throw new NotFoundException("Trainer with " + trainingRequestDto.getTraineeId() + " Not found");
+        TrainingType trainingType = newTrainingType(trainingRequestDto);
+        return transactionManager.execute(transaction -> stage(transaction, trainingRequestDto, trainingType));
+    }
+
+    /**
+     * Saves a batch of trainings with a single transaction commit, so the entity locks are taken once per batch
+     * instead of once per training. A rejected request does not affect the others. Requests are checked with the
+     * training validator and, for the referenced Trainee and Trainer, with reads in the transaction; nothing is
+     * thrown for a rejected request.
+     */
+    @Override
+    public List<Training> saveAll(List<TrainingRequestDto> trainingRequestDtos,
+                                  BiConsumer<Integer, RuntimeException> onRejected) {
+        List<Training> trainings = new ArrayList<>(trainingRequestDtos.size());
+        Map<Integer, RuntimeException> rejections = new TreeMap<>();
+        TrainingType[] trainingTypes = new TrainingType[trainingRequestDtos.size()];
+        for (int i = 0; i < trainingTypes.length; i++) {
+            ValidationResult result = trainingValidator.validate(trainingRequestDtos.get(i));
+            if (result.isValid()) {
+                trainingTypes[i] = newTrainingType(trainingRequestDtos.get(i));
+            } else {
+                rejections.put(i, rejection(result));
+            }
         }
-        training.setTrainerId(trainingRequestDto.getTrainerId());
-        training.setTraineeId(trainingRequestDto.getTraineeId());
-        trainingStorage.put(training.getId(), training);
-        trainingTypeStorage.put(trainingType.getId(), trainingType);
-        return training;
+        Map<Integer, RuntimeException> invalid = new TreeMap<>(rejections);
+        transactionManager.execute(transaction -> {
+            trainings.clear();
+            rejections.clear();
+            rejections.putAll(invalid);
+            for (int i = 0; i < trainingTypes.length; i++) {
+                NotFoundException missing = trainingTypes[i] == null ? null
+                        : missingReference(transaction, trainingRequestDtos.get(i));
+                if (missing != null) {
+                    rejections.put(i, missing);
+                }
+                trainings.add(rejections.containsKey(i) ? null
+                        : stage(transaction, trainingRequestDtos.get(i), trainingTypes[i]));
+            }
+            return trainings;
+        });
+        rejections.forEach(onRejected);
+        return trainings;
     }
 
     @Override
     public Optional<Training> findById(UUID id) {
-        return Optional.ofNullable(trainingStorage.get(id));
+        Training training = trainingStorage.get(id);
+        return training != null ? Optional.of(training) : trainingArchive.findById(id);
     }
 
     @Override
@@ -108,65 +211,333 @@ public class TrainingDAOImpl implements TrainingDAO {
         return new ArrayList<>(trainingStorage.values());
     }
 
+    /**
+     * Removes the Training and its TrainingType in one transaction. The Trainee and Trainer stay, with their other
+     * trainings; the postings, statistics, load and relationship graph drop this training under the commit locks.
+     */
     @Override
     public void delete(UUID id) {
-        Optional<Training> trainingOptional = findById(id);
-        if (trainingOptional.isPresent()) {
-            trainingStorage.remove(id);
-            trainerStorage.remove(trainingOptional.get().getTrainerId());
-            traineeStorage.remove(trainingOptional.get().getTraineeId());
-            trainingTypeStorage.remove(trainingOptional.get().getTrainingTypeId());
-        } else {
-            logger.error("Training not found");
-            throw new NotFoundException("Training not found");
-        }
+        transactionManager.execute(transaction -> {
+            Training training = transaction.get(trainingStorage, id).orElseThrow(() -> {
+                logger.debug("Training not found");
+                return new NotFoundException("Training not found");
+            });
+            stageRemoval(transaction, training);
+            return training;
+        });
+    }
+
+    @Override
+    public void deleteAllOfTrainee(UUID traineeId, Transaction transaction) {
+        stageRemovalOfTrainingsOf(transaction, trainingsByTrainee, traineeId);
+    }
+
+    @Override
+    public void deleteAllOfTrainer(UUID trainerId, Transaction transaction) {
+        stageRemovalOfTrainingsOf(transaction, trainingsByTrainer, trainerId);
     }
 
     @Override
     public Training update(UUID id, TrainingRequestDto trainingRequestDto) {
-        if (!trainingStorage.containsKey(id)) {
-            throw new NotFoundException("Training not found with ID: " + id);
-        }
-        Training training = trainingStorage.get(id);
+        return update(id, ANY_VERSION, trainingRequestDto);
+    }
 
+    /**
+     * Applies the update only if the stored Training still has the expected version. The Training, its TrainingType
+     * and the Trainee and Trainer it is moved to are read in one transaction, so a concurrent deletion of either owner
+     * conflicts instead of leaving a training that refers to it. The indexes move under the commit locks.
+     */
+    @Override
+    public Training update(UUID id, long expectedVersion, TrainingRequestDto trainingRequestDto) {
+        return transactionManager.execute(transaction -> {
+            Training training = transaction.get(trainingStorage, id)
+                    .orElseThrow(() -> new NotFoundException("Training not found with ID: " + id));
+            if (expectedVersion != ANY_VERSION && training.getVersion() != expectedVersion) {
+                logger.debug("Training version conflict");
+                throw new VersionConflictException("Training with ID: " + id + " has version " + training.getVersion()
+                        + ", expected " + expectedVersion);
+            }
+            if (trainingRequestDto.getTraineeId() != null
+                    && find(transaction, traineeStorage, trainingRequestDto.getTraineeId()) == null) {
+                throw new NotFoundException("Trainee with ID: " + trainingRequestDto.getTraineeId() + " not found");
+            }
+            if (trainingRequestDto.getTrainerId() != null
+                    && find(transaction, trainerStorage, trainingRequestDto.getTrainerId()) == null) {
+                throw new NotFoundException("Trainer with ID: " + trainingRequestDto.getTrainerId() + " not found");
+            }
+            Training.TrainingBuilder builder = training.toBuilder();
 
-        if (trainingRequestDto.getName() != null && !trainingRequestDto.getName().isEmpty()) {
-            training.setName(trainingRequestDto.getName());
-        }
+            if (trainingRequestDto.getName() != null && !trainingRequestDto.getName().isEmpty()) {
+                builder.name(trainingRequestDto.getName());
+            }
+
+            if (trainingRequestDto.getDate() != null) {
+                builder.date(trainingRequestDto.getDate());
+            }
+
+            if (trainingRequestDto.getDuration() != null) {
+                builder.duration(trainingRequestDto.getDuration());
+            }
+
+            TrainingType trainingType = null;
+            if (trainingRequestDto.getTrainingTypeName() != null && !trainingRequestDto.getTrainingTypeName().isEmpty()) {
+                trainingType = find(transaction, trainingTypeStorage, training.getTrainingTypeId());
+            }
+            TrainingType renamed = trainingType == null ? null : trainingType.toBuilder()
+                    .typeName(trainingRequestDto.getTrainingTypeName())
+                    .version(trainingType.getVersion() + 1)
+                    .build();
+            if (renamed != null) {
+                transaction.put(trainingTypeStorage, renamed.getId(), renamed);
+            }
 
-        if (trainingRequestDto.getDate() != null) {
-            training.setDate(trainingRequestDto.getDate());
+            if (trainingRequestDto.getTraineeId() != null) {
+                builder.traineeId(trainingRequestDto.getTraineeId());
+            }
+
+            if (trainingRequestDto.getTrainerId() != null) {
+                builder.trainerId(trainingRequestDto.getTrainerId());
+            }
+            Training next = builder.version(training.getVersion() + 1).build();
+            transaction.put(trainingStorage, id, next);
+            transaction.onApply(() -> {
+                trainingBuckets.move(id, training.getDate(), next.getDate());
+                trainingsByTrainer.move(id, training.getTrainerId(), next.getTrainerId());
+                trainingsByTrainee.move(id, training.getTraineeId(), next.getTraineeId());
+                trainingStatistics.remove(training);
+                trainingStatistics.record(next);
+                trainerLoadIndex.remove(training);
+                trainerLoadIndex.record(next);
+                relationshipGraph.remove(training);
+                relationshipGraph.record(next);
+                if (renamed != null) {
+                    changeEventBus.publish(ChangeType.UPDATED, EntityType.TRAINING_TYPE, renamed.getId(), renamed);
+                }
+                changeEventBus.publish(ChangeType.UPDATED, EntityType.TRAINING, id, next);
+            });
+            return next;
+        });
+    }
+
+    @Override
+    public List<Training> findByDateRange(LocalDate from, LocalDate to) {
+        List<Training> trainings = new ArrayList<>();
+        for (UUID id : trainingBuckets.idsBetween(from, to)) {
+            Training training = trainingStorage.get(id);
+            if (training != null && !training.getDate().isBefore(from) && !training.getDate().isAfter(to)) {
+                trainings.add(training);
+            }
         }
+        trainings.addAll(trainingArchive.findByDateRange(from, to));
+        return trainings;
+    }
 
-        if (trainingRequestDto.getDuration() != null) {
-            training.setDuration(trainingRequestDto.getDuration());
+    /**
+     * Moves every month older than the archive horizon to a segment file, then drops it from memory, one transaction
+     * per month. Archived trainings stay readable through {@link #findById(UUID)} and
+     * {@link #findByDateRange(LocalDate, LocalDate)} but can no longer be updated or deleted.
+     */
+    @Override
+    public int archiveExpired() {
+        int archived = 0;
+        for (YearMonth month : trainingBuckets.monthsBefore(trainingArchive.horizon(LocalDate.now()))) {
+            Collection<UUID> ids = trainingBuckets.idsIn(month);
+            archived += transactionManager.execute(transaction -> stageArchival(transaction, month, ids));
+        }
+        if (archived > 0) {
+            logger.info("{} trainings moved to the archive", archived);
         }
+        return archived;
+    }
+
+    @Override
+    public List<Training> find(Criteria<Training> criteria) {
+        return queryEngine.find(criteria);
+    }
+
+    @Override
+    public QueryPlan<Training> explain(Criteria<Training> criteria) {
+        return queryEngine.plan(criteria);
+    }
+
+    @Override
+    public List<LeaderboardEntry> topTrainers(TrainerMetric metric, LocalDate from, LocalDate to, int n) {
+        return trainingStatistics.topTrainers(metric, from, to, n);
+    }
 
-        if (trainingRequestDto.getTrainingTypeName() != null && !trainingRequestDto.getTrainingTypeName().isEmpty()) {
-            TrainingType trainingType = trainingTypeStorage.get(training.getTrainingTypeId());
-            trainingType.setTypeName(trainingRequestDto.getTrainingTypeName());
-            trainingTypeStorage.put(trainingType.getId(), trainingType);
+    @Override
+    public List<LeaderboardEntry> topTrainees(LocalDate from, LocalDate to, int n) {
+        return trainingStatistics.topTrainees(from, to, n);
+    }
+
+    @Override
+    public List<LeaderboardEntry> topTrainersThisWeek(TrainerMetric metric, int n) {
+        return trainingStatistics.topTrainersThisWeek(metric, n);
+    }
+
+    @Override
+    public List<LeaderboardEntry> topTraineesThisWeek(int n) {
+        return trainingStatistics.topTraineesThisWeek(n);
+    }
+
+    /**
+     * Stages the removal of a training and of its TrainingType. The indexes follow under the entity locks, so no
+     * later transaction finds an index entry of the removed training, and the events are published in commit order.
+     */
+    private void stageRemoval(Transaction transaction, Training training) {
+        TrainingType trainingType = find(transaction, trainingTypeStorage, training.getTrainingTypeId());
+        transaction.remove(trainingStorage, training.getId());
+        if (trainingType != null) {
+            transaction.remove(trainingTypeStorage, trainingType.getId());
         }
+        transaction.onApply(() -> {
+            trainingBuckets.remove(training.getId(), training.getDate());
+            trainingsByTrainer.remove(training.getTrainerId(), training.getId());
+            trainingsByTrainee.remove(training.getTraineeId(), training.getId());
+            trainingStatistics.remove(training);
+            trainerLoadIndex.remove(training);
+            relationshipGraph.remove(training);
+            changeEventBus.publish(ChangeType.DELETED, EntityType.TRAINING, training.getId(), training);
+            if (trainingType != null) {
+                changeEventBus.publish(ChangeType.DELETED, EntityType.TRAINING_TYPE, trainingType.getId(),
+                        trainingType);
+            }
+        });
+    }
 
-        if (trainingRequestDto.getTraineeId() != null) {
-            Optional<Trainee> optionalTrainee = traineeDAO.findById(trainingRequestDto.getTraineeId());
-            if (optionalTrainee.isEmpty()) {
-                throw new NotFoundException("Trainee with ID: " + trainingRequestDto.getTraineeId() + " not found");
+    /**
+     * Stages the removal of the trainings still dated in the month, with their TrainingTypes. The trainings are read
+     * in the transaction, so one changed meanwhile fails the commit, and the segment is written only once the commit
+     * is certain, so a training is archived once and is in memory or in the archive at any time. Statistics and the
+     * relationship graph keep archived trainings.
+     *
+     * @return Number of trainings archived.
+     */
+    private int stageArchival(Transaction transaction, YearMonth month, Collection<UUID> ids) {
+        List<Training> trainings = new ArrayList<>(ids.size());
+        List<TrainingType> trainingTypes = new ArrayList<>();
+        for (UUID id : ids) {
+            Training training = find(transaction, trainingStorage, id);
+            if (training == null || training.getDate() == null || !YearMonth.from(training.getDate()).equals(month)) {
+                continue;
+            }
+            trainings.add(training);
+            transaction.remove(trainingStorage, id);
+            TrainingType trainingType = find(transaction, trainingTypeStorage, training.getTrainingTypeId());
+            if (trainingType != null) {
+                trainingTypes.add(trainingType);
+                transaction.remove(trainingTypeStorage, trainingType.getId());
             }
-            training.setTraineeId(trainingRequestDto.getTraineeId());
         }
-
-        if (trainingRequestDto.getTrainerId() != null) {
-            Optional<Trainer> optionalTrainer = trainerDAO.findById(trainingRequestDto.getTrainerId());
-            if (optionalTrainer.isEmpty()) {
-                throw new NotFoundException("Trainer with ID: " + trainingRequestDto.getTrainerId() + " not found");
+        transaction.beforeApply(() -> trainingArchive.archive(month, trainings));
+        transaction.onApply(() -> {
+            for (Training training : trainings) {
+                trainingBuckets.remove(training.getId(), training.getDate());
+                trainingsByTrainer.remove(training.getTrainerId(), training.getId());
+                trainingsByTrainee.remove(training.getTraineeId(), training.getId());
+                trainerLoadIndex.remove(training);
+                changeEventBus.publish(ChangeType.ARCHIVED, EntityType.TRAINING, training.getId(), training);
+            }
+            for (TrainingType trainingType : trainingTypes) {
+                changeEventBus.publish(ChangeType.DELETED, EntityType.TRAINING_TYPE, trainingType.getId(),
+                        trainingType);
             }
-            training.setTrainerId(trainingRequestDto.getTrainerId());
+        });
+        return trainings.size();
+    }
+
+    /**
+     * Stages the removal of every training posted under the Trainer or Trainee, and hides its archived trainings once
+     * the commit is certain. Saves add their postings under the entity locks, and a save of a training for this owner
+     * holds the owner's lock; the commit therefore conflicts if one was saved after the postings were read.
+     */
+    private void stageRemovalOfTrainingsOf(Transaction transaction, PostingIndex<UUID> postings, UUID ownerId) {
+        transaction.beforeApply(() -> trainingArchive.purgeOwner(ownerId));
+        Set<UUID> ids = new HashSet<>(postings.ids(ownerId));
+        for (UUID trainingId : ids) {
+            transaction.get(trainingStorage, trainingId).ifPresent(training -> stageRemoval(transaction, training));
+        }
+        transaction.verify(() -> ids.containsAll(postings.ids(ownerId)));
+    }
+
+    private static <V> V find(Transaction transaction, Map<UUID, V> store, UUID id) {
+        return id == null ? null : transaction.get(store, id).orElse(null);
+    }
+
+    private TrainingType newTrainingType(TrainingRequestDto trainingRequestDto) {
+        if (!areFieldsValid(trainingRequestDto)) {
+            throw new InvalidInputException("Missing required fields for creating a training.");
         }
-        trainingStorage.put(training.getId(), training);
+        return TrainingType.builder()
+                .id(utilService.generateUniqueKey(trainingTypeStorage))
+                .typeName(trainingRequestDto.getTrainingTypeName())
+                .build();
+    }
+
+    private Training stage(Transaction transaction, TrainingRequestDto trainingRequestDto,
+                           TrainingType trainingType) {
+        Training training = newTraining(transaction, trainingRequestDto, trainingType);
+        transaction.put(trainingTypeStorage, trainingType.getId(), trainingType);
+        transaction.put(trainingStorage, training.getId(), training);
+        transaction.onApply(() -> {
+            trainingsByTrainer.add(training.getTrainerId(), training.getId());
+            trainingsByTrainee.add(training.getTraineeId(), training.getId());
+            trainingBuckets.add(training.getId(), training.getDate());
+            trainingStatistics.record(training);
+            trainerLoadIndex.record(training);
+            relationshipGraph.record(training);
+            changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINING_TYPE, trainingType.getId(), trainingType);
+            changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINING, training.getId(), training);
+        });
         return training;
     }
 
+    private Training newTraining(Transaction transaction, TrainingRequestDto trainingRequestDto,
+                                 TrainingType trainingType) {
+        UUID trainingId = utilService.generateUniqueKey(trainingStorage);
+        NotFoundException missing = missingReference(transaction, trainingRequestDto);
+        if (missing != null) {
+            throw missing;
+        }
+        return Training.builder()
+                .id(trainingId)
+                .traineeId(trainingRequestDto.getTraineeId())
+                .trainerId(trainingRequestDto.getTrainerId())
+                .trainingTypeId(trainingType.getId())
+                .name(trainingRequestDto.getName())
+                .date(trainingRequestDto.getDate())
+                .duration(trainingRequestDto.getDuration())
+                .build();
+    }
+
+    /**
+     * Reads the referenced Trainee and Trainer in the transaction, so a concurrent deletion of either conflicts.
+     *
+     * @return The error to report if either is missing, otherwise null.
+     */
+    private NotFoundException missingReference(Transaction transaction, TrainingRequestDto trainingRequestDto) {
+        if (transaction.get(traineeStorage, trainingRequestDto.getTraineeId()).isEmpty()) {
+            return new NotFoundException("Trainee with " + trainingRequestDto.getTraineeId() + " Not found");
+        }
+        if (transaction.get(trainerStorage, trainingRequestDto.getTrainerId()).isEmpty()) {
+            return new NotFoundException("Trainer with " + trainingRequestDto.getTrainerId() + " Not found");
+        }
+        return null;
+    }
+
+    /**
+     * @return A NotFoundException if only references are unknown, otherwise an InvalidInputException.
+     */
+    private static RuntimeException rejection(ValidationResult result) {
+        StringJoiner message = new StringJoiner("; ");
+        boolean notFound = true;
+        for (FieldError error : result.getErrors()) {
+            message.add(error.getField() + ": " + error.getMessage());
+            notFound &= error.getCode().equals("not_found");
+        }
+        return notFound ? new NotFoundException(message.toString())
+                : new InvalidInputException("Invalid training request: " + message);
+    }
 
     private boolean areFieldsValid(TrainingRequestDto trainingRequestDto) {
         return trainingRequestDto != null &&
@@ -0,0 +1,15 @@
+package org.example.event;
+
+/**
+ * What a publisher does when the slowest subscriber is a whole ring behind.
+ */
+public enum BackpressureStrategy {
+    /**
+     * Spin until the slowest subscriber frees a slot; no event is ever lost.
+     */
+    BLOCK,
+    /**
+     * Drop the new event and count it; the write path never waits.
+     */
+    DROP
+}
@@ -0,0 +1,31 @@
+package org.example.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * A single change published by the DAO layer. Instances are pre-allocated slots of the {@link ChangeEventBus} ring
+ * and are overwritten when the ring wraps; {@link #getEntity()} is the stored entity itself, not a copy.
+ */
+@Getter
+@ToString
+public class ChangeEvent {
+
+    private long sequence;
+    private ChangeType changeType;
+    private EntityType entityType;
+    private UUID entityId;
+    private Object entity;
+    private long timestamp;
+
+    void set(long sequence, ChangeType changeType, EntityType entityType, UUID entityId, Object entity) {
+        this.sequence = sequence;
+        this.changeType = changeType;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.entity = entity;
+        this.timestamp = System.currentTimeMillis();
+    }
+}
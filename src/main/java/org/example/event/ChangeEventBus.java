@@ -0,0 +1,160 @@
+package org.example.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free, multi-producer ring buffer of {@link ChangeEvent}s. Publishers claim a sequence with a CAS,
+ * fill the pre-allocated slot and mark it published; nothing is allocated on the write path. Every subscriber
+ * consumes on its own thread, in batches, and is only gated by the slots it has not consumed yet.
+ */
+public class ChangeEventBus implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBus.class);
+
+    private final int mask;
+    private final ChangeEvent[] entries;
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<ChangeEventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final BackpressureStrategy backpressureStrategy;
+    private final LongAdder dropped = new LongAdder();
+    private volatile long cachedGatingSequence = -1;
+
+    public ChangeEventBus() {
+        this(1 << 16, BackpressureStrategy.BLOCK);
+    }
+
+    /**
+     * @param capacity             Number of slots, rounded up to a power of two.
+     * @param backpressureStrategy What publishers do when the ring is full.
+     */
+    public ChangeEventBus(int capacity, BackpressureStrategy backpressureStrategy) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.entries = new ChangeEvent[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            entries[i] = new ChangeEvent();
+            published.set(i, -1);
+        }
+        this.backpressureStrategy = backpressureStrategy;
+    }
+
+    /**
+     * Publishes a change to all subscribers.
+     *
+     * @return false if the event was dropped because the ring was full and the strategy is
+     * {@link BackpressureStrategy#DROP}.
+     */
+    public boolean publish(ChangeType changeType, EntityType entityType, UUID entityId, Object entity) {
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return false;
+        }
+        int index = (int) sequence & mask;
+        entries[index].set(sequence, changeType, entityType, entityId, entity);
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Starts a subscriber thread that receives every event published from now on.
+     *
+     * @param name         Name of the consumer thread.
+     * @param handler      Callback invoked for every event.
+     * @param maxBatchSize Upper bound of events handed over before the subscriber's progress is made visible.
+     * @param waitStrategy How the consumer waits when it has caught up.
+     */
+    public ChangeEventSubscription subscribe(String name, ChangeEventHandler handler, int maxBatchSize,
+                                             WaitStrategy waitStrategy) {
+        ChangeEventSubscription subscription =
+                new ChangeEventSubscription(this, name, handler, maxBatchSize, waitStrategy, cursor.get());
+        subscriptions.add(subscription);
+        subscription.start();
+        logger.info("Subscriber {} registered at sequence {}", name, subscription.getSequence());
+        return subscription;
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void close() {
+        for (ChangeEventSubscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    void unsubscribe(ChangeEventSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    ChangeEvent entryAt(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    /**
+     * @return The highest sequence in {@code [from, from + maxBatchSize)} up to which every slot has been published,
+     * or {@code from - 1} if {@code from} itself is not published yet.
+     */
+    long highestPublished(long from, int maxBatchSize) {
+        long limit = Math.min(cursor.get(), from + maxBatchSize - 1);
+        long sequence = from;
+        while (sequence <= limit && published.get((int) sequence & mask) == sequence) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    private long claim() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - entries.length;
+            if (wrapPoint > cachedGatingSequence && !subscriptions.isEmpty()) {
+                long gatingSequence = minimumGatingSequence(current);
+                if (wrapPoint > gatingSequence) {
+                    if (backpressureStrategy == BackpressureStrategy.DROP) {
+                        return -1;
+                    }
+                    Thread.onSpinWait();
+                    continue;
+                }
+                cachedGatingSequence = gatingSequence;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minimumGatingSequence(long current) {
+        long minimum = current;
+        for (ChangeEventSubscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.getSequence());
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.event;
+
+/**
+ * Callback of a {@link ChangeEventSubscription}. The event instance is a ring buffer slot that is reused once the
+ * callback returns, so handlers must copy whatever they want to keep.
+ */
+@FunctionalInterface
+public interface ChangeEventHandler {
+
+    /**
+     * @param event      The published event.
+     * @param endOfBatch Whether this is the last event currently available, a natural point to flush batched work.
+     */
+    void onEvent(ChangeEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,86 @@
+package org.example.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A subscriber of the {@link ChangeEventBus}, consuming on its own daemon thread. Its sequence is the last event it
+ * has fully handled; publishers never overwrite a slot beyond it.
+ */
+public class ChangeEventSubscription implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventSubscription.class);
+
+    private final ChangeEventBus bus;
+    private final String name;
+    private final ChangeEventHandler handler;
+    private final int maxBatchSize;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong sequence;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    ChangeEventSubscription(ChangeEventBus bus, String name, ChangeEventHandler handler, int maxBatchSize,
+                            WaitStrategy waitStrategy, long startSequence) {
+        this.bus = bus;
+        this.name = name;
+        this.handler = handler;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.waitStrategy = waitStrategy;
+        this.sequence = new AtomicLong(startSequence);
+        this.thread = new Thread(this::consume, name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * @return Number of published events this subscriber has not handled yet.
+     */
+    public long getLag() {
+        return Math.max(0, bus.getCursor() - sequence.get());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        bus.unsubscribe(this);
+        if (Thread.currentThread() != thread) {
+            thread.interrupt();
+        }
+    }
+
+    private void consume() {
+        long next = sequence.get() + 1;
+        int attempt = 0;
+        while (running) {
+            long available = bus.highestPublished(next, maxBatchSize);
+            if (available < next) {
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            for (long current = next; current <= available; current++) {
+                try {
+                    handler.onEvent(bus.entryAt(current), current == available);
+                } catch (RuntimeException e) {
+                    logger.error("Subscriber {} failed to handle event {}", name, current, e);
+                }
+            }
+            sequence.lazySet(available);
+            next = available + 1;
+        }
+    }
+}
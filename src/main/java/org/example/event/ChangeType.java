@@ -0,0 +1,11 @@
+package org.example.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    /**
+     * Moved from memory to the training archive; it stays readable and in the statistics but can no longer change.
+     */
+    ARCHIVED
+}
@@ -0,0 +1,9 @@
+package org.example.event;
+
+public enum EntityType {
+    TRAINEE,
+    TRAINER,
+    TRAINING,
+    USER,
+    TRAINING_TYPE
+}
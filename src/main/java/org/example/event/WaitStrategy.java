@@ -0,0 +1,40 @@
+package org.example.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a subscriber waits for new events, trading latency for idle CPU.
+ */
+public enum WaitStrategy {
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+    YIELD {
+        @Override
+        void idle(int attempt) {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    SLEEP {
+        @Override
+        void idle(int attempt) {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            }
+        }
+    };
+
+    abstract void idle(int attempt);
+}
@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class ArchiveException extends RuntimeException {
+    public ArchiveException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
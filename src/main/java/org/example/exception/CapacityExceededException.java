@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class CapacityExceededException extends RuntimeException {
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
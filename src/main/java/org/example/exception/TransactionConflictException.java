@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class TransactionConflictException extends RuntimeException {
+    public TransactionConflictException(String message) {
+        super(message);
+    }
+}
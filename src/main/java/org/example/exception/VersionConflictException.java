@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header line. Values containing a separator, a quote or a line break are quoted.
+ */
+class CsvExportWriter implements ExportWriter {
+
+    private final Writer writer;
+    private boolean firstValue;
+
+    CsvExportWriter(OutputStream out, String... columns) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        startRow();
+        for (String column : columns) {
+            value(column);
+        }
+        endRow();
+    }
+
+    @Override
+    public void startRow() {
+        firstValue = true;
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        separate();
+        if (value == null) {
+            return;
+        }
+        if (needsQuotes(value)) {
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    @Override
+    public void value(Number value) throws IOException {
+        separate();
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        separate();
+        writer.write(value ? "true" : "false");
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void separate() throws IOException {
+        if (!firstValue) {
+            writer.write(',');
+        }
+        firstValue = false;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.export;
+
+import lombok.Builder;
+import lombok.Data;
+import org.example.model.Training;
+import org.example.query.Criteria;
+import org.example.query.TrainingField;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Optional restrictions of a training export. Unset fields do not restrict; both dates are inclusive.
+ */
+@Data
+@Builder
+public class ExportFilter {
+
+    private LocalDate from;
+    private LocalDate to;
+    private UUID trainerId;
+
+    public static ExportFilter none() {
+        return ExportFilter.builder().build();
+    }
+
+    /**
+     * @return The filter as query criteria, answered from the trainer and date indexes; null if it does not restrict.
+     */
+    public Criteria<Training> toCriteria() {
+        Criteria<Training> criteria = null;
+        if (trainerId != null) {
+            criteria = Criteria.where(TrainingField.TRAINER_ID).is(trainerId);
+        }
+        if (from != null || to != null) {
+            Criteria.Clause<Training> date = criteria == null ? Criteria.where(TrainingField.DATE)
+                    : criteria.and(TrainingField.DATE);
+            criteria = date.between(from == null ? LocalDate.MIN : from, to == null ? LocalDate.MAX : to);
+        }
+        return criteria;
+    }
+
+    public boolean matches(Training training) {
+        if (trainerId != null && !trainerId.equals(training.getTrainerId())) {
+            return false;
+        }
+        LocalDate date = training.getDate();
+        if (from != null && (date == null || date.isBefore(from))) {
+            return false;
+        }
+        return to == null || (date != null && !date.isAfter(to));
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.export;
+
+public enum ExportFormat {
+    CSV,
+    JSON
+}
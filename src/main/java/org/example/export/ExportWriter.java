@@ -0,0 +1,30 @@
+package org.example.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes rows with a fixed set of columns straight to an output stream. Values are written positionally, in column
+ * order, so nothing is buffered per row. Closing finishes the document and flushes, but leaves the stream open.
+ */
+public interface ExportWriter extends Closeable {
+
+    static ExportWriter create(ExportFormat format, OutputStream out, String... columns) throws IOException {
+        return format == ExportFormat.CSV ? new CsvExportWriter(out, columns) : new JsonExportWriter(out, columns);
+    }
+
+    void startRow() throws IOException;
+
+    void value(String value) throws IOException;
+
+    void value(Number value) throws IOException;
+
+    void value(boolean value) throws IOException;
+
+    void endRow() throws IOException;
+
+    default void value(Object value) throws IOException {
+        value(value == null ? null : value.toString());
+    }
+}
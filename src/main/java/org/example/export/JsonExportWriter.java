@@ -0,0 +1,71 @@
+package org.example.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * A JSON array with one object per row, written by a streaming generator.
+ */
+class JsonExportWriter implements ExportWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator generator;
+    private final String[] columns;
+    private int column;
+
+    JsonExportWriter(OutputStream out, String... columns) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        this.columns = columns;
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void startRow() throws IOException {
+        column = 0;
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        generator.writeFieldName(columns[column++]);
+        generator.writeString(value);
+    }
+
+    @Override
+    public void value(Number value) throws IOException {
+        generator.writeFieldName(columns[column++]);
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Double || value instanceof Float) {
+            generator.writeNumber(value.doubleValue());
+        } else if (value instanceof BigDecimal decimal) {
+            generator.writeNumber(decimal);
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        generator.writeFieldName(columns[column++]);
+        generator.writeBoolean(value);
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -0,0 +1,388 @@
+package org.example.index;
+
+import org.example.memory.Compactable;
+import org.example.memory.CompactableMap;
+import org.example.model.Role;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dense bitset index of active users. Every registered user gets a compact ordinal; one bitset marks the active
+ * ordinals and one bitset per {@link Role} marks who is a trainee or a trainer, so counts are O(1) and filtered
+ * listings are word-wise bitset intersections. Ordinals of removed users are recycled. Callers keep ordinals in
+ * bitsets, so compaction never renumbers them; it only trims the free ordinals at the end of the arrays.
+ */
+public class ActiveUserIndex implements Compactable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final CompactableMap<UUID, Integer> ordinals = new CompactableMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet active = new BitSet();
+    private final BitSet freeOrdinals = new BitSet();
+    private final Map<Role, BitSet> roles = new EnumMap<>(Role.class);
+    private final int[] activeCounts = new int[Role.values().length];
+    private UUID[] userIds = new UUID[INITIAL_CAPACITY];
+    private UUID[] ownerIds = new UUID[INITIAL_CAPACITY];
+    private int nextOrdinal;
+    private int modifications;
+    private volatile int activeCount;
+
+    public ActiveUserIndex() {
+        for (Role role : Role.values()) {
+            roles.put(role, new BitSet());
+        }
+    }
+
+    /**
+     * Registers a user, or re-registers it with a new owner, role and state.
+     *
+     * @param userId  Id of the User.
+     * @param ownerId Id of the Trainee or Trainer owning the user.
+     */
+    public void register(UUID userId, UUID ownerId, Role role, boolean isActive) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(userId);
+            if (existing != null) {
+                clear(existing);
+            }
+            int ordinal = existing != null ? existing : allocateOrdinal();
+            userIds[ordinal] = userId;
+            ownerIds[ordinal] = ownerId;
+            roles.get(role).set(ordinal);
+            if (isActive) {
+                markActive(ordinal, role);
+            }
+            ordinals.put(userId, ordinal);
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID userId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(userId);
+            if (ordinal != null) {
+                clear(ordinal);
+                userIds[ordinal] = null;
+                ownerIds[ordinal] = null;
+                freeOrdinals.set(ordinal);
+                modifications++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Activates or deactivates all the given users under a single lock acquisition.
+     *
+     * @return Ids of the users whose state actually changed.
+     */
+    public List<UUID> setActive(Collection<UUID> users, boolean isActive) {
+        List<UUID> changed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (UUID userId : users) {
+                Integer ordinal = ordinals.get(userId);
+                if (ordinal != null && active.get(ordinal) != isActive) {
+                    Role role = roleOf(ordinal);
+                    if (isActive) {
+                        markActive(ordinal, role);
+                    } else {
+                        markInactive(ordinal, role);
+                    }
+                    changed.add(userId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return changed;
+    }
+
+    /**
+     * @return Ids of the users of a role that are not in the given state yet, found by a bitset difference.
+     */
+    public List<UUID> usersNotInState(Role role, boolean isActive) {
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) roles.get(role).clone();
+            if (isActive) {
+                candidates.andNot(active);
+            } else {
+                candidates.and(active);
+            }
+            List<UUID> users = new ArrayList<>(candidates.cardinality());
+            candidates.stream().forEach(ordinal -> users.add(userIds[ordinal]));
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isActive(UUID userId) {
+        Integer ordinal = ordinals.get(userId);
+        if (ordinal == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return active.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The role the user was registered with, or null for unknown users.
+     */
+    public Role roleOf(UUID userId) {
+        Integer ordinal = ordinals.get(userId);
+        if (ordinal == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return roleOf(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int activeCount() {
+        return activeCount;
+    }
+
+    public int activeCount(Role role) {
+        lock.readLock().lock();
+        try {
+            return activeCounts[role.ordinal()];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    public int size(Role role) {
+        lock.readLock().lock();
+        try {
+            return roles.get(role).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Id of the Trainee or Trainer owning the user, or null for unknown users.
+     */
+    public UUID ownerOf(UUID userId) {
+        Integer ordinal = ordinals.get(userId);
+        if (ordinal == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return ownerIds[ordinal];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int ordinalOf(UUID userId) {
+        Integer ordinal = ordinals.get(userId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @return A snapshot of the ordinals of active users with the given role.
+     */
+    public BitSet activeOrdinals(Role role) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) roles.get(role).clone();
+            result.and(active);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return A snapshot of the ordinals of inactive users with the given role.
+     */
+    public BitSet inactiveOrdinals(Role role) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) roles.get(role).clone();
+            result.andNot(active);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The ordinals of the given users, ready to be intersected with {@link #activeOrdinals(Role)}.
+     */
+    public BitSet ordinalsOf(Collection<UUID> users) {
+        BitSet result = new BitSet();
+        for (UUID userId : users) {
+            Integer ordinal = ordinals.get(userId);
+            if (ordinal != null) {
+                result.set(ordinal);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Ids of the Trainees or Trainers owning the users at the given ordinals.
+     */
+    public List<UUID> ownersOf(BitSet selection) {
+        lock.readLock().lock();
+        try {
+            List<UUID> owners = new ArrayList<>(selection.cardinality());
+            selection.stream().forEach(ordinal -> {
+                if (ordinal < nextOrdinal && ownerIds[ordinal] != null) {
+                    owners.add(ownerIds[ordinal]);
+                }
+            });
+            return owners;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double getOccupancy() {
+        lock.readLock().lock();
+        try {
+            return Math.min(ordinals.getOccupancy(), (double) ordinals.size() / userIds.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getReclaimableBytes() {
+        lock.readLock().lock();
+        try {
+            return ordinals.getReclaimableBytes()
+                    + (long) (userIds.length - trimmedLength()) * 2 * REFERENCE_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The arrays are copied under the read lock and swapped in under the write lock, unless a user was registered or
+     * removed in between; the next compaction then tries again.
+     */
+    @Override
+    public synchronized long compact() {
+        long reclaimed = ordinals.compact();
+        int end;
+        int previousLength;
+        int seen;
+        UUID[] trimmedUserIds;
+        UUID[] trimmedOwnerIds;
+        lock.readLock().lock();
+        try {
+            end = freeOrdinals.previousClearBit(nextOrdinal - 1) + 1;
+            previousLength = userIds.length;
+            int length = trimmedLength();
+            if (length == previousLength) {
+                return reclaimed;
+            }
+            trimmedUserIds = Arrays.copyOf(userIds, length);
+            trimmedOwnerIds = Arrays.copyOf(ownerIds, length);
+            seen = modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (modifications != seen) {
+                return reclaimed;
+            }
+            freeOrdinals.clear(end, nextOrdinal);
+            nextOrdinal = end;
+            userIds = trimmedUserIds;
+            ownerIds = trimmedOwnerIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return reclaimed + (long) (previousLength - trimmedUserIds.length) * 2 * REFERENCE_BYTES;
+    }
+
+    /**
+     * @return Length of the arrays once the free ordinals at their end are dropped.
+     */
+    private int trimmedLength() {
+        return Math.max(INITIAL_CAPACITY, freeOrdinals.previousClearBit(nextOrdinal - 1) + 1);
+    }
+
+    private int allocateOrdinal() {
+        int ordinal = freeOrdinals.nextSetBit(0);
+        if (ordinal >= 0) {
+            freeOrdinals.clear(ordinal);
+            return ordinal;
+        }
+        if (nextOrdinal == userIds.length) {
+            userIds = Arrays.copyOf(userIds, nextOrdinal * 2);
+            ownerIds = Arrays.copyOf(ownerIds, nextOrdinal * 2);
+        }
+        return nextOrdinal++;
+    }
+
+    private Role roleOf(int ordinal) {
+        for (Map.Entry<Role, BitSet> entry : roles.entrySet()) {
+            if (entry.getValue().get(ordinal)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void clear(int ordinal) {
+        Role role = roleOf(ordinal);
+        if (active.get(ordinal)) {
+            markInactive(ordinal, role);
+        }
+        if (role != null) {
+            roles.get(role).clear(ordinal);
+        }
+    }
+
+    private void markActive(int ordinal, Role role) {
+        active.set(ordinal);
+        activeCount++;
+        if (role != null) {
+            activeCounts[role.ordinal()]++;
+        }
+    }
+
+    private void markInactive(int ordinal, Role role) {
+        active.clear(ordinal);
+        activeCount--;
+        if (role != null) {
+            activeCounts[role.ordinal()]--;
+        }
+    }
+}
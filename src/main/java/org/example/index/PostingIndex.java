@@ -0,0 +1,78 @@
+package org.example.index;
+
+import org.example.memory.Compactable;
+import org.example.memory.CompactableMap;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary index from a key to the ids of the entities carrying it, such as the trainings of one trainer. Keys whose
+ * entities are all gone are dropped, and compaction shrinks the key table after mass deletes.
+ */
+public class PostingIndex<K> implements Compactable {
+
+    private final CompactableMap<K, Set<UUID>> postings = new CompactableMap<>();
+
+    /**
+     * Adds inside the compute, so a concurrent removal cannot drop the key's set between its lookup and the add.
+     */
+    public void add(K key, UUID id) {
+        if (key != null) {
+            postings.compute(key, (k, ids) -> {
+                Set<UUID> next = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                next.add(id);
+                return next;
+            });
+        }
+    }
+
+    public void remove(K key, UUID id) {
+        if (key != null) {
+            postings.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public void move(UUID id, K previousKey, K key) {
+        if (!Objects.equals(previousKey, key)) {
+            remove(previousKey, id);
+            add(key, id);
+        }
+    }
+
+    public Collection<UUID> ids(K key) {
+        Set<UUID> ids = key == null ? null : postings.get(key);
+        return ids == null ? List.of() : List.copyOf(ids);
+    }
+
+    public int count(K key) {
+        Set<UUID> ids = key == null ? null : postings.get(key);
+        return ids == null ? 0 : ids.size();
+    }
+
+    public int keyCount() {
+        return postings.size();
+    }
+
+    @Override
+    public double getOccupancy() {
+        return postings.getOccupancy();
+    }
+
+    @Override
+    public long getReclaimableBytes() {
+        return postings.getReclaimableBytes();
+    }
+
+    @Override
+    public long compact() {
+        return postings.compact();
+    }
+}
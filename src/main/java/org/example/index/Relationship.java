@@ -0,0 +1,20 @@
+package org.example.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One edge of the {@link RelationshipGraph} seen from one side: the Trainer or Trainee at the other end, how many
+ * trainings they had together and the date of the latest one.
+ */
+@Data
+@AllArgsConstructor
+public class Relationship {
+
+    private UUID id;
+    private int trainings;
+    private LocalDate lastSession;
+}
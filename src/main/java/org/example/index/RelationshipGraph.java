@@ -0,0 +1,284 @@
+package org.example.index;
+
+import org.example.memory.Compactable;
+import org.example.memory.CompactableMap;
+import org.example.model.Training;
+import org.example.stats.LeaderboardEntry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Who trained with whom: one edge per Trainee and Trainer pair with at least one training, holding the number of
+ * their trainings and the dates of them, reachable from both ends. Neighbours are listed in O(degree) and two-hop
+ * queries walk only the neighbourhoods involved. Archived trainings stay in the graph, as they stay in the
+ * statistics; a deleted Trainee or Trainer is dropped with its edges. The adjacency maps are concurrent and read
+ * without locking. The edges of a Trainee are changed, at both ends, under the lock stripe of the Trainee, so writes
+ * for different Trainees go on in parallel and the two ends of an edge always agree.
+ */
+public class RelationshipGraph implements Compactable {
+
+    private static final int STRIPES = 64;
+    private static final Comparator<Relationship> MOST_RECENT_FIRST =
+            Comparator.comparing(Relationship::getLastSession).reversed().thenComparing(Relationship::getId);
+
+    private final Lock[] stripes = new Lock[STRIPES];
+    private final CompactableMap<UUID, Map<UUID, Edge>> trainersByTrainee = new CompactableMap<>();
+    private final CompactableMap<UUID, Map<UUID, Edge>> traineesByTrainer = new CompactableMap<>();
+
+    public RelationshipGraph() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void record(Training training) {
+        if (training.getTraineeId() == null || training.getTrainerId() == null || training.getDate() == null) {
+            return;
+        }
+        UUID traineeId = training.getTraineeId();
+        UUID trainerId = training.getTrainerId();
+        Lock lock = stripeOf(traineeId);
+        lock.lock();
+        try {
+            Edge edge = trainersByTrainee.computeIfAbsent(traineeId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(trainerId, id -> new Edge());
+            traineesByTrainer.compute(trainerId, (id, trainees) -> {
+                Map<UUID, Edge> next = trainees == null ? new ConcurrentHashMap<>() : trainees;
+                next.putIfAbsent(traineeId, edge);
+                return next;
+            });
+            edge.add(training.getDate());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Training training) {
+        if (training.getTraineeId() == null || training.getTrainerId() == null || training.getDate() == null) {
+            return;
+        }
+        Lock lock = stripeOf(training.getTraineeId());
+        lock.lock();
+        try {
+            Map<UUID, Edge> trainers = trainersByTrainee.get(training.getTraineeId());
+            Edge edge = trainers == null ? null : trainers.get(training.getTrainerId());
+            if (edge != null && edge.remove(training.getDate()) == 0) {
+                unlink(training.getTraineeId(), training.getTrainerId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeTrainee(UUID traineeId) {
+        Lock lock = stripeOf(traineeId);
+        lock.lock();
+        try {
+            Map<UUID, Edge> trainers = trainersByTrainee.get(traineeId);
+            if (trainers != null) {
+                for (UUID trainerId : trainers.keySet()) {
+                    unlink(traineeId, trainerId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Unlinks the Trainees one by one, each under its own stripe.
+     */
+    public void removeTrainer(UUID trainerId) {
+        Map<UUID, Edge> trainees = traineesByTrainer.get(trainerId);
+        if (trainees == null) {
+            return;
+        }
+        for (UUID traineeId : trainees.keySet()) {
+            Lock lock = stripeOf(traineeId);
+            lock.lock();
+            try {
+                unlink(traineeId, trainerId);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return The Trainers the Trainee trained with, most recent first.
+     */
+    public List<Relationship> trainersOf(UUID traineeId) {
+        List<Relationship> relationships = neighbours(trainersByTrainee, traineeId);
+        relationships.sort(MOST_RECENT_FIRST);
+        return relationships;
+    }
+
+    /**
+     * @return The Trainees the Trainer trained, most recent first.
+     */
+    public List<Relationship> traineesOf(UUID trainerId) {
+        List<Relationship> relationships = neighbours(traineesByTrainer, trainerId);
+        relationships.sort(MOST_RECENT_FIRST);
+        return relationships;
+    }
+
+    /**
+     * Trainers of the Trainees like this one, i.e. of the Trainees sharing a Trainer with it, that it has not
+     * trained with yet. A Trainer scores one point per such Trainee.
+     *
+     * @param eligible Filters the suggested Trainers, e.g. to active ones.
+     * @return Up to n Trainers, highest score first.
+     */
+    public List<LeaderboardEntry> suggestTrainers(UUID traineeId, Predicate<UUID> eligible, int n) {
+        Map<UUID, Edge> own = trainersByTrainee.getOrDefault(traineeId, Map.of());
+        Set<UUID> similar = new HashSet<>();
+        for (UUID trainerId : own.keySet()) {
+            for (UUID other : traineesByTrainer.getOrDefault(trainerId, Map.of()).keySet()) {
+                if (!other.equals(traineeId)) {
+                    similar.add(other);
+                }
+            }
+        }
+        Map<UUID, Long> scores = new HashMap<>();
+        for (UUID other : similar) {
+            for (UUID trainerId : trainersByTrainee.getOrDefault(other, Map.of()).keySet()) {
+                if (!own.containsKey(trainerId)) {
+                    scores.merge(trainerId, 1L, Long::sum);
+                }
+            }
+        }
+        scores.keySet().removeIf(trainerId -> !eligible.test(trainerId));
+        return top(scores, n);
+    }
+
+    /**
+     * Trainers sharing Trainees with this one. A Trainer scores one point per shared Trainee.
+     *
+     * @return Up to n Trainers, highest score first.
+     */
+    public List<LeaderboardEntry> similarTrainers(UUID trainerId, int n) {
+        Map<UUID, Long> scores = new HashMap<>();
+        for (UUID traineeId : traineesByTrainer.getOrDefault(trainerId, Map.of()).keySet()) {
+            for (UUID other : trainersByTrainee.getOrDefault(traineeId, Map.of()).keySet()) {
+                if (!other.equals(trainerId)) {
+                    scores.merge(other, 1L, Long::sum);
+                }
+            }
+        }
+        return top(scores, n);
+    }
+
+    /**
+     * @return The occupancy of the sparser of the two adjacency maps.
+     */
+    @Override
+    public double getOccupancy() {
+        return Math.min(trainersByTrainee.getOccupancy(), traineesByTrainer.getOccupancy());
+    }
+
+    @Override
+    public long getReclaimableBytes() {
+        return trainersByTrainee.getReclaimableBytes() + traineesByTrainer.getReclaimableBytes();
+    }
+
+    /**
+     * Compacts both adjacency maps, concurrently with queries and writes. The neighbour maps of a node are small and
+     * dropped with its last edge, so they are not rebuilt.
+     */
+    @Override
+    public long compact() {
+        return trainersByTrainee.compact() + traineesByTrainer.compact();
+    }
+
+    private static List<Relationship> neighbours(Map<UUID, Map<UUID, Edge>> adjacency, UUID id) {
+        Map<UUID, Edge> edges = adjacency.getOrDefault(id, Map.of());
+        List<Relationship> relationships = new ArrayList<>(edges.size());
+        edges.forEach((other, edge) -> {
+            Relationship relationship = edge.from(other);
+            if (relationship != null) {
+                relationships.add(relationship);
+            }
+        });
+        return relationships;
+    }
+
+    /**
+     * Drops the edge of the pair from both ends, and a node with its last edge. Called under the stripe of the
+     * Trainee; the Trainer end is changed in a compute, as Trainees of other stripes change it concurrently.
+     */
+    private void unlink(UUID traineeId, UUID trainerId) {
+        trainersByTrainee.computeIfPresent(traineeId, (id, trainers) -> {
+            trainers.remove(trainerId);
+            return trainers.isEmpty() ? null : trainers;
+        });
+        traineesByTrainer.computeIfPresent(trainerId, (id, trainees) -> {
+            trainees.remove(traineeId);
+            return trainees.isEmpty() ? null : trainees;
+        });
+    }
+
+    private Lock stripeOf(UUID traineeId) {
+        int hash = traineeId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static List<LeaderboardEntry> top(Map<UUID, Long> scores, int n) {
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(n)
+                .map(entry -> new LeaderboardEntry(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Shared by both ends of a pair; the session dates are counted so that removing the latest training reveals
+     * the one before it. Changed under the stripe of the Trainee and read by queries, hence synchronized.
+     */
+    private static final class Edge {
+
+        private final TreeMap<LocalDate, Integer> sessions = new TreeMap<>();
+        private int trainings;
+
+        synchronized void add(LocalDate date) {
+            sessions.merge(date, 1, Integer::sum);
+            trainings++;
+        }
+
+        /**
+         * @return Trainings left, or -1 if there was none on the date.
+         */
+        synchronized int remove(LocalDate date) {
+            Integer count = sessions.get(date);
+            if (count == null) {
+                return -1;
+            }
+            if (count == 1) {
+                sessions.remove(date);
+            } else {
+                sessions.put(date, count - 1);
+            }
+            return --trainings;
+        }
+
+        /**
+         * @return The edge seen from the given end, or null if its last training was removed meanwhile.
+         */
+        synchronized Relationship from(UUID other) {
+            return trainings == 0 ? null : new Relationship(other, trainings, sessions.lastKey());
+        }
+    }
+}
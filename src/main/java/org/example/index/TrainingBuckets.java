@@ -0,0 +1,81 @@
+package org.example.index;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Partitions the ids of the in-memory trainings into monthly buckets by training date, so date-range queries only
+ * visit the overlapping months and whole months can be evicted at once.
+ */
+public class TrainingBuckets {
+
+    private final NavigableMap<YearMonth, Set<UUID>> buckets = new ConcurrentSkipListMap<>();
+
+    public void add(UUID trainingId, LocalDate date) {
+        if (date != null) {
+            buckets.compute(YearMonth.from(date), (month, ids) -> {
+                Set<UUID> next = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                next.add(trainingId);
+                return next;
+            });
+        }
+    }
+
+    public void remove(UUID trainingId, LocalDate date) {
+        if (date != null) {
+            buckets.computeIfPresent(YearMonth.from(date), (month, ids) -> {
+                ids.remove(trainingId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public void move(UUID trainingId, LocalDate previousDate, LocalDate date) {
+        if (previousDate == null || date == null || !YearMonth.from(previousDate).equals(YearMonth.from(date))) {
+            remove(trainingId, previousDate);
+            add(trainingId, date);
+        }
+    }
+
+    /**
+     * @return Ids of the trainings in the months overlapping {@code [from, to]}; callers still filter by exact date.
+     */
+    public List<UUID> idsBetween(LocalDate from, LocalDate to) {
+        List<UUID> ids = new ArrayList<>();
+        for (Set<UUID> bucket : buckets.subMap(YearMonth.from(from), true, YearMonth.from(to), true).values()) {
+            ids.addAll(bucket);
+        }
+        return ids;
+    }
+
+    /**
+     * @return How many ids {@link #idsBetween(LocalDate, LocalDate)} would return, without copying them.
+     */
+    public int countBetween(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (Set<UUID> bucket : buckets.subMap(YearMonth.from(from), true, YearMonth.from(to), true).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return The months strictly before the given one that still hold trainings, oldest first.
+     */
+    public List<YearMonth> monthsBefore(YearMonth month) {
+        return new ArrayList<>(buckets.headMap(month, false).keySet());
+    }
+
+    public Collection<UUID> idsIn(YearMonth month) {
+        Set<UUID> ids = buckets.get(month);
+        return ids == null ? List.of() : List.copyOf(ids);
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.index;
+
+import org.example.memory.Compactable;
+import org.example.memory.CompactableMap;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves usernames to user ids in O(1). Compaction shrinks the table after mass deletes.
+ */
+public class UsernameIndex implements Compactable {
+
+    private final CompactableMap<String, UUID> userIdsByUsername = new CompactableMap<>();
+
+    public void put(String username, UUID userId) {
+        if (username != null) {
+            userIdsByUsername.put(username, userId);
+        }
+    }
+
+    /**
+     * Claims the username for the user unless another user holds it. A reservation made before the user is stored
+     * must be removed again if the user is not stored after all.
+     *
+     * @return Whether the username now belongs to the user.
+     */
+    public boolean reserve(String username, UUID userId) {
+        if (username == null) {
+            return false;
+        }
+        UUID holder = userIdsByUsername.putIfAbsent(username, userId);
+        return holder == null || holder.equals(userId);
+    }
+
+    /**
+     * Removes the mapping only if the username still belongs to the given user.
+     */
+    public void remove(String username, UUID userId) {
+        if (username != null) {
+            userIdsByUsername.remove(username, userId);
+        }
+    }
+
+    /**
+     * Moves a user from its previous username to the current one; a no-op if the username did not change.
+     */
+    public void rename(String previousUsername, String username, UUID userId) {
+        if (previousUsername != null && previousUsername.equals(username)) {
+            return;
+        }
+        remove(previousUsername, userId);
+        put(username, userId);
+    }
+
+    public Optional<UUID> find(String username) {
+        return username == null ? Optional.empty() : Optional.ofNullable(userIdsByUsername.get(username));
+    }
+
+    public boolean contains(String username) {
+        return username != null && userIdsByUsername.containsKey(username);
+    }
+
+    public int size() {
+        return userIdsByUsername.size();
+    }
+
+    @Override
+    public double getOccupancy() {
+        return userIdsByUsername.getOccupancy();
+    }
+
+    @Override
+    public long getReclaimableBytes() {
+        return userIdsByUsername.getReclaimableBytes();
+    }
+
+    @Override
+    public long compact() {
+        return userIdsByUsername.compact();
+    }
+}
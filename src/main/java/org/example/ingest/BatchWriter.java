@@ -0,0 +1,20 @@
+package org.example.ingest;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Applies a batch of requests in one go for an {@link IngestQueue}.
+ *
+ * @param <R> Request type.
+ * @param <T> Result type.
+ */
+@FunctionalInterface
+public interface BatchWriter<R, T> {
+
+    /**
+     * @param onRejected Called with the position and the cause of every request that was not applied.
+     * @return One result per request, in request order; the entries of rejected requests are ignored.
+     */
+    List<T> write(List<R> requests, BiConsumer<Integer, RuntimeException> onRejected);
+}
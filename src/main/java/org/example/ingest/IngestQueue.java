@@ -0,0 +1,168 @@
+package org.example.ingest;
+
+import org.example.exception.CapacityExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of write requests applied by a single writer thread. The writer takes whatever has queued up, up to
+ * the batch size, and hands it to the {@link BatchWriter} at once, so concurrent callers share one commit instead of
+ * contending for the storage locks. A full queue makes {@link #submit} wait up to the offer timeout and then fail
+ * with {@link CapacityExceededException}.
+ *
+ * @param <R> Request type.
+ * @param <T> Result type.
+ */
+public class IngestQueue<R, T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestQueue.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final String name;
+    private final BlockingQueue<Pending<R, T>> queue;
+    private final int maxBatchSize;
+    private final long offerTimeoutMillis;
+    private final BatchWriter<R, T> writer;
+    private final Thread writerThread;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param name               Name of the writer thread.
+     * @param capacity           Number of requests allowed to wait for the writer.
+     * @param maxBatchSize       Most requests applied in one batch.
+     * @param offerTimeoutMillis How long a caller waits for room in a full queue.
+     * @param writer             Applies each batch.
+     */
+    public IngestQueue(String name, int capacity, int maxBatchSize, long offerTimeoutMillis,
+                       BatchWriter<R, T> writer) {
+        if (capacity < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.writer = writer;
+        this.writerThread = new Thread(this::run, name);
+        this.writerThread.setDaemon(true);
+    }
+
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * @return Completed with the result of the request once its batch is applied, or exceptionally with the cause of
+     * its rejection; failed with {@link CapacityExceededException} when the queue stayed full.
+     */
+    public CompletableFuture<T> submit(R request) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException(name + " is closed"));
+        }
+        Pending<R, T> pending = new Pending<>(request, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("{} rejected a request, {} requests pending", name, queue.size());
+                return CompletableFuture.failedFuture(
+                        new CapacityExceededException("Too many pending write requests"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        return pending.future();
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Stops accepting requests and waits for the writer to apply the ones already queued.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending<R, T>> orphans = new ArrayList<>();
+        queue.drainTo(orphans);
+        orphans.forEach(pending -> pending.future().completeExceptionally(new IllegalStateException(name + " is closed")));
+    }
+
+    private void run() {
+        List<Pending<R, T>> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                Pending<R, T> first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending<R, T>> batch) {
+        List<R> requests = new ArrayList<>(batch.size());
+        batch.forEach(pending -> requests.add(pending.request()));
+        RuntimeException[] rejections = new RuntimeException[batch.size()];
+        List<T> results;
+        try {
+            results = writer.write(requests, (index, cause) -> rejections[index] = cause);
+        } catch (RuntimeException e) {
+            logger.error("{} failed to write a batch of {}", name, batch.size(), e);
+            batches.incrementAndGet();
+            rejected.addAndGet(batch.size());
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            return;
+        }
+        batches.incrementAndGet();
+        for (int i = 0; i < batch.size(); i++) {
+            if (rejections[i] != null) {
+                rejected.incrementAndGet();
+                batch.get(i).future().completeExceptionally(rejections[i]);
+            } else {
+                written.incrementAndGet();
+                batch.get(i).future().complete(results.get(i));
+            }
+        }
+    }
+
+    private record Pending<R, T>(R request, CompletableFuture<T> future) {
+    }
+}
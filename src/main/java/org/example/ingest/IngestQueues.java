@@ -0,0 +1,22 @@
+package org.example.ingest;
+
+import org.example.dao.TrainingDAO;
+import org.example.dto.TrainingRequestDto;
+import org.example.model.Training;
+
+/**
+ * Factories of the {@link IngestQueue}s used by the services.
+ */
+public final class IngestQueues {
+
+    private IngestQueues() {
+    }
+
+    /**
+     * @return A queue saving trainings through {@link TrainingDAO#saveAll}, one transaction per batch.
+     */
+    public static IngestQueue<TrainingRequestDto, Training> trainings(TrainingDAO trainingDAO, int capacity,
+                                                                      int maxBatchSize, long offerTimeoutMillis) {
+        return new IngestQueue<>("training-ingest", capacity, maxBatchSize, offerTimeoutMillis, trainingDAO::saveAll);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.logging;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit applied by {@link RateLimitingTurboFilter} to every logger whose name starts with {@link #name}. Either
+ * {@link #permitsPerSecond} caps the messages let through per second, or {@link #sampleRate} lets one message in N
+ * through; with both set a message has to pass both.
+ */
+@Getter
+@Setter
+public class LogCategory {
+
+    private String name;
+    private int permitsPerSecond;
+    private int sampleRate;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong window = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong permitsUsed = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong sampled = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong suppressed = new AtomicLong();
+
+    boolean tryAcquire(long nowMillis) {
+        if (sampleRate > 1 && sampled.getAndIncrement() % sampleRate != 0) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        if (permitsPerSecond > 0) {
+            long second = nowMillis / 1000;
+            long current = window.get();
+            if (second != current && window.compareAndSet(current, second)) {
+                permitsUsed.set(0);
+            }
+            if (permitsUsed.incrementAndGet() > permitsPerSecond) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+}
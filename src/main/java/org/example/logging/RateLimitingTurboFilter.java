@@ -0,0 +1,66 @@
+package org.example.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rate limits or samples the per-entity INFO messages of noisy loggers before the message is formatted. Every
+ * {@link LogCategory} applies to the loggers whose name starts with its name, the most specific category wins.
+ * WARN and ERROR are never limited.
+ * <pre>
+ * &lt;turboFilter class="org.example.logging.RateLimitingTurboFilter"&gt;
+ *     &lt;category&gt;
+ *         &lt;name&gt;org.example.dao.impl&lt;/name&gt;
+ *         &lt;permitsPerSecond&gt;20&lt;/permitsPerSecond&gt;
+ *     &lt;/category&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private final List<LogCategory> categories = new ArrayList<>();
+    private final Map<String, Optional<LogCategory>> categoryByLogger = new ConcurrentHashMap<>();
+
+    public void addCategory(LogCategory category) {
+        categories.add(category);
+        categories.sort(Comparator.comparingInt((LogCategory c) -> c.getName().length()).reversed());
+        categoryByLogger.clear();
+    }
+
+    public List<LogCategory> getCategories() {
+        return List.copyOf(categories);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!isStarted() || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Optional<LogCategory> category = categoryByLogger.computeIfAbsent(logger.getName(), this::categoryOf);
+        if (category.isEmpty() || category.get().tryAcquire(System.currentTimeMillis())) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    private Optional<LogCategory> categoryOf(String loggerName) {
+        for (LogCategory category : categories) {
+            if (loggerName.startsWith(category.getName())) {
+                return Optional.of(category);
+            }
+        }
+        return Optional.empty();
+    }
+}
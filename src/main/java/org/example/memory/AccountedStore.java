@@ -0,0 +1,362 @@
+package org.example.memory;
+
+import org.example.exception.CapacityExceededException;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Entity store that keeps its entity count and estimated retained bytes up to date on every write. The size of the
+ * replaced and the new value is taken inside the map operation, so the estimate stays exact with respect to
+ * {@link EntitySizes} under concurrent writes. Crossing the soft limit notifies a listener, which must only hand the
+ * work off since it runs inside the write. Every write that grows the store first reserves its growth against the
+ * hard limit with a compare-and-set on the reserved bytes, so concurrent writes can never pass the check together and
+ * end up over the limit; the reservation is released once the write is accounted. A transaction reserves the growth
+ * of all its writes at once with {@link #reserve(long)}, applies them with {@link #putAdmitted} and then releases it.
+ * The key and entry set views are read-only. The entities live in a {@link CompactableMap}, so the table can be
+ * shrunk after mass deletes.
+ *
+ * @param <V> Entity type.
+ */
+public class AccountedStore<V> extends AbstractMap<UUID, V> implements ConcurrentMap<UUID, V>, StoreUsageMXBean,
+        Compactable {
+
+    /**
+     * Hash map node plus its share of the table.
+     */
+    static final long ENTRY_OVERHEAD = 40;
+
+    private final String name;
+    private final ToLongFunction<? super V> sizer;
+    private final CompactableMap<UUID, V> delegate = new CompactableMap<>();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final AtomicLong rejectedWrites = new AtomicLong();
+    private final AtomicLong softLimitBreaches = new AtomicLong();
+    private final AtomicBoolean overSoftLimit = new AtomicBoolean();
+    private volatile long softLimitBytes;
+    private volatile long hardLimitBytes;
+    private volatile Runnable softLimitListener = () -> {
+    };
+
+    /**
+     * @param sizer Estimated retained bytes of one entity, without the map entry.
+     */
+    public AccountedStore(String name, ToLongFunction<? super V> sizer) {
+        this.name = name;
+        this.sizer = sizer;
+    }
+
+    /**
+     * Reserves the growth of pending writes, so writes admitted concurrently cannot take the store over its hard limit
+     * together. The reserved bytes count as used until {@link #release(long) released}, which the caller does once
+     * the writes are accounted or abandoned.
+     *
+     * @param growthBytes Bytes the store would grow by; shrinking writes are always admitted and reserve nothing.
+     * @return Bytes reserved, to release later.
+     * @throws CapacityExceededException When the growth would take the store over its hard limit.
+     */
+    public long reserve(long growthBytes) {
+        if (growthBytes <= 0) {
+            return 0;
+        }
+        while (true) {
+            long reserved = reservedBytes.get();
+            long limit = hardLimitBytes;
+            if (limit > 0 && estimatedBytes.get() + reserved + growthBytes > limit) {
+                rejectedWrites.incrementAndGet();
+                throw new CapacityExceededException(name + " would exceed its limit of " + limit + " bytes");
+            }
+            if (reservedBytes.compareAndSet(reserved, reserved + growthBytes)) {
+                return growthBytes;
+            }
+        }
+    }
+
+    /**
+     * @param reserved Bytes returned by {@link #reserve(long)}.
+     */
+    public void release(long reserved) {
+        if (reserved > 0) {
+            reservedBytes.addAndGet(-reserved);
+        }
+    }
+
+    /**
+     * @param value New value of the key, or null for its removal.
+     * @return Bytes the store would grow by if the key were written now; negative when it would shrink.
+     */
+    @SuppressWarnings("unchecked")
+    public long growthOf(UUID key, Object value) {
+        return sizeOf((V) value) - sizeOf(delegate.get(key));
+    }
+
+    /**
+     * Writes a value whose growth the caller reserved already, under the lock of the key.
+     */
+    public V putAdmitted(UUID key, V value) {
+        V previous = delegate.put(key, value);
+        account(previous, value);
+        return previous;
+    }
+
+    /**
+     * Re-arms the soft limit trigger, so the next write still over the limit notifies the listener again.
+     */
+    public void rearmSoftLimit() {
+        overSoftLimit.set(false);
+    }
+
+    public void setSoftLimitListener(Runnable softLimitListener) {
+        this.softLimitListener = softLimitListener;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getEntityCount() {
+        return delegate.size();
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    @Override
+    public long getSoftLimitBytes() {
+        return softLimitBytes;
+    }
+
+    @Override
+    public void setSoftLimitBytes(long softLimitBytes) {
+        this.softLimitBytes = softLimitBytes;
+        overSoftLimit.set(false);
+        checkSoftLimit(estimatedBytes.get());
+    }
+
+    @Override
+    public long getHardLimitBytes() {
+        return hardLimitBytes;
+    }
+
+    @Override
+    public void setHardLimitBytes(long hardLimitBytes) {
+        this.hardLimitBytes = hardLimitBytes;
+    }
+
+    @Override
+    public long getRejectedWrites() {
+        return rejectedWrites.get();
+    }
+
+    @Override
+    public long getSoftLimitBreaches() {
+        return softLimitBreaches.get();
+    }
+
+    @Override
+    public double getOccupancy() {
+        return delegate.getOccupancy();
+    }
+
+    @Override
+    public long getReclaimableBytes() {
+        return delegate.getReclaimableBytes();
+    }
+
+    @Override
+    public long compact() {
+        return delegate.compact();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return delegate.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public V put(UUID key, V value) {
+        List<V> previous = new ArrayList<>(1);
+        delegate.compute(key, (k, current) -> {
+            admitAndAccount(current, value);
+            previous.add(current);
+            return value;
+        });
+        return previous.get(0);
+    }
+
+    @Override
+    public V putIfAbsent(UUID key, V value) {
+        List<V> previous = new ArrayList<>(1);
+        delegate.compute(key, (k, current) -> {
+            previous.add(current);
+            if (current != null) {
+                return current;
+            }
+            admitAndAccount(null, value);
+            return value;
+        });
+        return previous.get(0);
+    }
+
+    @Override
+    public V remove(Object key) {
+        V previous = delegate.remove(key);
+        account(previous, null);
+        return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object key, Object value) {
+        if (delegate.remove(key, value)) {
+            account((V) value, null);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean replace(UUID key, V oldValue, V newValue) {
+        long reserved = reserve(sizeOf(newValue) - sizeOf(oldValue));
+        try {
+            if (delegate.replace(key, oldValue, newValue)) {
+                account(oldValue, newValue);
+                return true;
+            }
+            return false;
+        } finally {
+            release(reserved);
+        }
+    }
+
+    @Override
+    public V replace(UUID key, V value) {
+        List<V> previous = new ArrayList<>(1);
+        delegate.computeIfPresent(key, (k, current) -> {
+            admitAndAccount(current, value);
+            previous.add(current);
+            return value;
+        });
+        return previous.isEmpty() ? null : previous.get(0);
+    }
+
+    @Override
+    public V computeIfAbsent(UUID key, Function<? super UUID, ? extends V> mappingFunction) {
+        return delegate.computeIfAbsent(key, k -> {
+            V value = mappingFunction.apply(k);
+            admitAndAccount(null, value);
+            return value;
+        });
+    }
+
+    @Override
+    public V computeIfPresent(UUID key, BiFunction<? super UUID, ? super V, ? extends V> remappingFunction) {
+        return delegate.computeIfPresent(key, (k, current) -> {
+            V value = remappingFunction.apply(k, current);
+            admitAndAccount(current, value);
+            return value;
+        });
+    }
+
+    @Override
+    public V compute(UUID key, BiFunction<? super UUID, ? super V, ? extends V> remappingFunction) {
+        return delegate.compute(key, (k, current) -> {
+            V value = remappingFunction.apply(k, current);
+            admitAndAccount(current, value);
+            return value;
+        });
+    }
+
+    @Override
+    public V merge(UUID key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return compute(key, (k, current) -> current == null ? value : remappingFunction.apply(current, value));
+    }
+
+    @Override
+    public void clear() {
+        for (UUID key : delegate.keySet()) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public Set<UUID> keySet() {
+        return Collections.unmodifiableSet(delegate.keySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(delegate.values());
+    }
+
+    @Override
+    public Set<Entry<UUID, V>> entrySet() {
+        return Collections.unmodifiableMap(delegate).entrySet();
+    }
+
+    /**
+     * Reserves the growth of a write, accounts it and releases the reservation, inside the map operation.
+     */
+    private void admitAndAccount(V previous, V value) {
+        long reserved = reserve(sizeOf(value) - sizeOf(previous));
+        account(previous, value);
+        release(reserved);
+    }
+
+    private void account(V previous, V value) {
+        long delta = sizeOf(value) - sizeOf(previous);
+        if (delta != 0) {
+            checkSoftLimit(estimatedBytes.addAndGet(delta));
+        }
+    }
+
+    private long sizeOf(V value) {
+        return value == null ? 0 : ENTRY_OVERHEAD + sizer.applyAsLong(value);
+    }
+
+    private void checkSoftLimit(long bytes) {
+        long limit = softLimitBytes;
+        if (limit <= 0 || bytes < limit) {
+            overSoftLimit.set(false);
+        } else if (overSoftLimit.compareAndSet(false, true)) {
+            softLimitBreaches.incrementAndGet();
+            softLimitListener.run();
+        }
+    }
+}
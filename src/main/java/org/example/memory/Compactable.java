@@ -0,0 +1,50 @@
+package org.example.memory;
+
+/**
+ * A hash-based structure whose table keeps its peak size after removals and that can be rebuilt at the size of its
+ * current content while it is in use. Sizes are estimated from the entry counts, as the JDK maps do not expose their
+ * table length: a table grows by doubling to keep its entries under {@link #LOAD_FACTOR} of its slots.
+ */
+public interface Compactable {
+
+    float LOAD_FACTOR = 0.75f;
+    int MIN_CAPACITY = 16;
+
+    /**
+     * Size of one table slot, a compressed reference.
+     */
+    int REFERENCE_BYTES = 4;
+
+    /**
+     * @return Entries per usable table slot: 1 for a full table, close to 0 for a table oversized by mass removals.
+     */
+    double getOccupancy();
+
+    /**
+     * @return Estimated bytes a compaction would give back now; 0 when the structure is already right-sized.
+     */
+    long getReclaimableBytes();
+
+    /**
+     * Rebuilds the structure at the size of its content, concurrently with readers and writers.
+     *
+     * @return Estimated bytes reclaimed.
+     */
+    long compact();
+
+    /**
+     * @return Number of slots of a table grown to hold the given number of entries.
+     */
+    static int tableCapacity(int entries) {
+        long wanted = (long) (1.0 + entries / LOAD_FACTOR);
+        return wanted <= MIN_CAPACITY ? MIN_CAPACITY : (int) Math.min(1 << 30, Long.highestOneBit(wanted - 1) << 1);
+    }
+
+    static double occupancy(int entries, int peakEntries) {
+        return entries / (tableCapacity(peakEntries) * (double) LOAD_FACTOR);
+    }
+
+    static long reclaimableBytes(int entries, int peakEntries) {
+        return Math.max(0L, (long) (tableCapacity(peakEntries) - tableCapacity(entries)) * REFERENCE_BYTES);
+    }
+}
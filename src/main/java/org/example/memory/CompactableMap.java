@@ -0,0 +1,213 @@
+package org.example.memory;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Concurrent map whose table can be shrunk while the map is in use; a {@link ConcurrentHashMap} keeps the table of
+ * its peak size forever. {@link #compact()} copies the entries into a right-sized table while writes go on, then
+ * replays the keys written meanwhile and swaps the copy in. Reads never lock. A write takes the read side of one of
+ * several gate stripes, picked by its thread, so concurrent writers rarely touch the same lock word; the compaction
+ * takes the write side of every stripe only for the replay and the swap. The views are read-only and show the table
+ * current when they were taken.
+ */
+public class CompactableMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, Compactable {
+
+    private static final int GATES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+
+    private final ReadWriteLock[] gates = new ReadWriteLock[GATES];
+    private final AtomicInteger peakSize = new AtomicInteger();
+    private volatile ConcurrentHashMap<K, V> table = new ConcurrentHashMap<>();
+
+    /**
+     * Keys written since the running compaction started copying, or null when none runs. A write checks it after
+     * writing, so a write that finds it null was done before the copy started and is copied.
+     */
+    private volatile Set<K> written;
+
+    public CompactableMap() {
+        for (int i = 0; i < GATES; i++) {
+            gates[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return table.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return table.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        return table.get(key);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return table.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return write(key, map -> map.put(key, value));
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return write(key, map -> map.putIfAbsent(key, value));
+    }
+
+    @Override
+    public V remove(Object key) {
+        return write(key, map -> map.remove(key));
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        return write(key, map -> map.remove(key, value));
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        return write(key, map -> map.replace(key, oldValue, newValue));
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        return write(key, map -> map.replace(key, value));
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return write(key, map -> map.computeIfAbsent(key, mappingFunction));
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return write(key, map -> map.computeIfPresent(key, remappingFunction));
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return write(key, map -> map.compute(key, remappingFunction));
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return write(key, map -> map.merge(key, value, remappingFunction));
+    }
+
+    @Override
+    public void clear() {
+        for (K key : table.keySet()) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(table.keySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(table.values());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return Collections.unmodifiableMap(table).entrySet();
+    }
+
+    @Override
+    public double getOccupancy() {
+        return Compactable.occupancy(table.size(), peakSize.get());
+    }
+
+    @Override
+    public long getReclaimableBytes() {
+        return Compactable.reclaimableBytes(table.size(), peakSize.get());
+    }
+
+    /**
+     * Holds a second copy of the entries for the time of the copy.
+     */
+    @Override
+    public synchronized long compact() {
+        ConcurrentHashMap<K, V> current = table;
+        int peak = peakSize.get();
+        if (Compactable.reclaimableBytes(current.size(), peak) == 0) {
+            return 0;
+        }
+        Set<K> keys = ConcurrentHashMap.newKeySet();
+        written = keys;
+        ConcurrentHashMap<K, V> copy = new ConcurrentHashMap<>(current.size(), LOAD_FACTOR);
+        copy.putAll(current);
+        for (ReadWriteLock gate : gates) {
+            gate.writeLock().lock();
+        }
+        try {
+            for (K key : keys) {
+                V value = current.get(key);
+                if (value == null) {
+                    copy.remove(key);
+                } else {
+                    copy.put(key, value);
+                }
+            }
+            table = copy;
+            written = null;
+            peakSize.set(copy.size());
+        } finally {
+            for (int i = GATES - 1; i >= 0; i--) {
+                gates[i].writeLock().unlock();
+            }
+        }
+        return Compactable.reclaimableBytes(copy.size(), peak);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R write(Object key, Function<ConcurrentHashMap<K, V>, R> operation) {
+        Lock lock = gates[(int) Thread.currentThread().getId() & (GATES - 1)].readLock();
+        lock.lock();
+        try {
+            ConcurrentHashMap<K, V> current = table;
+            R result = operation.apply(current);
+            Set<K> keys = written;
+            if (keys != null) {
+                keys.add((K) key);
+            }
+            int size = current.size();
+            if (size > peakSize.get()) {
+                peakSize.accumulateAndGet(size, Math::max);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.memory;
+
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.model.TrainingType;
+import org.example.model.User;
+
+/**
+ * Estimated retained size of the stored entities on a 64-bit JVM with compressed references: object headers of 12
+ * bytes, 4-byte references, 8-byte alignment and compact Latin-1 strings. Each entity owns its id and strings; the
+ * ids it refers to belong to the referenced entities and are not counted.
+ */
+public final class EntitySizes {
+
+    static final long UUID_BYTES = 32;
+    private static final long LOCAL_DATE_BYTES = 24;
+    private static final long BOXED_NUMBER_BYTES = 16;
+
+    private EntitySizes() {
+    }
+
+    public static long user(User user) {
+        return align(12 + 5 * 4 + 8 + 1 + 4) + UUID_BYTES + string(user.getFirstName()) + string(user.getLastName())
+                + string(user.getUsername()) + string(user.getPassword());
+    }
+
+    public static long trainee(Trainee trainee) {
+        return align(12 + 3 * 4 + 8 + 4) + UUID_BYTES + string(trainee.getAddress());
+    }
+
+    public static long trainer(Trainer trainer) {
+        return align(12 + 3 * 4 + 8 + 4) + UUID_BYTES + string(trainer.getSpecialization());
+    }
+
+    public static long training(Training training) {
+        return align(12 + 7 * 4 + 8 + 4) + UUID_BYTES + string(training.getName())
+                + (training.getDate() == null ? 0 : LOCAL_DATE_BYTES)
+                + (training.getDuration() == null ? 0 : BOXED_NUMBER_BYTES);
+    }
+
+    public static long trainingType(TrainingType trainingType) {
+        return align(12 + 2 * 4 + 8 + 4) + UUID_BYTES + string(trainingType.getTypeName());
+    }
+
+    static long string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        boolean latin1 = value.chars().allMatch(c -> c <= 0xFF);
+        return align(12 + 4 + 4 + 1 + 1) + align(16L + (latin1 ? value.length() : 2L * value.length()));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
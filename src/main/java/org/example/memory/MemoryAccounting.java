@@ -0,0 +1,147 @@
+package org.example.memory;
+
+import org.example.service.InMemoryStorage;
+import org.example.service.TrainingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the configured limits to the {@link AccountedStore}s of the {@link InMemoryStorage} and publishes their
+ * usage over JMX, under {@code org.example:type=Store,name=<store>} and {@code org.example:type=MemoryAccounting}.
+ * Trainings are the only entities that can leave memory, so a training store over its soft limit archives the
+ * trainings past the retention horizon; the other stores only log. A store still over its soft limit after a run is
+ * re-armed, so the next write triggers another run once more trainings have passed the horizon. Writes that would
+ * take a store over its hard limit are rejected.
+ */
+public class MemoryAccounting implements MemoryAccountingMXBean, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryAccounting.class);
+    private static final long MB = 1024 * 1024;
+
+    private final List<AccountedStore<?>> stores;
+    private final TrainingService trainingService;
+    private final Map<String, Long> softLimitsMb;
+    private final Map<String, Long> hardLimitsMb;
+    private final ExecutorService evictor;
+    private final AtomicBoolean evictionPending = new AtomicBoolean();
+    private final AtomicLong evictionRuns = new AtomicLong();
+    private final AtomicLong evictedEntities = new AtomicLong();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    /**
+     * @param softLimitsMb Soft limit in megabytes by store name; stores not listed have none.
+     * @param hardLimitsMb Hard limit in megabytes by store name; stores not listed have none.
+     */
+    public MemoryAccounting(InMemoryStorage storage, TrainingService trainingService, Map<String, Long> softLimitsMb,
+                            Map<String, Long> hardLimitsMb) {
+        this.stores = storage.getAccountedStores();
+        this.trainingService = trainingService;
+        this.softLimitsMb = softLimitsMb;
+        this.hardLimitsMb = hardLimitsMb;
+        this.evictor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "store-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        register(server, "org.example:type=MemoryAccounting",
+                new StandardMBean(this, MemoryAccountingMXBean.class, true));
+        for (AccountedStore<?> store : stores) {
+            store.setSoftLimitListener(store.getName().equals("trainingStorage")
+                    ? () -> scheduleTrainingEviction(store)
+                    : () -> logger.warn("{} is over its soft limit: {} entities, ~{} MB, no eviction available",
+                    store.getName(), store.getEntityCount(), store.getEstimatedBytes() / MB));
+            store.setHardLimitBytes(hardLimitsMb.getOrDefault(store.getName(), 0L) * MB);
+            store.setSoftLimitBytes(softLimitsMb.getOrDefault(store.getName(), 0L) * MB);
+            register(server, "org.example:type=Store,name=" + store.getName(),
+                    new StandardMBean(store, StoreUsageMXBean.class, true));
+        }
+    }
+
+    @Override
+    public int getTotalEntityCount() {
+        return stores.stream().mapToInt(AccountedStore::getEntityCount).sum();
+    }
+
+    @Override
+    public long getTotalEstimatedBytes() {
+        return stores.stream().mapToLong(AccountedStore::getEstimatedBytes).sum();
+    }
+
+    @Override
+    public long getMaxHeapBytes() {
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    @Override
+    public long getEvictionRuns() {
+        return evictionRuns.get();
+    }
+
+    @Override
+    public long getEvictedEntities() {
+        return evictedEntities.get();
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                logger.debug("Could not unregister {}", name, e);
+            }
+        }
+        registered.clear();
+    }
+
+    private void scheduleTrainingEviction(AccountedStore<?> store) {
+        if (evictionPending.compareAndSet(false, true)) {
+            evictor.execute(() -> {
+                evictionPending.set(false);
+                evictionRuns.incrementAndGet();
+                int archived = trainingService.archiveExpired();
+                evictedEntities.addAndGet(archived);
+                if (archived > 0) {
+                    logger.warn("trainingStorage reached its soft limit, archived {} trainings", archived);
+                } else {
+                    logger.debug("trainingStorage is over its soft limit, no training is past the horizon");
+                }
+                if (store.getEstimatedBytes() >= store.getSoftLimitBytes()) {
+                    store.rearmSoftLimit();
+                }
+            });
+        }
+    }
+
+    /**
+     * A second context in the same JVM keeps the names of the first one; its stores are then not published.
+     */
+    private void register(MBeanServer server, String name, StandardMBean mbean) {
+        try {
+            ObjectName objectName = new ObjectName(name);
+            server.registerMBean(mbean, objectName);
+            registered.add(objectName);
+        } catch (JMException e) {
+            logger.warn("Could not register {}: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.memory;
+
+/**
+ * Management view of the heap used by all stores together.
+ */
+public interface MemoryAccountingMXBean {
+
+    int getTotalEntityCount();
+
+    long getTotalEstimatedBytes();
+
+    long getMaxHeapBytes();
+
+    long getEvictionRuns();
+
+    /**
+     * @return Number of entities removed from memory by evictions.
+     */
+    long getEvictedEntities();
+}
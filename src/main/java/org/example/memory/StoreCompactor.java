@@ -0,0 +1,118 @@
+package org.example.memory;
+
+import org.example.service.InMemoryStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shrinks the stores and indexes of the {@link InMemoryStorage} whose tables were left oversized by mass deletes,
+ * such as the purge of lapsed members and their trainings. Run on a schedule alongside live traffic, it rebuilds every
+ * structure whose occupancy is under the threshold and that would give memory back. Each run logs what it reclaimed;
+ * the totals are published over JMX under {@code org.example:type=StoreCompactor}.
+ */
+public class StoreCompactor implements StoreCompactorMXBean, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreCompactor.class);
+    private static final String OBJECT_NAME = "org.example:type=StoreCompactor";
+
+    private final Map<String, Compactable> compactables;
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private volatile double occupancyThreshold;
+    private ObjectName registered;
+
+    /**
+     * @param occupancyThreshold Entries per usable table slot below which a structure is compacted, e.g. 0.25.
+     */
+    public StoreCompactor(InMemoryStorage storage, double occupancyThreshold) {
+        this.compactables = storage.getCompactables();
+        this.occupancyThreshold = occupancyThreshold;
+    }
+
+    public void start() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            server.registerMBean(new StandardMBean(this, StoreCompactorMXBean.class, true), objectName);
+            registered = objectName;
+        } catch (JMException e) {
+            logger.warn("Could not register {}: {}", OBJECT_NAME, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized long compactSparse() {
+        long start = System.nanoTime();
+        long total = 0;
+        int compacted = 0;
+        double threshold = occupancyThreshold;
+        for (Map.Entry<String, Compactable> entry : compactables.entrySet()) {
+            Compactable compactable = entry.getValue();
+            double occupancy = compactable.getOccupancy();
+            if (occupancy >= threshold || compactable.getReclaimableBytes() == 0) {
+                continue;
+            }
+            long reclaimed = compactable.compact();
+            if (reclaimed > 0) {
+                compacted++;
+                total += reclaimed;
+                logger.info("Compacted {} at {}% occupancy, reclaimed ~{} KB", entry.getKey(),
+                        Math.round(occupancy * 100), reclaimed / 1024);
+            }
+        }
+        runs.incrementAndGet();
+        compactions.addAndGet(compacted);
+        reclaimedBytes.addAndGet(total);
+        if (compacted > 0) {
+            logger.info("Compaction reclaimed ~{} KB from {} structures in {} ms", total / 1024, compacted,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    @Override
+    public double getOccupancyThreshold() {
+        return occupancyThreshold;
+    }
+
+    @Override
+    public void setOccupancyThreshold(double occupancyThreshold) {
+        this.occupancyThreshold = occupancyThreshold;
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.get();
+    }
+
+    @Override
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    @Override
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    @Override
+    public void close() {
+        if (registered != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            } catch (JMException e) {
+                logger.debug("Could not unregister {}", registered, e);
+            }
+            registered = null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.memory;
+
+/**
+ * Management view of the {@link StoreCompactor}.
+ */
+public interface StoreCompactorMXBean {
+
+    double getOccupancyThreshold();
+
+    void setOccupancyThreshold(double occupancyThreshold);
+
+    long getRuns();
+
+    /**
+     * @return Number of stores and indexes rebuilt, over all runs.
+     */
+    long getCompactions();
+
+    /**
+     * @return Estimated bytes given back, over all runs.
+     */
+    long getReclaimedBytes();
+
+    /**
+     * Runs a compaction now instead of waiting for the schedule.
+     *
+     * @return Estimated bytes given back by this run.
+     */
+    long compactSparse();
+}
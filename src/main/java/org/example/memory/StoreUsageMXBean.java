@@ -0,0 +1,41 @@
+package org.example.memory;
+
+/**
+ * Management view of one {@link AccountedStore}. A limit of 0 means no limit.
+ */
+public interface StoreUsageMXBean {
+
+    String getName();
+
+    int getEntityCount();
+
+    long getEstimatedBytes();
+
+    long getSoftLimitBytes();
+
+    void setSoftLimitBytes(long softLimitBytes);
+
+    long getHardLimitBytes();
+
+    void setHardLimitBytes(long hardLimitBytes);
+
+    /**
+     * @return Number of writes rejected because they would have taken the store over its hard limit.
+     */
+    long getRejectedWrites();
+
+    /**
+     * @return Number of times the store grew past its soft limit.
+     */
+    long getSoftLimitBreaches();
+
+    /**
+     * @return Entities per usable table slot; low after mass deletes, until the store is compacted.
+     */
+    double getOccupancy();
+
+    /**
+     * @return Estimated bytes a compaction of the store would give back now.
+     */
+    long getReclaimableBytes();
+}
@@ -0,0 +1,17 @@
+package org.example.model;
+
+import lombok.Value;
+
+/**
+ * Outcome of creating a Trainee or Trainer: the member, the username it was given and, if the request did not set a
+ * password, the generated one. Only its hash is stored, so this is the one chance to hand it over to the member.
+ *
+ * @param <T> Trainee or Trainer.
+ */
+@Value
+public class Registration<T> {
+
+    T member;
+    String username;
+    String initialPassword;
+}
@@ -2,44 +2,26 @@ package org.example.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
 
-import java.util.Objects;
 import java.util.UUID;
 
-@Data
-@Builder
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
 @AllArgsConstructor
-@NoArgsConstructor
-public class Trainee {
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+public class Trainee implements Versioned {
 
-    private UUID id;
+    UUID id;
 
-    private UUID userId;
+    UUID userId;
 
-    private String address;
+    String address;
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Trainee trainee = (Trainee) o;
-        return Objects.equals(id, trainee.id) && Objects.equals(userId, trainee.userId) && Objects.equals(address, trainee.address);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(id, userId, address);
-    }
-
-    @Override
-    public String toString() {
-        return "Trainee{" +
-                "id=" + id +
-                ", userId=" + userId +
-                ", address='" + address + '\'' +
-                '}';
-    }
+    long version;
 }
-
@@ -2,32 +2,23 @@ package org.example.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
 
-import java.util.Objects;
 import java.util.UUID;
 
-@Data
-@Builder
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
 @AllArgsConstructor
-@NoArgsConstructor
-public class Trainer {
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+public class Trainer implements Versioned {
 
-    private UUID id;
-    private String specialization;
-    private UUID userId;
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Trainer trainer = (Trainer) o;
-        return Objects.equals(id, trainer.id) && Objects.equals(specialization, trainer.specialization) && Objects.equals(userId, trainer.userId);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(id, specialization, userId);
-    }
+    UUID id;
+    String specialization;
+    UUID userId;
+    long version;
 }
@@ -1,36 +1,29 @@
 package org.example.model;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDate;
-import java.util.Objects;
 import java.util.UUID;
 
-@Data
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
 @AllArgsConstructor
-@NoArgsConstructor
-public class Training {
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+public class Training implements Versioned {
 
-    private UUID id;
-    private UUID traineeId;
-    private UUID trainerId;
-    private UUID trainingTypeId;
-    private String name;
-    private LocalDate date;
-    private Number duration;
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Training training = (Training) o;
-        return Objects.equals(id, training.id) && Objects.equals(traineeId, training.traineeId) && Objects.equals(trainerId, training.trainerId) && Objects.equals(trainingTypeId, training.trainingTypeId) && Objects.equals(name, training.name) && Objects.equals(date, training.date) && Objects.equals(duration, training.duration);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(id, traineeId, trainerId, trainingTypeId, name, date, duration);
-    }
+    UUID id;
+    UUID traineeId;
+    UUID trainerId;
+    UUID trainingTypeId;
+    String name;
+    LocalDate date;
+    Number duration;
+    long version;
 }
@@ -1,31 +1,23 @@
 package org.example.model;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
 
-import java.util.Objects;
 import java.util.UUID;
 
-@Data
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
 @AllArgsConstructor
-@NoArgsConstructor
-public class TrainingType {
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+public class TrainingType implements Versioned {
 
-    private UUID id;
-    private String typeName;
-
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        TrainingType that = (TrainingType) o;
-        return Objects.equals(id, that.id) && Objects.equals(typeName, that.typeName);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(id, typeName);
-    }
+    UUID id;
+    String typeName;
+    long version;
 }
@@ -0,0 +1,9 @@
+package org.example.model;
+
+/**
+ * Entity whose version is bumped on every update.
+ */
+public interface Versioned {
+
+    long getVersion();
+}
@@ -0,0 +1,54 @@
+package org.example.query;
+
+import lombok.Value;
+import org.example.model.User;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * One restriction of a {@link Criteria}. Numbers compare by value, so a duration of {@code 60} matches
+ * {@code 60L}; {@link Operator#BETWEEN} is inclusive on both ends.
+ */
+@Value
+public class Condition<T> {
+
+    Field<T> field;
+    Operator operator;
+    List<Object> values;
+
+    public boolean matches(T entity, User user) {
+        Object value = field.valueOf(entity, user);
+        return switch (operator) {
+            case EQUALS -> same(value, values.get(0));
+            case IN -> values.stream().anyMatch(candidate -> same(value, candidate));
+            case BETWEEN -> value != null && compare(values.get(0), value) <= 0 && compare(value, values.get(1)) <= 0;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (operator) {
+            case EQUALS -> field.getName() + " = " + values.get(0);
+            case IN -> field.getName() + " in " + values.stream().map(String::valueOf)
+                    .collect(Collectors.joining(", ", "(", ")"));
+            case BETWEEN -> field.getName() + " between " + values.get(0) + " and " + values.get(1);
+        };
+    }
+
+    private static boolean same(Object value, Object expected) {
+        if (value instanceof Number && expected instanceof Number) {
+            return compare(value, expected) == 0;
+        }
+        return Objects.equals(value, expected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object left, Object right) {
+        if (left instanceof Number number && right instanceof Number other) {
+            return Double.compare(number.doubleValue(), other.doubleValue());
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+}
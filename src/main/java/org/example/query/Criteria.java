@@ -0,0 +1,100 @@
+package org.example.query;
+
+import org.example.exception.InvalidInputException;
+import org.example.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Conjunction of {@link Condition}s over one entity type, built fluently:
+ * {@code Criteria.where(TrainingField.TRAINER_ID).is(trainerId).and(TrainingField.DATE).between(from, to)}.
+ * Instances are immutable; every step returns a new one.
+ */
+public final class Criteria<T> {
+
+    private final List<Condition<T>> conditions;
+
+    private Criteria(List<Condition<T>> conditions) {
+        this.conditions = conditions;
+    }
+
+    public static <T> Clause<T> where(Field<T> field) {
+        return new Clause<>(List.of(), field);
+    }
+
+    public Clause<T> and(Field<T> field) {
+        return new Clause<>(conditions, field);
+    }
+
+    public List<Condition<T>> getConditions() {
+        return conditions;
+    }
+
+    public boolean matches(T entity, User user) {
+        for (Condition<T> condition : conditions) {
+            if (!condition.matches(entity, user)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if any condition reads a field of the User behind the entity.
+     */
+    public boolean needsUser() {
+        return conditions.stream().anyMatch(condition -> condition.getField().isUserField());
+    }
+
+    @Override
+    public String toString() {
+        return conditions.stream().map(Condition::toString).collect(Collectors.joining(" and "));
+    }
+
+    /**
+     * The operator half of a condition whose field is already chosen.
+     */
+    public static final class Clause<T> {
+
+        private final List<Condition<T>> conditions;
+        private final Field<T> field;
+
+        private Clause(List<Condition<T>> conditions, Field<T> field) {
+            this.conditions = conditions;
+            this.field = field;
+        }
+
+        public Criteria<T> is(Object value) {
+            return add(Operator.EQUALS, Collections.singletonList(value));
+        }
+
+        public Criteria<T> in(Collection<?> values) {
+            if (values == null || values.isEmpty()) {
+                throw new InvalidInputException("At least one value is required for " + field.getName() + " in");
+            }
+            return add(Operator.IN, new ArrayList<>(values));
+        }
+
+        /**
+         * @param from Lower bound, inclusive.
+         * @param to   Upper bound, inclusive.
+         */
+        public <V extends Comparable<? super V>> Criteria<T> between(V from, V to) {
+            if (from == null || to == null) {
+                throw new InvalidInputException("Both bounds are required for " + field.getName() + " between");
+            }
+            return add(Operator.BETWEEN, Arrays.asList(from, to));
+        }
+
+        private Criteria<T> add(Operator operator, List<Object> values) {
+            List<Condition<T>> next = new ArrayList<>(conditions);
+            next.add(new Condition<>(field, operator, Collections.unmodifiableList(values)));
+            return new Criteria<>(List.copyOf(next));
+        }
+    }
+}
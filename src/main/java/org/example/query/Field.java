@@ -0,0 +1,21 @@
+package org.example.query;
+
+import org.example.model.User;
+
+/**
+ * A queryable attribute of an entity. Trainees and trainers also expose the fields of their {@link User}; the engine
+ * resolves the user only for criteria that need one.
+ */
+public interface Field<T> {
+
+    String getName();
+
+    /**
+     * @param user The User behind the entity, or null when {@link #isUserField()} is false for every field queried.
+     */
+    Object valueOf(T entity, User user);
+
+    default boolean isUserField() {
+        return false;
+    }
+}
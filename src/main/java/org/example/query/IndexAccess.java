@@ -0,0 +1,22 @@
+package org.example.query;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Adapts one of the in-memory indexes to the planner. Lookups may return ids that no longer match, or no longer
+ * exist; the engine re-checks every candidate against the whole criteria.
+ */
+interface IndexAccess<T> {
+
+    String getName();
+
+    boolean supports(Condition<T> condition);
+
+    /**
+     * @return An upper bound of the ids {@link #lookup(Condition)} returns, computed without materialising them.
+     */
+    int estimate(Condition<T> condition);
+
+    Collection<UUID> lookup(Condition<T> condition);
+}
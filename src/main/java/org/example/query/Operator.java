@@ -0,0 +1,17 @@
+package org.example.query;
+
+public enum Operator {
+    EQUALS("="),
+    IN("in"),
+    BETWEEN("between");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+}
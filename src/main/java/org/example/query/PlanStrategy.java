@@ -0,0 +1,11 @@
+package org.example.query;
+
+/**
+ * How a {@link QueryPlan} finds its candidates.
+ */
+public enum PlanStrategy {
+    INDEX,
+    INDEX_INTERSECTION,
+    SCAN,
+    PARALLEL_SCAN
+}
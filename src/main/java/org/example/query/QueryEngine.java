@@ -0,0 +1,117 @@
+package org.example.query;
+
+import org.example.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Plans and runs {@link Criteria} over one entity store. The planner probes the index with the smallest estimate,
+ * intersects it with the other applicable indexes whose posting lists are of a comparable size, and falls back to a
+ * scan, parallel for large stores, only when no index applies. Every fetched candidate is re-checked against the
+ * whole criteria, so index results only have to be a superset of the answer.
+ */
+public class QueryEngine<T> {
+
+    static final int PARALLEL_THRESHOLD = 1024;
+    private static final int INTERSECT_RATIO = 4;
+
+    private final String entityName;
+    private final Map<UUID, T> storage;
+    private final Function<T, User> userLookup;
+    private final List<IndexAccess<T>> indexes;
+
+    /**
+     * @param userLookup Resolves the User behind an entity for user fields, or null for entities without one.
+     */
+    QueryEngine(String entityName, Map<UUID, T> storage, Function<T, User> userLookup, List<IndexAccess<T>> indexes) {
+        this.entityName = entityName;
+        this.storage = storage;
+        this.userLookup = userLookup;
+        this.indexes = List.copyOf(indexes);
+    }
+
+    public List<T> find(Criteria<T> criteria) {
+        return execute(plan(criteria));
+    }
+
+    public QueryPlan<T> plan(Criteria<T> criteria) {
+        List<QueryPlan.Probe<T>> candidates = new ArrayList<>();
+        for (Condition<T> condition : criteria.getConditions()) {
+            for (IndexAccess<T> index : indexes) {
+                if (index.supports(condition)) {
+                    candidates.add(new QueryPlan.Probe<>(index, condition, index.estimate(condition)));
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            int size = storage.size();
+            PlanStrategy strategy = size >= PARALLEL_THRESHOLD ? PlanStrategy.PARALLEL_SCAN : PlanStrategy.SCAN;
+            return new QueryPlan<>(entityName, criteria, strategy, size, List.of());
+        }
+        candidates.sort(Comparator.comparingInt(QueryPlan.Probe::getEstimate));
+        QueryPlan.Probe<T> driver = candidates.get(0);
+        List<QueryPlan.Probe<T>> probes = new ArrayList<>(List.of(driver));
+        Set<Condition<T>> probed = new HashSet<>(List.of(driver.getCondition()));
+        for (QueryPlan.Probe<T> candidate : candidates.subList(1, candidates.size())) {
+            if (driver.getEstimate() > 0 && candidate.getEstimate() <= (long) driver.getEstimate() * INTERSECT_RATIO
+                    && probed.add(candidate.getCondition())) {
+                probes.add(candidate);
+            }
+        }
+        PlanStrategy strategy = probes.size() > 1 ? PlanStrategy.INDEX_INTERSECTION : PlanStrategy.INDEX;
+        return new QueryPlan<>(entityName, criteria, strategy, driver.getEstimate(), List.copyOf(probes));
+    }
+
+    public List<T> execute(QueryPlan<T> plan) {
+        Criteria<T> criteria = plan.getCriteria();
+        boolean needsUser = userLookup != null && criteria.needsUser();
+        if (plan.getProbes().isEmpty()) {
+            Stream<T> rows = plan.getStrategy() == PlanStrategy.PARALLEL_SCAN
+                    ? storage.values().parallelStream()
+                    : storage.values().stream();
+            return rows.filter(entity -> matches(criteria, entity, needsUser)).collect(Collectors.toList());
+        }
+        Collection<UUID> ids = intersect(plan.getProbes());
+        List<T> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            T entity = storage.get(id);
+            if (entity != null && matches(criteria, entity, needsUser)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private Collection<UUID> intersect(List<QueryPlan.Probe<T>> probes) {
+        QueryPlan.Probe<T> driver = probes.get(0);
+        Collection<UUID> ids = driver.getIndex().lookup(driver.getCondition());
+        for (QueryPlan.Probe<T> probe : probes.subList(1, probes.size())) {
+            if (ids.isEmpty()) {
+                break;
+            }
+            Set<UUID> other = new HashSet<>(probe.getIndex().lookup(probe.getCondition()));
+            List<UUID> kept = new ArrayList<>(Math.min(ids.size(), other.size()));
+            for (UUID id : ids) {
+                if (other.contains(id)) {
+                    kept.add(id);
+                }
+            }
+            ids = kept;
+        }
+        return ids;
+    }
+
+    private boolean matches(Criteria<T> criteria, T entity, boolean needsUser) {
+        return criteria.matches(entity, needsUser ? userLookup.apply(entity) : null);
+    }
+}
@@ -0,0 +1,299 @@
+package org.example.query;
+
+import org.example.index.ActiveUserIndex;
+import org.example.index.PostingIndex;
+import org.example.index.TrainingBuckets;
+import org.example.index.UsernameIndex;
+import org.example.model.Role;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.model.User;
+import org.example.service.InMemoryStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Builds the {@link QueryEngine} of each entity type on top of the indexes kept by {@link InMemoryStorage}.
+ */
+public final class QueryEngines {
+
+    private QueryEngines() {
+    }
+
+    /**
+     * Trainings are indexed by id, trainer, trainee and date. Archived trainings are not queried.
+     */
+    public static QueryEngine<Training> trainings(InMemoryStorage storage) {
+        return new QueryEngine<>("Training", storage.getTrainingStorage(), null, List.of(
+                new KeyLookup<>("trainingStorage", TrainingField.ID),
+                new PostingLookup<>("trainingsByTrainer", TrainingField.TRAINER_ID, storage.getTrainingsByTrainer()),
+                new PostingLookup<>("trainingsByTrainee", TrainingField.TRAINEE_ID, storage.getTrainingsByTrainee()),
+                new DateLookup(storage.getTrainingBuckets())));
+    }
+
+    /**
+     * Trainees are indexed by id, user id, username and active flag.
+     */
+    public static QueryEngine<Trainee> trainees(InMemoryStorage storage) {
+        Map<UUID, User> users = storage.getUserStorage();
+        ActiveUserIndex activeUserIndex = storage.getActiveUserIndex();
+        UsernameIndex usernameIndex = storage.getUsernameIndex();
+        return new QueryEngine<>("Trainee", storage.getTraineeStorage(), trainee -> users.get(trainee.getUserId()),
+                List.of(new KeyLookup<>("traineeStorage", TraineeField.ID),
+                        new OwnerLookup<>("activeUserIndex", TraineeField.USER_ID, UUID.class, UUID.class::cast,
+                                activeUserIndex),
+                        new OwnerLookup<>("usernameIndex", TraineeField.USERNAME, String.class,
+                                username -> usernameIndex.find((String) username).orElse(null), activeUserIndex),
+                        new ActiveLookup<>(TraineeField.ACTIVE, Role.TRAINEE, activeUserIndex)));
+    }
+
+    /**
+     * Trainers are indexed by id, user id, username and active flag.
+     */
+    public static QueryEngine<Trainer> trainers(InMemoryStorage storage) {
+        Map<UUID, User> users = storage.getUserStorage();
+        ActiveUserIndex activeUserIndex = storage.getActiveUserIndex();
+        UsernameIndex usernameIndex = storage.getUsernameIndex();
+        return new QueryEngine<>("Trainer", storage.getTrainerStorage(), trainer -> users.get(trainer.getUserId()),
+                List.of(new KeyLookup<>("trainerStorage", TrainerField.ID),
+                        new OwnerLookup<>("activeUserIndex", TrainerField.USER_ID, UUID.class, UUID.class::cast,
+                                activeUserIndex),
+                        new OwnerLookup<>("usernameIndex", TrainerField.USERNAME, String.class,
+                                username -> usernameIndex.find((String) username).orElse(null), activeUserIndex),
+                        new ActiveLookup<>(TrainerField.ACTIVE, Role.TRAINER, activeUserIndex)));
+    }
+
+    private static boolean isEqualityOn(Condition<?> condition, Field<?> field, Class<?> valueType) {
+        return condition.getField() == field
+                && (condition.getOperator() == Operator.EQUALS || condition.getOperator() == Operator.IN)
+                && condition.getValues().stream().allMatch(valueType::isInstance);
+    }
+
+    /**
+     * Primary key lookup: the ids are the answer.
+     */
+    private static final class KeyLookup<T> implements IndexAccess<T> {
+
+        private final String name;
+        private final Field<T> field;
+
+        KeyLookup(String name, Field<T> field) {
+            this.name = name;
+            this.field = field;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean supports(Condition<T> condition) {
+            return isEqualityOn(condition, field, UUID.class);
+        }
+
+        @Override
+        public int estimate(Condition<T> condition) {
+            return condition.getValues().size();
+        }
+
+        @Override
+        public Collection<UUID> lookup(Condition<T> condition) {
+            Set<UUID> ids = new LinkedHashSet<>();
+            condition.getValues().forEach(value -> ids.add((UUID) value));
+            return ids;
+        }
+    }
+
+    private static final class PostingLookup<T> implements IndexAccess<T> {
+
+        private final String name;
+        private final Field<T> field;
+        private final PostingIndex<UUID> index;
+
+        PostingLookup(String name, Field<T> field, PostingIndex<UUID> index) {
+            this.name = name;
+            this.field = field;
+            this.index = index;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean supports(Condition<T> condition) {
+            return isEqualityOn(condition, field, UUID.class);
+        }
+
+        @Override
+        public int estimate(Condition<T> condition) {
+            int estimate = 0;
+            for (Object key : condition.getValues()) {
+                estimate += index.count((UUID) key);
+            }
+            return estimate;
+        }
+
+        @Override
+        public Collection<UUID> lookup(Condition<T> condition) {
+            if (condition.getValues().size() == 1) {
+                return index.ids((UUID) condition.getValues().get(0));
+            }
+            Set<UUID> ids = new LinkedHashSet<>();
+            for (Object key : condition.getValues()) {
+                ids.addAll(index.ids((UUID) key));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Monthly date buckets; whole months are returned and the exact dates are filtered afterwards.
+     */
+    private static final class DateLookup implements IndexAccess<Training> {
+
+        private final TrainingBuckets buckets;
+
+        DateLookup(TrainingBuckets buckets) {
+            this.buckets = buckets;
+        }
+
+        @Override
+        public String getName() {
+            return "trainingBuckets";
+        }
+
+        @Override
+        public boolean supports(Condition<Training> condition) {
+            return condition.getField() == TrainingField.DATE
+                    && (condition.getOperator() == Operator.EQUALS || condition.getOperator() == Operator.BETWEEN)
+                    && condition.getValues().stream().allMatch(LocalDate.class::isInstance);
+        }
+
+        @Override
+        public int estimate(Condition<Training> condition) {
+            return isEmptyRange(condition) ? 0 : buckets.countBetween(from(condition), to(condition));
+        }
+
+        @Override
+        public Collection<UUID> lookup(Condition<Training> condition) {
+            return isEmptyRange(condition) ? List.of() : buckets.idsBetween(from(condition), to(condition));
+        }
+
+        private static boolean isEmptyRange(Condition<Training> condition) {
+            return from(condition).isAfter(to(condition));
+        }
+
+        private static LocalDate from(Condition<Training> condition) {
+            return (LocalDate) condition.getValues().get(0);
+        }
+
+        private static LocalDate to(Condition<Training> condition) {
+            return (LocalDate) condition.getValues().get(condition.getValues().size() - 1);
+        }
+    }
+
+    /**
+     * Resolves a user key, such as the user id or the username, to the Trainee or Trainer owning the user.
+     */
+    private static final class OwnerLookup<T> implements IndexAccess<T> {
+
+        private final String name;
+        private final Field<T> field;
+        private final Class<?> keyType;
+        private final Function<Object, UUID> userIdResolver;
+        private final ActiveUserIndex activeUserIndex;
+
+        OwnerLookup(String name, Field<T> field, Class<?> keyType, Function<Object, UUID> userIdResolver,
+                    ActiveUserIndex activeUserIndex) {
+            this.name = name;
+            this.field = field;
+            this.keyType = keyType;
+            this.userIdResolver = userIdResolver;
+            this.activeUserIndex = activeUserIndex;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean supports(Condition<T> condition) {
+            return isEqualityOn(condition, field, keyType);
+        }
+
+        @Override
+        public int estimate(Condition<T> condition) {
+            return condition.getValues().size();
+        }
+
+        @Override
+        public Collection<UUID> lookup(Condition<T> condition) {
+            List<UUID> owners = new ArrayList<>(condition.getValues().size());
+            for (Object key : condition.getValues()) {
+                UUID userId = userIdResolver.apply(key);
+                UUID ownerId = userId == null ? null : activeUserIndex.ownerOf(userId);
+                if (ownerId != null) {
+                    owners.add(ownerId);
+                }
+            }
+            return owners;
+        }
+    }
+
+    /**
+     * The active flag, answered from the bitsets of the {@link ActiveUserIndex}.
+     */
+    private static final class ActiveLookup<T> implements IndexAccess<T> {
+
+        private final Field<T> field;
+        private final Role role;
+        private final ActiveUserIndex activeUserIndex;
+
+        ActiveLookup(Field<T> field, Role role, ActiveUserIndex activeUserIndex) {
+            this.field = field;
+            this.role = role;
+            this.activeUserIndex = activeUserIndex;
+        }
+
+        @Override
+        public String getName() {
+            return "activeUserIndex";
+        }
+
+        @Override
+        public boolean supports(Condition<T> condition) {
+            return condition.getField() == field && condition.getOperator() == Operator.EQUALS
+                    && condition.getValues().get(0) instanceof Boolean;
+        }
+
+        @Override
+        public int estimate(Condition<T> condition) {
+            int active = activeUserIndex.activeCount(role);
+            return isActive(condition) ? active : activeUserIndex.size(role) - active;
+        }
+
+        @Override
+        public Collection<UUID> lookup(Condition<T> condition) {
+            return activeUserIndex.ownersOf(isActive(condition)
+                    ? activeUserIndex.activeOrdinals(role)
+                    : activeUserIndex.inactiveOrdinals(role));
+        }
+
+        private static boolean isActive(Condition<?> condition) {
+            return (Boolean) condition.getValues().get(0);
+        }
+    }
+}
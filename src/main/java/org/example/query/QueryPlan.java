@@ -0,0 +1,82 @@
+package org.example.query;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The access path chosen for a {@link Criteria}: the index probes whose results are intersected, or a scan, and an
+ * upper bound of the rows fetched from storage. {@link #explain()} renders it for people.
+ */
+@Getter
+public class QueryPlan<T> {
+
+    private final String entityName;
+    private final Criteria<T> criteria;
+    private final PlanStrategy strategy;
+    private final int estimatedRows;
+    @Getter(AccessLevel.PACKAGE)
+    private final List<Probe<T>> probes;
+
+    QueryPlan(String entityName, Criteria<T> criteria, PlanStrategy strategy, int estimatedRows,
+              List<Probe<T>> probes) {
+        this.entityName = entityName;
+        this.criteria = criteria;
+        this.strategy = strategy;
+        this.estimatedRows = estimatedRows;
+        this.probes = probes;
+    }
+
+    /**
+     * @return Names of the indexes probed, most selective first; empty for scans.
+     */
+    public List<String> getIndexNames() {
+        return probes.stream().map(probe -> probe.getIndex().getName()).collect(Collectors.toList());
+    }
+
+    public String explain() {
+        StringBuilder explanation = new StringBuilder(entityName);
+        if (!criteria.getConditions().isEmpty()) {
+            explanation.append(" where ").append(criteria);
+        }
+        explanation.append('\n').append(strategy).append(", at most ").append(estimatedRows).append(" rows");
+        for (int i = 0; i < probes.size(); i++) {
+            Probe<T> probe = probes.get(i);
+            explanation.append("\n  ").append(i == 0 ? "index " : "intersect ").append(probe.getIndex().getName())
+                    .append(" on ").append(probe.getCondition()).append(" (~").append(probe.getEstimate())
+                    .append(')');
+        }
+        if (probes.isEmpty()) {
+            explanation.append("\n  ").append(strategy == PlanStrategy.PARALLEL_SCAN ? "parallel scan" : "scan")
+                    .append(" of all ").append(entityName).append(" rows");
+        }
+        if (!criteria.getConditions().isEmpty()) {
+            explanation.append("\n  filter ").append(criteria);
+        }
+        return explanation.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+
+    /**
+     * One index lookup of the plan.
+     */
+    @Getter
+    static final class Probe<T> {
+
+        private final IndexAccess<T> index;
+        private final Condition<T> condition;
+        private final int estimate;
+
+        Probe(IndexAccess<T> index, Condition<T> condition, int estimate) {
+            this.index = index;
+            this.condition = condition;
+            this.estimate = estimate;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.query;
+
+import org.example.model.Trainee;
+import org.example.model.User;
+
+import java.util.function.Function;
+
+public enum TraineeField implements Field<Trainee> {
+    ID("id", Trainee::getId, null),
+    USER_ID("userId", Trainee::getUserId, null),
+    ADDRESS("address", Trainee::getAddress, null),
+    FIRST_NAME("firstName", null, User::getFirstName),
+    LAST_NAME("lastName", null, User::getLastName),
+    USERNAME("username", null, User::getUsername),
+    ACTIVE("active", null, User::isActive);
+
+    private final String name;
+    private final Function<Trainee, Object> getter;
+    private final Function<User, Object> userGetter;
+
+    TraineeField(String name, Function<Trainee, Object> getter, Function<User, Object> userGetter) {
+        this.name = name;
+        this.getter = getter;
+        this.userGetter = userGetter;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object valueOf(Trainee trainee, User user) {
+        if (userGetter == null) {
+            return getter.apply(trainee);
+        }
+        return user == null ? null : userGetter.apply(user);
+    }
+
+    @Override
+    public boolean isUserField() {
+        return userGetter != null;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.query;
+
+import org.example.model.Trainer;
+import org.example.model.User;
+
+import java.util.function.Function;
+
+public enum TrainerField implements Field<Trainer> {
+    ID("id", Trainer::getId, null),
+    USER_ID("userId", Trainer::getUserId, null),
+    SPECIALIZATION("specialization", Trainer::getSpecialization, null),
+    FIRST_NAME("firstName", null, User::getFirstName),
+    LAST_NAME("lastName", null, User::getLastName),
+    USERNAME("username", null, User::getUsername),
+    ACTIVE("active", null, User::isActive);
+
+    private final String name;
+    private final Function<Trainer, Object> getter;
+    private final Function<User, Object> userGetter;
+
+    TrainerField(String name, Function<Trainer, Object> getter, Function<User, Object> userGetter) {
+        this.name = name;
+        this.getter = getter;
+        this.userGetter = userGetter;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object valueOf(Trainer trainer, User user) {
+        if (userGetter == null) {
+            return getter.apply(trainer);
+        }
+        return user == null ? null : userGetter.apply(user);
+    }
+
+    @Override
+    public boolean isUserField() {
+        return userGetter != null;
+    }
+}
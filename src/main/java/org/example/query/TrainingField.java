@@ -0,0 +1,34 @@
+package org.example.query;
+
+import org.example.model.Training;
+import org.example.model.User;
+
+import java.util.function.Function;
+
+public enum TrainingField implements Field<Training> {
+    ID("id", Training::getId),
+    TRAINEE_ID("traineeId", Training::getTraineeId),
+    TRAINER_ID("trainerId", Training::getTrainerId),
+    TRAINING_TYPE_ID("trainingTypeId", Training::getTrainingTypeId),
+    NAME("name", Training::getName),
+    DATE("date", Training::getDate),
+    DURATION("duration", Training::getDuration);
+
+    private final String name;
+    private final Function<Training, Object> getter;
+
+    TrainingField(String name, Function<Training, Object> getter) {
+        this.name = name;
+        this.getter = getter;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object valueOf(Training training, User user) {
+        return getter.apply(training);
+    }
+}
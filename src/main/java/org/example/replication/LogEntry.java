@@ -0,0 +1,39 @@
+package org.example.replication;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
+
+import java.util.UUID;
+
+/**
+ * One frame of the replication stream. Changes carry the sequence the {@link org.example.event.ChangeEventBus}
+ * assigned to them and the entity state as a JSON tree; snapshot entries carry the state of one stored entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogEntry {
+
+    public enum Kind {
+        SNAPSHOT,
+        SNAPSHOT_END,
+        CHANGE,
+        HEARTBEAT
+    }
+
+    private Kind kind;
+    private long sequence;
+    private ChangeType changeType;
+    private EntityType entityType;
+    private UUID entityId;
+    private long timestamp;
+    private JsonNode entity;
+
+    public static LogEntry marker(Kind kind, long sequence) {
+        return new LogEntry(kind, sequence, null, null, null, System.currentTimeMillis(), null);
+    }
+}
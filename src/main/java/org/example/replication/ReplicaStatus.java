@@ -0,0 +1,38 @@
+package org.example.replication;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Point-in-time replication state of a replica, as reported next to the reads it serves.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReplicaStatus {
+
+    private final boolean connected;
+
+    /**
+     * Whether the initial snapshot has been fully applied; before that reads see a partial store.
+     */
+    private final boolean caughtUp;
+
+    private final long appliedSequence;
+
+    /**
+     * Latest sequence the primary is known to have published, from the last change or heartbeat received.
+     */
+    private final long primarySequence;
+
+    /**
+     * Milliseconds since the primary last vouched that this replica was complete: the time of the last heartbeat,
+     * or the publish time of the change applied last while more were pending.
+     */
+    private final long lagMillis;
+
+    public long getLagEntries() {
+        return Math.max(0, primarySequence - appliedSequence);
+    }
+}
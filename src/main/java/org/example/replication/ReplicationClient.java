@@ -0,0 +1,353 @@
+package org.example.replication;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.example.event.EntityType;
+import org.example.index.ActiveUserIndex;
+import org.example.index.TrainingBuckets;
+import org.example.memory.AccountedStore;
+import org.example.model.Role;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.model.TrainingType;
+import org.example.model.User;
+import org.example.model.Versioned;
+import org.example.service.InMemoryStorage;
+import org.example.stats.TrainingStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Replica side of log shipping. Connects to a {@link ReplicationServer}, applies the snapshot and then the change
+ * log to its own {@link InMemoryStorage}, keeping the username, active-user, bucket and statistics indexes in step,
+ * so the regular services can serve reads from it. Entities the replica held from an earlier connection but that
+ * were not part of a new snapshot are removed when the snapshot ends. On disconnect it reconnects and catches up
+ * from a fresh snapshot, also after an entry it failed to apply. Entities are written past the hard limits of the
+ * replica's stores: the primary admitted them already, and a replica that rejected them would stop following it.
+ */
+public class ReplicationClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationClient.class);
+
+    private final InMemoryStorage storage;
+    private final String host;
+    private final int port;
+    private final long reconnectMillis;
+    private final Map<EntityType, Set<UUID>> snapshotIds = new EnumMap<>(EntityType.class);
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile boolean caughtUp;
+    private volatile long appliedSequence = -1;
+    private volatile long primarySequence = -1;
+    private volatile long confirmedAt;
+    private volatile Socket socket;
+    private Thread thread;
+
+    public ReplicationClient(InMemoryStorage storage, String host, int port) {
+        this(storage, host, port, 1000);
+    }
+
+    /**
+     * @param reconnectMillis Pause before reconnecting after the connection to the primary was lost.
+     */
+    public ReplicationClient(InMemoryStorage storage, String host, int port, long reconnectMillis) {
+        this.storage = storage;
+        this.host = host;
+        this.port = port;
+        this.reconnectMillis = reconnectMillis;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "replication-client");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public ReplicaStatus getStatus() {
+        long lagMillis = confirmedAt == 0 ? -1 : Math.max(0, System.currentTimeMillis() - confirmedAt);
+        return new ReplicaStatus(connected, caughtUp, appliedSequence, primarySequence, lagMillis);
+    }
+
+    /**
+     * Waits until the replica has applied the snapshot and every change up to the given sequence.
+     *
+     * @return false if that did not happen within the timeout.
+     */
+    public boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!caughtUp || appliedSequence < sequence) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        closeSocket();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(host, port), 5000);
+                connection.setTcpNoDelay(true);
+                connected = true;
+                snapshotIds.clear();
+                logger.info("Connected to replication primary {}:{}", host, port);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+                while (running) {
+                    apply(ReplicationCodec.readFrame(in));
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Replication from {}:{} interrupted: {}", host, port, e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                if (running) {
+                    logger.error("Replication from {}:{} failed to apply an entry, resyncing from a snapshot", host,
+                            port, e);
+                }
+            } finally {
+                connected = false;
+                caughtUp = false;
+            }
+            pause();
+        }
+    }
+
+    void apply(LogEntry entry) throws IOException {
+        switch (entry.getKind()) {
+            case SNAPSHOT -> {
+                snapshotIds.computeIfAbsent(entry.getEntityType(), type -> new HashSet<>()).add(entry.getEntityId());
+                put(entry.getEntityType(), entry.getEntityId(), entry.getEntity());
+            }
+            case SNAPSHOT_END -> {
+                removeMissing();
+                appliedSequence = entry.getSequence();
+                primarySequence = Math.max(primarySequence, entry.getSequence());
+                confirmedAt = entry.getTimestamp();
+                caughtUp = true;
+                logger.info("Replica caught up with snapshot at sequence {}", entry.getSequence());
+            }
+            case CHANGE -> {
+                switch (entry.getChangeType()) {
+                    case CREATED, UPDATED -> put(entry.getEntityType(), entry.getEntityId(), entry.getEntity());
+                    case DELETED -> remove(entry.getEntityType(), entry.getEntityId());
+                    case ARCHIVED -> evict(entry.getEntityId());
+                }
+                appliedSequence = entry.getSequence();
+                primarySequence = Math.max(primarySequence, entry.getSequence());
+                confirmedAt = entry.getTimestamp();
+            }
+            case HEARTBEAT -> {
+                primarySequence = Math.max(primarySequence, entry.getSequence());
+                if (appliedSequence >= entry.getSequence()) {
+                    confirmedAt = entry.getTimestamp();
+                }
+            }
+        }
+    }
+
+    private void put(EntityType entityType, UUID id, JsonNode json) throws IOException {
+        switch (entityType) {
+            case USER -> {
+                User user = ReplicationCodec.MAPPER.treeToValue(json, User.class);
+                if (isNewer(storage.getUserStorage(), id, user)) {
+                    User previous = write(storage.getUserStorage(), id, user);
+                    storage.getUsernameIndex().rename(previous == null ? null : previous.getUsername(),
+                            user.getUsername(), id);
+                    storage.getActiveUserIndex().setActive(List.of(id), user.isActive());
+                }
+            }
+            case TRAINING_TYPE -> {
+                TrainingType trainingType = ReplicationCodec.MAPPER.treeToValue(json, TrainingType.class);
+                if (isNewer(storage.getTrainingTypeStorage(), id, trainingType)) {
+                    write(storage.getTrainingTypeStorage(), id, trainingType);
+                }
+            }
+            case TRAINEE -> {
+                Trainee trainee = ReplicationCodec.MAPPER.treeToValue(json, Trainee.class);
+                if (isNewer(storage.getTraineeStorage(), id, trainee)) {
+                    write(storage.getTraineeStorage(), id, trainee);
+                    register(trainee.getUserId(), id, Role.TRAINEE);
+                }
+            }
+            case TRAINER -> {
+                Trainer trainer = ReplicationCodec.MAPPER.treeToValue(json, Trainer.class);
+                if (isNewer(storage.getTrainerStorage(), id, trainer)) {
+                    write(storage.getTrainerStorage(), id, trainer);
+                    register(trainer.getUserId(), id, Role.TRAINER);
+                    storage.getTrainerLoadIndex().register(trainer);
+                }
+            }
+            case TRAINING -> {
+                Training training = ReplicationCodec.MAPPER.treeToValue(json, Training.class);
+                if (isNewer(storage.getTrainingStorage(), id, training)) {
+                    Training previous = write(storage.getTrainingStorage(), id, training);
+                    TrainingStatistics statistics = storage.getTrainingStatistics();
+                    TrainingBuckets buckets = storage.getTrainingBuckets();
+                    if (previous != null) {
+                        statistics.remove(previous);
+                        storage.getTrainerLoadIndex().remove(previous);
+                        storage.getRelationshipGraph().remove(previous);
+                        buckets.move(id, previous.getDate(), training.getDate());
+                        storage.getTrainingsByTrainer().move(id, previous.getTrainerId(), training.getTrainerId());
+                        storage.getTrainingsByTrainee().move(id, previous.getTraineeId(), training.getTraineeId());
+                    } else {
+                        buckets.add(id, training.getDate());
+                        storage.getTrainingsByTrainer().add(training.getTrainerId(), id);
+                        storage.getTrainingsByTrainee().add(training.getTraineeId(), id);
+                    }
+                    statistics.record(training);
+                    storage.getTrainerLoadIndex().record(training);
+                    storage.getRelationshipGraph().record(training);
+                }
+            }
+        }
+    }
+
+    private void remove(EntityType entityType, UUID id) {
+        switch (entityType) {
+            case USER -> {
+                User user = storage.getUserStorage().remove(id);
+                if (user != null) {
+                    storage.getUsernameIndex().remove(user.getUsername(), id);
+                }
+            }
+            case TRAINING_TYPE -> storage.getTrainingTypeStorage().remove(id);
+            case TRAINEE -> {
+                Trainee trainee = storage.getTraineeStorage().remove(id);
+                if (trainee != null) {
+                    storage.getActiveUserIndex().remove(trainee.getUserId());
+                    storage.getRelationshipGraph().removeTrainee(id);
+                }
+            }
+            case TRAINER -> {
+                Trainer trainer = storage.getTrainerStorage().remove(id);
+                if (trainer != null) {
+                    storage.getActiveUserIndex().remove(trainer.getUserId());
+                    storage.getTrainerLoadIndex().unregister(id);
+                    storage.getRelationshipGraph().removeTrainer(id);
+                }
+            }
+            case TRAINING -> {
+                Training training = storage.getTrainingStorage().remove(id);
+                if (training != null) {
+                    storage.getTrainingStatistics().remove(training);
+                    storage.getTrainerLoadIndex().remove(training);
+                    storage.getRelationshipGraph().remove(training);
+                    storage.getTrainingBuckets().remove(id, training.getDate());
+                    storage.getTrainingsByTrainer().remove(training.getTrainerId(), id);
+                    storage.getTrainingsByTrainee().remove(training.getTraineeId(), id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops an archived training from memory; like on the primary, it stays in the statistics and the graph.
+     */
+    private void evict(UUID id) {
+        Training training = storage.getTrainingStorage().remove(id);
+        if (training != null) {
+            storage.getTrainerLoadIndex().remove(training);
+            storage.getTrainingBuckets().remove(id, training.getDate());
+            storage.getTrainingsByTrainer().remove(training.getTrainerId(), id);
+            storage.getTrainingsByTrainee().remove(training.getTraineeId(), id);
+        }
+    }
+
+    /**
+     * Drops what the previous connection left behind and the new snapshot no longer contains, owners before the
+     * users and types they refer to.
+     */
+    private void removeMissing() {
+        removeMissing(EntityType.TRAINING, storage.getTrainingStorage().keySet());
+        removeMissing(EntityType.TRAINEE, storage.getTraineeStorage().keySet());
+        removeMissing(EntityType.TRAINER, storage.getTrainerStorage().keySet());
+        removeMissing(EntityType.TRAINING_TYPE, storage.getTrainingTypeStorage().keySet());
+        removeMissing(EntityType.USER, storage.getUserStorage().keySet());
+        snapshotIds.clear();
+    }
+
+    private void removeMissing(EntityType entityType, Set<UUID> ids) {
+        Set<UUID> kept = snapshotIds.getOrDefault(entityType, Set.of());
+        for (UUID id : List.copyOf(ids)) {
+            if (!kept.contains(id)) {
+                remove(entityType, id);
+            }
+        }
+    }
+
+    private void register(UUID userId, UUID ownerId, Role role) {
+        User user = storage.getUserStorage().get(userId);
+        ActiveUserIndex activeUserIndex = storage.getActiveUserIndex();
+        activeUserIndex.register(userId, ownerId, role, user != null && user.isActive());
+    }
+
+    /**
+     * A change replayed after a snapshot that already contains a later state of the entity is skipped.
+     */
+    private static <T extends Versioned> boolean isNewer(Map<UUID, T> store, UUID id, T incoming) {
+        T current = store.get(id);
+        return current == null || current.getVersion() <= incoming.getVersion();
+    }
+
+    /**
+     * Writes an entity the primary admitted, without checking the hard limit of an accounted store again.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T write(Map<UUID, T> store, UUID id, T entity) {
+        if (store instanceof AccountedStore<?> accountedStore) {
+            return ((AccountedStore<T>) accountedStore).putAdmitted(id, entity);
+        }
+        return store.put(id, entity);
+    }
+
+    private void pause() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(reconnectMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.debug("Closing replication socket failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.serialization.Codec;
+import org.example.serialization.Serialization;
+import org.example.serialization.WireFormat;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Length-prefixed Smile framing of {@link LogEntry}s. Frames are encoded once on the primary and the same bytes are
+ * written to every replica.
+ */
+final class ReplicationCodec {
+
+    static final ObjectMapper MAPPER = Serialization.mapper(WireFormat.JSON);
+
+    private static final Codec<LogEntry> CODEC = Serialization.codec(LogEntry.class);
+    private static final int MAX_FRAME_SIZE = 16 << 20;
+
+    private ReplicationCodec() {
+    }
+
+    static byte[] encode(LogEntry entry) throws IOException {
+        return CODEC.encode(entry, WireFormat.SMILE);
+    }
+
+    static void writeFrame(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+    }
+
+    static LogEntry readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid replication frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return CODEC.decode(frame, WireFormat.SMILE);
+    }
+}
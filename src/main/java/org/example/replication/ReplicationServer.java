@@ -0,0 +1,255 @@
+package org.example.replication;
+
+import org.example.event.ChangeEvent;
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeEventSubscription;
+import org.example.event.EntityType;
+import org.example.event.WaitStrategy;
+import org.example.service.InMemoryStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary side of log shipping. Every change published on the {@link ChangeEventBus} is encoded once into a frame
+ * and queued for each connected replica. A replica that connects is registered for new frames first, then receives
+ * a snapshot of the storage and finally the frames queued meanwhile, so nothing published after it connected is
+ * missed; replaying a change the snapshot already contains is harmless because replicas skip older versions. A
+ * replica's queue holds the changes published during its snapshot on top of the configured capacity, so a long
+ * snapshot does not overflow it; a replica whose queue still overflows is disconnected and catches up again from a
+ * fresh snapshot. Heartbeats carrying the latest shipped sequence are interleaved with the changes, so a busy replica
+ * still learns how far behind it is.
+ */
+public class ReplicationServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationServer.class);
+
+    private final InMemoryStorage storage;
+    private final ChangeEventBus changeEventBus;
+    private final int port;
+    private final long heartbeatMillis;
+    private final int queueCapacity;
+    private final Set<ReplicaConnection> replicas = ConcurrentHashMap.newKeySet();
+    private volatile long lastSequence = -1;
+    private ServerSocket serverSocket;
+    private ChangeEventSubscription subscription;
+    private volatile boolean running;
+
+    public ReplicationServer(InMemoryStorage storage, ChangeEventBus changeEventBus, int port, long heartbeatMillis) {
+        this(storage, changeEventBus, port, heartbeatMillis, 65536);
+    }
+
+    /**
+     * @param port            TCP port to listen on, 0 for an ephemeral one.
+     * @param heartbeatMillis Interval of the heartbeats replicas derive their lag from.
+     * @param queueCapacity   Frames a replica may fall behind, beyond the size of its snapshot, before it is
+     *                        disconnected.
+     */
+    public ReplicationServer(InMemoryStorage storage, ChangeEventBus changeEventBus, int port, long heartbeatMillis,
+                             int queueCapacity) {
+        this.storage = storage;
+        this.changeEventBus = changeEventBus;
+        this.port = port;
+        this.heartbeatMillis = heartbeatMillis;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        running = true;
+        subscription = changeEventBus.subscribe("replication-log", (event, endOfBatch) -> ship(event), 256,
+                WaitStrategy.SLEEP);
+        Thread acceptor = new Thread(this::accept, "replication-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Replication primary listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return serverSocket == null ? port : serverSocket.getLocalPort();
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * @return Sequence of the last change shipped to the replicas.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (subscription != null) {
+            subscription.close();
+        }
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not close replication socket", e);
+        }
+        for (ReplicaConnection replica : replicas) {
+            replica.close();
+        }
+    }
+
+    private void ship(ChangeEvent event) {
+        if (!replicas.isEmpty()) {
+            byte[] frame = encode(new LogEntry(LogEntry.Kind.CHANGE, event.getSequence(), event.getChangeType(),
+                    event.getEntityType(), event.getEntityId(), event.getTimestamp(),
+                    ReplicationCodec.MAPPER.valueToTree(event.getEntity())));
+            for (ReplicaConnection replica : replicas) {
+                replica.enqueue(frame);
+            }
+        }
+        lastSequence = event.getSequence();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                ReplicaConnection replica = new ReplicaConnection(socket);
+                replicas.add(replica);
+                Thread sender = new Thread(replica::run, "replication-" + socket.getRemoteSocketAddress());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Accepting a replica failed", e);
+                }
+            }
+        }
+    }
+
+    private static byte[] encode(LogEntry entry) {
+        try {
+            return ReplicationCodec.encode(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class ReplicaConnection {
+
+        private final Socket socket;
+        private final int capacity;
+        private final BlockingQueue<byte[]> queue;
+        private volatile boolean overflowed;
+
+        /**
+         * Sizes the queue to cover a change to every entity while the snapshot is sent. The linked queue allocates
+         * its nodes as frames arrive, so the allowance costs nothing unless it is used.
+         */
+        ReplicaConnection(Socket socket) {
+            this.socket = socket;
+            long snapshotSize = (long) storage.getUserStorage().size() + storage.getTrainingTypeStorage().size()
+                    + storage.getTraineeStorage().size() + storage.getTrainerStorage().size()
+                    + storage.getTrainingStorage().size();
+            this.capacity = (int) Math.min(Integer.MAX_VALUE, queueCapacity + snapshotSize);
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+
+        void enqueue(byte[] frame) {
+            if (!overflowed && !queue.offer(frame)) {
+                overflowed = true;
+                logger.warn("Replica {} fell {} frames behind, disconnecting", socket.getRemoteSocketAddress(),
+                        capacity);
+                close();
+            }
+        }
+
+        void run() {
+            logger.info("Replica {} connected, sending snapshot", socket.getRemoteSocketAddress());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                long snapshotSequence = lastSequence;
+                int entities = sendSnapshot(out);
+                ReplicationCodec.writeFrame(out, encode(LogEntry.marker(LogEntry.Kind.SNAPSHOT_END, snapshotSequence)));
+                out.flush();
+                logger.info("Snapshot of {} entities sent to {}", entities, socket.getRemoteSocketAddress());
+                long nextHeartbeat = 0;
+                while (running && !overflowed) {
+                    byte[] frame = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (frame != null) {
+                        ReplicationCodec.writeFrame(out, frame);
+                    }
+                    long now = System.currentTimeMillis();
+                    if (now >= nextHeartbeat) {
+                        ReplicationCodec.writeFrame(out, encode(LogEntry.marker(LogEntry.Kind.HEARTBEAT, lastSequence)));
+                        nextHeartbeat = now + heartbeatMillis;
+                    }
+                    if (queue.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (SocketException e) {
+                logger.info("Replica {} disconnected", socket.getRemoteSocketAddress());
+            } catch (IOException e) {
+                logger.warn("Shipping to replica {} failed", socket.getRemoteSocketAddress(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            replicas.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Closing replica socket failed", e);
+            }
+        }
+
+        /**
+         * Users and training types go first, so every entity arrives after the ones it refers to.
+         */
+        private int sendSnapshot(DataOutputStream out) throws IOException {
+            int entities = 0;
+            entities += sendAll(out, EntityType.USER, storage.getUserStorage());
+            entities += sendAll(out, EntityType.TRAINING_TYPE, storage.getTrainingTypeStorage());
+            entities += sendAll(out, EntityType.TRAINEE, storage.getTraineeStorage());
+            entities += sendAll(out, EntityType.TRAINER, storage.getTrainerStorage());
+            entities += sendAll(out, EntityType.TRAINING, storage.getTrainingStorage());
+            return entities;
+        }
+
+        private int sendAll(DataOutputStream out, EntityType entityType, Map<UUID, ?> store) throws IOException {
+            int count = 0;
+            long now = System.currentTimeMillis();
+            for (Map.Entry<UUID, ?> entry : store.entrySet()) {
+                ReplicationCodec.writeFrame(out, encode(new LogEntry(LogEntry.Kind.SNAPSHOT, -1, null, entityType,
+                        entry.getKey(), now, ReplicationCodec.MAPPER.valueToTree(entry.getValue()))));
+                count++;
+            }
+            return count;
+        }
+    }
+}
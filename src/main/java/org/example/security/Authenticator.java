@@ -0,0 +1,126 @@
+package org.example.security;
+
+import org.example.exception.CapacityExceededException;
+import org.example.index.ActiveUserIndex;
+import org.example.index.UsernameIndex;
+import org.example.model.Role;
+import org.example.model.User;
+import org.example.service.InMemoryStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks member credentials. Usernames are resolved through the {@link UsernameIndex}; the password check runs on a
+ * small dedicated pool with a bounded queue, so a burst of logins is rejected with
+ * {@link CapacityExceededException} instead of taking threads from the other service calls. Passwords set on save
+ * or update are hashed on the same pool. Unknown usernames and users without a password are checked against a dummy
+ * hash, so response time does not reveal whether a username exists.
+ */
+public class Authenticator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Authenticator.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final String dummyPassword;
+    private Map<UUID, User> userStorage;
+    private UsernameIndex usernameIndex;
+    private ActiveUserIndex activeUserIndex;
+
+    /**
+     * @param passwordEncoder The configured hashing scheme.
+     * @param poolSize        Number of threads doing hash work.
+     * @param queueCapacity   Number of checks allowed to wait for a thread before new ones are rejected.
+     */
+    public Authenticator(PasswordEncoder passwordEncoder, int poolSize, int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.dummyPassword = passwordEncoder.encode("not-a-real-password");
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "authentication-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Autowired
+    public void setStorage(InMemoryStorage inMemoryStorage) {
+        this.userStorage = inMemoryStorage.getUserStorage();
+        this.usernameIndex = inMemoryStorage.getUsernameIndex();
+        this.activeUserIndex = inMemoryStorage.getActiveUserIndex();
+    }
+
+    /**
+     * @return The authenticated user if the credentials match an active user with the given role.
+     * @throws CapacityExceededException When too many checks are already pending.
+     */
+    public Optional<User> authenticate(String username, String password, Role role) {
+        try {
+            return authenticateAsync(username, password, role).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Optional<User>> authenticateAsync(String username, String password, Role role) {
+        try {
+            return CompletableFuture.supplyAsync(() -> check(username, password, role), executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Authentication rejected, {} checks pending", executor.getQueue().size());
+            return CompletableFuture.failedFuture(
+                    new CapacityExceededException("Too many pending authentication requests"));
+        }
+    }
+
+    /**
+     * Hashes a password on the authentication pool and waits for the result.
+     *
+     * @throws CapacityExceededException When too many checks are already pending.
+     */
+    public String encode(CharSequence rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor).join();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Password hashing rejected, {} checks pending", executor.getQueue().size());
+            throw new CapacityExceededException("Too many pending authentication requests");
+        }
+    }
+
+    public PasswordEncoder getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private Optional<User> check(String username, String password, Role role) {
+        User user = usernameIndex.find(username).map(userStorage::get).orElse(null);
+        if (user == null || user.getPassword() == null) {
+            passwordEncoder.matches(password == null ? "" : password, dummyPassword);
+            return Optional.empty();
+        }
+        boolean matches = passwordEncoder.matches(password, user.getPassword());
+        if (!matches || role != activeUserIndex.roleOf(user.getId()) || !activeUserIndex.isActive(user.getId())) {
+            return Optional.empty();
+        }
+        return Optional.of(user);
+    }
+}
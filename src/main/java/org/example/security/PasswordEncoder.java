@@ -0,0 +1,14 @@
+package org.example.security;
+
+/**
+ * Turns raw passwords into their stored form and checks raw passwords against it.
+ */
+public interface PasswordEncoder {
+
+    String encode(CharSequence rawPassword);
+
+    /**
+     * Compares in time independent of where the inputs differ.
+     */
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+}
@@ -0,0 +1,21 @@
+package org.example.security;
+
+/**
+ * Creates the {@link PasswordEncoder} for a configured hashing scheme.
+ */
+public final class PasswordEncoders {
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * @param scheme {@code plain} or {@code pbkdf2}.
+     */
+    public static PasswordEncoder forScheme(String scheme, int iterations) {
+        return switch (scheme.toLowerCase()) {
+            case "plain" -> new PlainTextPasswordEncoder();
+            case "pbkdf2" -> new Pbkdf2PasswordEncoder(iterations);
+            default -> throw new IllegalArgumentException("Unknown password hashing scheme: " + scheme);
+        };
+    }
+}
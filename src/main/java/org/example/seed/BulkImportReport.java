@@ -0,0 +1,56 @@
+package org.example.seed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link BulkImporter} run, per file and in total.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkImportReport {
+
+    private final List<FileReport> files;
+
+    /**
+     * Records created in storage, after deduplication.
+     */
+    private final int imported;
+
+    private final long elapsedNanos;
+
+    public int getRecords() {
+        return files.stream().mapToInt(FileReport::getRecords).sum();
+    }
+
+    public int getDuplicates() {
+        return files.stream().mapToInt(FileReport::getDuplicates).sum();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class FileReport {
+
+        private final String fileName;
+        private final int records;
+
+        /**
+         * Records of people already found earlier in this file or in a file before it.
+         */
+        private final int duplicates;
+
+        /**
+         * Records whose hash matched a different person; they are imported as distinct people.
+         */
+        private final int collisions;
+
+        private final long bytes;
+        private final long parseNanos;
+
+        public double getRecordsPerSecond() {
+            return parseNanos == 0 ? 0 : records * 1e9 / parseNanos;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.seed;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.example.index.UsernameIndex;
+import org.example.serialization.Serialization;
+import org.example.service.InMemoryStorage;
+import org.example.util.JSONData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports every {@code *.json} seed file of a directory, e.g. one export per region. The files are parsed in
+ * parallel, people found in several files are imported once, usernames are reserved in the index for the whole import
+ * in one pass, and the users are created in parallel. A person is identified by role, name and address, trimmed and
+ * lower-cased, and looked up by a 64-bit hash of them; people whose hashes collide are told apart by the full
+ * identity. The first occurrence in file name order wins. Natural keys are assigned as for a single seed file.
+ * Usernames reserved for records that were not imported are released if the import fails.
+ */
+public class BulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImporter.class);
+
+    private final InMemoryStorage storage;
+    private final int parallelism;
+
+    /**
+     * @param parallelism Number of files parsed, and of record chunks imported, at the same time.
+     */
+    public BulkImporter(InMemoryStorage storage, int parallelism) {
+        this.storage = storage;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public BulkImportReport importDirectory(Path directory) throws IOException {
+        long start = System.nanoTime();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(".json") && Files.isRegularFile(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<ParsedFile>> parsing = new ArrayList<>(files.size());
+            for (Path file : files) {
+                parsing.add(CompletableFuture.supplyAsync(() -> parse(file), executor));
+            }
+            List<ParsedFile> parsed = new ArrayList<>(files.size());
+            for (CompletableFuture<ParsedFile> future : parsing) {
+                parsed.add(join(future));
+            }
+            Map<String, JSONData> unique = deduplicate(parsed);
+            List<String> naturalKeys = new ArrayList<>(unique.keySet());
+            List<JSONData> records = new ArrayList<>(unique.values());
+            List<UUID> userIds = new ArrayList<>(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                userIds.add(UUID.randomUUID());
+            }
+            List<String> usernames = reserveUsernames(records, userIds, storage.getUsernameIndex());
+            boolean[] imported = new boolean[records.size()];
+            int chunk = Math.max(1, (records.size() + parallelism - 1) / parallelism);
+            List<CompletableFuture<Void>> importing = new ArrayList<>();
+            for (int from = 0; from < records.size(); from += chunk) {
+                int to = Math.min(records.size(), from + chunk);
+                int first = from;
+                importing.add(CompletableFuture.runAsync(() -> {
+                    for (int i = first; i < to; i++) {
+                        storage.importRecord(naturalKeys.get(i), records.get(i), userIds.get(i), usernames.get(i));
+                        imported[i] = true;
+                    }
+                }, executor));
+            }
+            try {
+                CompletableFuture.allOf(importing.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+                for (CompletableFuture<Void> future : importing) {
+                    join(future);
+                }
+            } catch (RuntimeException | IOException e) {
+                for (int i = 0; i < records.size(); i++) {
+                    if (!imported[i]) {
+                        storage.getUsernameIndex().remove(usernames.get(i), userIds.get(i));
+                    }
+                }
+                throw e;
+            }
+            BulkImportReport report = new BulkImportReport(parsed.stream().map(ParsedFile::report)
+                    .collect(Collectors.toList()), records.size(), System.nanoTime() - start);
+            log(report);
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Keeps the first record of every person, in file order, and counts the others as duplicates of their file. The
+     * identity of the first person of every hash is kept, and those of the further people of a colliding hash.
+     */
+    private static Map<String, JSONData> deduplicate(List<ParsedFile> files) {
+        Map<Long, String> firstSeen = new HashMap<>();
+        Map<Long, Set<String>> collided = new HashMap<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        Map<String, JSONData> unique = new LinkedHashMap<>();
+        for (ParsedFile file : files) {
+            for (int i = 0; i < file.records.size(); i++) {
+                JSONData data = file.records.get(i);
+                String identity = SeedFiles.identity(data);
+                String first = firstSeen.putIfAbsent(file.hashes[i], identity);
+                if (first != null) {
+                    if (first.equals(identity) || collided.getOrDefault(file.hashes[i], Set.of()).contains(identity)) {
+                        file.duplicates++;
+                        continue;
+                    }
+                    collided.computeIfAbsent(file.hashes[i], hash -> new HashSet<>()).add(identity);
+                    file.collisions++;
+                }
+                String naturalKey = SeedFiles.naturalKey(data);
+                int occurrence = occurrences.merge(naturalKey, 1, Integer::sum);
+                unique.put(occurrence == 1 ? naturalKey : naturalKey + '#' + occurrence, data);
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Reserves usernames in the index as {@link org.example.util.UtilService#reserveUsername} would, but resumes the
+     * serial number search of every name where it stopped, so namesakes cost one probe each instead of one per
+     * earlier namesake. A name taken concurrently by a registration is skipped like any other taken name.
+     */
+    private static List<String> reserveUsernames(List<JSONData> records, List<UUID> userIds,
+                                                 UsernameIndex usernameIndex) {
+        Map<String, Integer> nextSerials = new HashMap<>();
+        List<String> usernames = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            JSONData data = records.get(i);
+            String baseUsername = data.getFirstName() + "." + data.getLastName();
+            int serial = nextSerials.getOrDefault(baseUsername, 0);
+            String username;
+            do {
+                username = serial == 0 ? baseUsername : baseUsername + "." + serial;
+                serial++;
+            } while (!usernameIndex.reserve(username, userIds.get(i)));
+            nextSerials.put(baseUsername, serial);
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    private static ParsedFile parse(Path file) {
+        long start = System.nanoTime();
+        List<JSONData> records = new ArrayList<>();
+        try (MappingIterator<JSONData> iterator = Serialization.JSON_DATA.readValues(file.toFile())) {
+            while (iterator.hasNext()) {
+                records.add(iterator.next());
+            }
+            long[] hashes = new long[records.size()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = SeedFiles.hash(SeedFiles.identity(records.get(i)));
+            }
+            return new ParsedFile(file, Files.size(file), records, hashes, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void log(BulkImportReport report) {
+        for (BulkImportReport.FileReport file : report.getFiles()) {
+            logger.info("Parsed {}: {} records, {} KB in {} ms, {} records/s, {} duplicates, {} hash collisions",
+                    file.getFileName(), file.getRecords(), file.getBytes() / 1024,
+                    TimeUnit.NANOSECONDS.toMillis(file.getParseNanos()), (long) file.getRecordsPerSecond(),
+                    file.getDuplicates(), file.getCollisions());
+        }
+        logger.info("Bulk import of {} files done in {} ms: {} records, {} imported, {} duplicates",
+                report.getFiles().size(), TimeUnit.NANOSECONDS.toMillis(report.getElapsedNanos()),
+                report.getRecords(), report.getImported(), report.getDuplicates());
+    }
+
+    private static final class ParsedFile {
+
+        private final Path file;
+        private final long bytes;
+        private final List<JSONData> records;
+        private final long[] hashes;
+        private final long parseNanos;
+        private int duplicates;
+        private int collisions;
+
+        ParsedFile(Path file, long bytes, List<JSONData> records, long[] hashes, long parseNanos) {
+            this.file = file;
+            this.bytes = bytes;
+            this.records = records;
+            this.hashes = hashes;
+            this.parseNanos = parseNanos;
+        }
+
+        BulkImportReport.FileReport report() {
+            return new BulkImportReport.FileReport(file.getFileName().toString(), records.size(), duplicates,
+                    collisions, bytes, parseNanos);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.seed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.util.JSONData;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes between the records currently loaded and a new version of the seed file.
+ */
+@Getter
+@AllArgsConstructor
+public class SeedDiff {
+
+    /**
+     * New records, keyed by natural key.
+     */
+    private final Map<String, JSONData> inserts;
+
+    /**
+     * Loaded records whose address or specialization changed, or that reappeared after being removed from the file.
+     */
+    private final Map<SeedRecord, JSONData> updates;
+
+    /**
+     * Loaded records that are no longer in the file.
+     */
+    private final List<SeedRecord> removals;
+
+    public boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty() && removals.isEmpty();
+    }
+
+    public int size() {
+        return inserts.size() + updates.size() + removals.size();
+    }
+}
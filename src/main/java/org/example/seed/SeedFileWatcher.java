@@ -0,0 +1,260 @@
+package org.example.seed;
+
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
+import org.example.index.ActiveUserIndex;
+import org.example.model.Role;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.User;
+import org.example.service.InMemoryStorage;
+import org.example.util.JSONData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the seed file and applies only what changed since it was loaded: new records are imported, changed
+ * addresses and specializations are updated in place, and records missing from the file deactivate their user.
+ * Every change is committed through the storage's transaction manager, so it conflicts with concurrent DAO updates
+ * instead of overwriting them. Activation changes are applied in batches, one transaction and one index lock
+ * acquisition per batch, so readers are never held up for the whole reload. Ids, usernames and passwords of unchanged
+ * records are kept.
+ */
+public class SeedFileWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeedFileWatcher.class);
+
+    private final InMemoryStorage storage;
+    private final ChangeEventBus changeEventBus;
+    private final int batchSize;
+    private final long debounceMillis;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * @param batchSize      Number of users activated or deactivated per transaction.
+     * @param debounceMillis Quiet period after the last change event before the file is read, so a file that is
+     *                       still being written is not read half way.
+     */
+    public SeedFileWatcher(InMemoryStorage storage, ChangeEventBus changeEventBus, int batchSize,
+                           long debounceMillis) {
+        this.storage = storage;
+        this.changeEventBus = changeEventBus;
+        this.batchSize = batchSize;
+        this.debounceMillis = debounceMillis;
+    }
+
+    public void start() throws IOException {
+        Path file = seedFile();
+        if (Files.isDirectory(file)) {
+            logger.info("Seed directory {} is bulk imported once, not watching it", file);
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            logger.warn("Seed file {} not found, not watching it", file);
+            return;
+        }
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(() -> watch(file.getFileName()), "seed-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching seed file {}", file);
+    }
+
+    /**
+     * Diffs the seed file against the loaded records and applies the changes.
+     *
+     * @return The applied changes.
+     */
+    public synchronized SeedDiff reload() throws IOException {
+        long start = System.nanoTime();
+        Map<String, SeedRecord> loaded = storage.getSeedRecords();
+        SeedDiff diff = SeedFiles.diff(loaded, SeedFiles.read(seedFile().toFile()));
+        List<UUID> reactivated = new ArrayList<>();
+        for (Map.Entry<String, JSONData> insert : diff.getInserts().entrySet()) {
+            SeedRecord record = storage.importRecord(insert.getKey(), insert.getValue());
+            publishCreated(record);
+        }
+        for (Map.Entry<SeedRecord, JSONData> update : diff.getUpdates().entrySet()) {
+            SeedRecord record = update.getKey();
+            if (record.isRemoved()) {
+                record.setRemoved(false);
+                reactivated.add(record.getUserId());
+            }
+            applyUpdate(record, update.getValue());
+        }
+        List<UUID> deactivated = new ArrayList<>(diff.getRemovals().size());
+        for (SeedRecord record : diff.getRemovals()) {
+            record.setRemoved(true);
+            deactivated.add(record.getUserId());
+        }
+        applyActive(reactivated, true);
+        applyActive(deactivated, false);
+        logger.info("Seed file reloaded in {} ms: {} inserted, {} updated, {} deactivated",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), diff.getInserts().size(),
+                diff.getUpdates().size(), diff.getRemovals().size());
+        return diff;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void watch(Path fileName) {
+        try {
+            while (true) {
+                if (!isSeedFileEvent(watchService.take(), fileName)) {
+                    continue;
+                }
+                WatchKey next;
+                while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    isSeedFileEvent(next, fileName);
+                }
+                try {
+                    reload();
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Seed file reload failed, waiting for the next change", e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.info("Stopped watching the seed file");
+        }
+    }
+
+    private boolean isSeedFileEvent(WatchKey key, Path fileName) {
+        boolean matches = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            matches |= fileName.equals(event.context());
+        }
+        key.reset();
+        return matches;
+    }
+
+    /**
+     * Stages the new address or specialization in a transaction, so it conflicts with, instead of overwriting, a
+     * concurrent update of the owner; the index and the event follow on apply.
+     */
+    private void applyUpdate(SeedRecord record, JSONData data) {
+        record.setAddress(data.getAddress());
+        record.setSpecialization(data.getSpecialization());
+        storage.getTransactionManager().execute(transaction -> {
+            if (record.getRole() == Role.TRAINEE) {
+                transaction.get(storage.getTraineeStorage(), record.getOwnerId()).ifPresent(current -> {
+                    Trainee trainee = current.toBuilder()
+                            .address(data.getAddress())
+                            .version(current.getVersion() + 1)
+                            .build();
+                    transaction.put(storage.getTraineeStorage(), trainee.getId(), trainee);
+                    transaction.onApply(() -> changeEventBus.publish(ChangeType.UPDATED, EntityType.TRAINEE,
+                            trainee.getId(), trainee));
+                });
+            } else if (record.getRole() == Role.TRAINER) {
+                transaction.get(storage.getTrainerStorage(), record.getOwnerId()).ifPresent(current -> {
+                    Trainer trainer = current.toBuilder()
+                            .specialization(data.getSpecialization())
+                            .version(current.getVersion() + 1)
+                            .build();
+                    transaction.put(storage.getTrainerStorage(), trainer.getId(), trainer);
+                    transaction.onApply(() -> {
+                        storage.getTrainerLoadIndex().register(trainer);
+                        changeEventBus.publish(ChangeType.UPDATED, EntityType.TRAINER, trainer.getId(), trainer);
+                    });
+                });
+            }
+            return record;
+        });
+    }
+
+    /**
+     * Stages the new state of every batch in one transaction, skipping users already in it, and flips their bits in
+     * the {@link ActiveUserIndex} on apply, so the index always agrees with the stored Users.
+     */
+    private void applyActive(List<UUID> userIds, boolean active) {
+        ActiveUserIndex activeUserIndex = storage.getActiveUserIndex();
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            List<UUID> batch = userIds.subList(from, Math.min(userIds.size(), from + batchSize));
+            storage.getTransactionManager().execute(transaction -> {
+                List<User> users = new ArrayList<>(batch.size());
+                for (UUID userId : batch) {
+                    User user = transaction.get(storage.getUserStorage(), userId).orElse(null);
+                    if (user == null || user.isActive() == active) {
+                        continue;
+                    }
+                    User next = user.toBuilder()
+                            .isActive(active)
+                            .version(user.getVersion() + 1)
+                            .build();
+                    transaction.put(storage.getUserStorage(), userId, next);
+                    users.add(next);
+                }
+                transaction.onApply(() -> {
+                    List<UUID> changedUserIds = new ArrayList<>(users.size());
+                    for (User user : users) {
+                        changedUserIds.add(user.getId());
+                    }
+                    activeUserIndex.setActive(changedUserIds, active);
+                    for (User user : users) {
+                        changeEventBus.publish(ChangeType.UPDATED, EntityType.USER, user.getId(), user);
+                    }
+                });
+                return users;
+            });
+        }
+    }
+
+    /**
+     * Publishes the imported User and owner inside a compute on the owner, so a deletion that removes the owner
+     * meanwhile publishes its events after these, or finds nothing to publish for.
+     */
+    private void publishCreated(SeedRecord record) {
+        if (record.getRole() == Role.TRAINEE) {
+            storage.getTraineeStorage().computeIfPresent(record.getOwnerId(), (id, trainee) -> {
+                publishUser(record.getUserId());
+                changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINEE, id, trainee);
+                return trainee;
+            });
+        } else if (record.getRole() == Role.TRAINER) {
+            storage.getTrainerStorage().computeIfPresent(record.getOwnerId(), (id, trainer) -> {
+                publishUser(record.getUserId());
+                changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINER, id, trainer);
+                return trainer;
+            });
+        } else {
+            publishUser(record.getUserId());
+        }
+    }
+
+    private void publishUser(UUID userId) {
+        User user = storage.getUserStorage().get(userId);
+        if (user != null) {
+            changeEventBus.publish(ChangeType.CREATED, EntityType.USER, userId, user);
+        }
+    }
+
+    private Path seedFile() {
+        return Path.of(storage.getUserFilePath()).toAbsolutePath();
+    }
+}
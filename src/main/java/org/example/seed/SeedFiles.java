@@ -0,0 +1,115 @@
+package org.example.seed;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.example.serialization.Serialization;
+import org.example.util.JSONData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads the seed file and diffs it against the loaded records. A record is identified by its natural key, so ids and
+ * usernames survive reloads: its {@code id} if the file gives one, otherwise a 64-bit hash of role, first name and last
+ * name, trimmed and lower-cased, with the occurrence number of the name in the file. The address is not part of the
+ * key, so an edited address is applied as an update of the same person. Namesakes without an id are told apart by
+ * their order in the file only: removing one of them shifts the later ones, which then take over the users before
+ * them, and deactivates the user of the last one.
+ */
+public final class SeedFiles {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SeedFiles() {
+    }
+
+    /**
+     * Streams the file record by record.
+     *
+     * @return The records in file order, keyed by natural key.
+     */
+    public static Map<String, JSONData> read(File file) throws IOException {
+        Map<String, JSONData> records = new LinkedHashMap<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        try (MappingIterator<JSONData> iterator = Serialization.JSON_DATA.readValues(file)) {
+            while (iterator.hasNext()) {
+                JSONData data = iterator.next();
+                String naturalKey = naturalKey(data);
+                int occurrence = occurrences.merge(naturalKey, 1, Integer::sum);
+                records.put(occurrence == 1 ? naturalKey : naturalKey + '#' + occurrence, data);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Compares the file against the loaded records with one hash lookup per record; nothing is changed.
+     */
+    public static SeedDiff diff(Map<String, SeedRecord> loaded, Map<String, JSONData> current) {
+        Map<String, JSONData> inserts = new LinkedHashMap<>();
+        Map<SeedRecord, JSONData> updates = new IdentityHashMap<>();
+        for (Map.Entry<String, JSONData> entry : current.entrySet()) {
+            SeedRecord record = loaded.get(entry.getKey());
+            JSONData data = entry.getValue();
+            if (record == null) {
+                inserts.put(entry.getKey(), data);
+            } else if (record.isRemoved() || !Objects.equals(record.getAddress(), data.getAddress())
+                    || !Objects.equals(record.getSpecialization(), data.getSpecialization())) {
+                updates.put(record, data);
+            }
+        }
+        List<SeedRecord> removals = new ArrayList<>();
+        for (SeedRecord record : loaded.values()) {
+            if (!record.isRemoved() && !current.containsKey(record.getNaturalKey())) {
+                removals.add(record);
+            }
+        }
+        return new SeedDiff(inserts, updates, removals);
+    }
+
+    /**
+     * @return The natural key of the record without its occurrence number.
+     */
+    static String naturalKey(JSONData data) {
+        String id = data.getId() == null ? "" : data.getId().trim();
+        return id.isEmpty() ? String.format("%016x", hash(name(data))) : "id:" + id;
+    }
+
+    /**
+     * @return Role and names of the record, normalized.
+     */
+    static String name(JSONData data) {
+        return normalize(data.getRole()) + '|' + normalize(data.getFirstName()) + '|' + normalize(data.getLastName());
+    }
+
+    /**
+     * @return Role, names and address of the record, normalized; tells people apart across the files of a bulk import.
+     */
+    static String identity(JSONData data) {
+        return name(data) + '|' + normalize(data.getAddress());
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes.
+     */
+    static long hash(String identity) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : identity.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
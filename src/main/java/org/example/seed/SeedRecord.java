@@ -0,0 +1,26 @@
+package org.example.seed;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Role;
+
+import java.util.UUID;
+
+/**
+ * What was imported for one record of the seed file: the natural key it was matched by, the generated ids, and the
+ * fields a later version of the file may change.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeedRecord {
+
+    private String naturalKey;
+    private Role role;
+    private UUID userId;
+    private UUID ownerId;
+    private String address;
+    private String specialization;
+    private boolean removed;
+}
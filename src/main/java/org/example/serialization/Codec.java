@@ -0,0 +1,66 @@
+package org.example.serialization;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Reader and writer of one type, resolved once per {@link WireFormat} and safe to share between threads.
+ */
+public final class Codec<T> {
+
+    private final Class<T> type;
+    private final Map<WireFormat, ObjectReader> readers = new EnumMap<>(WireFormat.class);
+    private final Map<WireFormat, ObjectWriter> writers = new EnumMap<>(WireFormat.class);
+
+    Codec(Class<T> type, Map<WireFormat, ObjectMapper> mappers) {
+        this.type = type;
+        mappers.forEach((format, mapper) -> {
+            readers.put(format, mapper.readerFor(type));
+            writers.put(format, mapper.writerFor(type));
+        });
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public ObjectReader reader(WireFormat format) {
+        return readers.get(format);
+    }
+
+    public ObjectWriter writer(WireFormat format) {
+        return writers.get(format);
+    }
+
+    public byte[] encode(T value, WireFormat format) throws IOException {
+        return writers.get(format).writeValueAsBytes(value);
+    }
+
+    public T decode(byte[] bytes, WireFormat format) throws IOException {
+        return readers.get(format).readValue(bytes);
+    }
+
+    public void write(OutputStream out, T value, WireFormat format) throws IOException {
+        writers.get(format).writeValue(out, value);
+    }
+
+    public T read(InputStream in, WireFormat format) throws IOException {
+        return readers.get(format).readValue(in);
+    }
+
+    /**
+     * Streams the elements of a top-level JSON array one by one.
+     */
+    public MappingIterator<T> readValues(File file) throws IOException {
+        return readers.get(WireFormat.JSON).readValues(file);
+    }
+}
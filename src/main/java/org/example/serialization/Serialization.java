@@ -0,0 +1,62 @@
+package org.example.serialization;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.dto.TraineeRequestDto;
+import org.example.dto.TrainerRequestDto;
+import org.example.dto.TrainingRequestDto;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.model.User;
+import org.example.util.JSONData;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one place object mappers are configured. Mappers are expensive to build and cache serializers per type, so they
+ * are created once; {@link Codec}s for the seed records, request DTOs and entities are resolved up front and every
+ * other type on first use. Dates are written as ISO-8601 strings and unknown properties are ignored.
+ */
+public final class Serialization {
+
+    private static final Map<WireFormat, ObjectMapper> MAPPERS = new EnumMap<>(WireFormat.class);
+    private static final Map<Class<?>, Codec<?>> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        MAPPERS.put(WireFormat.JSON, configure(new ObjectMapper()));
+        MAPPERS.put(WireFormat.SMILE, configure(new ObjectMapper(new SmileFactory())));
+    }
+
+    public static final Codec<JSONData> JSON_DATA = codec(JSONData.class);
+    public static final Codec<TraineeRequestDto> TRAINEE_REQUEST = codec(TraineeRequestDto.class);
+    public static final Codec<TrainerRequestDto> TRAINER_REQUEST = codec(TrainerRequestDto.class);
+    public static final Codec<TrainingRequestDto> TRAINING_REQUEST = codec(TrainingRequestDto.class);
+    public static final Codec<Trainee> TRAINEE = codec(Trainee.class);
+    public static final Codec<Trainer> TRAINER = codec(Trainer.class);
+    public static final Codec<Training> TRAINING = codec(Training.class);
+    public static final Codec<User> USER = codec(User.class);
+
+    private Serialization() {
+    }
+
+    public static ObjectMapper mapper(WireFormat format) {
+        return MAPPERS.get(format);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Codec<T> codec(Class<T> type) {
+        return (Codec<T>) CODECS.computeIfAbsent(type, key -> new Codec<>(key, MAPPERS));
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.serialization;
+
+/**
+ * Encodings offered by {@link Serialization}: JSON for people and external clients, Smile as the compact binary
+ * equivalent with the same data model.
+ */
+public enum WireFormat {
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile");
+
+    private final String mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return Smile if the given Content-Type or Accept header asks for it, JSON otherwise.
+     */
+    public static WireFormat fromHeader(String header) {
+        return header != null && header.contains(SMILE.mediaType) ? SMILE : JSON;
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.service;
+
+import org.example.archive.TrainingArchive;
+import org.example.export.ExportFilter;
+import org.example.export.ExportFormat;
+import org.example.export.ExportWriter;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.model.TrainingType;
+import org.example.model.User;
+import org.example.query.Criteria;
+import org.example.query.QueryEngines;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service for exporting members and trainings. Members are read straight from storage and written to the stream one
+ * at a time, so memory use does not grow with the number of rows. Filtered training exports are answered by the
+ * query engine from the trainer and date indexes, and include the archived trainings.
+ */
+@Service
+public class ExportService {
+
+    private static final String[] TRAINEE_COLUMNS =
+            {"id", "userId", "username", "firstName", "lastName", "active", "address"};
+    private static final String[] TRAINER_COLUMNS =
+            {"id", "userId", "username", "firstName", "lastName", "active", "specialization"};
+    private static final String[] TRAINING_COLUMNS =
+            {"id", "traineeId", "trainerId", "name", "trainingType", "date", "duration"};
+
+    @Autowired
+    private InMemoryStorage inMemoryStorage;
+
+    @Autowired
+    private TrainingArchive trainingArchive;
+
+    /**
+     * Export all trainees joined with their user.
+     *
+     * @param out    The stream to write to. It is flushed but not closed.
+     * @param format The output format.
+     * @return The number of rows written.
+     * @throws IOException When writing to the stream fails.
+     */
+    public long exportTrainees(OutputStream out, ExportFormat format) throws IOException {
+        Map<UUID, User> userStorage = inMemoryStorage.getUserStorage();
+        long rows = 0;
+        try (ExportWriter writer = ExportWriter.create(format, out, TRAINEE_COLUMNS)) {
+            for (Trainee trainee : inMemoryStorage.getTraineeStorage().values()) {
+                writer.startRow();
+                writer.value(trainee.getId());
+                writeUser(writer, trainee.getUserId(), userStorage.get(trainee.getUserId()));
+                writer.value(trainee.getAddress());
+                writer.endRow();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Export all trainers joined with their user.
+     *
+     * @param out    The stream to write to. It is flushed but not closed.
+     * @param format The output format.
+     * @return The number of rows written.
+     * @throws IOException When writing to the stream fails.
+     */
+    public long exportTrainers(OutputStream out, ExportFormat format) throws IOException {
+        Map<UUID, User> userStorage = inMemoryStorage.getUserStorage();
+        long rows = 0;
+        try (ExportWriter writer = ExportWriter.create(format, out, TRAINER_COLUMNS)) {
+            for (Trainer trainer : inMemoryStorage.getTrainerStorage().values()) {
+                writer.startRow();
+                writer.value(trainer.getId());
+                writeUser(writer, trainer.getUserId(), userStorage.get(trainer.getUserId()));
+                writer.value(trainer.getSpecialization());
+                writer.endRow();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Export the trainings matching the filter, in memory and in the archive, with the training type resolved to its
+     * name. A training archived while the export runs is written once.
+     *
+     * @param out    The stream to write to. It is flushed but not closed.
+     * @param format The output format.
+     * @param filter Optional date range and trainer restriction; {@link ExportFilter#none()} exports everything.
+     * @return The number of rows written.
+     * @throws IOException When writing to the stream fails.
+     */
+    public long exportTrainings(OutputStream out, ExportFormat format, ExportFilter filter) throws IOException {
+        Criteria<Training> criteria = filter.toCriteria();
+        Iterable<Training> trainings = criteria == null ? inMemoryStorage.getTrainingStorage().values()
+                : QueryEngines.trainings(inMemoryStorage).find(criteria);
+        YearMonth horizon = trainingArchive.horizon(LocalDate.now());
+        Set<UUID> archivable = new HashSet<>();
+        long rows = 0;
+        try (ExportWriter writer = ExportWriter.create(format, out, TRAINING_COLUMNS)) {
+            for (Training training : trainings) {
+                if (training.getDate() != null && YearMonth.from(training.getDate()).isBefore(horizon)) {
+                    archivable.add(training.getId());
+                }
+                writeTraining(writer, training);
+                rows++;
+            }
+            for (Training training : trainingArchive.findByDateRange(
+                    filter.getFrom() == null ? LocalDate.MIN : filter.getFrom(),
+                    filter.getTo() == null ? LocalDate.MAX : filter.getTo())) {
+                if (filter.matches(training) && !archivable.contains(training.getId())) {
+                    writeTraining(writer, training);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void writeTraining(ExportWriter writer, Training training) throws IOException {
+        TrainingType trainingType = training.getTrainingTypeId() == null
+                ? null : inMemoryStorage.getTrainingTypeStorage().get(training.getTrainingTypeId());
+        writer.startRow();
+        writer.value(training.getId());
+        writer.value(training.getTraineeId());
+        writer.value(training.getTrainerId());
+        writer.value(training.getName());
+        writer.value(trainingType == null ? null : trainingType.getTypeName());
+        writer.value(training.getDate());
+        writer.value(training.getDuration());
+        writer.endRow();
+    }
+
+    private void writeUser(ExportWriter writer, UUID userId, User user) throws IOException {
+        writer.value(userId);
+        writer.value(user == null ? null : user.getUsername());
+        writer.value(user == null ? null : user.getFirstName());
+        writer.value(user == null ? null : user.getLastName());
+        writer.value(user != null && user.isActive());
+    }
+}
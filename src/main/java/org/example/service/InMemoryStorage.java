@@ -1,9 +1,22 @@
 package org.example.service;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
+import org.example.index.ActiveUserIndex;
+import org.example.index.PostingIndex;
+import org.example.index.RelationshipGraph;
+import org.example.index.TrainingBuckets;
+import org.example.index.UsernameIndex;
+import org.example.memory.AccountedStore;
+import org.example.memory.Compactable;
+import org.example.memory.EntitySizes;
 import org.example.model.*;
+import org.example.seed.BulkImporter;
+import org.example.seed.SeedFiles;
+import org.example.seed.SeedRecord;
+import org.example.stats.TrainerLoadIndex;
+import org.example.stats.TrainingStatistics;
+import org.example.tx.StoreTransactionManager;
 import org.example.util.JSONData;
 import org.example.util.UtilService;
 import org.slf4j.Logger;
@@ -14,20 +27,34 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Data
 @Component
 public class InMemoryStorage {
 
     private static final Logger logger = LoggerFactory.getLogger(InMemoryStorage.class);
-    private Map<UUID, Trainer> trainerStorage = new HashMap<>();
-    private Map<UUID, Trainee> traineeStorage = new HashMap<>();
-    private Map<UUID, Training> trainingStorage = new HashMap<>();
-    private Map<UUID, User> userStorage = new HashMap<>();
-    private Map<UUID, TrainingType> trainingTypeStorage = new HashMap<>();
+    private Map<UUID, Trainer> trainerStorage = new AccountedStore<>("trainerStorage", EntitySizes::trainer);
+    private Map<UUID, Trainee> traineeStorage = new AccountedStore<>("traineeStorage", EntitySizes::trainee);
+    private Map<UUID, Training> trainingStorage = new AccountedStore<>("trainingStorage", EntitySizes::training);
+    private Map<UUID, User> userStorage = new AccountedStore<>("userStorage", EntitySizes::user);
+    private Map<UUID, TrainingType> trainingTypeStorage =
+            new AccountedStore<>("trainingTypeStorage", EntitySizes::trainingType);
+    private ActiveUserIndex activeUserIndex = new ActiveUserIndex();
+    private UsernameIndex usernameIndex = new UsernameIndex();
+    private Map<String, SeedRecord> seedRecords = new ConcurrentHashMap<>();
+    private TrainingStatistics trainingStatistics = new TrainingStatistics();
+    private TrainerLoadIndex trainerLoadIndex = new TrainerLoadIndex();
+    private TrainingBuckets trainingBuckets = new TrainingBuckets();
+    private PostingIndex<UUID> trainingsByTrainer = new PostingIndex<>();
+    private PostingIndex<UUID> trainingsByTrainee = new PostingIndex<>();
+    private RelationshipGraph relationshipGraph = new RelationshipGraph();
+    private StoreTransactionManager transactionManager = new StoreTransactionManager(1024, 8);
     private UtilService utilService;
     @Value("${user.file.path}")
     private String userFilePath;
@@ -38,38 +65,117 @@ public class InMemoryStorage {
         this.utilService = utilService;
     }
 
+    /**
+     * @return The entity stores that keep memory accounting; stores replaced by plain maps are left out.
+     */
+    public List<AccountedStore<?>> getAccountedStores() {
+        List<AccountedStore<?>> stores = new ArrayList<>();
+        for (Map<UUID, ?> store : List.of(trainerStorage, traineeStorage, trainingStorage, userStorage,
+                trainingTypeStorage)) {
+            if (store instanceof AccountedStore<?> accountedStore) {
+                stores.add(accountedStore);
+            }
+        }
+        return stores;
+    }
+
+    /**
+     * @return The accounted stores and the hash-based indexes, by name, for the StoreCompactor.
+     */
+    public Map<String, Compactable> getCompactables() {
+        Map<String, Compactable> compactables = new LinkedHashMap<>();
+        for (AccountedStore<?> store : getAccountedStores()) {
+            compactables.put(store.getName(), store);
+        }
+        compactables.put("usernameIndex", usernameIndex);
+        compactables.put("activeUserIndex", activeUserIndex);
+        compactables.put("trainingsByTrainer", trainingsByTrainer);
+        compactables.put("trainingsByTrainee", trainingsByTrainee);
+        compactables.put("relationshipGraph", relationshipGraph);
+        compactables.put("trainingStatistics", trainingStatistics);
+        return compactables;
+    }
+
+    /**
+     * Loads the seed file, or every seed file of the directory if {@code userFilePath} names one.
+     */
     public void initializeStorage() {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            JSONData[] jsonData = objectMapper.readValue(new File(userFilePath), JSONData[].class);
-            for (JSONData data : jsonData) {
-                logger.info("Creating User with first name: {} and last name: {}", data.getFirstName(), data.getLastName());
-                User newUser = User.builder()
-                        .id(utilService.generateUniqueKey(userStorage))
-                        .firstName(data.getFirstName())
-                        .lastName(data.getLastName())
-                        .username(utilService.generateUsername(data.getFirstName(), data.getLastName(), userStorage))
-                        .isActive(true)
-                        .password(utilService.generateRandomPassword(10))
-                        .build();
+            File seed = new File(userFilePath);
+            if (seed.isDirectory()) {
+                new BulkImporter(this, Runtime.getRuntime().availableProcessors()).importDirectory(seed.toPath());
+                return;
+            }
+            for (Map.Entry<String, JSONData> entry : SeedFiles.read(seed).entrySet()) {
+                importRecord(entry.getKey(), entry.getValue());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates the User and its Trainee or Trainer for one seed record and remembers it under its natural key, so a
+     * reload of the seed file can match it again. Seeded users get no password; they cannot log in until one is set
+     * through an update.
+     */
+    public SeedRecord importRecord(String naturalKey, JSONData data) {
+        UUID userId = utilService.generateUniqueKey(userStorage);
+        String username = utilService.reserveUsername(data.getFirstName(), data.getLastName(), usernameIndex, userId);
+        return importRecord(naturalKey, data, userId, username);
+    }
+
+    /**
+     * Same as {@link #importRecord(String, JSONData)}, for a user id and username the caller reserved in the
+     * {@link UsernameIndex} already. The User and its owner are stored in one transaction, the User first, so the
+     * hard limits apply and no reader sees an owner without its User. The username is released if the commit fails.
+     */
+    public SeedRecord importRecord(String naturalKey, JSONData data, UUID userId, String username) {
+        logger.info("Creating User with first name: {} and last name: {}", data.getFirstName(), data.getLastName());
+        User newUser = User.builder()
+                .id(userId)
+                .firstName(data.getFirstName())
+                .lastName(data.getLastName())
+                .username(username)
+                .isActive(true)
+                .build();
+        SeedRecord seedRecord = new SeedRecord(naturalKey, null, newUser.getId(), null, data.getAddress(),
+                data.getSpecialization(), false);
+        try {
+            transactionManager.execute(transaction -> {
+                transaction.put(userStorage, newUser.getId(), newUser);
                 if (data.getRole().equalsIgnoreCase("trainee")) {
                     Trainee trainee = Trainee.builder()
                             .id(utilService.generateUniqueKey(traineeStorage))
                             .userId(newUser.getId())
+                            .address(data.getAddress())
                             .build();
-                    traineeStorage.put(trainee.getId(), trainee);
+                    transaction.put(traineeStorage, trainee.getId(), trainee);
+                    transaction.onApply(() -> activeUserIndex.register(newUser.getId(), trainee.getId(),
+                            Role.TRAINEE, newUser.isActive()));
+                    seedRecord.setRole(Role.TRAINEE);
+                    seedRecord.setOwnerId(trainee.getId());
                 } else if (data.getRole().equalsIgnoreCase("trainer")) {
                     Trainer trainer = Trainer.builder()
                             .id(utilService.generateUniqueKey(trainerStorage))
                             .specialization(data.getSpecialization())
                             .userId(newUser.getId())
                             .build();
-                    trainerStorage.put(trainer.getId(), trainer);
+                    transaction.put(trainerStorage, trainer.getId(), trainer);
+                    transaction.onApply(() -> {
+                        trainerLoadIndex.register(trainer);
+                        activeUserIndex.register(newUser.getId(), trainer.getId(), Role.TRAINER, newUser.isActive());
+                    });
+                    seedRecord.setRole(Role.TRAINER);
+                    seedRecord.setOwnerId(trainer.getId());
                 }
-                userStorage.put(newUser.getId(), newUser);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+                return seedRecord;
+            });
+        } catch (RuntimeException e) {
+            usernameIndex.remove(username, userId);
+            throw e;
         }
+        seedRecords.put(naturalKey, seedRecord);
+        return seedRecord;
     }
 }
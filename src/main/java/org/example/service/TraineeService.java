@@ -3,15 +3,30 @@ package org.example.service;
 
 import org.example.dao.TraineeDAO;
 import org.example.dto.TraineeRequestDto;
+import org.example.exception.CapacityExceededException;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.Relationship;
+import org.example.model.Registration;
+import org.example.model.Role;
 import org.example.model.Trainee;
+import org.example.query.Criteria;
+import org.example.query.QueryPlan;
+import org.example.model.User;
+import org.example.security.Authenticator;
+import org.example.stats.LeaderboardEntry;
+import org.example.validation.BatchValidationReport;
+import org.example.validation.RequestValidator;
+import org.example.validation.ValidationResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Service for managing Trainee entities.
@@ -22,6 +37,12 @@ public class TraineeService {
     @Autowired
     private TraineeDAO traineeDAO;
 
+    @Autowired
+    private Authenticator authenticator;
+
+    @Autowired
+    private RequestValidator requestValidator;
+
     /**
      * Save a new Trainee entity based on the provided TraineeRequestDto.
      *
@@ -33,6 +54,17 @@ public class TraineeService {
         return traineeDAO.save(traineeRequestDto);
     }
 
+    /**
+     * Save a new Trainee entity and return the credentials of its user.
+     *
+     * @param traineeRequestDto The TraineeRequestDto containing the trainee's information, optionally with a password.
+     * @return Created Trainee entity, its username and, if the request had no valid password, the generated one.
+     * @throws InvalidInputException When the first name or last name is invalid.
+     */
+    public Registration<Trainee> register(TraineeRequestDto traineeRequestDto) {
+        return traineeDAO.register(traineeRequestDto);
+    }
+
     /**
      * Find a Trainee by its unique identifier (UUID).
      *
@@ -52,6 +84,50 @@ public class TraineeService {
         return traineeDAO.findAll();
     }
 
+    /**
+     * Find the Trainees matching all conditions of a criteria, using the most selective index that applies, such as
+     * the username or the active flag.
+     *
+     * @param criteria For example
+     *                 {@code Criteria.where(TraineeField.ACTIVE).is(true).and(TraineeField.LAST_NAME).is("Smith")}.
+     * @return The matching Trainees, in no particular order.
+     */
+    public List<Trainee> find(Criteria<Trainee> criteria) {
+        return traineeDAO.find(criteria);
+    }
+
+    /**
+     * Describe how {@link #find(Criteria)} would run a criteria without running it.
+     *
+     * @return The chosen plan; {@link QueryPlan#explain()} renders it as text.
+     */
+    public QueryPlan<Trainee> explain(Criteria<Trainee> criteria) {
+        return traineeDAO.explain(criteria);
+    }
+
+    /**
+     * Find the Trainers a Trainee has trained with, from the relationship index, in O(number of Trainers).
+     *
+     * @return The Trainers with the number of trainings and the latest session date, most recent first.
+     */
+    public List<Relationship> findTrainers(UUID traineeId) {
+        return traineeDAO.findTrainers(traineeId);
+    }
+
+    /**
+     * Suggest Trainers the Trainee has not trained with yet: the active Trainers of the Trainees that share a Trainer
+     * with it, scored by the number of such Trainees.
+     *
+     * @return Up to n Trainers, highest score first.
+     * @throws InvalidInputException When n is not positive.
+     */
+    public List<LeaderboardEntry> suggestTrainers(UUID traineeId, int n) {
+        if (n <= 0) {
+            throw new InvalidInputException("A positive count is required");
+        }
+        return traineeDAO.suggestTrainers(traineeId, n);
+    }
+
     /**
      * Delete a Trainee by its unique identifier (UUID).
      *
@@ -73,4 +149,92 @@ public class TraineeService {
         return traineeDAO.update(id, traineeRequestDto);
     }
 
+    /**
+     * Update an existing Trainee entity only if it has not been modified since it was read.
+     *
+     * @param id                The unique identifier of the Trainee to be updated.
+     * @param expectedVersion   The version of the Trainee the caller based the update on.
+     * @param traineeRequestDto The TraineeRequestDto containing the updated information.
+     * @return The updated Trainee entity, carrying its new version.
+     * @throws NotFoundException        When the Trainee with the specified ID is not found.
+     * @throws VersionConflictException When the stored Trainee has a different version.
+     */
+    public Trainee update(UUID id, long expectedVersion, TraineeRequestDto traineeRequestDto) {
+        return traineeDAO.update(id, expectedVersion, traineeRequestDto);
+    }
+
+    /**
+     * Count the active Trainees in O(1) from the active-user index.
+     *
+     * @return The number of Trainees whose user is active.
+     */
+    public int countActive() {
+        return traineeDAO.countActive();
+    }
+
+    /**
+     * Retrieve all active Trainees by intersecting the active-user bitset with the trainee bitset.
+     *
+     * @return A list of the Trainees whose user is active.
+     */
+    public List<Trainee> findAllActive() {
+        return traineeDAO.findAllActive();
+    }
+
+    /**
+     * Activate or deactivate the users of several Trainees at once.
+     *
+     * @param ids    The unique identifiers of the Trainees; unknown ids are ignored.
+     * @param active The state to set.
+     * @return The number of users whose state changed.
+     */
+    public int setActive(Collection<UUID> ids, boolean active) {
+        return traineeDAO.setActive(ids, active);
+    }
+
+    /**
+     * Activate or deactivate the users of all Trainees matching a predicate, e.g. everyone with a lapsed membership.
+     * Only users not already in the requested state are tested.
+     *
+     * @param predicate The condition a Trainee's user has to match.
+     * @param active    The state to set.
+     * @return The number of users whose state changed.
+     */
+    public int setActiveWhere(Predicate<User> predicate, boolean active) {
+        return traineeDAO.setActiveWhere(predicate, active);
+    }
+
+    /**
+     * Check the login credentials of a Trainee. The username is resolved through an index and the password is
+     * compared in constant time on the authentication pool.
+     *
+     * @param username The username of the Trainee's user.
+     * @param password The raw password.
+     * @return True if the credentials belong to an active Trainee.
+     * @throws CapacityExceededException When too many logins are already waiting to be checked.
+     */
+    public boolean authenticate(String username, String password) {
+        return authenticator.authenticate(username, password, Role.TRAINEE).isPresent();
+    }
+
+    /**
+     * Validate a TraineeRequestDto without saving it and without throwing.
+     *
+     * @param traineeRequestDto The request to check.
+     * @return The per-field outcome; valid if the request would pass the checks done on save.
+     */
+    public ValidationResult validate(TraineeRequestDto traineeRequestDto) {
+        return requestValidator.getTraineeValidator().validate(traineeRequestDto);
+    }
+
+    /**
+     * Validate a batch of TraineeRequestDtos, in parallel for large batches, without throwing.
+     *
+     * @param traineeRequestDtos The requests to check.
+     * @return One report with the errors of every invalid request, keyed by its position in the batch.
+     */
+    public BatchValidationReport validateAll(List<TraineeRequestDto> traineeRequestDtos) {
+        return requestValidator.validateAll(traineeRequestDtos, requestValidator.getTraineeValidator());
+    }
+
 }
@@ -3,14 +3,32 @@ package org.example.service;
 
 import org.example.dao.TrainerDAO;
 import org.example.dto.TrainerRequestDto;
+import org.example.exception.CapacityExceededException;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.Relationship;
+import org.example.model.Registration;
+import org.example.model.Role;
 import org.example.model.Trainer;
+import org.example.query.Criteria;
+import org.example.query.QueryPlan;
+import org.example.model.User;
+import org.example.security.Authenticator;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerRecommendation;
+import org.example.validation.BatchValidationReport;
+import org.example.validation.RequestValidator;
+import org.example.validation.ValidationResult;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Service for managing Trainer entities.
@@ -18,8 +36,15 @@ import java.util.UUID;
 @Service
 public class TrainerService {
 
+    @Autowired
     private TrainerDAO trainerDAO;
 
+    @Autowired
+    private Authenticator authenticator;
+
+    @Autowired
+    private RequestValidator requestValidator;
+
     /**
      * Save a new Trainer entity based on the provided TrainerRequestDto.
      *
@@ -31,6 +56,17 @@ public class TrainerService {
         return trainerDAO.save(trainerRequestDto);
     }
 
+    /**
+     * Save a new Trainer entity and return the credentials of its user.
+     *
+     * @param trainerRequestDto The TrainerRequestDto containing the trainer's information, optionally with a password.
+     * @return Created Trainer entity, its username and, if the request had no valid password, the generated one.
+     * @throws InvalidInputException When the first name, last name, or specialization is invalid.
+     */
+    public Registration<Trainer> register(TrainerRequestDto trainerRequestDto) {
+        return trainerDAO.register(trainerRequestDto);
+    }
+
     /**
      * Find a Trainer by its unique identifier (UUID).
      *
@@ -50,6 +86,66 @@ public class TrainerService {
         return trainerDAO.findAll();
     }
 
+    /**
+     * Find the Trainers matching all conditions of a criteria, using the most selective index that applies, such as
+     * the username or the active flag.
+     *
+     * @param criteria For example {@code Criteria.where(TrainerField.SPECIALIZATION).is("Yoga")}.
+     * @return The matching Trainers, in no particular order.
+     */
+    public List<Trainer> find(Criteria<Trainer> criteria) {
+        return trainerDAO.find(criteria);
+    }
+
+    /**
+     * Describe how {@link #find(Criteria)} would run a criteria without running it.
+     *
+     * @return The chosen plan; {@link QueryPlan#explain()} renders it as text.
+     */
+    public QueryPlan<Trainer> explain(Criteria<Trainer> criteria) {
+        return trainerDAO.explain(criteria);
+    }
+
+    /**
+     * Suggest Trainers for a new Trainee: active Trainers of the specialization that still have room on the date,
+     * least loaded first. The load is the number of sessions over the next four weeks and is kept up to date as
+     * trainings are saved and deleted, so no store is scanned.
+     *
+     * @param specialization The specialization asked for, compared ignoring case.
+     * @param date           The day of the first session.
+     * @param n              Number of Trainers wanted.
+     * @return Up to n Trainers with their load and their sessions on the date.
+     * @throws InvalidInputException When the specialization or the date is missing, or n is not positive.
+     */
+    public List<TrainerRecommendation> recommend(String specialization, LocalDate date, int n) {
+        if (specialization == null || specialization.isBlank() || date == null || n <= 0) {
+            throw new InvalidInputException("A specialization, a date and a positive count are required");
+        }
+        return trainerDAO.recommend(specialization, date, n);
+    }
+
+    /**
+     * Find the Trainees a Trainer has trained, from the relationship index, in O(number of Trainees).
+     *
+     * @return The Trainees with the number of trainings and the latest session date, most recent first.
+     */
+    public List<Relationship> findTrainees(UUID trainerId) {
+        return trainerDAO.findTrainees(trainerId);
+    }
+
+    /**
+     * Find the Trainers sharing Trainees with a Trainer, scored by the number of shared Trainees.
+     *
+     * @return Up to n Trainers, highest score first.
+     * @throws InvalidInputException When n is not positive.
+     */
+    public List<LeaderboardEntry> findSimilarTrainers(UUID trainerId, int n) {
+        if (n <= 0) {
+            throw new InvalidInputException("A positive count is required");
+        }
+        return trainerDAO.findSimilarTrainers(trainerId, n);
+    }
+
     /**
      * Delete a Trainer by its unique identifier (UUID).
      *
@@ -71,4 +167,92 @@ public class TrainerService {
         return trainerDAO.update(id, trainerRequestDto);
     }
 
+    /**
+     * Update an existing Trainer entity only if it has not been modified since it was read.
+     *
+     * @param id                The unique identifier of the Trainer to be updated.
+     * @param expectedVersion   The version of the Trainer the caller based the update on.
+     * @param trainerRequestDto The TrainerRequestDto containing the updated information.
+     * @return The updated Trainer entity, carrying its new version.
+     * @throws NotFoundException        When the Trainer with the specified ID is not found.
+     * @throws VersionConflictException When the stored Trainer has a different version.
+     */
+    public Trainer update(UUID id, long expectedVersion, TrainerRequestDto trainerRequestDto) {
+        return trainerDAO.update(id, expectedVersion, trainerRequestDto);
+    }
+
+    /**
+     * Count the active Trainers in O(1) from the active-user index.
+     *
+     * @return The number of Trainers whose user is active.
+     */
+    public int countActive() {
+        return trainerDAO.countActive();
+    }
+
+    /**
+     * Retrieve all active Trainers by intersecting the active-user bitset with the trainer bitset.
+     *
+     * @return A list of the Trainers whose user is active.
+     */
+    public List<Trainer> findAllActive() {
+        return trainerDAO.findAllActive();
+    }
+
+    /**
+     * Activate or deactivate the users of several Trainers at once.
+     *
+     * @param ids    The unique identifiers of the Trainers; unknown ids are ignored.
+     * @param active The state to set.
+     * @return The number of users whose state changed.
+     */
+    public int setActive(Collection<UUID> ids, boolean active) {
+        return trainerDAO.setActive(ids, active);
+    }
+
+    /**
+     * Activate or deactivate the users of all Trainers matching a predicate, e.g. everyone with a lapsed membership.
+     * Only users not already in the requested state are tested.
+     *
+     * @param predicate The condition a Trainer's user has to match.
+     * @param active    The state to set.
+     * @return The number of users whose state changed.
+     */
+    public int setActiveWhere(Predicate<User> predicate, boolean active) {
+        return trainerDAO.setActiveWhere(predicate, active);
+    }
+
+    /**
+     * Check the login credentials of a Trainer. The username is resolved through an index and the password is
+     * compared in constant time on the authentication pool.
+     *
+     * @param username The username of the Trainer's user.
+     * @param password The raw password.
+     * @return True if the credentials belong to an active Trainer.
+     * @throws CapacityExceededException When too many logins are already waiting to be checked.
+     */
+    public boolean authenticate(String username, String password) {
+        return authenticator.authenticate(username, password, Role.TRAINER).isPresent();
+    }
+
+    /**
+     * Validate a TrainerRequestDto without saving it and without throwing.
+     *
+     * @param trainerRequestDto The request to check.
+     * @return The per-field outcome; valid if the request would pass the checks done on save.
+     */
+    public ValidationResult validate(TrainerRequestDto trainerRequestDto) {
+        return requestValidator.getTrainerValidator().validate(trainerRequestDto);
+    }
+
+    /**
+     * Validate a batch of TrainerRequestDtos, in parallel for large batches, without throwing.
+     *
+     * @param trainerRequestDtos The requests to check.
+     * @return One report with the errors of every invalid request, keyed by its position in the batch.
+     */
+    public BatchValidationReport validateAll(List<TrainerRequestDto> trainerRequestDtos) {
+        return requestValidator.validateAll(trainerRequestDtos, requestValidator.getTrainerValidator());
+    }
+
 }
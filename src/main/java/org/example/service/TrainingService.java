@@ -3,15 +3,30 @@ package org.example.service;
 
 import org.example.dao.TrainingDAO;
 import org.example.dto.TrainingRequestDto;
+import org.example.exception.ArchiveException;
+import org.example.exception.CapacityExceededException;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.ingest.IngestQueue;
 import org.example.model.Training;
+import org.example.query.Criteria;
+import org.example.query.QueryPlan;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerMetric;
+import org.example.validation.BatchValidationReport;
+import org.example.validation.RequestValidator;
+import org.example.validation.ValidationResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for managing Training entities.
@@ -22,6 +37,15 @@ public class TrainingService {
     @Autowired
     private TrainingDAO trainingDAO;
 
+    @Autowired
+    private RequestValidator requestValidator;
+
+    @Autowired
+    private IngestQueue<TrainingRequestDto, Training> trainingIngestQueue;
+
+    @Value("${gym.ingest.enabled:false}")
+    private boolean ingestEnabled;
+
     /**
      * Creates and saves a new training record based on the provided TrainingRequestDto.
      *
@@ -29,9 +53,30 @@ public class TrainingService {
      * @return The newly created Training record.
      * @throws InvalidInputException if any required field is missing or invalid.
      * @throws NotFoundException     if the associated Trainee or Trainer does not exist.
+     * @throws CapacityExceededException if ingest mode is enabled and the ingest queue stayed full.
      */
     public Training save(TrainingRequestDto trainingRequestDto) {
-        return trainingDAO.save(trainingRequestDto);
+        if (!ingestEnabled) {
+            return trainingDAO.save(trainingRequestDto);
+        }
+        try {
+            return saveAsync(trainingRequestDto).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queue a new training record for the ingest writer, which saves queued records in batches with one commit each.
+     *
+     * @param trainingRequestDto The data required to create a new training record.
+     * @return Completed with the saved Training record, or exceptionally with the exceptions of {@link #save}.
+     */
+    public CompletableFuture<Training> saveAsync(TrainingRequestDto trainingRequestDto) {
+        return trainingIngestQueue.submit(trainingRequestDto);
     }
 
     /**
@@ -54,7 +99,7 @@ public class TrainingService {
     }
 
     /**
-     * Deletes a training record by its unique ID. This method also removes associated trainer, trainee, and training type records.
+     * Deletes a training record by its unique ID. This method also removes its training type record.
      *
      * @param id The unique ID of the training record to delete.
      */
@@ -73,4 +118,128 @@ public class TrainingService {
     public Training update(UUID id, TrainingRequestDto trainingRequestDto) {
         return trainingDAO.update(id, trainingRequestDto);
     }
+
+    /**
+     * Updates an existing training record only if it has not been modified since it was read.
+     *
+     * @param id                 The unique ID of the training record to update.
+     * @param expectedVersion    The version of the training record the caller based the update on.
+     * @param trainingRequestDto The data used to update the training record.
+     * @return The updated Training record, carrying its new version.
+     * @throws NotFoundException        if the training record or the associated Trainee or Trainer does not exist.
+     * @throws VersionConflictException if the stored training record has a different version.
+     */
+    public Training update(UUID id, long expectedVersion, TrainingRequestDto trainingRequestDto) {
+        return trainingDAO.update(id, expectedVersion, trainingRequestDto);
+    }
+
+    /**
+     * Validate a TrainingRequestDto without saving it and without throwing.
+     *
+     * @param trainingRequestDto The request to check.
+     * @return The per-field outcome; valid if the request would pass the checks done on save.
+     */
+    public ValidationResult validate(TrainingRequestDto trainingRequestDto) {
+        return requestValidator.getTrainingValidator().validate(trainingRequestDto);
+    }
+
+    /**
+     * Validate a batch of TrainingRequestDtos, in parallel for large batches, without throwing.
+     *
+     * @param trainingRequestDtos The requests to check.
+     * @return One report with the errors of every invalid request, keyed by its position in the batch.
+     */
+    public BatchValidationReport validateAll(List<TrainingRequestDto> trainingRequestDtos) {
+        return requestValidator.validateAll(trainingRequestDtos, requestValidator.getTrainingValidator());
+    }
+
+    /**
+     * Find the trainings dated within a range, in memory and in the archive.
+     *
+     * @param from First day of the range, inclusive.
+     * @param to   Last day of the range, inclusive.
+     * @return The matching trainings; in-memory ones first.
+     */
+    public List<Training> findByDateRange(LocalDate from, LocalDate to) {
+        return trainingDAO.findByDateRange(from, to);
+    }
+
+    /**
+     * Find the in-memory trainings matching all conditions of a criteria. Indexes on trainer, trainee and date are
+     * intersected where they help; archived trainings are not searched.
+     *
+     * @param criteria For example
+     *                 {@code Criteria.where(TrainingField.TRAINER_ID).is(trainerId)
+     *                 .and(TrainingField.DATE).between(from, to)}.
+     * @return The matching trainings, in no particular order.
+     */
+    public List<Training> find(Criteria<Training> criteria) {
+        return trainingDAO.find(criteria);
+    }
+
+    /**
+     * Describe how {@link #find(Criteria)} would run a criteria without running it.
+     *
+     * @return The chosen plan; {@link QueryPlan#explain()} renders it as text.
+     */
+    public QueryPlan<Training> explain(Criteria<Training> criteria) {
+        return trainingDAO.explain(criteria);
+    }
+
+    /**
+     * Move the trainings older than the retention horizon from memory to the archive. Archived trainings can still
+     * be found, but no longer updated or deleted.
+     *
+     * @return The number of trainings archived.
+     * @throws ArchiveException When a segment file cannot be written.
+     */
+    public int archiveExpired() {
+        return trainingDAO.archiveExpired();
+    }
+
+    /**
+     * Rank trainers over trainings dated within a window, using the maintained per-day counters and a bounded heap.
+     *
+     * @param metric Rank by number of sessions or by total duration.
+     * @param from   First day of the window, inclusive.
+     * @param to     Last day of the window, inclusive.
+     * @param n      Number of places.
+     * @return Up to n Trainer ids with their score, best first.
+     */
+    public List<LeaderboardEntry> topTrainers(TrainerMetric metric, LocalDate from, LocalDate to, int n) {
+        return trainingDAO.topTrainers(metric, from, to, n);
+    }
+
+    /**
+     * Rank trainees by attendance over trainings dated within a window.
+     *
+     * @param from First day of the window, inclusive.
+     * @param to   Last day of the window, inclusive.
+     * @param n    Number of places.
+     * @return Up to n Trainee ids with their number of trainings, best first.
+     */
+    public List<LeaderboardEntry> topTrainees(LocalDate from, LocalDate to, int n) {
+        return trainingDAO.topTrainees(from, to, n);
+    }
+
+    /**
+     * Rank trainers over the current week (Monday to Sunday) from the continuously ordered weekly board, in O(n).
+     *
+     * @param metric Rank by number of sessions or by total duration.
+     * @param n      Number of places.
+     * @return Up to n Trainer ids with their score, best first.
+     */
+    public List<LeaderboardEntry> topTrainersThisWeek(TrainerMetric metric, int n) {
+        return trainingDAO.topTrainersThisWeek(metric, n);
+    }
+
+    /**
+     * Rank trainees by attendance over the current week from the continuously ordered weekly board, in O(n).
+     *
+     * @param n Number of places.
+     * @return Up to n Trainee ids with their number of trainings, best first.
+     */
+    public List<LeaderboardEntry> topTraineesThisWeek(int n) {
+        return trainingDAO.topTraineesThisWeek(n);
+    }
 }
@@ -0,0 +1,52 @@
+package org.example.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Scores kept permanently ordered, best first, so the top N are read in O(N). A score change costs O(log E).
+ */
+class Leaderboard {
+
+    private static final Comparator<LeaderboardEntry> BEST_FIRST = Comparator
+            .comparingLong(LeaderboardEntry::getValue).reversed()
+            .thenComparing(LeaderboardEntry::getId);
+
+    private final Map<UUID, Long> scores = new HashMap<>();
+    private final TreeSet<LeaderboardEntry> ranking = new TreeSet<>(BEST_FIRST);
+
+    synchronized void add(UUID id, long delta) {
+        Long previous = scores.get(id);
+        long score = (previous == null ? 0 : previous) + delta;
+        if (previous != null) {
+            ranking.remove(new LeaderboardEntry(id, previous));
+        }
+        if (score > 0) {
+            scores.put(id, score);
+            ranking.add(new LeaderboardEntry(id, score));
+        } else {
+            scores.remove(id);
+        }
+    }
+
+    synchronized List<LeaderboardEntry> top(int n) {
+        List<LeaderboardEntry> top = new ArrayList<>(Math.max(0, Math.min(n, ranking.size())));
+        Iterator<LeaderboardEntry> iterator = ranking.iterator();
+        while (top.size() < n && iterator.hasNext()) {
+            LeaderboardEntry entry = iterator.next();
+            top.add(new LeaderboardEntry(entry.getId(), entry.getValue()));
+        }
+        return top;
+    }
+
+    synchronized void clear() {
+        scores.clear();
+        ranking.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * One place of a leaderboard: the Trainer or Trainee id and its score.
+ */
+@Data
+@AllArgsConstructor
+public class LeaderboardEntry {
+
+    private UUID id;
+    private long value;
+}
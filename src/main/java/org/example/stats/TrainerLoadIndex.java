@@ -0,0 +1,219 @@
+package org.example.stats;
+
+import org.example.model.Trainer;
+import org.example.model.Training;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * Trainers of each specialization ordered by load, the number of their sessions dated within the load window starting
+ * today, kept up to date as trainings and trainers are saved, updated and deleted. A recommendation walks the
+ * specialization from the least loaded trainer and stops at the requested count, skipping trainers whose day is
+ * already full, so it never scans the stores. Only registered trainers have a load; a trainer registered after its
+ * trainings takes its load from the sessions counted so far. Writers are serialized; recommendations read
+ * concurrently, and a trainer moved within the ranking while it is walked is recommended once.
+ */
+public class TrainerLoadIndex {
+
+    private static final Comparator<Slot> LEAST_LOADED_FIRST = Comparator
+            .comparingInt(Slot::load)
+            .thenComparing(Slot::trainerId);
+
+    private final Clock clock;
+    private final int windowDays;
+    private final int maxSessionsPerDay;
+    private final NavigableMap<LocalDate, Map<UUID, Integer>> sessionsByDay = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Integer> loads = new ConcurrentHashMap<>();
+    private final Map<UUID, String> specializations = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Slot>> rankings = new ConcurrentHashMap<>();
+    private volatile LocalDate windowStart;
+
+    public TrainerLoadIndex() {
+        this(Clock.systemDefaultZone(), 28, 8);
+    }
+
+    /**
+     * @param windowDays        Number of days, from today, whose sessions make up a trainer's load.
+     * @param maxSessionsPerDay Sessions after which a trainer is no longer available on that day.
+     */
+    public TrainerLoadIndex(Clock clock, int windowDays, int maxSessionsPerDay) {
+        this.clock = clock;
+        this.windowDays = windowDays;
+        this.maxSessionsPerDay = maxSessionsPerDay;
+        this.windowStart = LocalDate.now(clock);
+    }
+
+    /**
+     * Adds the trainer, or moves it to its new specialization.
+     */
+    public synchronized void register(Trainer trainer) {
+        rollOverIfNeeded();
+        String specialization = normalize(trainer.getSpecialization());
+        String previous = specializations.put(trainer.getId(), specialization);
+        if (specialization.equals(previous)) {
+            return;
+        }
+        if (previous == null) {
+            int windowLoad = windowLoadOf(trainer.getId());
+            if (windowLoad > 0) {
+                loads.put(trainer.getId(), windowLoad);
+            }
+        }
+        int load = loads.getOrDefault(trainer.getId(), 0);
+        if (previous != null) {
+            rankings.get(previous).remove(new Slot(load, trainer.getId()));
+        }
+        rankings.computeIfAbsent(specialization, key -> new ConcurrentSkipListSet<>(LEAST_LOADED_FIRST))
+                .add(new Slot(load, trainer.getId()));
+    }
+
+    public synchronized void unregister(UUID trainerId) {
+        String specialization = specializations.remove(trainerId);
+        if (specialization != null) {
+            rankings.get(specialization).remove(new Slot(loads.getOrDefault(trainerId, 0), trainerId));
+        }
+        loads.remove(trainerId);
+    }
+
+    public void record(Training training) {
+        apply(training, 1);
+    }
+
+    public void remove(Training training) {
+        apply(training, -1);
+    }
+
+    /**
+     * @param specialization Compared ignoring case.
+     * @param date           Day the trainer is needed; trainers with a full day are skipped.
+     * @param available      Further filter, such as the trainer's user being active.
+     * @param n              Number of trainers wanted.
+     * @return Up to n trainers, least loaded first.
+     */
+    public List<TrainerRecommendation> recommend(String specialization, LocalDate date, Predicate<UUID> available,
+                                                 int n) {
+        rollOverIfNeeded();
+        NavigableSet<Slot> ranking = rankings.get(normalize(specialization));
+        List<TrainerRecommendation> recommendations = new ArrayList<>(Math.max(0, n));
+        if (ranking == null || n <= 0) {
+            return recommendations;
+        }
+        Map<UUID, Integer> day = sessionsByDay.getOrDefault(date, Map.of());
+        Set<UUID> seen = new HashSet<>();
+        for (Slot slot : ranking) {
+            if (!seen.add(slot.trainerId())) {
+                continue;
+            }
+            int sessions = day.getOrDefault(slot.trainerId(), 0);
+            if (sessions < maxSessionsPerDay && available.test(slot.trainerId())) {
+                recommendations.add(new TrainerRecommendation(slot.trainerId(), slot.load(), sessions));
+                if (recommendations.size() == n) {
+                    break;
+                }
+            }
+        }
+        return recommendations;
+    }
+
+    public int loadOf(UUID trainerId) {
+        rollOverIfNeeded();
+        return loads.getOrDefault(trainerId, 0);
+    }
+
+    private void apply(Training training, int sign) {
+        if (training.getDate() == null || training.getTrainerId() == null) {
+            return;
+        }
+        synchronized (this) {
+            rollOverIfNeeded();
+            UUID trainerId = training.getTrainerId();
+            Map<UUID, Integer> day = sessionsByDay.computeIfAbsent(training.getDate(), date -> new ConcurrentHashMap<>());
+            day.merge(trainerId, sign, (count, delta) -> count + delta == 0 ? null : count + delta);
+            if (day.isEmpty()) {
+                sessionsByDay.remove(training.getDate());
+            }
+            if (isInWindow(training.getDate(), windowStart) && specializations.containsKey(trainerId)) {
+                changeLoad(trainerId, loads.getOrDefault(trainerId, 0) + sign);
+            }
+        }
+    }
+
+    private void changeLoad(UUID trainerId, int load) {
+        int previous = loads.getOrDefault(trainerId, 0);
+        if (load == previous) {
+            return;
+        }
+        String specialization = specializations.get(trainerId);
+        NavigableSet<Slot> ranking = specialization == null ? null : rankings.get(specialization);
+        if (ranking != null) {
+            ranking.remove(new Slot(previous, trainerId));
+        }
+        if (load == 0) {
+            loads.remove(trainerId);
+        } else {
+            loads.put(trainerId, load);
+        }
+        if (ranking != null) {
+            ranking.add(new Slot(load, trainerId));
+        }
+    }
+
+    private void rollOverIfNeeded() {
+        LocalDate today = LocalDate.now(clock);
+        if (today.equals(windowStart)) {
+            return;
+        }
+        synchronized (this) {
+            if (today.equals(windowStart)) {
+                return;
+            }
+            Map<UUID, Integer> current = new ConcurrentHashMap<>();
+            for (Map<UUID, Integer> day : sessionsByDay.subMap(today, true, today.plusDays(windowDays), false).values()) {
+                day.forEach((trainerId, sessions) -> current.merge(trainerId, sessions, Integer::sum));
+            }
+            for (UUID trainerId : List.copyOf(loads.keySet())) {
+                if (!current.containsKey(trainerId)) {
+                    changeLoad(trainerId, 0);
+                }
+            }
+            current.keySet().retainAll(specializations.keySet());
+            current.forEach(this::changeLoad);
+            windowStart = today;
+        }
+    }
+
+    private int windowLoadOf(UUID trainerId) {
+        int load = 0;
+        for (Map<UUID, Integer> day : sessionsByDay.subMap(windowStart, true, windowStart.plusDays(windowDays), false)
+                .values()) {
+            load += day.getOrDefault(trainerId, 0);
+        }
+        return load;
+    }
+
+    private boolean isInWindow(LocalDate date, LocalDate start) {
+        return !date.isBefore(start) && date.isBefore(start.plusDays(windowDays));
+    }
+
+    private static String normalize(String specialization) {
+        return specialization == null ? "" : specialization.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Slot(int load, UUID trainerId) {
+    }
+}
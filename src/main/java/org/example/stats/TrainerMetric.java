@@ -0,0 +1,9 @@
+package org.example.stats;
+
+/**
+ * What trainers are ranked by.
+ */
+public enum TrainerMetric {
+    SESSIONS,
+    DURATION
+}
@@ -0,0 +1,18 @@
+package org.example.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * One recommended Trainer: its sessions over the load window and its sessions on the requested day.
+ */
+@Data
+@AllArgsConstructor
+public class TrainerRecommendation {
+
+    private UUID trainerId;
+    private int load;
+    private int sessionsOnDate;
+}
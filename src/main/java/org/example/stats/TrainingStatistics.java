@@ -0,0 +1,257 @@
+package org.example.stats;
+
+import org.example.memory.Compactable;
+import org.example.model.Training;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-day session, duration and attendance counters of trainers and trainees, maintained as trainings are saved,
+ * updated and deleted. Writers are serialized; the per-day counters can be read concurrently. Date-window
+ * leaderboards merge the counters of the days in the window and select the top N with a bounded heap; current-week
+ * leaderboards are kept ordered at all times and read in O(N). Counters brought back to zero by removals stay until
+ * compaction prunes them, together with the days left empty.
+ */
+public class TrainingStatistics implements Compactable {
+
+    /**
+     * Estimated size of one counter: its map node, its key and its atomic values.
+     */
+    private static final int COUNTER_BYTES = 112;
+
+    private static final Comparator<LeaderboardEntry> WORST_FIRST = Comparator
+            .comparingLong(LeaderboardEntry::getValue)
+            .thenComparing(LeaderboardEntry::getId, Comparator.reverseOrder());
+
+    private final Clock clock;
+    private final NavigableMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+    private final Map<TrainerMetric, Leaderboard> weekTrainers = new EnumMap<>(TrainerMetric.class);
+    private final Leaderboard weekTrainees = new Leaderboard();
+    private volatile LocalDate weekStart;
+    private int counters;
+    private int zeroCounters;
+
+    public TrainingStatistics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public TrainingStatistics(Clock clock) {
+        this.clock = clock;
+        for (TrainerMetric metric : TrainerMetric.values()) {
+            weekTrainers.put(metric, new Leaderboard());
+        }
+        this.weekStart = startOfWeek(LocalDate.now(clock));
+    }
+
+    public void record(Training training) {
+        apply(training, 1);
+    }
+
+    public void remove(Training training) {
+        apply(training, -1);
+    }
+
+    /**
+     * @return The n trainers with the highest metric over trainings dated within {@code [from, to]}, best first.
+     */
+    public List<LeaderboardEntry> topTrainers(TrainerMetric metric, LocalDate from, LocalDate to, int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        Map<UUID, Long> totals = new HashMap<>();
+        for (Day day : days.subMap(from, true, to, true).values()) {
+            day.trainers.forEach((id, tally) -> totals.merge(id, tally.get(metric), Long::sum));
+        }
+        return top(totals, n);
+    }
+
+    /**
+     * @return The n trainees with the most trainings dated within {@code [from, to]}, best first.
+     */
+    public List<LeaderboardEntry> topTrainees(LocalDate from, LocalDate to, int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        Map<UUID, Long> totals = new HashMap<>();
+        for (Day day : days.subMap(from, true, to, true).values()) {
+            day.trainees.forEach((id, sessions) -> totals.merge(id, sessions.get(), Long::sum));
+        }
+        return top(totals, n);
+    }
+
+    public List<LeaderboardEntry> topTrainersThisWeek(TrainerMetric metric, int n) {
+        rollOverIfNeeded();
+        return weekTrainers.get(metric).top(n);
+    }
+
+    public List<LeaderboardEntry> topTraineesThisWeek(int n) {
+        rollOverIfNeeded();
+        return weekTrainees.top(n);
+    }
+
+    private void apply(Training training, int sign) {
+        if (training.getDate() == null) {
+            return;
+        }
+        long duration = training.getDuration() == null ? 0 : training.getDuration().longValue();
+        synchronized (this) {
+            rollOverIfNeeded();
+            Day day = days.computeIfAbsent(training.getDate(), date -> new Day());
+            if (training.getTrainerId() != null) {
+                Tally tally = day.trainers.get(training.getTrainerId());
+                boolean created = tally == null;
+                if (created) {
+                    tally = new Tally();
+                    day.trainers.put(training.getTrainerId(), tally);
+                }
+                long before = tally.sessions.getAndAdd(sign);
+                tally.duration.addAndGet(sign * duration);
+                count(created, before, before + sign);
+            }
+            if (training.getTraineeId() != null) {
+                AtomicLong sessions = day.trainees.get(training.getTraineeId());
+                boolean created = sessions == null;
+                if (created) {
+                    sessions = new AtomicLong();
+                    day.trainees.put(training.getTraineeId(), sessions);
+                }
+                long before = sessions.getAndAdd(sign);
+                count(created, before, before + sign);
+            }
+            if (isInWeek(training.getDate(), weekStart)) {
+                addToWeek(training.getTrainerId(), training.getTraineeId(), sign, sign * duration);
+            }
+        }
+    }
+
+    @Override
+    public synchronized double getOccupancy() {
+        return counters == 0 ? 1 : (counters - zeroCounters) / (double) counters;
+    }
+
+    @Override
+    public synchronized long getReclaimableBytes() {
+        return (long) zeroCounters * COUNTER_BYTES;
+    }
+
+    /**
+     * Drops the zero counters and the days left without counters. Runs under the writers' lock; readers go on, as a
+     * zero counter adds nothing to a leaderboard.
+     */
+    @Override
+    public synchronized long compact() {
+        long reclaimable = getReclaimableBytes();
+        if (reclaimable == 0) {
+            return 0;
+        }
+        days.values().removeIf(day -> {
+            day.trainers.values().removeIf(tally -> tally.sessions.get() == 0);
+            day.trainees.values().removeIf(sessions -> sessions.get() == 0);
+            return day.trainers.isEmpty() && day.trainees.isEmpty();
+        });
+        counters -= zeroCounters;
+        zeroCounters = 0;
+        return reclaimable;
+    }
+
+    /**
+     * Keeps the count of counters and of those at zero; called under the writers' lock.
+     */
+    private void count(boolean created, long before, long after) {
+        if (created) {
+            counters++;
+        } else if (before == 0) {
+            zeroCounters--;
+        }
+        if (after == 0) {
+            zeroCounters++;
+        }
+    }
+
+    private void addToWeek(UUID trainerId, UUID traineeId, long sessions, long duration) {
+        if (trainerId != null) {
+            weekTrainers.get(TrainerMetric.SESSIONS).add(trainerId, sessions);
+            weekTrainers.get(TrainerMetric.DURATION).add(trainerId, duration);
+        }
+        if (traineeId != null) {
+            weekTrainees.add(traineeId, sessions);
+        }
+    }
+
+    private void rollOverIfNeeded() {
+        LocalDate currentWeekStart = startOfWeek(LocalDate.now(clock));
+        if (currentWeekStart.equals(weekStart)) {
+            return;
+        }
+        synchronized (this) {
+            if (currentWeekStart.equals(weekStart)) {
+                return;
+            }
+            weekTrainers.values().forEach(Leaderboard::clear);
+            weekTrainees.clear();
+            for (Day day : days.subMap(currentWeekStart, true, currentWeekStart.plusDays(6), true).values()) {
+                day.trainers.forEach((id, tally) ->
+                        addToWeek(id, null, tally.sessions.get(), tally.duration.get()));
+                day.trainees.forEach((id, sessions) -> addToWeek(null, id, sessions.get(), 0));
+            }
+            weekStart = currentWeekStart;
+        }
+    }
+
+    private static List<LeaderboardEntry> top(Map<UUID, Long> totals, int n) {
+        PriorityQueue<LeaderboardEntry> heap = new PriorityQueue<>(Math.min(n, totals.size()) + 1, WORST_FIRST);
+        totals.forEach((id, value) -> {
+            if (value <= 0) {
+                return;
+            }
+            if (heap.size() < n) {
+                heap.add(new LeaderboardEntry(id, value));
+            } else if (value > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(new LeaderboardEntry(id, value));
+            }
+        });
+        List<LeaderboardEntry> top = new ArrayList<>(heap);
+        top.sort(WORST_FIRST.reversed());
+        return top;
+    }
+
+    private static boolean isInWeek(LocalDate date, LocalDate weekStart) {
+        return !date.isBefore(weekStart) && date.isBefore(weekStart.plusDays(7));
+    }
+
+    private static LocalDate startOfWeek(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static class Day {
+
+        private final Map<UUID, Tally> trainers = new ConcurrentHashMap<>();
+        private final Map<UUID, AtomicLong> trainees = new ConcurrentHashMap<>();
+    }
+
+    private static class Tally {
+
+        private final AtomicLong sessions = new AtomicLong();
+        private final AtomicLong duration = new AtomicLong();
+
+        long get(TrainerMetric metric) {
+            return metric == TrainerMetric.SESSIONS ? sessions.get() : duration.get();
+        }
+    }
+}
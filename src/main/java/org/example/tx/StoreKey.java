@@ -0,0 +1,38 @@
+package org.example.tx;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One entity of one store; stores are compared by identity.
+ */
+final class StoreKey {
+
+    private final Map<UUID, ?> store;
+    private final UUID id;
+
+    StoreKey(Map<UUID, ?> store, UUID id) {
+        this.store = store;
+        this.id = id;
+    }
+
+    Map<UUID, ?> store() {
+        return store;
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StoreKey other)) return false;
+        return store == other.store && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) + id.hashCode();
+    }
+}
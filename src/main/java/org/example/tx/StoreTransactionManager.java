@@ -0,0 +1,113 @@
+package org.example.tx;
+
+import org.example.exception.TransactionConflictException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Creates {@link Transaction}s over the storage maps. Entities are guarded by a fixed array of striped locks; a
+ * commit only takes the stripes of the entities it touched, in ascending order, so transactions on different
+ * entities commit in parallel and never deadlock.
+ */
+public class StoreTransactionManager {
+
+    private final Lock[] stripes;
+    private final int maxAttempts;
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    /**
+     * @param stripes     Number of lock stripes, rounded up to a power of two.
+     * @param maxAttempts How often {@link #execute(Function)} runs the work before giving up on conflicts.
+     */
+    public StoreTransactionManager(int stripes, int maxAttempts) {
+        int size = Integer.highestOneBit(Math.max(2, stripes - 1)) << 1;
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public Transaction begin() {
+        return new Transaction(this);
+    }
+
+    /**
+     * Runs the work in a new transaction and commits it, starting over with a fresh transaction on conflicts.
+     * Exceptions thrown by the work roll the transaction back and are passed on.
+     *
+     * @throws TransactionConflictException When every attempt conflicted.
+     */
+    public <T> T execute(Function<Transaction, T> work) {
+        TransactionConflictException conflict = null;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            Transaction transaction = begin();
+            T result;
+            try {
+                result = work.apply(transaction);
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+            try {
+                transaction.commit();
+                return result;
+            } catch (TransactionConflictException e) {
+                conflict = e;
+            }
+        }
+        throw conflict;
+    }
+
+    public long getCommitCount() {
+        return commits.sum();
+    }
+
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    List<Lock> lock(Collection<StoreKey> reads, Collection<StoreKey> writes) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (StoreKey key : reads) {
+            indexes.add(stripeOf(key));
+        }
+        for (StoreKey key : writes) {
+            indexes.add(stripeOf(key));
+        }
+        List<Lock> locks = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            Lock lock = stripes[index];
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    void unlock(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    void committed() {
+        commits.increment();
+    }
+
+    void conflicted() {
+        conflicts.increment();
+    }
+
+    private int stripeOf(StoreKey key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.tx;
+
+import org.example.exception.TransactionConflictException;
+import org.example.memory.AccountedStore;
+import org.example.model.Versioned;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Unit of work over several {@code Map<UUID, ?>} stores. Reads see the transaction's own staged writes and are
+ * remembered with the instance and version observed; writes are only staged. {@link #commit()} locks the stripes of
+ * every touched entity, fails with {@link TransactionConflictException} if any entity read changed since, and then
+ * applies all puts in staging order followed by all removes in staging order. Stage the referenced entity before
+ * the referring one when creating, and the referring one first when deleting, so lock-free readers never see a
+ * dangling reference. Writes that would take an {@link AccountedStore} over its hard limit fail the whole commit before
+ * anything is applied; their growth is reserved atomically, so concurrent commits cannot pass the limit together.
+ */
+public class Transaction {
+
+    private final StoreTransactionManager manager;
+    private final Map<StoreKey, Observed> reads = new LinkedHashMap<>();
+    private final Map<StoreKey, Object> writes = new LinkedHashMap<>();
+    private final List<BooleanSupplier> checks = new ArrayList<>();
+    private final List<Runnable> beforeApply = new ArrayList<>();
+    private final List<Runnable> onApply = new ArrayList<>();
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean completed;
+
+    Transaction(StoreTransactionManager manager) {
+        this.manager = manager;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> Optional<V> get(Map<UUID, V> store, UUID id) {
+        StoreKey key = new StoreKey(store, id);
+        if (writes.containsKey(key)) {
+            Object staged = writes.get(key);
+            return staged == Removal.INSTANCE ? Optional.empty() : Optional.of((V) staged);
+        }
+        Observed observed = reads.get(key);
+        if (observed == null) {
+            V value = store.get(id);
+            observed = new Observed(value, versionOf(value));
+            reads.put(key, observed);
+        }
+        return Optional.ofNullable((V) observed.value);
+    }
+
+    public <V> void put(Map<UUID, V> store, UUID id, V value) {
+        checkActive();
+        writes.put(new StoreKey(store, id), value);
+    }
+
+    public <V> void remove(Map<UUID, V> store, UUID id) {
+        checkActive();
+        writes.put(new StoreKey(store, id), Removal.INSTANCE);
+    }
+
+    /**
+     * Registers a condition checked at commit under the entity locks, before anything is applied. A false condition
+     * fails the commit as a conflict, so {@link StoreTransactionManager#execute} runs the work again. Checks only see
+     * the changes of transactions that locked one of the same entities.
+     */
+    public void verify(BooleanSupplier check) {
+        checkActive();
+        checks.add(check);
+    }
+
+    /**
+     * Registers an action to run under the entity locks once every check passed, right before the writes are
+     * applied, for side effects outside the stores that must happen once per commit, such as writing an archive
+     * segment. An exception from it fails the commit with nothing applied.
+     */
+    public void beforeApply(Runnable action) {
+        checkActive();
+        beforeApply.add(action);
+    }
+
+    /**
+     * Registers an action to run right after the writes are applied, still under the entity locks, for index
+     * changes that {@link #verify} checks of other transactions depend on and for change events, which must be
+     * published in the order the writes to an entity were applied.
+     */
+    public void onApply(Runnable action) {
+        checkActive();
+        onApply.add(action);
+    }
+
+    /**
+     * Registers an action to run after a successful commit, outside the entity locks, e.g. logging or metrics.
+     */
+    public void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void commit() {
+        checkActive();
+        completed = true;
+        List<Lock> locks = manager.lock(reads.keySet(), writes.keySet());
+        try {
+            for (Map.Entry<StoreKey, Observed> read : reads.entrySet()) {
+                Object current = read.getKey().store().get(read.getKey().id());
+                Observed observed = read.getValue();
+                if (current != observed.value || versionOf(current) != observed.version) {
+                    manager.conflicted();
+                    throw new TransactionConflictException("Entity " + read.getKey().id() + " changed concurrently");
+                }
+            }
+            for (BooleanSupplier check : checks) {
+                if (!check.getAsBoolean()) {
+                    manager.conflicted();
+                    throw new TransactionConflictException("A concurrent change invalidated the transaction");
+                }
+            }
+            Map<AccountedStore<?>, Long> reserved = reserveGrowth();
+            try {
+                beforeApply.forEach(Runnable::run);
+                for (Map.Entry<StoreKey, Object> write : writes.entrySet()) {
+                    if (write.getValue() == Removal.INSTANCE) {
+                        continue;
+                    }
+                    if (write.getKey().store() instanceof AccountedStore<?> store) {
+                        ((AccountedStore<Object>) store).putAdmitted(write.getKey().id(), write.getValue());
+                    } else {
+                        ((Map<UUID, Object>) write.getKey().store()).put(write.getKey().id(), write.getValue());
+                    }
+                }
+                for (Map.Entry<StoreKey, Object> write : writes.entrySet()) {
+                    if (write.getValue() == Removal.INSTANCE) {
+                        write.getKey().store().remove(write.getKey().id());
+                    }
+                }
+                onApply.forEach(Runnable::run);
+            } finally {
+                reserved.forEach(AccountedStore::release);
+            }
+        } finally {
+            manager.unlock(locks);
+        }
+        manager.committed();
+        afterCommit.forEach(Runnable::run);
+    }
+
+    public void rollback() {
+        completed = true;
+        reads.clear();
+        writes.clear();
+        checks.clear();
+        beforeApply.clear();
+        onApply.clear();
+        afterCommit.clear();
+    }
+
+    /**
+     * Reserves the net growth of every accounted store, so a transaction that removes as much as it adds passes and
+     * concurrent commits cannot take a store over its hard limit together. If one store rejects its growth, the
+     * reservations already made are released.
+     *
+     * @return The bytes reserved per store, to release once the writes are applied or abandoned.
+     */
+    private Map<AccountedStore<?>, Long> reserveGrowth() {
+        Map<AccountedStore<?>, Long> growth = new IdentityHashMap<>();
+        for (Map.Entry<StoreKey, Object> write : writes.entrySet()) {
+            if (write.getKey().store() instanceof AccountedStore<?> store) {
+                Object value = write.getValue() == Removal.INSTANCE ? null : write.getValue();
+                growth.merge(store, store.growthOf(write.getKey().id(), value), Long::sum);
+            }
+        }
+        Map<AccountedStore<?>, Long> reserved = new IdentityHashMap<>();
+        try {
+            growth.forEach((store, bytes) -> reserved.put(store, store.reserve(bytes)));
+        } catch (RuntimeException e) {
+            reserved.forEach(AccountedStore::release);
+            throw e;
+        }
+        return reserved;
+    }
+
+    private void checkActive() {
+        if (completed) {
+            throw new IllegalStateException("Transaction already completed");
+        }
+    }
+
+    private static long versionOf(Object value) {
+        return value instanceof Versioned versioned ? versioned.getVersion() : 0;
+    }
+
+    private static final class Observed {
+
+        private final Object value;
+        private final long version;
+
+        private Observed(Object value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    private enum Removal {
+        INSTANCE
+    }
+}
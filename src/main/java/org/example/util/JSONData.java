@@ -9,6 +9,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class JSONData {
 
+    /**
+     * Optional stable identifier of the person in the source system; keeps the record matched across any change.
+     */
+    private String id;
     private String firstName;
     private String lastName;
     private String address;
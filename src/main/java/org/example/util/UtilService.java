@@ -1,24 +1,37 @@
 package org.example.util;
 
 
+import org.example.index.UsernameIndex;
 import org.example.model.User;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 @Component
 public class UtilService {
 
     private static final String ALLOWED_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
 
-    public String generateUsername(String firstName, String lastName, Map<UUID, User> users) {
+    /**
+     * Generates the first free username of the {@code First.Last[.n]} sequence and reserves it for the user in the
+     * index in the same step, so concurrent saves of namesakes never get the same one.
+     */
+    public String reserveUsername(String firstName, String lastName, UsernameIndex usernameIndex, UUID userId) {
+        return generateAvailableUsername(firstName, lastName, username -> !usernameIndex.reserve(username, userId));
+    }
+
+    /**
+     * Generates the first username of the {@code First.Last[.n]} sequence the given lookup does not report as taken.
+     */
+    public String generateAvailableUsername(String firstName, String lastName, Predicate<String> isTaken) {
         String baseUsername = firstName + "." + lastName;
         String generatedUsername = baseUsername;
         int serialNumber = 1;
 
-        while (usernameExists(users, generatedUsername)) {
+        while (isTaken.test(generatedUsername)) {
             generatedUsername = baseUsername + "." + serialNumber;
             serialNumber++;
         }
@@ -72,29 +85,28 @@ public class UtilService {
         return newKey;
     }
 
-    public void updateFirstName(User user, String firstName) {
-        if (isValidName(firstName)) {
-            user.setFirstName(firstName);
-        }
+    public User updateFirstName(User user, String firstName) {
+        return isValidName(firstName) ? user.withFirstName(firstName) : user;
     }
 
-    public void updateLastName(User user, String lastName) {
-        if (isValidName(lastName)) {
-            user.setLastName(lastName);
-        }
+    public User updateLastName(User user, String lastName) {
+        return isValidName(lastName) ? user.withLastName(lastName) : user;
     }
 
-    public void updateUsername(User user, String username, Map<UUID, User> userStorage) {
-        if (isValid(username) &&
-                !usernameExists(userStorage, username)) {
-            user.setUsername(username);
-        }
+    /**
+     * Keeps the current username if the requested one is invalid or held by another user. A new username is reserved
+     * in the index; the caller releases the previous one once the user is stored, or the new one if it is not.
+     */
+    public User updateUsername(User user, String username, UsernameIndex usernameIndex) {
+        boolean changed = isValid(username) && !username.equals(user.getUsername());
+        return changed && usernameIndex.reserve(username, user.getId()) ? user.withUsername(username) : user;
     }
 
-    public void updatePassword(User user, String password) {
-        if (isValid(password) &&
-                password.length() > 7) {
-            user.setPassword(password);
-        }
+    public User updatePassword(User user, String password) {
+        return isValidPassword(password) ? user.withPassword(password) : user;
+    }
+
+    public boolean isValidPassword(String password) {
+        return isValid(password) && password.length() > 7;
     }
 }
@@ -0,0 +1,43 @@
+package org.example.validation;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Aggregated outcome of validating a batch: how many requests passed, the errors of every failed request by its
+ * position in the batch, and how often each field failed.
+ */
+@Getter
+public class BatchValidationReport {
+
+    private final int total;
+    private final int validCount;
+    private final SortedMap<Integer, List<FieldError>> errorsByIndex;
+    private final Map<String, Long> failuresByField;
+
+    BatchValidationReport(int total, SortedMap<Integer, List<FieldError>> errorsByIndex,
+                          Map<String, Long> failuresByField) {
+        this.total = total;
+        this.validCount = total - errorsByIndex.size();
+        this.errorsByIndex = Collections.unmodifiableSortedMap(errorsByIndex);
+        this.failuresByField = Collections.unmodifiableMap(failuresByField);
+    }
+
+    public int getInvalidCount() {
+        return total - validCount;
+    }
+
+    public boolean isValid(int index) {
+        return !errorsByIndex.containsKey(index);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchValidationReport{total=" + total + ", valid=" + validCount + ", invalid=" + getInvalidCount()
+                + ", failuresByField=" + failuresByField + '}';
+    }
+}
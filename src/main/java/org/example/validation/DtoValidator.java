@@ -0,0 +1,57 @@
+package org.example.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Ordered set of rules for one request type. Failures are collected as {@link FieldError}s rather than thrown, so
+ * dirty input costs no more than clean input. Instances are immutable and thread-safe.
+ */
+public class DtoValidator<T> {
+
+    private final List<ValidationRule<T>> rules;
+
+    private DtoValidator(List<ValidationRule<T>> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public ValidationResult validate(T request) {
+        if (request == null) {
+            return ValidationResult.invalid(List.of(new FieldError("request", "required", "Request is missing")));
+        }
+        List<FieldError> errors = null;
+        for (ValidationRule<T> rule : rules) {
+            if (!rule.test(request)) {
+                if (errors == null) {
+                    errors = new ArrayList<>(2);
+                }
+                errors.add(rule.getError());
+            }
+        }
+        return errors == null ? ValidationResult.valid() : ValidationResult.invalid(errors);
+    }
+
+    public static class Builder<T> {
+
+        private final List<ValidationRule<T>> rules = new ArrayList<>();
+
+        /**
+         * Adds a rule on the value of a field.
+         */
+        public <V> Builder<T> rule(String field, Function<T, V> getter, Predicate<V> check, String code,
+                                   String message) {
+            rules.add(new ValidationRule<>(field, code, message, request -> check.test(getter.apply(request))));
+            return this;
+        }
+
+        public DtoValidator<T> build() {
+            return new DtoValidator<>(rules);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.validation;
+
+import lombok.Value;
+
+/**
+ * One failed check of one field. Immutable, as the rules share a single instance between all requests.
+ */
+@Value
+public class FieldError {
+
+    String field;
+    String code;
+    String message;
+
+}
@@ -0,0 +1,95 @@
+package org.example.validation;
+
+import lombok.Getter;
+import org.example.dto.TraineeRequestDto;
+import org.example.dto.TrainerRequestDto;
+import org.example.dto.TrainingRequestDto;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Validates request DTOs without throwing. The rules mirror the checks the DAOs perform on save, are compiled once
+ * per DTO type when the bean is created and are shared by all threads. The referenced Trainee and Trainer of a
+ * training are looked up in the storage; the save checks them again in its transaction.
+ */
+@Getter
+public class RequestValidator {
+
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private final DtoValidator<TraineeRequestDto> traineeValidator;
+    private final DtoValidator<TrainerRequestDto> trainerValidator;
+    private final DtoValidator<TrainingRequestDto> trainingValidator;
+
+    public RequestValidator(UtilService utilService, InMemoryStorage storage) {
+        String invalidName = "Must start with an upper-case letter and be at most 15 characters long";
+        this.traineeValidator = DtoValidator.<TraineeRequestDto>builder()
+                .rule("firstName", TraineeRequestDto::getFirstName, utilService::isValidName, "invalid_name", invalidName)
+                .rule("lastName", TraineeRequestDto::getLastName, utilService::isValidName, "invalid_name", invalidName)
+                .build();
+        this.trainerValidator = DtoValidator.<TrainerRequestDto>builder()
+                .rule("firstName", TrainerRequestDto::getFirstName, utilService::isValidName, "invalid_name", invalidName)
+                .rule("lastName", TrainerRequestDto::getLastName, utilService::isValidName, "invalid_name", invalidName)
+                .build();
+        this.trainingValidator = DtoValidator.<TrainingRequestDto>builder()
+                .rule("traineeId", TrainingRequestDto::getTraineeId, Objects::nonNull, "required", "Trainee id is required")
+                .rule("traineeId", TrainingRequestDto::getTraineeId,
+                        id -> isAbsentOrKnown(id, storage.getTraineeStorage()), "not_found", "Trainee not found")
+                .rule("trainerId", TrainingRequestDto::getTrainerId, Objects::nonNull, "required", "Trainer id is required")
+                .rule("trainerId", TrainingRequestDto::getTrainerId,
+                        id -> isAbsentOrKnown(id, storage.getTrainerStorage()), "not_found", "Trainer not found")
+                .rule("name", TrainingRequestDto::getName, RequestValidator::isNotEmpty, "required", "Name is required")
+                .rule("date", TrainingRequestDto::getDate, Objects::nonNull, "required", "Date is required")
+                .rule("duration", TrainingRequestDto::getDuration, Objects::nonNull, "required", "Duration is required")
+                .rule("trainingTypeName", TrainingRequestDto::getTrainingTypeName, RequestValidator::isNotEmpty,
+                        "required", "Training type name is required")
+                .build();
+    }
+
+    /**
+     * Validates a whole batch, in parallel for large batches, and aggregates the outcome into one report.
+     */
+    public <T> BatchValidationReport validateAll(List<T> requests, DtoValidator<T> validator) {
+        List<T> indexed = requests instanceof RandomAccess ? requests : new ArrayList<>(requests);
+        ValidationResult[] results = new ValidationResult[indexed.size()];
+        IntStream indexes = IntStream.range(0, results.length);
+        if (results.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = validator.validate(indexed.get(i)));
+
+        SortedMap<Integer, List<FieldError>> errorsByIndex = new TreeMap<>();
+        Map<String, Long> failuresByField = new HashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i].isValid()) {
+                errorsByIndex.put(i, results[i].getErrors());
+                for (FieldError error : results[i].getErrors()) {
+                    failuresByField.merge(error.getField(), 1L, Long::sum);
+                }
+            }
+        }
+        return new BatchValidationReport(results.length, errorsByIndex, failuresByField);
+    }
+
+    /**
+     * A missing id is reported by the {@code required} rule alone.
+     */
+    private static boolean isAbsentOrKnown(UUID id, Map<UUID, ?> store) {
+        return id == null || store.containsKey(id);
+    }
+
+    private static boolean isNotEmpty(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.validation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of validating one request. Valid results share a single instance, so validating clean data allocates
+ * nothing.
+ */
+public final class ValidationResult {
+
+    private static final ValidationResult VALID = new ValidationResult(Collections.emptyList());
+
+    private final List<FieldError> errors;
+
+    private ValidationResult(List<FieldError> errors) {
+        this.errors = errors;
+    }
+
+    public static ValidationResult valid() {
+        return VALID;
+    }
+
+    public static ValidationResult invalid(List<FieldError> errors) {
+        return new ValidationResult(Collections.unmodifiableList(errors));
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<FieldError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? "ValidationResult{valid}" : "ValidationResult{errors=" + errors + '}';
+    }
+}
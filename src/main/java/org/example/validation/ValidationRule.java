@@ -0,0 +1,25 @@
+package org.example.validation;
+
+import java.util.function.Predicate;
+
+/**
+ * One check of one field, built once and reused for every request.
+ */
+public class ValidationRule<T> {
+
+    private final Predicate<T> check;
+    private final FieldError error;
+
+    public ValidationRule(String field, String code, String message, Predicate<T> check) {
+        this.check = check;
+        this.error = new FieldError(field, code, message);
+    }
+
+    boolean test(T request) {
+        return check.test(request);
+    }
+
+    FieldError getError() {
+        return error;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.web;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Status and body of one API call; a null body is sent as an empty response.
+ */
+@Getter
+@AllArgsConstructor
+public class ApiResponse {
+
+    private final int status;
+    private final Object body;
+
+    public static ApiResponse ok(Object body) {
+        return new ApiResponse(200, body);
+    }
+
+    public static ApiResponse created(Object body) {
+        return new ApiResponse(201, body);
+    }
+
+    public static ApiResponse noContent() {
+        return new ApiResponse(204, null);
+    }
+
+    public static ApiResponse error(int status, String message) {
+        return new ApiResponse(status, Map.of("error", message == null ? "" : message));
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.web;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of {@link PooledBuffer}s. When the pool is empty a new buffer is allocated; buffers that grew beyond
+ * the retention limit are dropped on release so one huge listing does not pin its memory forever.
+ */
+public class BufferPool {
+
+    private final BlockingQueue<PooledBuffer> buffers;
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+
+    /**
+     * @param size                Number of idle buffers kept.
+     * @param initialCapacity     Bytes allocated for a new buffer.
+     * @param maxRetainedCapacity Buffers larger than this are not returned to the pool.
+     */
+    public BufferPool(int size, int initialCapacity, int maxRetainedCapacity) {
+        this.buffers = new ArrayBlockingQueue<>(size);
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    public PooledBuffer acquire() {
+        PooledBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new PooledBuffer(initialCapacity);
+    }
+
+    public void release(PooledBuffer buffer) {
+        if (buffer.capacity() <= maxRetainedCapacity) {
+            buffer.reset();
+            buffers.offer(buffer);
+        }
+    }
+
+    public int idleCount() {
+        return buffers.size();
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.dto.TraineeRequestDto;
+import org.example.dto.TrainerRequestDto;
+import org.example.dto.TrainingRequestDto;
+import org.example.exception.CapacityExceededException;
+import org.example.exception.InvalidInputException;
+import org.example.exception.NotFoundException;
+import org.example.exception.TransactionConflictException;
+import org.example.exception.VersionConflictException;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.serialization.Serialization;
+import org.example.serialization.WireFormat;
+import org.example.service.TraineeService;
+import org.example.service.TrainerService;
+import org.example.service.TrainingService;
+import org.example.stats.TrainerMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP/1.1 JSON API over the trainee, trainer and training services, built on the JDK's
+ * {@code com.sun.net.httpserver}. Connections are kept alive between requests; every response is serialized into a
+ * {@link PooledBuffer} first, so it goes out with a {@code Content-Length} in one write. Bodies are JSON unless the
+ * request's Content-Type or Accept header asks for Smile. Requests run on virtual threads when the runtime has them
+ * and on a fixed worker pool otherwise.
+ */
+public class HttpApiServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpApiServer.class);
+
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final Map<WireFormat, ObjectWriter> writers = new EnumMap<>(WireFormat.class);
+    private final Map<String, ResourceHandler<?, ?>> resources = new HashMap<>();
+    private final BufferPool bufferPool;
+    private final int port;
+    private final int workerThreads;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param port          TCP port to listen on, 0 for an ephemeral one.
+     * @param workerThreads Size of the worker pool used when virtual threads are not available.
+     */
+    public HttpApiServer(TraineeService traineeService, TrainerService trainerService,
+                         TrainingService trainingService, int port, int workerThreads) {
+        this.port = port;
+        this.workerThreads = workerThreads;
+        this.bufferPool = new BufferPool(Math.max(64, workerThreads * 2), 4096, 1 << 20);
+        for (WireFormat format : WireFormat.values()) {
+            writers.put(format, Serialization.mapper(format).writer());
+        }
+        resources.put("trainees", ResourceHandler.<Trainee, TraineeRequestDto>builder()
+                .requestCodec(Serialization.TRAINEE_REQUEST)
+                .list(query -> traineeService.findAll())
+                .findById(traineeService::findById)
+                .validate(traineeService::validate)
+                .save(traineeService::register)
+                .update(traineeService::update)
+                .versionedUpdate(traineeService::update)
+                .delete(traineeService::delete)
+                .view("active", query -> traineeService.findAllActive())
+                .view("active-count", query -> traineeService.countActive())
+                .build());
+        resources.put("trainers", ResourceHandler.<Trainer, TrainerRequestDto>builder()
+                .requestCodec(Serialization.TRAINER_REQUEST)
+                .list(query -> trainerService.findAll())
+                .findById(trainerService::findById)
+                .validate(trainerService::validate)
+                .save(trainerService::register)
+                .update(trainerService::update)
+                .versionedUpdate(trainerService::update)
+                .delete(trainerService::delete)
+                .view("active", query -> trainerService.findAllActive())
+                .view("active-count", query -> trainerService.countActive())
+                .view("recommendations", query -> trainerService.recommend(query.get("specialization"),
+                        date(query, "date", LocalDate.now()), Integer.parseInt(query.getOrDefault("n", "5"))))
+                .build());
+        resources.put("trainings", ResourceHandler.<Training, TrainingRequestDto>builder()
+                .requestCodec(Serialization.TRAINING_REQUEST)
+                .list(query -> query.containsKey("from") || query.containsKey("to")
+                        ? trainingService.findByDateRange(date(query, "from", EARLIEST), date(query, "to", LATEST))
+                        : trainingService.findAll())
+                .findById(trainingService::findById)
+                .validate(trainingService::validate)
+                .save(trainingService::save)
+                .update(trainingService::update)
+                .versionedUpdate(trainingService::update)
+                .delete(trainingService::delete)
+                .view("top-trainers", query -> {
+                    TrainerMetric metric = TrainerMetric.valueOf(query.getOrDefault("metric", "SESSIONS"));
+                    int n = Integer.parseInt(query.getOrDefault("n", "10"));
+                    return query.containsKey("from") && query.containsKey("to")
+                            ? trainingService.topTrainers(metric, date(query, "from", null), date(query, "to", null), n)
+                            : trainingService.topTrainersThisWeek(metric, n);
+                })
+                .view("top-trainees", query -> {
+                    int n = Integer.parseInt(query.getOrDefault("n", "10"));
+                    return query.containsKey("from") && query.containsKey("to")
+                            ? trainingService.topTrainees(date(query, "from", null), date(query, "to", null), n)
+                            : trainingService.topTraineesThisWeek(n);
+                })
+                .build());
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        // Header and body are written separately; without TCP_NODELAY the body waits for the client's delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        executor = newExecutor(workerThreads);
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("HTTP API listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        ApiResponse response;
+        try (InputStream body = exchange.getRequestBody()) {
+            response = dispatch(exchange, body);
+        } catch (NotFoundException e) {
+            response = ApiResponse.error(404, e.getMessage());
+        } catch (InvalidInputException | JsonProcessingException | IllegalArgumentException | DateTimeParseException e) {
+            response = ApiResponse.error(400, e.getMessage());
+        } catch (VersionConflictException | TransactionConflictException e) {
+            response = ApiResponse.error(409, e.getMessage());
+        } catch (CapacityExceededException e) {
+            response = ApiResponse.error(503, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("{} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            response = ApiResponse.error(500, "Internal error");
+        }
+        send(exchange, response);
+    }
+
+    private ApiResponse dispatch(HttpExchange exchange, InputStream body) throws IOException {
+        String[] segments = Arrays.stream(exchange.getRequestURI().getRawPath().split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(segment -> URLDecoder.decode(segment, StandardCharsets.UTF_8))
+                .toArray(String[]::new);
+        ResourceHandler<?, ?> resource = segments.length == 0 ? null : resources.get(segments[0]);
+        if (resource == null) {
+            return ApiResponse.error(404, "No such resource");
+        }
+        return resource.handle(exchange.getRequestMethod(), Arrays.copyOfRange(segments, 1, segments.length),
+                parseQuery(exchange.getRequestURI().getRawQuery()),
+                exchange.getRequestHeaders().getFirst("If-Match"), body,
+                WireFormat.fromHeader(exchange.getRequestHeaders().getFirst("Content-Type")));
+    }
+
+    private void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        PooledBuffer buffer = bufferPool.acquire();
+        try {
+            if (response.getBody() != null) {
+                WireFormat format = WireFormat.fromHeader(exchange.getRequestHeaders().getFirst("Accept"));
+                writers.get(format).writeValue(buffer, response.getBody());
+                exchange.getResponseHeaders().set("Content-Type", format.getMediaType());
+            }
+            exchange.sendResponseHeaders(response.getStatus(), buffer.size() == 0 ? -1 : buffer.size());
+            if (buffer.size() > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    buffer.writeTo(out);
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> query = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static LocalDate date(Map<String, String> query, String name, LocalDate defaultValue) {
+        String value = query.get(name);
+        return value == null ? defaultValue : LocalDate.parse(value);
+    }
+
+    /**
+     * Virtual threads are looked up reflectively, so the same build runs on Java 17 with a pool of platform threads.
+     */
+    private static ExecutorService newExecutor(int workerThreads) {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Serving HTTP requests on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newFixedThreadPool(workerThreads, runnable -> {
+                Thread thread = new Thread(runnable, "http-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that responses are serialized into before the length is known. Unlike
+ * {@link java.io.ByteArrayOutputStream} it is unsynchronized and can be reset and handed back to a {@link BufferPool}.
+ */
+public class PooledBuffer extends OutputStream {
+
+    private byte[] bytes;
+    private int size;
+
+    PooledBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(source, offset, bytes, size, length);
+        size += length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return bytes.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    /**
+     * Serializers close their target when done; the buffer stays usable.
+     */
+    @Override
+    public void close() {
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.web;
+
+import lombok.Builder;
+import org.example.serialization.Codec;
+import org.example.serialization.WireFormat;
+import org.example.validation.ValidationResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * CRUD endpoints of one entity type, bound to service methods:
+ * {@code GET /}, {@code POST /}, {@code GET /{id}}, {@code PUT /{id}} (optionally with {@code If-Match: <version>}),
+ * {@code DELETE /{id}} and named read-only views such as {@code GET /active}.
+ */
+@Builder
+public class ResourceHandler<T, D> {
+
+    private final Codec<D> requestCodec;
+    private final Function<Map<String, String>, List<T>> list;
+    private final Function<UUID, Optional<T>> findById;
+    private final Function<D, ValidationResult> validate;
+    private final Function<D, ?> save;
+    private final BiFunction<UUID, D, T> update;
+    private final VersionedUpdate<D, T> versionedUpdate;
+    private final Consumer<UUID> delete;
+    private final Map<String, Function<Map<String, String>, Object>> views;
+
+    public static class ResourceHandlerBuilder<T, D> {
+
+        private Map<String, Function<Map<String, String>, Object>> views = new LinkedHashMap<>();
+
+        public ResourceHandlerBuilder<T, D> view(String name, Function<Map<String, String>, Object> view) {
+            views.put(name, view);
+            return this;
+        }
+    }
+
+    @FunctionalInterface
+    public interface VersionedUpdate<D, T> {
+        T update(UUID id, long expectedVersion, D request);
+    }
+
+    ApiResponse handle(String method, String[] path, Map<String, String> query, String ifMatch, InputStream body,
+                       WireFormat bodyFormat) throws IOException {
+        if (path.length == 0) {
+            return switch (method) {
+                case "GET" -> ApiResponse.ok(list.apply(query));
+                case "POST" -> {
+                    D request = requestCodec.read(body, bodyFormat);
+                    ValidationResult result = validate.apply(request);
+                    yield result.isValid() ? ApiResponse.created(save.apply(request))
+                            : new ApiResponse(400, Map.of("errors", result.getErrors()));
+                }
+                default -> methodNotAllowed();
+            };
+        }
+        if (path.length > 1) {
+            return ApiResponse.error(404, "No such resource");
+        }
+        Function<Map<String, String>, Object> view = views.get(path[0]);
+        if (view != null) {
+            return method.equals("GET") ? ApiResponse.ok(view.apply(query)) : methodNotAllowed();
+        }
+        UUID id = UUID.fromString(path[0]);
+        return switch (method) {
+            case "GET" -> findById.apply(id).map(ApiResponse::ok)
+                    .orElseGet(() -> ApiResponse.error(404, "Not found with ID: " + id));
+            case "PUT" -> {
+                D request = requestCodec.read(body, bodyFormat);
+                yield ApiResponse.ok(ifMatch == null ? update.apply(id, request)
+                        : versionedUpdate.update(id, Long.parseLong(ifMatch.replace("\"", "")), request));
+            }
+            case "DELETE" -> {
+                delete.accept(id);
+                yield ApiResponse.noContent();
+            }
+            default -> methodNotAllowed();
+        };
+    }
+
+    private static ApiResponse methodNotAllowed() {
+        return ApiResponse.error(405, "Method not allowed");
+    }
+}
@@ -0,0 +1,196 @@
+package org.example;
+
+import org.example.exception.CapacityExceededException;
+import org.example.memory.AccountedStore;
+import org.example.memory.EntitySizes;
+import org.example.memory.StoreUsageMXBean;
+import org.example.model.Role;
+import org.example.model.Training;
+import org.example.model.User;
+import org.example.service.InMemoryStorage;
+import org.example.tx.StoreTransactionManager;
+import org.example.tx.Transaction;
+import org.example.util.JSONData;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountedStoreTest {
+
+    @Test
+    void testEstimateFollowsEveryWrite() {
+        AccountedStore<User> store = new AccountedStore<>("userStorage", EntitySizes::user);
+        User user = User.builder().id(UUID.randomUUID()).firstName("John").lastName("Smith")
+                .username("John.Smith").password("secret").isActive(true).build();
+
+        store.put(user.getId(), user);
+        long oneUser = store.getEstimatedBytes();
+        assertTrue(oneUser > EntitySizes.user(user));
+        store.computeIfPresent(user.getId(), (id, current) -> current.withUsername("John.Smith.Longer.Username"));
+        assertTrue(store.getEstimatedBytes() > oneUser);
+        store.replace(user.getId(), user);
+        assertEquals(oneUser, store.getEstimatedBytes());
+        store.merge(UUID.randomUUID(), user, (current, value) -> value);
+        assertEquals(2 * oneUser, store.getEstimatedBytes());
+        assertEquals(2, store.getEntityCount());
+
+        store.clear();
+        assertEquals(0, store.getEstimatedBytes());
+        assertThrows(UnsupportedOperationException.class, () -> store.values().clear());
+    }
+
+    @Test
+    void testLimitsEvictAndRejectGrowingWrites() {
+        AccountedStore<Training> store = new AccountedStore<>("trainingStorage", EntitySizes::training);
+        AtomicInteger softLimitCalls = new AtomicInteger();
+        store.setSoftLimitListener(softLimitCalls::incrementAndGet);
+        long perTraining = 300;
+        store.setSoftLimitBytes(5 * perTraining);
+        store.setHardLimitBytes(10 * perTraining);
+        StoreTransactionManager transactionManager = new StoreTransactionManager(64, 8);
+
+        assertThrows(CapacityExceededException.class, () -> {
+            while (true) {
+                Transaction transaction = transactionManager.begin();
+                Training training = newTraining();
+                transaction.put(store, training.getId(), training);
+                transaction.commit();
+            }
+        });
+        int count = store.getEntityCount();
+        assertTrue(store.getEstimatedBytes() <= store.getHardLimitBytes());
+        assertEquals(1, store.getRejectedWrites());
+        assertEquals(1, softLimitCalls.get());
+        assertEquals(1, store.getSoftLimitBreaches());
+
+        Transaction rejected = transactionManager.begin();
+        Training existing = store.values().iterator().next();
+        rejected.put(store, existing.getId(), existing.withName("Renamed"));
+        Training extra = newTraining();
+        rejected.put(store, extra.getId(), extra);
+        assertThrows(CapacityExceededException.class, rejected::commit);
+        assertEquals(count, store.getEntityCount());
+        assertEquals(existing, store.get(existing.getId()));
+        assertEquals(2, store.getRejectedWrites());
+
+        String longName = "Morning Yoga".repeat(50);
+        assertThrows(CapacityExceededException.class,
+                () -> store.computeIfPresent(existing.getId(), (id, training) -> training.withName(longName)));
+        assertThrows(CapacityExceededException.class, () -> store.put(existing.getId(), existing.withName(longName)));
+        assertEquals(existing, store.get(existing.getId()));
+        assertEquals(4, store.getRejectedWrites());
+
+        Transaction update = transactionManager.begin();
+        update.put(store, existing.getId(), existing.withName("Yoga"));
+        update.commit();
+        assertEquals("Yoga", store.get(existing.getId()).getName());
+        assertEquals(1, softLimitCalls.get());
+
+        store.rearmSoftLimit();
+        store.put(existing.getId(), existing);
+        assertEquals(2, softLimitCalls.get());
+    }
+
+    @Test
+    void testConcurrentCommitsStayUnderTheHardLimit() throws Exception {
+        AccountedStore<Training> store = new AccountedStore<>("trainingStorage", EntitySizes::training);
+        Training sample = newTraining();
+        store.setHardLimitBytes(20 * store.growthOf(sample.getId(), sample));
+        StoreTransactionManager transactionManager = new StoreTransactionManager(64, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        Training training = newTraining();
+                        try {
+                            if (i % 2 == 0) {
+                                store.putIfAbsent(training.getId(), training);
+                            } else {
+                                Transaction transaction = transactionManager.begin();
+                                transaction.put(store, training.getId(), training);
+                                transaction.commit();
+                            }
+                        } catch (CapacityExceededException e) {
+                            // the store is full
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(20, store.getEntityCount());
+        assertEquals(store.getHardLimitBytes(), store.getEstimatedBytes());
+        assertEquals(8 * 50 - 20, store.getRejectedWrites());
+    }
+
+    @Test
+    void testSeedImportIsAdmittedAgainstTheHardLimit() {
+        InMemoryStorage storage = new InMemoryStorage(new UtilService());
+        storage.importRecord("first", seed("John"));
+        ((AccountedStore<User>) storage.getUserStorage()).setHardLimitBytes(1);
+
+        assertThrows(CapacityExceededException.class, () -> storage.importRecord("second", seed("Jane")));
+
+        assertEquals(1, storage.getUserStorage().size());
+        assertEquals(1, storage.getTraineeStorage().size());
+        assertFalse(storage.getUsernameIndex().contains("Jane.Smith"));
+        assertFalse(storage.getSeedRecords().containsKey("second"));
+        assertEquals(1, storage.getActiveUserIndex().activeCount(Role.TRAINEE));
+    }
+
+    @Test
+    void testUsageIsReadableOverJmx() throws Exception {
+        AccountedStore<User> store = new AccountedStore<>("jmxTestStorage", EntitySizes::user);
+        User user = User.builder().id(UUID.randomUUID()).username("Jane.Doe").build();
+        store.put(user.getId(), user);
+        ObjectName name = new ObjectName("org.example.test:type=Store,name=jmxTestStorage");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(new StandardMBean(store, StoreUsageMXBean.class, true), name);
+        try {
+            assertEquals(1, server.getAttribute(name, "EntityCount"));
+            assertEquals(store.getEstimatedBytes(), server.getAttribute(name, "EstimatedBytes"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    private static Training newTraining() {
+        return Training.builder()
+                .id(UUID.randomUUID())
+                .traineeId(UUID.randomUUID())
+                .trainerId(UUID.randomUUID())
+                .name("Morning Yoga")
+                .date(LocalDate.of(2024, 5, 1))
+                .duration(60)
+                .build();
+    }
+
+    private static JSONData seed(String firstName) {
+        JSONData data = new JSONData();
+        data.setFirstName(firstName);
+        data.setLastName("Smith");
+        data.setRole(Role.TRAINEE.name());
+        return data;
+    }
+}
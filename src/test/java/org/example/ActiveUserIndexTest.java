@@ -0,0 +1,84 @@
+package org.example;
+
+import org.example.index.ActiveUserIndex;
+import org.example.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveUserIndexTest {
+
+    private ActiveUserIndex activeUserIndex;
+
+    @BeforeEach
+    void setUp() {
+        activeUserIndex = new ActiveUserIndex();
+    }
+
+    @Test
+    void testCountsFollowRegistrationAndRemoval() {
+        UUID trainee = UUID.randomUUID();
+        UUID trainer = UUID.randomUUID();
+        activeUserIndex.register(trainee, UUID.randomUUID(), Role.TRAINEE, true);
+        activeUserIndex.register(trainer, UUID.randomUUID(), Role.TRAINER, true);
+        activeUserIndex.register(UUID.randomUUID(), UUID.randomUUID(), Role.TRAINEE, false);
+
+        assertEquals(2, activeUserIndex.activeCount());
+        assertEquals(1, activeUserIndex.activeCount(Role.TRAINEE));
+        assertEquals(1, activeUserIndex.activeCount(Role.TRAINER));
+
+        activeUserIndex.remove(trainee);
+
+        assertEquals(1, activeUserIndex.activeCount());
+        assertEquals(0, activeUserIndex.activeCount(Role.TRAINEE));
+        assertFalse(activeUserIndex.isActive(trainee));
+    }
+
+    @Test
+    void testBulkToggleReportsOnlyChangedUsers() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        activeUserIndex.register(first, UUID.randomUUID(), Role.TRAINEE, true);
+        activeUserIndex.register(second, UUID.randomUUID(), Role.TRAINEE, false);
+
+        List<UUID> changed = activeUserIndex.setActive(List.of(first, second, UUID.randomUUID()), false);
+
+        assertEquals(List.of(first), changed);
+        assertEquals(0, activeUserIndex.activeCount());
+        assertEquals(List.of(first, second), activeUserIndex.usersNotInState(Role.TRAINEE, true));
+    }
+
+    @Test
+    void testIntersectionWithOtherOrdinals() {
+        UUID firstOwner = UUID.randomUUID();
+        UUID secondOwner = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        activeUserIndex.register(first, firstOwner, Role.TRAINER, true);
+        activeUserIndex.register(second, secondOwner, Role.TRAINER, true);
+
+        BitSet selection = activeUserIndex.activeOrdinals(Role.TRAINER);
+        selection.and(activeUserIndex.ordinalsOf(List.of(second)));
+
+        assertEquals(List.of(secondOwner), activeUserIndex.ownersOf(selection));
+    }
+
+    @Test
+    void testOrdinalsAreRecycled() {
+        UUID removed = UUID.randomUUID();
+        activeUserIndex.register(removed, UUID.randomUUID(), Role.TRAINEE, true);
+        int ordinal = activeUserIndex.ordinalOf(removed);
+        activeUserIndex.remove(removed);
+
+        UUID added = UUID.randomUUID();
+        activeUserIndex.register(added, UUID.randomUUID(), Role.TRAINEE, true);
+
+        assertEquals(ordinal, activeUserIndex.ordinalOf(added));
+        assertEquals(-1, activeUserIndex.ordinalOf(removed));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import org.example.model.Role;
+import org.example.model.User;
+import org.example.security.Authenticator;
+import org.example.security.Pbkdf2PasswordEncoder;
+import org.example.security.PasswordEncoder;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticatorTest {
+
+    private final PasswordEncoder passwordEncoder = new Pbkdf2PasswordEncoder(1_000);
+
+    private InMemoryStorage inMemoryStorage;
+
+    private Authenticator authenticator;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        inMemoryStorage = new InMemoryStorage(new UtilService());
+        authenticator = new Authenticator(passwordEncoder, 1, 8);
+        authenticator.setStorage(inMemoryStorage);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("John.Smith")
+                .password(passwordEncoder.encode("secret-password"))
+                .isActive(true)
+                .build();
+        inMemoryStorage.getUserStorage().put(user.getId(), user);
+        inMemoryStorage.getUsernameIndex().put(user.getUsername(), user.getId());
+        inMemoryStorage.getActiveUserIndex().register(user.getId(), UUID.randomUUID(), Role.TRAINEE, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authenticator.close();
+    }
+
+    @Test
+    void testPbkdf2RoundTrip() {
+        String encoded = passwordEncoder.encode("secret-password");
+
+        assertNotEquals("secret-password", encoded);
+        assertTrue(passwordEncoder.matches("secret-password", encoded));
+        assertFalse(passwordEncoder.matches("secret-passwore", encoded));
+    }
+
+    @Test
+    void testAuthenticate() {
+        assertTrue(authenticator.authenticate("John.Smith", "secret-password", Role.TRAINEE).isPresent());
+        assertTrue(authenticator.authenticate("John.Smith", "wrong-password", Role.TRAINEE).isEmpty());
+        assertTrue(authenticator.authenticate("John.Smith", "secret-password", Role.TRAINER).isEmpty());
+        assertTrue(authenticator.authenticate("Jane.Doe", "secret-password", Role.TRAINEE).isEmpty());
+    }
+
+    @Test
+    void testInactiveUserCannotAuthenticate() {
+        inMemoryStorage.getActiveUserIndex().setActive(List.of(user.getId()), false);
+
+        assertTrue(authenticator.authenticate("John.Smith", "secret-password", Role.TRAINEE).isEmpty());
+    }
+
+    @Test
+    void testEncodedOnPoolMatches() {
+        String encoded = authenticator.encode("new-password");
+
+        assertTrue(passwordEncoder.matches("new-password", encoded));
+    }
+
+    @Test
+    void testUserWithoutPasswordCannotAuthenticate() {
+        inMemoryStorage.getUserStorage().put(user.getId(), user.withPassword(null));
+
+        assertTrue(authenticator.authenticate("John.Smith", "", Role.TRAINEE).isEmpty());
+        assertTrue(authenticator.authenticate("John.Smith", null, Role.TRAINEE).isEmpty());
+    }
+}
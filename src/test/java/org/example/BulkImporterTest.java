@@ -0,0 +1,105 @@
+package org.example;
+
+import org.example.exception.CapacityExceededException;
+import org.example.memory.AccountedStore;
+import org.example.model.User;
+import org.example.seed.BulkImportReport;
+import org.example.seed.BulkImporter;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryStorage inMemoryStorage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("north.json"), """
+                [
+                  {"firstName": "John", "lastName": "Smith", "address": "1359 Maryland Avenue", "role": "trainee"},
+                  {"firstName": "Anthony", "lastName": "Smith", "role": "trainer", "specialization": "box"}
+                ]
+                """);
+        Files.writeString(tempDir.resolve("south.json"), """
+                [
+                  {"firstName": " john ", "lastName": "SMITH", "address": "1359 maryland avenue", "role": "trainee"},
+                  {"firstName": "John", "lastName": "Smith", "address": "2564 Prospect Valley Road", "role": "trainee"},
+                  {"firstName": "Anthony", "lastName": "Smith", "role": "trainer", "specialization": "box"}
+                ]
+                """);
+        Files.writeString(tempDir.resolve("notes.txt"), "not a seed file");
+        inMemoryStorage = new InMemoryStorage(new UtilService());
+        inMemoryStorage.setUserFilePath(tempDir.toString());
+    }
+
+    @Test
+    void testImportsEveryPersonOnceAcrossFiles() {
+        inMemoryStorage.initializeStorage();
+
+        assertEquals(2, inMemoryStorage.getTraineeStorage().size());
+        assertEquals(1, inMemoryStorage.getTrainerStorage().size());
+        Set<String> usernames = inMemoryStorage.getUserStorage().values().stream()
+                .map(User::getUsername)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("John.Smith", "John.Smith.1", "Anthony.Smith"), usernames);
+        assertEquals(3, inMemoryStorage.getSeedRecords().size());
+        inMemoryStorage.getSeedRecords().keySet()
+                .forEach(key -> assertTrue(key.matches("[0-9a-f]{16}(#[0-9]+)?"), key));
+        usernames.forEach(username -> assertTrue(inMemoryStorage.getUsernameIndex().contains(username)));
+    }
+
+    @Test
+    void testReportsDuplicatesPerFile() throws IOException {
+        BulkImportReport report = new BulkImporter(inMemoryStorage, 2).importDirectory(tempDir);
+
+        assertEquals(List.of("north.json", "south.json"),
+                report.getFiles().stream().map(BulkImportReport.FileReport::getFileName).collect(Collectors.toList()));
+        assertEquals(0, report.getFiles().get(0).getDuplicates());
+        assertEquals(2, report.getFiles().get(1).getDuplicates());
+        assertEquals(5, report.getRecords());
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getDuplicates());
+        assertTrue(report.getFiles().get(1).getRecordsPerSecond() > 0);
+    }
+
+    @Test
+    void testSkipsUsernamesReservedInTheIndex() throws IOException {
+        UUID registering = UUID.randomUUID();
+        inMemoryStorage.getUsernameIndex().reserve("John.Smith", registering);
+
+        new BulkImporter(inMemoryStorage, 2).importDirectory(tempDir);
+
+        assertEquals(registering, inMemoryStorage.getUsernameIndex().find("John.Smith").orElseThrow());
+        Set<String> usernames = inMemoryStorage.getUserStorage().values().stream()
+                .map(User::getUsername)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("John.Smith.1", "John.Smith.2", "Anthony.Smith"), usernames);
+    }
+
+    @Test
+    void testReleasesUsernamesOfRecordsNotImported() {
+        ((AccountedStore<User>) inMemoryStorage.getUserStorage()).setHardLimitBytes(1);
+        BulkImporter importer = new BulkImporter(inMemoryStorage, 2);
+
+        assertThrows(CapacityExceededException.class, () -> importer.importDirectory(tempDir));
+
+        assertEquals(0, inMemoryStorage.getUserStorage().size());
+        assertEquals(0, inMemoryStorage.getUsernameIndex().size());
+    }
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import org.example.event.BackpressureStrategy;
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeEventSubscription;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
+import org.example.event.WaitStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeEventBusTest {
+
+    @Test
+    void testSubscriberSeesEveryEventInOrder() throws Exception {
+        int publishers = 4;
+        int eventsPerPublisher = 20_000;
+        ChangeEventBus bus = new ChangeEventBus(1024, BackpressureStrategy.BLOCK);
+        AtomicLong lastSequence = new AtomicLong(-1);
+        AtomicLong outOfOrder = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(publishers * eventsPerPublisher);
+        ChangeEventSubscription subscription = bus.subscribe("test", (event, endOfBatch) -> {
+            if (event.getSequence() != lastSequence.get() + 1) {
+                outOfOrder.incrementAndGet();
+            }
+            lastSequence.set(event.getSequence());
+            done.countDown();
+        }, 64, WaitStrategy.YIELD);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < publishers; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < eventsPerPublisher; j++) {
+                    bus.publish(ChangeType.CREATED, EntityType.TRAINEE, UUID.randomUUID(), null);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, outOfOrder.get());
+        assertEquals(0, bus.getDroppedCount());
+        assertEquals(publishers * eventsPerPublisher - 1, lastSequence.get());
+        subscription.close();
+    }
+
+    @Test
+    void testDropStrategyNeverBlocksPublisher() throws Exception {
+        ChangeEventBus bus = new ChangeEventBus(8, BackpressureStrategy.DROP);
+        CountDownLatch release = new CountDownLatch(1);
+        ChangeEventSubscription subscription = bus.subscribe("stalled", (event, endOfBatch) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1, WaitStrategy.SLEEP);
+
+        for (int i = 0; i < 100; i++) {
+            bus.publish(ChangeType.UPDATED, EntityType.TRAINING, UUID.randomUUID(), null);
+        }
+
+        assertTrue(bus.getDroppedCount() > 0);
+        release.countDown();
+        subscription.close();
+    }
+}
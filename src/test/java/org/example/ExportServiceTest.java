@@ -0,0 +1,124 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.archive.TrainingArchive;
+import org.example.export.ExportFilter;
+import org.example.export.ExportFormat;
+import org.example.model.Trainee;
+import org.example.model.Training;
+import org.example.model.TrainingType;
+import org.example.model.User;
+import org.example.service.ExportService;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportServiceTest {
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @Spy
+    private InMemoryStorage inMemoryStorage = new InMemoryStorage(new UtilService());
+
+    @Spy
+    private TrainingArchive trainingArchive = new TrainingArchive(archiveDirectory.toString(), 24, 16);
+
+    private final UUID trainerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        trainingArchive.open();
+        User user = new User(UUID.randomUUID(), "John", "Smith", "John.Smith", "password", true, 0);
+        Trainee trainee = new Trainee(UUID.randomUUID(), user.getId(), "1359 Maryland Avenue, \"North\"", 0);
+        inMemoryStorage.getUserStorage().put(user.getId(), user);
+        inMemoryStorage.getTraineeStorage().put(trainee.getId(), trainee);
+        TrainingType trainingType = new TrainingType(UUID.randomUUID(), "cardio", 0);
+        inMemoryStorage.getTrainingTypeStorage().put(trainingType.getId(), trainingType);
+        for (int day = 1; day <= 10; day++) {
+            Training training = new Training(UUID.randomUUID(), trainee.getId(), day % 2 == 0 ? trainerId : UUID.randomUUID(),
+                    trainingType.getId(), "Session " + day, LocalDate.of(2024, 1, day), 60, 0);
+            inMemoryStorage.getTrainingStorage().put(training.getId(), training);
+            inMemoryStorage.getTrainingBuckets().add(training.getId(), training.getDate());
+            inMemoryStorage.getTrainingsByTrainer().add(training.getTrainerId(), training.getId());
+            inMemoryStorage.getTrainingsByTrainee().add(training.getTraineeId(), training.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        trainingArchive.close();
+    }
+
+    @Test
+    void testExportTraineesAsCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportTrainees(out, ExportFormat.CSV);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(1, rows);
+        assertEquals("id,userId,username,firstName,lastName,active,address", lines[0]);
+        assertTrue(lines[1].endsWith(",John.Smith,John,Smith,true,\"1359 Maryland Avenue, \"\"North\"\"\""));
+    }
+
+    @Test
+    void testExportTrainingsAsJsonWithFilter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportFilter filter = ExportFilter.builder()
+                .from(LocalDate.of(2024, 1, 3))
+                .to(LocalDate.of(2024, 1, 8))
+                .trainerId(trainerId)
+                .build();
+
+        long rows = exportService.exportTrainings(out, ExportFormat.JSON, filter);
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(3, rows);
+        assertEquals(3, json.size());
+        for (JsonNode training : json) {
+            assertEquals(trainerId.toString(), training.get("trainerId").asText());
+            assertEquals("cardio", training.get("trainingType").asText());
+            assertEquals(60, training.get("duration").asInt());
+        }
+    }
+
+    @Test
+    void testExportTrainingsIncludesArchive() throws IOException {
+        Training archived = new Training(UUID.randomUUID(), UUID.randomUUID(), trainerId, UUID.randomUUID(),
+                "Archived session", LocalDate.of(2020, 1, 15), 45, 0);
+        trainingArchive.archive(YearMonth.of(2020, 1), List.of(archived));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportTrainings(out, ExportFormat.JSON,
+                ExportFilter.builder().trainerId(trainerId).build());
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(6, rows);
+        assertEquals(archived.getId().toString(), json.get(5).get("id").asText());
+        assertEquals(0, exportService.exportTrainings(new ByteArrayOutputStream(), ExportFormat.CSV,
+                ExportFilter.builder().from(LocalDate.of(2019, 1, 1)).to(LocalDate.of(2019, 12, 31)).build()));
+    }
+}
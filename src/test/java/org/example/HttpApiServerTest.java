@@ -0,0 +1,129 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.TraineeRequestDto;
+import org.example.exception.VersionConflictException;
+import org.example.model.Trainee;
+import org.example.service.TraineeService;
+import org.example.service.TrainerService;
+import org.example.serialization.Serialization;
+import org.example.serialization.WireFormat;
+import org.example.service.TrainingService;
+import org.example.validation.FieldError;
+import org.example.validation.ValidationResult;
+import org.example.web.HttpApiServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HttpApiServerTest {
+
+    @Mock
+    private TraineeService traineeService;
+
+    @Mock
+    private TrainerService trainerService;
+
+    @Mock
+    private TrainingService trainingService;
+
+    private HttpApiServer server;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        server = new HttpApiServer(traineeService, trainerService, trainingService, 0, 2);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testGetTraineeById() throws Exception {
+        Trainee trainee = new Trainee(UUID.randomUUID(), UUID.randomUUID(), "1359 Maryland Avenue", 3);
+        when(traineeService.findById(trainee.getId())).thenReturn(Optional.of(trainee));
+
+        HttpResponse<String> found = send(HttpRequest.newBuilder(uri("/trainees/" + trainee.getId())).GET());
+        HttpResponse<String> missing = send(HttpRequest.newBuilder(uri("/trainees/" + UUID.randomUUID())).GET());
+        HttpResponse<String> malformed = send(HttpRequest.newBuilder(uri("/trainees/not-an-id")).GET());
+
+        assertEquals(200, found.statusCode());
+        JsonNode body = objectMapper.readTree(found.body());
+        assertEquals(trainee.getId().toString(), body.get("id").asText());
+        assertEquals(3, body.get("version").asLong());
+        assertEquals(404, missing.statusCode());
+        assertEquals(400, malformed.statusCode());
+    }
+
+    @Test
+    void testGetTraineeAsSmile() throws Exception {
+        Trainee trainee = new Trainee(UUID.randomUUID(), UUID.randomUUID(), "1359 Maryland Avenue", 3);
+        when(traineeService.findById(trainee.getId())).thenReturn(Optional.of(trainee));
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri("/trainees/" + trainee.getId()))
+                .header("Accept", WireFormat.SMILE.getMediaType()).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(WireFormat.SMILE.getMediaType(), response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals(trainee, Serialization.TRAINEE.decode(response.body(), WireFormat.SMILE));
+    }
+
+    @Test
+    void testPostRejectsInvalidRequestWithFieldErrors() throws Exception {
+        when(traineeService.validate(any())).thenReturn(ValidationResult.invalid(
+                List.of(new FieldError("firstName", "invalid_name", "Invalid"))));
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/trainees"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"firstName\":\"john\",\"lastName\":\"Smith\"}")));
+
+        assertEquals(400, response.statusCode());
+        assertEquals("firstName", objectMapper.readTree(response.body()).get("errors").get(0).get("field").asText());
+        verify(traineeService, never()).register(any());
+    }
+
+    @Test
+    void testPutWithStaleVersionIsConflict() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(traineeService.update(eq(id), eq(1L), any(TraineeRequestDto.class)))
+                .thenThrow(new VersionConflictException("Trainee has version 2"));
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/trainees/" + id))
+                .header("If-Match", "1")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"firstName\":\"John\",\"lastName\":\"Smith\"}")));
+
+        assertEquals(409, response.statusCode());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
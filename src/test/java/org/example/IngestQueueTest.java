@@ -0,0 +1,82 @@
+package org.example;
+
+import org.example.exception.CapacityExceededException;
+import org.example.exception.InvalidInputException;
+import org.example.ingest.IngestQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestQueueTest {
+
+    @Test
+    void testQueuedRequestsAreWrittenInBatches() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = new ArrayList<>();
+        try (IngestQueue<Integer, String> queue = new IngestQueue<>("test-ingest", 64, 8, 100, (requests, onRejected) -> {
+            await(release);
+            batchSizes.add(requests.size());
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                if (requests.get(i) < 0) {
+                    onRejected.accept(i, new InvalidInputException("Negative"));
+                }
+                results.add("#" + requests.get(i));
+            }
+            return results;
+        })) {
+            queue.start();
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(queue.submit(i == 5 ? -5 : i));
+            }
+            release.countDown();
+
+            assertEquals("#0", futures.get(0).get(5, TimeUnit.SECONDS));
+            assertEquals("#19", futures.get(19).get(5, TimeUnit.SECONDS));
+            ExecutionException rejection = assertThrows(ExecutionException.class, () -> futures.get(5).get());
+            assertInstanceOf(InvalidInputException.class, rejection.getCause());
+            assertEquals(19, queue.getWritten());
+            assertEquals(1, queue.getRejected());
+            assertTrue(batchSizes.stream().allMatch(size -> size <= 8));
+            assertTrue(queue.getBatches() < 20, "requests queued while the writer was busy share a batch");
+        }
+    }
+
+    @Test
+    void testFullQueueIsRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (IngestQueue<Integer, Integer> queue = new IngestQueue<>("test-ingest", 2, 1, 10, (requests, onRejected) -> {
+            await(release);
+            return requests;
+        })) {
+            queue.start();
+            CompletableFuture<Integer> first = queue.submit(1);
+            while (queue.getPending() > 0) {
+                Thread.onSpinWait();
+            }
+            queue.submit(2);
+            queue.submit(3);
+
+            ExecutionException rejection = assertThrows(ExecutionException.class, () -> queue.submit(4).get());
+            assertInstanceOf(CapacityExceededException.class, rejection.getCause());
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
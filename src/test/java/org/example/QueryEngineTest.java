@@ -0,0 +1,151 @@
+package org.example;
+
+import org.example.model.Role;
+import org.example.model.Trainee;
+import org.example.model.Training;
+import org.example.query.Criteria;
+import org.example.query.PlanStrategy;
+import org.example.query.QueryEngine;
+import org.example.query.QueryEngines;
+import org.example.query.QueryPlan;
+import org.example.query.TraineeField;
+import org.example.query.TrainingField;
+import org.example.seed.SeedRecord;
+import org.example.service.InMemoryStorage;
+import org.example.util.JSONData;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private InMemoryStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorage(new UtilService());
+    }
+
+    @Test
+    void testIntersectsTrainerAndDateIndexes() {
+        List<UUID> trainers = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (int i = 0; i < 90; i++) {
+            addTraining(trainers.get(i % 6), START.plusDays(i * 4L), "Session " + i);
+        }
+        QueryEngine<Training> engine = QueryEngines.trainings(storage);
+        LocalDate from = LocalDate.of(2024, 3, 10);
+        LocalDate to = LocalDate.of(2024, 5, 20);
+        Criteria<Training> criteria = Criteria.where(TrainingField.TRAINER_ID).is(trainers.get(1))
+                .and(TrainingField.DATE).between(from, to);
+
+        QueryPlan<Training> plan = engine.plan(criteria);
+
+        assertEquals(PlanStrategy.INDEX_INTERSECTION, plan.getStrategy());
+        assertEquals(List.of("trainingsByTrainer", "trainingBuckets"), plan.getIndexNames());
+        assertEquals(15, plan.getEstimatedRows());
+        assertTrue(plan.explain().contains("intersect trainingBuckets on date between 2024-03-10 and 2024-05-20"));
+        assertEquals(bruteForce(criteria), ids(engine.execute(plan)));
+    }
+
+    @Test
+    void testFallsBackToParallelScanWithoutIndex() {
+        UUID trainerId = UUID.randomUUID();
+        for (int i = 0; i < 2_000; i++) {
+            addTraining(trainerId, START.plusDays(i % 365), i % 10 == 0 ? "Yoga" : "Pilates");
+        }
+        QueryEngine<Training> engine = QueryEngines.trainings(storage);
+        Criteria<Training> criteria = Criteria.where(TrainingField.NAME).is("Yoga")
+                .and(TrainingField.DURATION).between(30, 60);
+
+        QueryPlan<Training> plan = engine.plan(criteria);
+
+        assertEquals(PlanStrategy.PARALLEL_SCAN, plan.getStrategy());
+        assertTrue(plan.getIndexNames().isEmpty());
+        List<Training> found = engine.execute(plan);
+        assertEquals(200, found.size());
+        assertEquals(bruteForce(criteria), ids(found));
+    }
+
+    @Test
+    void testMemberQueriesUseUserIndexes() {
+        SeedRecord john = storage.importRecord("john", seed("John", "Smith"));
+        storage.importRecord("jane", seed("Jane", "Smith"));
+        storage.importRecord("bryan", seed("Bryan", "Smoke"));
+        storage.getActiveUserIndex().setActive(List.of(john.getUserId()), false);
+        storage.getUserStorage().computeIfPresent(john.getUserId(), (id, user) -> user.withActive(false));
+        QueryEngine<Trainee> engine = QueryEngines.trainees(storage);
+
+        Criteria<Trainee> byUsername = Criteria.where(TraineeField.LAST_NAME).is("Smith")
+                .and(TraineeField.USERNAME).is("Jane.Smith");
+        QueryPlan<Trainee> plan = engine.plan(byUsername);
+        assertEquals(PlanStrategy.INDEX, plan.getStrategy());
+        assertEquals(List.of("usernameIndex"), plan.getIndexNames());
+        assertEquals(List.of("Jane.Smith"), usernames(engine.execute(plan)));
+
+        Criteria<Trainee> inactive = Criteria.where(TraineeField.ACTIVE).is(false);
+        assertEquals(List.of("activeUserIndex"), engine.plan(inactive).getIndexNames());
+        assertEquals(List.of(john.getOwnerId()), ids(engine.find(inactive), Trainee::getId));
+
+        Criteria<Trainee> byLastName = Criteria.where(TraineeField.LAST_NAME).in(List.of("Smoke", "Doe"));
+        assertEquals(PlanStrategy.SCAN, engine.plan(byLastName).getStrategy());
+        assertEquals(List.of("Bryan.Smoke"), usernames(engine.find(byLastName)));
+    }
+
+    private void addTraining(UUID trainerId, LocalDate date, String name) {
+        Training training = Training.builder()
+                .id(UUID.randomUUID())
+                .trainerId(trainerId)
+                .traineeId(UUID.randomUUID())
+                .name(name)
+                .date(date)
+                .duration(45)
+                .build();
+        storage.getTrainingStorage().put(training.getId(), training);
+        storage.getTrainingBuckets().add(training.getId(), date);
+        storage.getTrainingsByTrainer().add(trainerId, training.getId());
+        storage.getTrainingsByTrainee().add(training.getTraineeId(), training.getId());
+    }
+
+    private Set<UUID> bruteForce(Criteria<Training> criteria) {
+        return storage.getTrainingStorage().values().stream()
+                .filter(training -> criteria.matches(training, null))
+                .map(Training::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<UUID> ids(List<Training> trainings) {
+        return new HashSet<>(ids(trainings, Training::getId));
+    }
+
+    private static <T> List<UUID> ids(List<T> entities, Function<T, UUID> id) {
+        return entities.stream().map(id).collect(Collectors.toList());
+    }
+
+    private List<String> usernames(List<Trainee> trainees) {
+        return trainees.stream()
+                .map(trainee -> storage.getUserStorage().get(trainee.getUserId()).getUsername())
+                .collect(Collectors.toList());
+    }
+
+    private static JSONData seed(String firstName, String lastName) {
+        JSONData data = new JSONData();
+        data.setFirstName(firstName);
+        data.setLastName(lastName);
+        data.setRole(Role.TRAINEE.name());
+        data.setAddress("Main Street");
+        return data;
+    }
+}
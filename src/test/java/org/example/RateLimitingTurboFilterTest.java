@@ -0,0 +1,60 @@
+package org.example;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.example.logging.LogCategory;
+import org.example.logging.RateLimitingTurboFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitingTurboFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        LogCategory daos = new LogCategory();
+        daos.setName("org.example.dao");
+        daos.setPermitsPerSecond(5);
+        filter.addCategory(daos);
+        LogCategory storage = new LogCategory();
+        storage.setName("org.example.service.InMemoryStorage");
+        storage.setSampleRate(10);
+        filter.addCategory(storage);
+        filter.start();
+    }
+
+    @Test
+    void testPermitsPerSecondLimitsInfoButNotWarn() {
+        Logger logger = loggerContext.getLogger("org.example.dao.impl.TraineeDAOImpl");
+
+        assertEquals(5, countAccepted(logger, Level.INFO, 100));
+        assertEquals(100, countAccepted(logger, Level.WARN, 100));
+        assertEquals(95, filter.getCategories().stream()
+                .filter(c -> c.getName().equals("org.example.dao")).findFirst().orElseThrow().getSuppressedCount());
+    }
+
+    @Test
+    void testSampleRateAndUnlimitedLoggers() {
+        Logger storageLogger = loggerContext.getLogger("org.example.service.InMemoryStorage");
+        Logger serviceLogger = loggerContext.getLogger("org.example.service.TraineeService");
+
+        assertEquals(10, countAccepted(storageLogger, Level.INFO, 100));
+        assertEquals(100, countAccepted(serviceLogger, Level.INFO, 100));
+    }
+
+    private int countAccepted(Logger logger, Level level, int messages) {
+        int accepted = 0;
+        for (int i = 0; i < messages; i++) {
+            if (filter.decide(null, logger, level, "message", null, null) == FilterReply.NEUTRAL) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
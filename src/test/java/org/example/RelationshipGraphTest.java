@@ -0,0 +1,124 @@
+package org.example;
+
+import org.example.index.Relationship;
+import org.example.index.RelationshipGraph;
+import org.example.model.Training;
+import org.example.stats.LeaderboardEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelationshipGraphTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 5, 13);
+
+    private final RelationshipGraph graph = new RelationshipGraph();
+
+    private final UUID john = UUID.randomUUID();
+    private final UUID jane = UUID.randomUUID();
+    private final UUID bryan = UUID.randomUUID();
+    private final UUID anthony = UUID.randomUUID();
+    private final UUID maria = UUID.randomUUID();
+    private final UUID olga = UUID.randomUUID();
+
+    @Test
+    void testKeepsCountAndLatestSessionPerPair() {
+        Training first = training(john, anthony, MONDAY);
+        Training latest = training(john, anthony, MONDAY.plusDays(2));
+        graph.record(first);
+        graph.record(latest);
+        graph.record(training(john, maria, MONDAY.plusDays(1)));
+
+        assertEquals(List.of(new Relationship(anthony, 2, MONDAY.plusDays(2)),
+                new Relationship(maria, 1, MONDAY.plusDays(1))), graph.trainersOf(john));
+        assertEquals(List.of(new Relationship(john, 2, MONDAY.plusDays(2))), graph.traineesOf(anthony));
+
+        graph.remove(latest);
+        assertEquals(new Relationship(anthony, 1, MONDAY), graph.trainersOf(john).get(1));
+
+        graph.remove(first);
+        assertEquals(List.of(maria), graph.trainersOf(john).stream().map(Relationship::getId).toList());
+        assertTrue(graph.traineesOf(anthony).isEmpty());
+
+        graph.removeTrainee(john);
+        assertTrue(graph.trainersOf(john).isEmpty());
+        assertTrue(graph.traineesOf(maria).isEmpty());
+    }
+
+    @Test
+    void testTwoHopQueries() {
+        graph.record(training(john, anthony, MONDAY));
+        graph.record(training(jane, anthony, MONDAY));
+        graph.record(training(bryan, anthony, MONDAY));
+        graph.record(training(jane, maria, MONDAY));
+        graph.record(training(bryan, maria, MONDAY));
+        graph.record(training(bryan, olga, MONDAY));
+
+        assertEquals(List.of(new LeaderboardEntry(maria, 2), new LeaderboardEntry(olga, 1)),
+                graph.suggestTrainers(john, trainerId -> true, 5));
+        assertEquals(List.of(new LeaderboardEntry(olga, 1)),
+                graph.suggestTrainers(john, trainerId -> !trainerId.equals(maria), 5));
+        assertEquals(List.of(new LeaderboardEntry(maria, 2), new LeaderboardEntry(olga, 1)),
+                graph.similarTrainers(anthony, 5));
+        assertEquals(List.of(new LeaderboardEntry(maria, 2)), graph.similarTrainers(anthony, 1));
+
+        graph.removeTrainer(maria);
+        assertEquals(List.of(new LeaderboardEntry(olga, 1)), graph.suggestTrainers(john, trainerId -> true, 5));
+    }
+
+    @Test
+    void testBothEndsAgreeUnderConcurrentWrites() throws Exception {
+        List<UUID> trainers = List.of(anthony, maria, olga);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    List<UUID> trainees = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+                    for (int op = 0; op < 5000; op++) {
+                        Training training = training(trainees.get(random.nextInt(3)), trainers.get(random.nextInt(3)),
+                                MONDAY.plusDays(random.nextInt(3)));
+                        graph.record(training);
+                        if (random.nextBoolean()) {
+                            graph.remove(training);
+                        }
+                        if (op % 1000 == 0) {
+                            graph.removeTrainer(trainers.get(random.nextInt(3)));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (UUID trainerId : trainers) {
+            for (Relationship trainee : graph.traineesOf(trainerId)) {
+                assertTrue(graph.trainersOf(trainee.getId()).contains(new Relationship(trainerId,
+                        trainee.getTrainings(), trainee.getLastSession())));
+            }
+        }
+    }
+
+    private static Training training(UUID traineeId, UUID trainerId, LocalDate date) {
+        return Training.builder()
+                .id(UUID.randomUUID())
+                .traineeId(traineeId)
+                .trainerId(trainerId)
+                .date(date)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package org.example;
+
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
+import org.example.memory.AccountedStore;
+import org.example.model.Role;
+import org.example.model.Trainee;
+import org.example.model.Training;
+import org.example.model.TrainingType;
+import org.example.model.User;
+import org.example.replication.ReplicaStatus;
+import org.example.replication.ReplicationClient;
+import org.example.replication.ReplicationServer;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+
+    private InMemoryStorage primary;
+    private ChangeEventBus changeEventBus;
+    private ReplicationServer server;
+    private InMemoryStorage replica;
+    private ReplicationClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        primary = new InMemoryStorage(new UtilService());
+        changeEventBus = new ChangeEventBus();
+        server = new ReplicationServer(primary, changeEventBus, 0, 20);
+        server.start();
+        replica = new InMemoryStorage(new UtilService());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.close();
+        changeEventBus.close();
+    }
+
+    @Test
+    void testReplicaCatchesUpFromSnapshotThenLog() throws Exception {
+        Trainee existing = saveTrainee("John.Smith", true);
+        client = connect();
+        assertTrue(client.awaitSequence(-1, 5000));
+        assertEquals(existing, replica.getTraineeStorage().get(existing.getId()));
+        assertEquals(existing.getUserId(), replica.getUsernameIndex().find("John.Smith").orElseThrow());
+        assertTrue(replica.getActiveUserIndex().isActive(existing.getUserId()));
+
+        Trainee added = saveTrainee("Bryan.Smoke", false);
+        TrainingType type = new TrainingType(UUID.randomUUID(), "box", 0);
+        Training training = new Training(UUID.randomUUID(), added.getId(), null, type.getId(), "Morning",
+                LocalDate.now(), 60, 0);
+        primary.getTrainingTypeStorage().put(type.getId(), type);
+        changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINING_TYPE, type.getId(), type);
+        primary.getTrainingStorage().put(training.getId(), training);
+        changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINING, training.getId(), training);
+        primary.getTraineeStorage().remove(existing.getId());
+        changeEventBus.publish(ChangeType.DELETED, EntityType.TRAINEE, existing.getId(), existing);
+
+        assertTrue(client.awaitSequence(changeEventBus.getCursor(), 5000));
+        assertFalse(replica.getTraineeStorage().containsKey(existing.getId()));
+        assertEquals(Role.TRAINEE, replica.getActiveUserIndex().roleOf(added.getUserId()));
+        assertFalse(replica.getActiveUserIndex().isActive(added.getUserId()));
+        assertEquals(training, replica.getTrainingStorage().get(training.getId()));
+        assertEquals(1, replica.getTrainingStatistics().topTrainees(LocalDate.now(), LocalDate.now(), 5).size());
+        assertEquals(1, replica.getTrainingBuckets().idsBetween(LocalDate.now(), LocalDate.now()).size());
+
+        ReplicaStatus status = client.getStatus();
+        assertTrue(status.isConnected());
+        assertEquals(0, status.getLagEntries());
+        assertTrue(status.getLagMillis() >= 0);
+    }
+
+    @Test
+    void testResyncDropsEntitiesDeletedWhileDisconnected() throws Exception {
+        Trainee kept = saveTrainee("John.Smith", true);
+        Trainee deleted = saveTrainee("Bryan.Smoke", true);
+        client = connect();
+        assertTrue(client.awaitSequence(changeEventBus.getCursor(), 5000));
+        assertEquals(2, replica.getTraineeStorage().size());
+        client.close();
+
+        primary.getTraineeStorage().remove(deleted.getId());
+        primary.getUserStorage().remove(deleted.getUserId());
+
+        client = connect();
+        assertTrue(client.awaitSequence(changeEventBus.getCursor(), 5000));
+        assertEquals(1, replica.getTraineeStorage().size());
+        assertTrue(replica.getTraineeStorage().containsKey(kept.getId()));
+        assertFalse(replica.getUsernameIndex().contains("Bryan.Smoke"));
+        assertEquals(Role.TRAINEE, replica.getActiveUserIndex().roleOf(kept.getUserId()));
+        assertNull(replica.getActiveUserIndex().roleOf(deleted.getUserId()));
+    }
+
+    @Test
+    void testOlderVersionReplayedAfterSnapshotIsSkipped() throws Exception {
+        Trainee trainee = saveTrainee("John.Smith", true);
+        Trainee stale = new Trainee(trainee.getId(), trainee.getUserId(), "Old Street", 0);
+        primary.getTraineeStorage().put(trainee.getId(), trainee.withAddress("New Street").withVersion(1));
+        client = connect();
+        assertTrue(client.awaitSequence(changeEventBus.getCursor(), 5000));
+
+        changeEventBus.publish(ChangeType.UPDATED, EntityType.TRAINEE, stale.getId(), stale);
+
+        assertTrue(client.awaitSequence(changeEventBus.getCursor(), 5000));
+        assertEquals("New Street", replica.getTraineeStorage().get(trainee.getId()).getAddress());
+    }
+
+    @Test
+    void testReplicaFollowsPastItsHardLimitAndResyncsAfterAFailedEntry() throws Exception {
+        AccountedStore<User> users = (AccountedStore<User>) replica.getUserStorage();
+        users.setHardLimitBytes(1);
+        users.setSoftLimitBytes(1);
+        AtomicInteger failures = new AtomicInteger();
+        users.setSoftLimitListener(() -> {
+            failures.incrementAndGet();
+            throw new IllegalStateException("listener failed");
+        });
+        Trainee existing = saveTrainee("John.Smith", true);
+        client = connect();
+        assertTrue(client.awaitSequence(-1, 5000));
+
+        Trainee added = saveTrainee("Bryan.Smoke", true);
+
+        assertTrue(client.awaitSequence(changeEventBus.getCursor(), 5000));
+        assertEquals(1, failures.get());
+        assertEquals(0, users.getRejectedWrites());
+        assertTrue(replica.getTraineeStorage().containsKey(existing.getId()));
+        assertEquals(added.getUserId(), replica.getUsernameIndex().find("Bryan.Smoke").orElseThrow());
+        assertTrue(replica.getActiveUserIndex().isActive(existing.getUserId()));
+    }
+
+    private ReplicationClient connect() {
+        ReplicationClient replicationClient = new ReplicationClient(replica, "localhost", server.getPort(), 50);
+        replicationClient.start();
+        return replicationClient;
+    }
+
+    private Trainee saveTrainee(String username, boolean isActive) {
+        User user = User.builder().id(UUID.randomUUID()).username(username).isActive(isActive).build();
+        Trainee trainee = Trainee.builder().id(UUID.randomUUID()).userId(user.getId()).address("Street").build();
+        primary.getUserStorage().put(user.getId(), user);
+        changeEventBus.publish(ChangeType.CREATED, EntityType.USER, user.getId(), user);
+        primary.getTraineeStorage().put(trainee.getId(), trainee);
+        changeEventBus.publish(ChangeType.CREATED, EntityType.TRAINEE, trainee.getId(), trainee);
+        return trainee;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example;
+
+import org.example.dto.TraineeRequestDto;
+import org.example.dto.TrainingRequestDto;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+import org.example.validation.BatchValidationReport;
+import org.example.validation.FieldError;
+import org.example.validation.RequestValidator;
+import org.example.validation.ValidationResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestValidatorTest {
+
+    private final InMemoryStorage storage = new InMemoryStorage(new UtilService());
+    private final RequestValidator requestValidator = new RequestValidator(new UtilService(), storage);
+
+    @Test
+    void testValidTrainee() {
+        ValidationResult result = requestValidator.getTraineeValidator()
+                .validate(new TraineeRequestDto("John", "Smith", "1359 Maryland Avenue", null, null));
+
+        assertTrue(result.isValid());
+        assertSame(ValidationResult.valid(), result);
+    }
+
+    @Test
+    void testInvalidTraineeReportsEveryField() {
+        ValidationResult result = requestValidator.getTraineeValidator()
+                .validate(new TraineeRequestDto("john", "", null, null, null));
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("firstName", "lastName"), result.getErrors().stream().map(FieldError::getField).toList());
+    }
+
+    @Test
+    void testInvalidTrainingReportsMissingFields() {
+        UUID traineeId = UUID.randomUUID();
+        storage.getTraineeStorage().put(traineeId, Trainee.builder().id(traineeId).build());
+        TrainingRequestDto trainingRequestDto = new TrainingRequestDto();
+        trainingRequestDto.setTraineeId(traineeId);
+        trainingRequestDto.setName("");
+
+        ValidationResult result = requestValidator.getTrainingValidator().validate(trainingRequestDto);
+
+        assertEquals(List.of("trainerId", "name", "date", "duration", "trainingTypeName"),
+                result.getErrors().stream().map(FieldError::getField).toList());
+    }
+
+    @Test
+    void testTrainingWithUnknownReferencesIsInvalid() {
+        UUID traineeId = UUID.randomUUID();
+        storage.getTraineeStorage().put(traineeId, Trainee.builder().id(traineeId).build());
+        TrainingRequestDto trainingRequestDto = new TrainingRequestDto(null, traineeId, UUID.randomUUID(),
+                "Training", LocalDate.now(), 60, "cardio");
+
+        ValidationResult result = requestValidator.getTrainingValidator().validate(trainingRequestDto);
+
+        assertEquals(List.of(new FieldError("trainerId", "not_found", "Trainer not found")), result.getErrors());
+    }
+
+    @Test
+    void testValidateAllAggregatesLargeBatch() {
+        UUID traineeId = UUID.randomUUID();
+        UUID trainerId = UUID.randomUUID();
+        storage.getTraineeStorage().put(traineeId, Trainee.builder().id(traineeId).build());
+        storage.getTrainerStorage().put(trainerId, Trainer.builder().id(trainerId).build());
+        List<TrainingRequestDto> batch = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            TrainingRequestDto trainingRequestDto = new TrainingRequestDto(null, traineeId, trainerId,
+                    "Training " + i, LocalDate.now(), 60, "cardio");
+            if (i % 10 == 0) {
+                trainingRequestDto.setDate(null);
+            }
+            batch.add(trainingRequestDto);
+        }
+
+        BatchValidationReport report = requestValidator.validateAll(batch, requestValidator.getTrainingValidator());
+
+        assertEquals(5_000, report.getTotal());
+        assertEquals(500, report.getInvalidCount());
+        assertEquals(500L, report.getFailuresByField().get("date"));
+        assertFalse(report.isValid(0));
+        assertTrue(report.isValid(1));
+    }
+}
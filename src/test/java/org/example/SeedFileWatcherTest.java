@@ -0,0 +1,163 @@
+package org.example;
+
+import org.example.event.ChangeEventBus;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.User;
+import org.example.seed.SeedDiff;
+import org.example.seed.SeedFileWatcher;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedFileWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path seedFile;
+
+    private InMemoryStorage inMemoryStorage;
+
+    private SeedFileWatcher seedFileWatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        seedFile = tempDir.resolve("users.json");
+        Files.writeString(seedFile, """
+                [
+                  {"firstName": "John", "lastName": "Smith", "address": "1359 Maryland Avenue", "role": "trainee"},
+                  {"firstName": "John", "lastName": "Smith", "address": "2564 Prospect Valley Road", "role": "trainee"},
+                  {"firstName": "Anthony", "lastName": "Smith", "role": "trainer", "specialization": "box"}
+                ]
+                """);
+        inMemoryStorage = new InMemoryStorage(new UtilService());
+        inMemoryStorage.setUserFilePath(seedFile.toString());
+        inMemoryStorage.initializeStorage();
+        seedFileWatcher = new SeedFileWatcher(inMemoryStorage, new ChangeEventBus(), 1, 0);
+    }
+
+    @Test
+    void testReloadAppliesOnlyChanges() throws IOException {
+        Map<String, UUID> userIds = usernamesToIds();
+        Files.writeString(seedFile, """
+                [
+                  {"firstName": "John", "lastName": "Smith", "address": "1359 Maryland Avenue", "role": "trainee"},
+                  {"firstName": "Anthony", "lastName": "Smith", "role": "trainer", "specialization": "yoga"},
+                  {"firstName": "Bryan", "lastName": "Smoke", "address": "1423 Fulton Street", "role": "trainee"}
+                ]
+                """);
+
+        SeedDiff diff = seedFileWatcher.reload();
+
+        assertEquals(1, diff.getInserts().size());
+        assertEquals(1, diff.getUpdates().size());
+        assertEquals(1, diff.getRemovals().size());
+        assertEquals(4, inMemoryStorage.getUserStorage().size());
+        Map<String, UUID> reloadedIds = usernamesToIds();
+        assertEquals(userIds.get("John.Smith"), reloadedIds.get("John.Smith"));
+        assertEquals(userIds.get("Anthony.Smith"), reloadedIds.get("Anthony.Smith"));
+        assertFalse(inMemoryStorage.getUserStorage().get(reloadedIds.get("John.Smith.1")).isActive());
+        assertFalse(inMemoryStorage.getActiveUserIndex().isActive(reloadedIds.get("John.Smith.1")));
+        Trainer trainer = inMemoryStorage.getTrainerStorage().values().iterator().next();
+        assertEquals("yoga", trainer.getSpecialization());
+        assertEquals(1, trainer.getVersion());
+        assertTrue(inMemoryStorage.getTraineeStorage().values().stream()
+                .map(Trainee::getAddress).anyMatch("1423 Fulton Street"::equals));
+    }
+
+    @Test
+    void testRemovedRecordIsReactivatedWhenItReappears() throws IOException {
+        String original = Files.readString(seedFile);
+        Files.writeString(seedFile, "[]");
+        assertEquals(3, seedFileWatcher.reload().getRemovals().size());
+        assertEquals(0, inMemoryStorage.getActiveUserIndex().activeCount());
+
+        Files.writeString(seedFile, original);
+        SeedDiff diff = seedFileWatcher.reload();
+
+        assertEquals(3, diff.getUpdates().size());
+        assertTrue(diff.getInserts().isEmpty());
+        assertEquals(3, inMemoryStorage.getActiveUserIndex().activeCount());
+        assertTrue(seedFileWatcher.reload().isEmpty());
+    }
+
+    @Test
+    void testRemovingTheLastNamesakeKeepsTheOthers() throws IOException {
+        Map<String, UUID> userIds = usernamesToIds();
+        Files.writeString(seedFile, """
+                [
+                  {"firstName": "John", "lastName": "Smith", "address": "1359 Maryland Avenue", "role": "trainee"},
+                  {"firstName": "Anthony", "lastName": "Smith", "role": "trainer", "specialization": "box"}
+                ]
+                """);
+
+        SeedDiff diff = seedFileWatcher.reload();
+
+        assertTrue(diff.getInserts().isEmpty());
+        assertTrue(diff.getUpdates().isEmpty());
+        assertEquals(1, diff.getRemovals().size());
+        assertTrue(inMemoryStorage.getActiveUserIndex().isActive(userIds.get("John.Smith")));
+        assertFalse(inMemoryStorage.getActiveUserIndex().isActive(userIds.get("John.Smith.1")));
+    }
+
+    @Test
+    void testRecordWithoutIdKeepsItsUserWhenTheAddressChanges() throws IOException {
+        Map<String, UUID> userIds = usernamesToIds();
+        Files.writeString(seedFile, """
+                [
+                  {"firstName": "John", "lastName": "Smith", "address": "7 Elm Street", "role": "trainee"},
+                  {"firstName": "John", "lastName": "Smith", "address": "2564 Prospect Valley Road", "role": "trainee"},
+                  {"firstName": "Anthony", "lastName": "Smith", "role": "trainer", "specialization": "box"}
+                ]
+                """);
+
+        SeedDiff diff = seedFileWatcher.reload();
+
+        assertTrue(diff.getInserts().isEmpty());
+        assertTrue(diff.getRemovals().isEmpty());
+        assertEquals(1, diff.getUpdates().size());
+        assertEquals(userIds, usernamesToIds());
+        Trainee trainee = inMemoryStorage.getTraineeStorage().values().stream()
+                .filter(candidate -> candidate.getUserId().equals(userIds.get("John.Smith")))
+                .findFirst().orElseThrow();
+        assertEquals("7 Elm Street", trainee.getAddress());
+        assertTrue(inMemoryStorage.getActiveUserIndex().isActive(userIds.get("John.Smith")));
+    }
+
+    @Test
+    void testRecordWithIdKeepsItsUserWhenTheAddressChanges() throws IOException {
+        Files.writeString(seedFile, """
+                [{"id": "42", "firstName": "Bryan", "lastName": "Smoke", "address": "1423 Fulton Street", "role": "trainee"}]
+                """);
+        seedFileWatcher.reload();
+        UUID userId = usernamesToIds().get("Bryan.Smoke");
+        Files.writeString(seedFile, """
+                [{"id": "42", "firstName": "Bryan", "lastName": "Smoke", "address": "7 Elm Street", "role": "trainee"}]
+                """);
+
+        SeedDiff diff = seedFileWatcher.reload();
+
+        assertEquals(1, diff.getUpdates().size());
+        assertTrue(diff.getInserts().isEmpty());
+        assertEquals(userId, usernamesToIds().get("Bryan.Smoke"));
+        assertTrue(inMemoryStorage.getTraineeStorage().values().stream()
+                .anyMatch(trainee -> trainee.getUserId().equals(userId) && trainee.getAddress().equals("7 Elm Street")));
+    }
+
+    private Map<String, UUID> usernamesToIds() {
+        return inMemoryStorage.getUserStorage().values().stream()
+                .collect(Collectors.toMap(User::getUsername, User::getId));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import org.example.config.StartupMode;
+import org.example.service.TraineeService;
+import org.example.service.TrainingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.config.PropertyOverrideConfigurer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupModeTest {
+
+    /**
+     * Bean definitions of beans.xml that nothing refers to and that the programmatic mode leaves out.
+     */
+    private static final Set<String> UNUSED_XML_BEANS =
+            Set.of("trainerStorage", "traineeStorage", "trainingStorage", "userStorage", "trainingTypeStorage");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testProgrammaticContextHasTheBeansOfTheXmlContext() throws IOException {
+        Path seedFile = tempDir.resolve("users.json");
+        Files.writeString(seedFile, """
+                [
+                  {"firstName": "John", "lastName": "Smith", "address": "1359 Maryland Avenue", "role": "trainee"},
+                  {"firstName": "Anthony", "lastName": "Smith", "role": "trainer", "specialization": "box"}
+                ]
+                """);
+
+        try (ConfigurableApplicationContext xml = start(StartupMode.XML, seedFile, tempDir.resolve("xml"));
+             ConfigurableApplicationContext programmatic =
+                     start(StartupMode.PROGRAMMATIC, seedFile, tempDir.resolve("programmatic"))) {
+            Set<String> xmlBeans = applicationBeans(xml);
+            xmlBeans.removeAll(UNUSED_XML_BEANS);
+
+            assertTrue(applicationBeans(programmatic).containsAll(xmlBeans),
+                    () -> "Missing: " + xmlBeans.stream().filter(name -> !programmatic.containsBean(name)).toList());
+            assertEquals(1, programmatic.getBean(TraineeService.class).findAll().size());
+            assertEquals(xml.getBean(TraineeService.class).countActive(),
+                    programmatic.getBean(TraineeService.class).countActive());
+            assertTrue(programmatic.getBean(TrainingService.class).findAll().isEmpty());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(StartupMode mode, Path seedFile, Path archiveDirectory) {
+        ConfigurableApplicationContext context = mode.newContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of("gym.archive.directory", archiveDirectory.toString())));
+        Properties overrides = new Properties();
+        overrides.setProperty("inMemoryStorage.userFilePath", seedFile.toString());
+        PropertyOverrideConfigurer overrideConfigurer = new PropertyOverrideConfigurer();
+        overrideConfigurer.setProperties(overrides);
+        context.addBeanFactoryPostProcessor(overrideConfigurer);
+        context.refresh();
+        return context;
+    }
+
+    private static Set<String> applicationBeans(ConfigurableApplicationContext context) {
+        return Arrays.stream(context.getBeanDefinitionNames())
+                .filter(name -> !name.contains(".") && !name.contains("#"))
+                .collect(Collectors.toSet());
+    }
+}
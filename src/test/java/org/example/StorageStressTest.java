@@ -0,0 +1,553 @@
+package org.example;
+
+import org.example.config.StartupMode;
+import org.example.dao.TraineeDAO;
+import org.example.dao.TrainerDAO;
+import org.example.dao.TrainingDAO;
+import org.example.dto.TraineeRequestDto;
+import org.example.dto.TrainerRequestDto;
+import org.example.dto.TrainingRequestDto;
+import org.example.exception.NotFoundException;
+import org.example.index.Relationship;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.model.User;
+import org.example.service.InMemoryStorage;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerMetric;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.PropertyOverrideConfigurer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs random concurrent saves, updates, deletes and lookups against the DAOs of a fully wired context, then checks
+ * that the history of every entity is linearizable and that no reference dangles once the writers are done.
+ * Deleting a Trainee or Trainer cascades to its trainings, so a successful delete is also recorded as a removal of
+ * each of them; the check is per entity, so the atomicity of a cascade as a whole is covered by the reference check
+ * instead. Updates also move trainings to other owners; whether a delete took a moved training along depends on when
+ * the move happened, so such removals are recorded as possible only.
+ */
+class StorageStressTest {
+
+    private static final int THREADS = 4;
+    private static final int OPERATIONS_PER_THREAD = 2_500;
+    private static final int HOT_SET = 24;
+    private static final int NAMESAKES = 6;
+    private static final int LOAD_WINDOW_DAYS = 28;
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageStressTest.class);
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger names = new AtomicInteger();
+
+    @Test
+    void testConcurrentHistoriesAreLinearizableAndKeepReferencesIntact() throws Exception {
+        try (ConfigurableApplicationContext context = start()) {
+            Workload workload = new Workload(context.getBean(TraineeDAO.class), context.getBean(TrainerDAO.class),
+                    context.getBean(TrainingDAO.class));
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            List<Future<List<Op>>> futures = new ArrayList<>();
+            long started = System.nanoTime();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    return workload.run(OPERATIONS_PER_THREAD);
+                }));
+            }
+            List<Op> history = new ArrayList<>();
+            for (Future<List<Op>> future : futures) {
+                history.addAll(future.get());
+            }
+            long elapsed = System.nanoTime() - started;
+            executor.shutdown();
+            logger.info("Storage stress: {} operations on {} threads in {} ms, {} operations/s", history.size(),
+                    THREADS, elapsed / 1_000_000, Math.round(history.size() * 1e9 / elapsed));
+
+            Map<UUID, List<Op>> byKey = new HashMap<>();
+            for (Op op : withCascades(history, workload.references, workload.moved)) {
+                byKey.computeIfAbsent(op.key, key -> new ArrayList<>()).add(op);
+            }
+            byKey.forEach((key, ops) -> assertTrue(isLinearizable(ops), () -> "Not linearizable: " + key + " " + ops));
+            assertReferencesIntact(context.getBean(InMemoryStorage.class), workload);
+        }
+    }
+
+    private ConfigurableApplicationContext start() throws IOException {
+        Path seedFile = Files.writeString(tempDir.resolve("users.json"), "[]");
+        ConfigurableApplicationContext context = StartupMode.PROGRAMMATIC.newContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of("gym.archive.directory", tempDir.resolve("archive").toString())));
+        Properties overrides = new Properties();
+        overrides.setProperty("inMemoryStorage.userFilePath", seedFile.toString());
+        PropertyOverrideConfigurer overrideConfigurer = new PropertyOverrideConfigurer();
+        overrideConfigurer.setProperties(overrides);
+        context.addBeanFactoryPostProcessor(overrideConfigurer);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * Checks the stores against each other and every index against the trainings and users left in the stores,
+     * including that the owners deleted along the way left nothing behind.
+     */
+    private static void assertReferencesIntact(InMemoryStorage storage, Workload workload) {
+        for (Training training : storage.getTrainingStorage().values()) {
+            assertTrue(storage.getTraineeStorage().containsKey(training.getTraineeId()), "Dangling trainee");
+            assertTrue(storage.getTrainerStorage().containsKey(training.getTrainerId()), "Dangling trainer");
+            assertTrue(storage.getTrainingTypeStorage().containsKey(training.getTrainingTypeId()), "Dangling type");
+            assertTrue(storage.getTrainingsByTrainer().ids(training.getTrainerId()).contains(training.getId()));
+            assertTrue(storage.getTrainingsByTrainee().ids(training.getTraineeId()).contains(training.getId()));
+        }
+        for (Trainee trainee : storage.getTraineeStorage().values()) {
+            assertTrue(storage.getUserStorage().containsKey(trainee.getUserId()), "Trainee without user");
+        }
+        for (Trainer trainer : storage.getTrainerStorage().values()) {
+            assertTrue(storage.getUserStorage().containsKey(trainer.getUserId()), "Trainer without user");
+        }
+        int posted = 0;
+        for (UUID ownerId : storage.getTraineeStorage().keySet()) {
+            posted += storage.getTrainingsByTrainee().count(ownerId);
+        }
+        assertEquals(storage.getTrainingStorage().size(), posted, "Stale trainee postings");
+        assertEquals(storage.getTrainingStorage().size(), storage.getTrainingTypeStorage().size(), "Orphaned types");
+        assertIndexesMatchTrainings(storage, workload);
+        assertUsernamesIndexed(storage);
+    }
+
+    private static void assertIndexesMatchTrainings(InMemoryStorage storage, Workload workload) {
+        Collection<Training> trainings = storage.getTrainingStorage().values();
+        LocalDate today = LocalDate.now();
+        LocalDate loadWindowEnd = today.plusDays(LOAD_WINDOW_DAYS);
+        LocalDate from = today.minusYears(1);
+        LocalDate to = today.plusYears(1);
+        Map<UUID, Long> sessionsByTrainee = new HashMap<>();
+        Map<UUID, Long> sessionsByTrainer = new HashMap<>();
+        Map<UUID, Long> loadByTrainer = new HashMap<>();
+        Map<UUID, Map<UUID, Integer>> trainersByTrainee = new HashMap<>();
+        for (Training training : trainings) {
+            Collection<UUID> bucket = storage.getTrainingBuckets().idsIn(YearMonth.from(training.getDate()));
+            assertTrue(bucket.contains(training.getId()), "Training missing from its bucket");
+            sessionsByTrainee.merge(training.getTraineeId(), 1L, Long::sum);
+            sessionsByTrainer.merge(training.getTrainerId(), 1L, Long::sum);
+            if (!training.getDate().isBefore(today) && training.getDate().isBefore(loadWindowEnd)) {
+                loadByTrainer.merge(training.getTrainerId(), 1L, Long::sum);
+            }
+            trainersByTrainee.computeIfAbsent(training.getTraineeId(), id -> new HashMap<>())
+                    .merge(training.getTrainerId(), 1, Integer::sum);
+        }
+        assertEquals(trainings.size(), storage.getTrainingBuckets().countBetween(from, to),
+                "Stale bucket entries");
+
+        assertEquals(sessionsByTrainee, scores(storage.getTrainingStatistics()
+                .topTrainees(from, to, Integer.MAX_VALUE)), "Trainee statistics");
+        assertEquals(sessionsByTrainer, scores(storage.getTrainingStatistics()
+                .topTrainers(TrainerMetric.SESSIONS, from, to, Integer.MAX_VALUE)),
+                "Trainer statistics");
+
+        for (UUID trainerId : workload.trainers) {
+            assertEquals(loadByTrainer.getOrDefault(trainerId, 0L).intValue(),
+                    storage.getTrainerLoadIndex().loadOf(trainerId), "Trainer load");
+        }
+        for (UUID traineeId : workload.trainees) {
+            Map<UUID, Integer> trainers = new HashMap<>();
+            for (Relationship relationship : storage.getRelationshipGraph().trainersOf(traineeId)) {
+                trainers.put(relationship.getId(), relationship.getTrainings());
+            }
+            assertEquals(trainersByTrainee.getOrDefault(traineeId, Map.of()), trainers, "Relationship graph");
+        }
+        for (UUID trainerId : workload.trainers) {
+            if (!storage.getTrainerStorage().containsKey(trainerId)) {
+                assertTrue(storage.getRelationshipGraph().traineesOf(trainerId).isEmpty(), "Deleted trainer in graph");
+            }
+        }
+    }
+
+    /**
+     * Every stored user is found under its username, and no username is held for a user that is gone or was renamed.
+     */
+    private static void assertUsernamesIndexed(InMemoryStorage storage) {
+        for (User user : storage.getUserStorage().values()) {
+            assertEquals(Optional.of(user.getId()), storage.getUsernameIndex().find(user.getUsername()),
+                    () -> "Username not indexed: " + user.getUsername());
+        }
+        assertEquals(storage.getUserStorage().size(), storage.getUsernameIndex().size(), "Stale usernames");
+    }
+
+    private static Map<UUID, Long> scores(List<LeaderboardEntry> leaderboard) {
+        Map<UUID, Long> scores = new HashMap<>();
+        for (LeaderboardEntry entry : leaderboard) {
+            scores.put(entry.getId(), entry.getValue());
+        }
+        return scores;
+    }
+
+    /**
+     * Adds a removal of every training that a successful delete of its Trainee or Trainer takes along. The removal of
+     * a training that was moved at some point is only possible.
+     */
+    private static List<Op> withCascades(List<Op> history, Map<UUID, Set<UUID>> references, Set<UUID> moved) {
+        Map<UUID, List<UUID>> trainingsOf = new HashMap<>();
+        references.forEach((trainingId, owners) -> {
+            for (UUID owner : owners) {
+                trainingsOf.computeIfAbsent(owner, key -> new ArrayList<>()).add(trainingId);
+            }
+        });
+        List<Op> withCascades = new ArrayList<>(history);
+        for (Op op : history) {
+            if (op.kind != Kind.DELETE || !op.ok) {
+                continue;
+            }
+            for (UUID trainingId : trainingsOf.getOrDefault(op.key, List.of())) {
+                Kind kind = moved.contains(trainingId) ? Kind.POSSIBLE_CASCADE : Kind.CASCADE;
+                withCascades.add(new Op(kind, trainingId, op.invoke, op.response, true, 0, null));
+            }
+        }
+        return withCascades;
+    }
+
+    /**
+     * Wing and Gong's search: repeatedly linearizes one of the operations that were invoked before every pending
+     * operation completed, backtracking when the model rejects it, and skipping configurations already explored.
+     */
+    private static boolean isLinearizable(List<Op> ops) {
+        List<Op> sorted = new ArrayList<>(ops);
+        sorted.sort(Comparator.comparingLong(op -> op.invoke));
+        return linearize(sorted, new BitSet(), 0, null, new HashSet<>());
+    }
+
+    private static boolean linearize(List<Op> ops, BitSet done, int count, State state, Set<Configuration> visited) {
+        if (count == ops.size()) {
+            return true;
+        }
+        if (!visited.add(new Configuration((BitSet) done.clone(), state))) {
+            return false;
+        }
+        long horizon = Long.MAX_VALUE;
+        for (int i = done.nextClearBit(0); i < ops.size(); i = done.nextClearBit(i + 1)) {
+            horizon = Math.min(horizon, ops.get(i).response);
+        }
+        for (int i = done.nextClearBit(0); i < ops.size(); i = done.nextClearBit(i + 1)) {
+            if (ops.get(i).invoke > horizon) {
+                break;
+            }
+            for (Optional<State> next : ops.get(i).apply(state)) {
+                done.set(i);
+                if (linearize(ops, done, count + 1, next.orElse(null), visited)) {
+                    return true;
+                }
+                done.clear(i);
+            }
+        }
+        return false;
+    }
+
+    private enum Kind {
+        CREATE, READ, UPDATE, DELETE, CASCADE, POSSIBLE_CASCADE
+    }
+
+    /**
+     * An entity as the model sees it; the token is the field the workload updates.
+     */
+    private record State(long version, String token) {
+    }
+
+    private record Configuration(BitSet done, State state) {
+    }
+
+    /**
+     * One completed operation on one entity. Operations that failed with a {@link NotFoundException} found it absent.
+     */
+    private record Op(Kind kind, UUID key, long invoke, long response, boolean ok, long version, String token) {
+
+        /**
+         * @return The possible states after the operation, empty for an absent entity; none if the operation cannot
+         * take effect in the given state.
+         */
+        List<Optional<State>> apply(State state) {
+            State observed = new State(version, token);
+            switch (kind) {
+                case CREATE:
+                    return state == null ? List.of(Optional.of(observed)) : List.of();
+                case READ:
+                    if (!ok) {
+                        return state == null ? List.of(Optional.empty()) : List.of();
+                    }
+                    return observed.equals(state) ? List.of(Optional.of(state)) : List.of();
+                case UPDATE:
+                    if (!ok) {
+                        return state == null ? List.of(Optional.empty()) : List.of();
+                    }
+                    return state != null && state.version + 1 == version ? List.of(Optional.of(observed)) : List.of();
+                case DELETE:
+                    return (state != null) == ok ? List.of(Optional.empty()) : List.of();
+                case POSSIBLE_CASCADE:
+                    return state == null ? List.of(Optional.empty()) : List.of(Optional.empty(), Optional.of(state));
+                default:
+                    return List.of(Optional.empty());
+            }
+        }
+    }
+
+    /**
+     * Random operations over a small set of recently created entities of each type, so that threads contend.
+     */
+    private final class Workload {
+
+        private final TraineeDAO traineeDAO;
+        private final TrainerDAO trainerDAO;
+        private final TrainingDAO trainingDAO;
+        private final List<UUID> trainees = new ArrayList<>();
+        private final List<UUID> trainers = new ArrayList<>();
+        private final List<UUID> trainings = new ArrayList<>();
+        private final Map<UUID, Set<UUID>> references = new ConcurrentHashMap<>();
+        private final Set<UUID> moved = ConcurrentHashMap.newKeySet();
+
+        Workload(TraineeDAO traineeDAO, TrainerDAO trainerDAO, TrainingDAO trainingDAO) {
+            this.traineeDAO = traineeDAO;
+            this.trainerDAO = trainerDAO;
+            this.trainingDAO = trainingDAO;
+        }
+
+        List<Op> run(int operations) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Op> history = new ArrayList<>(operations);
+            for (int i = 0; i < operations; i++) {
+                int dice = random.nextInt(100);
+                if (dice < 8) {
+                    saveTrainee(history);
+                } else if (dice < 16) {
+                    saveTrainer(history);
+                } else if (dice < 36) {
+                    saveTraining(history, random);
+                } else if (dice < 54) {
+                    update(history, random);
+                } else if (dice < 64) {
+                    delete(history, random);
+                } else {
+                    read(history, random);
+                }
+            }
+            return history;
+        }
+
+        private void saveTrainee(List<Op> history) {
+            long invoke = System.nanoTime();
+            Trainee trainee = traineeDAO.save(new TraineeRequestDto("Stress", namesake(), "Street 0", null, null));
+            history.add(new Op(Kind.CREATE, trainee.getId(), invoke, System.nanoTime(), true, trainee.getVersion(),
+                    trainee.getAddress()));
+            remember(trainees, trainee.getId());
+        }
+
+        private void saveTrainer(List<Op> history) {
+            long invoke = System.nanoTime();
+            Trainer trainer = trainerDAO.save(new TrainerRequestDto("Stress", namesake(), null, null, "Yoga"));
+            history.add(new Op(Kind.CREATE, trainer.getId(), invoke, System.nanoTime(), true, trainer.getVersion(),
+                    trainer.getSpecialization()));
+            remember(trainers, trainer.getId());
+        }
+
+        /**
+         * A save that finds its Trainee or Trainer deleted creates nothing, so it is not part of any entity's history.
+         */
+        private void saveTraining(List<Op> history, ThreadLocalRandom random) {
+            UUID traineeId = pick(trainees, random);
+            UUID trainerId = pick(trainers, random);
+            if (traineeId == null || trainerId == null) {
+                return;
+            }
+            TrainingRequestDto dto = new TrainingRequestDto();
+            dto.setTraineeId(traineeId);
+            dto.setTrainerId(trainerId);
+            dto.setName("Session 0");
+            dto.setDate(LocalDate.now().plusDays(random.nextInt(30)));
+            dto.setDuration(60);
+            dto.setTrainingTypeName("Yoga");
+            long invoke = System.nanoTime();
+            try {
+                Training training = trainingDAO.save(dto);
+                long response = System.nanoTime();
+                Set<UUID> owners = ConcurrentHashMap.newKeySet();
+                owners.add(traineeId);
+                owners.add(trainerId);
+                references.put(training.getId(), owners);
+                history.add(new Op(Kind.CREATE, training.getId(), invoke, response, true, training.getVersion(),
+                        training.getName()));
+                remember(trainings, training.getId());
+            } catch (NotFoundException ignored) {
+                // the Trainee or Trainer was deleted concurrently
+            }
+        }
+
+        private void update(List<Op> history, ThreadLocalRandom random) {
+            int type = random.nextInt(3);
+            UUID id = pick(type == 0 ? trainees : type == 1 ? trainers : trainings, random);
+            if (id == null) {
+                return;
+            }
+            String token = (type == 1 ? "Spec " : type == 0 ? "Street " : "Session ") + nextName();
+            long invoke = System.nanoTime();
+            try {
+                State state;
+                if (type == 0) {
+                    Trainee trainee = traineeDAO.update(id, new TraineeRequestDto(null, null, token,
+                            "Stress." + namesake(), null));
+                    state = new State(trainee.getVersion(), trainee.getAddress());
+                } else if (type == 1) {
+                    Trainer trainer = trainerDAO.update(id, new TrainerRequestDto(null, null, "Stress." + namesake(),
+                            null, token));
+                    state = new State(trainer.getVersion(), trainer.getSpecialization());
+                } else if (random.nextInt(4) == 0) {
+                    moveTraining(history, id, token, random);
+                    return;
+                } else {
+                    TrainingRequestDto dto = new TrainingRequestDto();
+                    dto.setName(token);
+                    Training training = trainingDAO.update(id, dto);
+                    state = new State(training.getVersion(), training.getName());
+                }
+                history.add(new Op(Kind.UPDATE, id, invoke, System.nanoTime(), true, state.version, state.token));
+            } catch (NotFoundException e) {
+                history.add(new Op(Kind.UPDATE, id, invoke, System.nanoTime(), false, 0, null));
+            }
+        }
+
+        /**
+         * Moves the training to another Trainee or Trainer. The new owner is recorded before the move, so a cascade
+         * racing with it is covered. A move that fails is not part of the training's history, as it cannot tell
+         * whether the training or its new owner was missing.
+         */
+        private void moveTraining(List<Op> history, UUID id, String token, ThreadLocalRandom random) {
+            boolean toTrainee = random.nextBoolean();
+            UUID ownerId = pick(toTrainee ? trainees : trainers, random);
+            Set<UUID> owners = references.get(id);
+            if (ownerId == null || owners == null) {
+                return;
+            }
+            moved.add(id);
+            owners.add(ownerId);
+            TrainingRequestDto dto = new TrainingRequestDto();
+            dto.setName(token);
+            if (toTrainee) {
+                dto.setTraineeId(ownerId);
+            } else {
+                dto.setTrainerId(ownerId);
+            }
+            long invoke = System.nanoTime();
+            try {
+                Training training = trainingDAO.update(id, dto);
+                history.add(new Op(Kind.UPDATE, id, invoke, System.nanoTime(), true, training.getVersion(),
+                        training.getName()));
+            } catch (NotFoundException ignored) {
+                // the training or its new owner was deleted concurrently
+            }
+        }
+
+        private void delete(List<Op> history, ThreadLocalRandom random) {
+            int type = random.nextInt(4);
+            UUID id = pick(type == 0 ? trainees : type == 1 ? trainers : trainings, random);
+            if (id == null) {
+                return;
+            }
+            long invoke = System.nanoTime();
+            boolean ok = true;
+            try {
+                if (type == 0) {
+                    traineeDAO.delete(id);
+                } else if (type == 1) {
+                    trainerDAO.delete(id);
+                } else {
+                    trainingDAO.delete(id);
+                }
+            } catch (NotFoundException e) {
+                ok = false;
+            }
+            history.add(new Op(Kind.DELETE, id, invoke, System.nanoTime(), ok, 0, null));
+        }
+
+        private void read(List<Op> history, ThreadLocalRandom random) {
+            int type = random.nextInt(3);
+            UUID id = pick(type == 0 ? trainees : type == 1 ? trainers : trainings, random);
+            if (id == null) {
+                return;
+            }
+            long invoke = System.nanoTime();
+            State state;
+            if (type == 0) {
+                state = traineeDAO.findById(id).map(found -> new State(found.getVersion(), found.getAddress()))
+                        .orElse(null);
+            } else if (type == 1) {
+                state = trainerDAO.findById(id).map(found -> new State(found.getVersion(), found.getSpecialization()))
+                        .orElse(null);
+            } else {
+                state = trainingDAO.findById(id).map(found -> new State(found.getVersion(), found.getName()))
+                        .orElse(null);
+            }
+            long response = System.nanoTime();
+            history.add(state == null
+                    ? new Op(Kind.READ, id, invoke, response, false, 0, null)
+                    : new Op(Kind.READ, id, invoke, response, true, state.version, state.token));
+        }
+
+        private UUID pick(List<UUID> ids, ThreadLocalRandom random) {
+            synchronized (ids) {
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                return ids.get(ids.size() - 1 - random.nextInt(Math.min(HOT_SET, ids.size())));
+            }
+        }
+
+        private void remember(List<UUID> ids, UUID id) {
+            synchronized (ids) {
+                ids.add(id);
+            }
+        }
+    }
+
+    private String nextName() {
+        return Integer.toString(names.incrementAndGet());
+    }
+
+    /**
+     * A last name from a small pool, so that registrations and renames compete for the same usernames.
+     */
+    private static String namesake() {
+        return "Member" + ThreadLocalRandom.current().nextInt(NAMESAKES);
+    }
+}
@@ -0,0 +1,165 @@
+package org.example;
+
+import org.example.memory.Compactable;
+import org.example.memory.CompactableMap;
+import org.example.memory.StoreCompactor;
+import org.example.model.Role;
+import org.example.model.Training;
+import org.example.model.User;
+import org.example.seed.SeedRecord;
+import org.example.service.InMemoryStorage;
+import org.example.util.JSONData;
+import org.example.util.UtilService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreCompactorTest {
+
+    private static final int MEMBERS = 4000;
+    private static final int KEPT = 100;
+
+    @Test
+    void testCompactsStoresAndIndexesAfterPurge() {
+        InMemoryStorage storage = new InMemoryStorage(new UtilService());
+        List<SeedRecord> records = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            SeedRecord record = storage.importRecord("member#" + i, seed("Member" + i));
+            records.add(record);
+            storage.getRelationshipGraph().record(Training.builder().id(UUID.randomUUID())
+                    .traineeId(record.getOwnerId()).trainerId(UUID.randomUUID()).date(LocalDate.of(2024, 1, 1))
+                    .build());
+        }
+        for (SeedRecord record : records.subList(KEPT, MEMBERS)) {
+            User user = storage.getUserStorage().remove(record.getUserId());
+            storage.getTraineeStorage().remove(record.getOwnerId());
+            storage.getUsernameIndex().remove(user.getUsername(), user.getId());
+            storage.getActiveUserIndex().remove(user.getId());
+            storage.getRelationshipGraph().removeTrainee(record.getOwnerId());
+        }
+        Map<String, Compactable> compactables = storage.getCompactables();
+        assertTrue(compactables.get("userStorage").getOccupancy() < 0.25);
+        StoreCompactor compactor = new StoreCompactor(storage, 0.25);
+
+        long reclaimed = compactor.compactSparse();
+
+        assertTrue(reclaimed > 0);
+        assertEquals(reclaimed, compactor.getReclaimedBytes());
+        assertEquals(5, compactor.getCompactions());
+        compactables.forEach((name, compactable) -> assertEquals(0, compactable.getReclaimableBytes(), name));
+        assertTrue(compactables.get("userStorage").getOccupancy() >= 0.25);
+        for (SeedRecord record : records.subList(0, KEPT)) {
+            User user = storage.getUserStorage().get(record.getUserId());
+            assertEquals(record.getUserId(), storage.getUsernameIndex().find(user.getUsername()).orElseThrow());
+            assertEquals(record.getOwnerId(), storage.getActiveUserIndex().ownerOf(user.getId()));
+            assertEquals(1, storage.getRelationshipGraph().trainersOf(record.getOwnerId()).size());
+        }
+        assertFalse(storage.getUsernameIndex().contains("Member" + KEPT + ".Smith"));
+        UUID userId = UUID.randomUUID();
+        storage.getActiveUserIndex().register(userId, UUID.randomUUID(), Role.TRAINEE, true);
+        assertEquals(KEPT, storage.getActiveUserIndex().ordinalOf(userId));
+
+        assertEquals(0, compactor.compactSparse());
+        assertEquals(2, compactor.getRuns());
+        assertEquals(5, compactor.getCompactions());
+    }
+
+    @Test
+    void testCompactionKeepsConcurrentWrites() throws Exception {
+        CompactableMap<Integer, Integer> map = new CompactableMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int key = 0; key < 1000; key++) {
+            map.put(key, key);
+            expected.put(key, key);
+        }
+        int writers = 3;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<Map<Integer, Integer>>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int base = (w + 1) * 100_000;
+                futures.add(executor.submit(() -> write(map, base)));
+            }
+            Future<?> reader = executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (writing.get()) {
+                    int key = random.nextInt(1000);
+                    if (!Integer.valueOf(key).equals(map.get(key))) {
+                        misses.incrementAndGet();
+                    }
+                }
+            });
+            int compactions = 0;
+            while (futures.stream().anyMatch(future -> !future.isDone())) {
+                if (map.compact() > 0) {
+                    compactions++;
+                }
+                Thread.yield();
+            }
+            writing.set(false);
+            reader.get();
+            for (Future<Map<Integer, Integer>> future : futures) {
+                expected.putAll(future.get());
+            }
+            assertTrue(compactions > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, misses.get());
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    /**
+     * Random puts and removes over the writer's own keys, with bursts of temporary keys that leave the table sparse.
+     *
+     * @return The final content of the writer's keys.
+     */
+    private static Map<Integer, Integer> write(CompactableMap<Integer, Integer> map, int base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<Integer, Integer> content = new HashMap<>();
+        for (int op = 0; op < 20_000; op++) {
+            int key = base + random.nextInt(2000);
+            if (random.nextBoolean()) {
+                map.put(key, op);
+                content.put(key, op);
+            } else {
+                map.remove(key);
+                content.remove(key);
+            }
+            if (op % 2000 == 0) {
+                for (int i = 0; i < 5000; i++) {
+                    map.put(base + 10_000 + i, i);
+                }
+                for (int i = 0; i < 5000; i++) {
+                    map.remove(base + 10_000 + i);
+                }
+            }
+        }
+        return content;
+    }
+
+    private static JSONData seed(String firstName) {
+        JSONData data = new JSONData();
+        data.setFirstName(firstName);
+        data.setLastName("Smith");
+        data.setRole(Role.TRAINEE.name());
+        data.setAddress("Main Street");
+        return data;
+    }
+}
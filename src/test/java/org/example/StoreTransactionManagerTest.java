@@ -0,0 +1,97 @@
+package org.example;
+
+import org.example.exception.TransactionConflictException;
+import org.example.model.Trainee;
+import org.example.model.User;
+import org.example.tx.StoreTransactionManager;
+import org.example.tx.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreTransactionManagerTest {
+
+    private final StoreTransactionManager transactionManager = new StoreTransactionManager(64, 100);
+
+    private final Map<UUID, User> userStorage = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Trainee> traineeStorage = new ConcurrentHashMap<>();
+
+    @Test
+    void testCommitAppliesAllWritesAndReadsOwnWrites() {
+        User user = User.builder().id(UUID.randomUUID()).username("John.Smith").build();
+        Trainee trainee = Trainee.builder().id(UUID.randomUUID()).userId(user.getId()).build();
+        Transaction transaction = transactionManager.begin();
+
+        transaction.put(userStorage, user.getId(), user);
+        transaction.put(traineeStorage, trainee.getId(), trainee);
+
+        assertTrue(userStorage.isEmpty());
+        assertEquals(user, transaction.get(userStorage, user.getId()).orElseThrow());
+        transaction.commit();
+        assertSame(user, userStorage.get(user.getId()));
+        assertSame(trainee, traineeStorage.get(trainee.getId()));
+        assertThrows(IllegalStateException.class, () -> transaction.put(userStorage, user.getId(), user));
+    }
+
+    @Test
+    void testFailedBeforeApplyActionAppliesNothing() {
+        User user = User.builder().id(UUID.randomUUID()).username("John.Smith").build();
+        Transaction transaction = transactionManager.begin();
+        transaction.put(userStorage, user.getId(), user);
+        transaction.beforeApply(() -> {
+            throw new IllegalStateException("Disk full");
+        });
+
+        assertThrows(IllegalStateException.class, transaction::commit);
+        assertTrue(userStorage.isEmpty());
+        Transaction retry = transactionManager.begin();
+        retry.put(userStorage, user.getId(), user);
+        retry.commit();
+        assertSame(user, userStorage.get(user.getId()));
+    }
+
+    @Test
+    void testConcurrentChangeOfReadEntityConflicts() {
+        Trainee trainee = Trainee.builder().id(UUID.randomUUID()).build();
+        traineeStorage.put(trainee.getId(), trainee);
+        Transaction first = transactionManager.begin();
+        Transaction second = transactionManager.begin();
+        first.get(traineeStorage, trainee.getId());
+        second.get(traineeStorage, trainee.getId());
+        first.remove(traineeStorage, trainee.getId());
+        second.put(traineeStorage, trainee.getId(), Trainee.builder().id(trainee.getId()).version(1).build());
+
+        first.commit();
+
+        assertThrows(TransactionConflictException.class, second::commit);
+        assertFalse(traineeStorage.containsKey(trainee.getId()));
+        assertEquals(1, transactionManager.getConflictCount());
+    }
+
+    @Test
+    void testExecuteRetriesUntilCountersAreConsistent() throws InterruptedException {
+        UUID id = UUID.randomUUID();
+        traineeStorage.put(id, Trainee.builder().id(id).version(0).build());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 400; i++) {
+            executor.execute(() -> transactionManager.execute(transaction -> {
+                Trainee current = transaction.get(traineeStorage, id).orElseThrow();
+                transaction.put(traineeStorage, id, Trainee.builder().id(id).version(current.getVersion() + 1).build());
+                return null;
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(400, traineeStorage.get(id).getVersion());
+        assertEquals(400, transactionManager.getCommitCount());
+    }
+}
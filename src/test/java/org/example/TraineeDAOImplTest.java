@@ -1,12 +1,23 @@
 package org.example;
 
+import org.example.dao.TrainingDAO;
 import org.example.dao.impl.TraineeDAOImpl;
 import org.example.dto.TraineeRequestDto;
+import org.example.event.ChangeEventBus;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.ActiveUserIndex;
+import org.example.index.RelationshipGraph;
+import org.example.index.UsernameIndex;
+import org.example.model.Registration;
+import org.example.model.Role;
 import org.example.model.Trainee;
 import org.example.model.User;
+import org.example.security.Authenticator;
+import org.example.security.PlainTextPasswordEncoder;
 import org.example.service.InMemoryStorage;
+import org.example.tx.StoreTransactionManager;
 import org.example.util.UtilService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +27,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.powermock.api.mockito.PowerMockito;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
@@ -36,6 +47,27 @@ class TraineeDAOImplTest {
     @Mock
     private UtilService utilService;
 
+    @Mock
+    private ChangeEventBus changeEventBus;
+
+    @Mock
+    private TrainingDAO trainingDAO;
+
+    @Spy
+    private StoreTransactionManager transactionManager = new StoreTransactionManager(16, 4);
+
+    @Spy
+    private ActiveUserIndex activeUserIndex = new ActiveUserIndex();
+
+    @Spy
+    private RelationshipGraph relationshipGraph = new RelationshipGraph();
+
+    @Spy
+    private UsernameIndex usernameIndex = new UsernameIndex();
+
+    @Spy
+    private Authenticator authenticator = new Authenticator(new PlainTextPasswordEncoder(), 1, 16);
+
     @Spy
     private Map<UUID, User> userStorage = new HashMap<>();
 
@@ -52,15 +84,14 @@ class TraineeDAOImplTest {
         inMemoryStorage = mock(InMemoryStorage.class);
         when(inMemoryStorage.getUserStorage()).thenReturn(userStorage);
         when(inMemoryStorage.getTraineeStorage()).thenReturn(traineeStorage);
+        when(utilService.updateFirstName(any(), any())).then(returnsFirstArg());
+        when(utilService.updateLastName(any(), any())).then(returnsFirstArg());
+        when(utilService.updateUsername(any(), any(), any())).then(returnsFirstArg());
     }
 
     @Test
     void testSaveTrainee() {
-        try {
-            mockUser();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        createUser();
         TraineeRequestDto traineeRequestDto = new TraineeRequestDto();
         traineeRequestDto.setFirstName("John");
         traineeRequestDto.setLastName("Doe");
@@ -69,12 +100,16 @@ class TraineeDAOImplTest {
         when(utilService.isValidName("Doe")).thenReturn(true);
         when(utilService.generateUniqueKey(traineeStorage)).thenReturn(UUID.fromString("d87c669f-3cb0-4d6a-9cca-d2ce64968a8c"));
         when(utilService.generateUniqueKey(userStorage)).thenReturn(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"));
-        when(utilService.generateUsername("John", "Doe", userStorage)).thenReturn("Davo");
+        when(utilService.reserveUsername(eq("John"), eq("Doe"), eq(usernameIndex), any())).thenReturn("Davo");
         when(utilService.generateRandomPassword(10)).thenReturn("randomPassword");
 
-        Trainee savedTrainee = traineeDAO.save(traineeRequestDto);
+        Registration<Trainee> registration = traineeDAO.register(traineeRequestDto);
 
+        Trainee savedTrainee = registration.getMember();
         Assertions.assertNotNull(savedTrainee);
+        Assertions.assertEquals("Davo", registration.getUsername());
+        Assertions.assertEquals("randomPassword", registration.getInitialPassword());
+        Assertions.assertEquals("randomPassword", userStorage.get(savedTrainee.getUserId()).getPassword());
         Assertions.assertEquals(userStorage.get(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5")).getFirstName(), user.getFirstName());
         Assertions.assertEquals(1, userStorage.size());
         Assertions.assertEquals("123 Main St", savedTrainee.getAddress());
@@ -83,7 +118,8 @@ class TraineeDAOImplTest {
         verify(utilService).isValidName("Doe");
         verify(utilService).generateUniqueKey(traineeStorage);
         verify(utilService).generateUniqueKey(userStorage);
-        verify(utilService).generateUsername("John", "Doe", userStorage);
+        verify(utilService).reserveUsername(eq("John"), eq("Doe"), eq(usernameIndex), any());
+        verify(utilService).isValidPassword(null);
         verify(utilService).generateRandomPassword(10);
     }
 
@@ -97,18 +133,14 @@ class TraineeDAOImplTest {
         assertThrows(InvalidInputException.class, () -> traineeDAO.save(traineeRequestDto));
         verify(utilService).isValidName("John");
         verify(utilService, never()).generateUniqueKey(any());
-        verify(utilService, never()).generateUsername(any(), any(), any());
+        verify(utilService, never()).reserveUsername(any(), any(), any(), any());
         verify(utilService, never()).generateRandomPassword(anyInt());
     }
 
 
     @Test
     void testFindById() {
-        try {
-            mockTrainee();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        createTrainee();
         traineeStorage.put(trainee.getId(), trainee);
 
         Optional<Trainee> foundTrainee = traineeDAO.findById(trainee.getId());
@@ -129,10 +161,8 @@ class TraineeDAOImplTest {
 
     @Test
     void testFindAll() {
-        Trainee trainee1 = new Trainee();
-        Trainee trainee2 = new Trainee();
-        trainee1.setId(UUID.randomUUID());
-        trainee2.setId(UUID.randomUUID());
+        Trainee trainee1 = Trainee.builder().id(UUID.randomUUID()).build();
+        Trainee trainee2 = Trainee.builder().id(UUID.randomUUID()).build();
         traineeStorage.put(trainee1.getId(), trainee1);
         traineeStorage.put(trainee2.getId(), trainee2);
 
@@ -144,16 +174,13 @@ class TraineeDAOImplTest {
 
     @Test
     void testDelete() {
-        try {
-            mockTrainee();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        createTrainee();
         traineeStorage.put(trainee.getId(), trainee);
         traineeDAO.delete(trainee.getId());
 
         Assertions.assertFalse(traineeStorage.containsKey(trainee.getId()));
         Assertions.assertFalse(userStorage.containsKey(trainee.getUserId()));
+        verify(trainingDAO).deleteAllOfTrainee(eq(trainee.getId()), any());
 
     }
 
@@ -167,26 +194,19 @@ class TraineeDAOImplTest {
 
     @Test
     void testUpdate() {
-        try {
-            mockUser();
-            mockTrainee();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        Trainee traineeUnderTest = new Trainee();
-        traineeUnderTest.setId(trainee.getId());
-        traineeUnderTest.setUserId(user.getId());
-        traineeUnderTest.setAddress("Set Address");
+        createUser();
+        createTrainee();
+
+        Trainee traineeUnderTest = Trainee.builder()
+                .id(trainee.getId())
+                .userId(user.getId())
+                .address("Set Address")
+                .build();
 
         traineeStorage.put(traineeUnderTest.getId(), traineeUnderTest);
 
-        doNothing().when(utilService).updateLastName(any(User.class), anyString());
-        doNothing().when(utilService).updateUsername(any(User.class), anyString(), anyMap());
-        doNothing().when(utilService).updatePassword(any(User.class), anyString());
 
-        when(traineeStorage.get(any(UUID.class))).thenReturn(traineeUnderTest);
-        when(userStorage.get(any(UUID.class))).thenReturn(user);
+        userStorage.put(user.getId(), user);
 
         TraineeRequestDto updatedDto = mock(TraineeRequestDto.class);
         when(updatedDto.getAddress()).thenReturn("New Address");
@@ -210,25 +230,80 @@ class TraineeDAOImplTest {
         assertThrows(NotFoundException.class, () -> traineeDAO.update(nonExistentTraineeId, updatedDto));
     }
 
+    @Test
+    void testUpdateWithExpectedVersion() {
+        Trainee stored = versionedTrainee(3);
+        when(utilService.isValid("New Address")).thenReturn(true);
+        TraineeRequestDto updatedDto = new TraineeRequestDto();
+        updatedDto.setAddress("New Address");
+
+        Trainee updatedTrainee = traineeDAO.update(stored.getId(), 3, updatedDto);
+
+        Assertions.assertEquals("New Address", updatedTrainee.getAddress());
+        Assertions.assertEquals(4, updatedTrainee.getVersion());
+    }
+
+    @Test
+    void testUpdateVersionConflict() {
+        Trainee stored = versionedTrainee(3);
+        when(utilService.isValid("New Address")).thenReturn(true);
+        TraineeRequestDto updatedDto = new TraineeRequestDto();
+        updatedDto.setAddress("New Address");
+
+        assertThrows(VersionConflictException.class, () -> traineeDAO.update(stored.getId(), 2, updatedDto));
+        Assertions.assertEquals("Old Address", stored.getAddress());
+        Assertions.assertEquals(3, stored.getVersion());
+    }
+
+    @Test
+    void testSetActiveWhere() {
+        Trainee first = versionedTrainee(0);
+        Trainee second = versionedTrainee(0);
+        userStorage.computeIfPresent(first.getUserId(), (id, user) -> user.withActive(true).withLastName("Lapsed"));
+        userStorage.computeIfPresent(second.getUserId(), (id, user) -> user.withActive(true));
+        activeUserIndex.register(first.getUserId(), first.getId(), Role.TRAINEE, true);
+        activeUserIndex.register(second.getUserId(), second.getId(), Role.TRAINEE, true);
+
+        int deactivated = traineeDAO.setActiveWhere(user -> "Lapsed".equals(user.getLastName()), false);
+
+        Assertions.assertEquals(1, deactivated);
+        Assertions.assertEquals(1, traineeDAO.countActive());
+        Assertions.assertFalse(userStorage.get(first.getUserId()).isActive());
+        Assertions.assertEquals(1, userStorage.get(first.getUserId()).getVersion());
+        Assertions.assertEquals(0, userStorage.get(second.getUserId()).getVersion());
+        Assertions.assertEquals(List.of(second), traineeDAO.findAllActive());
+    }
+
+    private Trainee versionedTrainee(long version) {
+        User storedUser = User.builder().id(UUID.randomUUID()).build();
+        userStorage.put(storedUser.getId(), storedUser);
+        Trainee stored = Trainee.builder()
+                .id(UUID.randomUUID())
+                .userId(storedUser.getId())
+                .address("Old Address")
+                .version(version)
+                .build();
+        traineeStorage.put(stored.getId(), stored);
+        return stored;
+    }
 
-    private void mockUser() throws Exception {
-        user = PowerMockito.mock(User.class);
-        PowerMockito.whenNew(User.class).withNoArguments().thenReturn(user);
-        when(user.getId()).thenReturn(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"));
-        when(user.getUsername()).thenReturn("Davo");
-        when(user.getFirstName()).thenReturn("John");
-        when(user.getPassword()).thenReturn("randomPassword");
-        when(user.isActive()).thenReturn(true);
-        when(user.getLastName()).thenReturn("Doe");
+    private void createUser() {
+        user = User.builder()
+                .id(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"))
+                .firstName("John")
+                .lastName("Doe")
+                .username("Davo")
+                .password("randomPassword")
+                .isActive(true)
+                .build();
     }
 
-    private void mockTrainee() throws Exception {
-        trainee = PowerMockito.mock(Trainee.class);
-        PowerMockito.whenNew(Trainee.class).withNoArguments().thenReturn(trainee);
-        when(trainee.getUserId()).thenReturn(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"));
-        when(trainee.getId()).thenReturn(UUID.fromString("a7c393f4-7a51-11ee-b962-0242ac120002"));
-        trainee.setAddress("Set Address");
-        when(trainee.getAddress()).thenReturn("Set Address");
+    private void createTrainee() {
+        trainee = Trainee.builder()
+                .id(UUID.fromString("a7c393f4-7a51-11ee-b962-0242ac120002"))
+                .userId(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"))
+                .address("Set Address")
+                .build();
     }
 
 }
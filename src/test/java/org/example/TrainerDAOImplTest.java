@@ -1,12 +1,22 @@
 package org.example;
 
+import org.example.dao.TrainingDAO;
 import org.example.dao.impl.TrainerDAOImpl;
 import org.example.dto.TrainerRequestDto;
+import org.example.event.ChangeEventBus;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.ActiveUserIndex;
+import org.example.index.RelationshipGraph;
+import org.example.index.UsernameIndex;
 import org.example.model.Trainer;
 import org.example.model.User;
+import org.example.security.Authenticator;
+import org.example.security.PlainTextPasswordEncoder;
 import org.example.service.InMemoryStorage;
+import org.example.stats.TrainerLoadIndex;
+import org.example.tx.StoreTransactionManager;
 import org.example.util.UtilService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,11 +24,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.powermock.api.mockito.PowerMockito;
 
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Mockito.*;
 
 class TrainerDAOImplTest {
@@ -32,6 +42,30 @@ class TrainerDAOImplTest {
     @Mock
     private UtilService utilService;
 
+    @Mock
+    private ChangeEventBus changeEventBus;
+
+    @Mock
+    private TrainingDAO trainingDAO;
+
+    @Spy
+    private StoreTransactionManager transactionManager = new StoreTransactionManager(16, 4);
+
+    @Spy
+    private ActiveUserIndex activeUserIndex = new ActiveUserIndex();
+
+    @Spy
+    private RelationshipGraph relationshipGraph = new RelationshipGraph();
+
+    @Spy
+    private UsernameIndex usernameIndex = new UsernameIndex();
+
+    @Spy
+    private TrainerLoadIndex trainerLoadIndex = new TrainerLoadIndex();
+
+    @Spy
+    private Authenticator authenticator = new Authenticator(new PlainTextPasswordEncoder(), 1, 16);
+
     @Spy
     private Map<UUID, User> userStorage = new HashMap<>();
 
@@ -50,22 +84,21 @@ class TrainerDAOImplTest {
         inMemoryStorage = mock(InMemoryStorage.class);
         when(inMemoryStorage.getUserStorage()).thenReturn(userStorage);
         when(inMemoryStorage.getTrainerStorage()).thenReturn(trainerStorage);
+        when(utilService.updateFirstName(any(), any())).then(returnsFirstArg());
+        when(utilService.updateLastName(any(), any())).then(returnsFirstArg());
+        when(utilService.updateUsername(any(), any(), any())).then(returnsFirstArg());
     }
 
     @Test
     void testSaveTrainer() {
-        try {
-            mockUser();
-            mockTrainerRequestDto();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        createUser();
+        mockTrainerRequestDto();
 
         when(utilService.isValidName("John")).thenReturn(true);
         when(utilService.isValidName("Doe")).thenReturn(true);
         when(utilService.generateUniqueKey(trainerStorage)).thenReturn(UUID.fromString("d87c669f-3cb0-4d6a-9cca-d2ce64968a8c"));
         when(utilService.generateUniqueKey(userStorage)).thenReturn(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"));
-        when(utilService.generateUsername("John", "Doe", userStorage)).thenReturn("JohnDoe");
+        when(utilService.reserveUsername(eq("John"), eq("Doe"), eq(usernameIndex), any())).thenReturn("JohnDoe");
         when(utilService.generateRandomPassword(10)).thenReturn("randomPassword");
 
         Trainer savedTrainer = trainerDAO.save(trainerRequestDto);
@@ -78,7 +111,8 @@ class TrainerDAOImplTest {
         verify(utilService).isValidName("Doe");
         verify(utilService).generateUniqueKey(trainerStorage);
         verify(utilService).generateUniqueKey(userStorage);
-        verify(utilService).generateUsername("John", "Doe", userStorage);
+        verify(utilService).reserveUsername(eq("John"), eq("Doe"), eq(usernameIndex), any());
+        verify(utilService).isValidPassword(null);
         verify(utilService).generateRandomPassword(10);
         verifyNoMoreInteractions(utilService);
     }
@@ -97,11 +131,7 @@ class TrainerDAOImplTest {
 
     @Test
     void testFindById() {
-        try {
-            mockTrainer();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        createTrainer();
         trainerStorage.put(trainer.getId(), trainer);
 
         Optional<Trainer> foundTrainer = trainerDAO.findById(trainer.getId());
@@ -121,10 +151,8 @@ class TrainerDAOImplTest {
 
     @Test
     void testFindAll() {
-        Trainer trainer1 = new Trainer();
-        Trainer trainer2 = new Trainer();
-        trainer1.setId(UUID.randomUUID());
-        trainer2.setId(UUID.randomUUID());
+        Trainer trainer1 = Trainer.builder().id(UUID.randomUUID()).build();
+        Trainer trainer2 = Trainer.builder().id(UUID.randomUUID()).build();
         trainerStorage.put(trainer1.getId(), trainer1);
         trainerStorage.put(trainer2.getId(), trainer2);
 
@@ -135,16 +163,13 @@ class TrainerDAOImplTest {
 
     @Test
     void testDelete() {
-        try {
-            mockTrainer();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        createTrainer();
         trainerStorage.put(trainer.getId(), trainer);
         trainerDAO.delete(trainer.getId());
 
         assertFalse(trainerStorage.containsKey(trainer.getId()));
         assertFalse(userStorage.containsKey(trainer.getUserId()));
+        verify(trainingDAO).deleteAllOfTrainer(eq(trainer.getId()), any());
     }
 
     @Test
@@ -156,27 +181,19 @@ class TrainerDAOImplTest {
 
     @Test
     void testUpdate() {
-        try {
-            mockUser();
-            mockTrainer();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        createUser();
+        createTrainer();
 
-        Trainer trainerUnderTest = new Trainer();
-        trainerUnderTest.setId(trainer.getId());
-        trainerUnderTest.setUserId(user.getId());
-        trainerUnderTest.setSpecialization("Fitness");
+        Trainer trainerUnderTest = Trainer.builder()
+                .id(trainer.getId())
+                .userId(user.getId())
+                .specialization("Fitness")
+                .build();
 
         trainerStorage.put(trainerUnderTest.getId(), trainerUnderTest);
 
-        doNothing().when(utilService).updateFirstName(any(User.class), anyString());
-        doNothing().when(utilService).updateLastName(any(User.class), anyString());
-        doNothing().when(utilService).updateUsername(any(User.class), anyString(), anyMap());
-        doNothing().when(utilService).updatePassword(any(User.class), anyString());
 
-        when(trainerStorage.get(any(UUID.class))).thenReturn(trainerUnderTest);
-        when(userStorage.get(any(UUID.class))).thenReturn(user);
+        userStorage.put(user.getId(), user);
 
         TrainerRequestDto updatedDto = mock(TrainerRequestDto.class);
         when(updatedDto.getSpecialization()).thenReturn("Yoga");
@@ -202,28 +219,50 @@ class TrainerDAOImplTest {
         assertThrows(NotFoundException.class, () -> trainerDAO.update(nonExistentTrainerId, updatedDto));
     }
 
-    private void mockUser() throws Exception {
-        user = PowerMockito.mock(User.class);
-        PowerMockito.whenNew(User.class).withNoArguments().thenReturn(user);
-        when(user.getId()).thenReturn(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"));
-        when(user.getUsername()).thenReturn("Davo");
-        when(user.getFirstName()).thenReturn("John");
-        when(user.getPassword()).thenReturn("randomPassword");
-        when(user.isActive()).thenReturn(true);
-        when(user.getLastName()).thenReturn("Doe");
+    @Test
+    void testUpdateVersionConflict() {
+        User storedUser = User.builder().id(UUID.randomUUID()).build();
+        userStorage.put(storedUser.getId(), storedUser);
+        Trainer stored = Trainer.builder()
+                .id(UUID.randomUUID())
+                .userId(storedUser.getId())
+                .specialization("Fitness")
+                .version(1)
+                .build();
+        trainerStorage.put(stored.getId(), stored);
+        when(utilService.isValid("Yoga")).thenReturn(true);
+        TrainerRequestDto updatedDto = new TrainerRequestDto();
+        updatedDto.setSpecialization("Yoga");
+
+        assertThrows(VersionConflictException.class, () -> trainerDAO.update(stored.getId(), 0, updatedDto));
+        assertEquals("Fitness", stored.getSpecialization());
+
+        Trainer updatedTrainer = trainerDAO.update(stored.getId(), 1, updatedDto);
+        assertEquals("Yoga", updatedTrainer.getSpecialization());
+        assertEquals(2, updatedTrainer.getVersion());
+    }
+
+    private void createUser() {
+        user = User.builder()
+                .id(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"))
+                .firstName("John")
+                .lastName("Doe")
+                .username("Davo")
+                .password("randomPassword")
+                .isActive(true)
+                .build();
     }
 
-    private void mockTrainer() throws Exception {
-        trainer = PowerMockito.mock(Trainer.class);
-        PowerMockito.whenNew(Trainer.class).withNoArguments().thenReturn(trainer);
-        when(trainer.getUserId()).thenReturn(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"));
-        when(trainer.getId()).thenReturn(UUID.fromString("a7c393f4-7a51-11ee-b962-0242ac120002"));
-        trainer.setSpecialization("Fitness");
+    private void createTrainer() {
+        trainer = Trainer.builder()
+                .id(UUID.fromString("a7c393f4-7a51-11ee-b962-0242ac120002"))
+                .userId(UUID.fromString("732200fc-d2f1-45c0-b3dd-fb148cfcc1e5"))
+                .specialization("Fitness")
+                .build();
     }
 
-    private void mockTrainerRequestDto() throws Exception {
-        trainerRequestDto = PowerMockito.mock(TrainerRequestDto.class);
-        PowerMockito.whenNew(TrainerRequestDto.class).withNoArguments().thenReturn(trainerRequestDto);
+    private void mockTrainerRequestDto() {
+        trainerRequestDto = mock(TrainerRequestDto.class);
         when(trainerRequestDto.getFirstName()).thenReturn("John");
         when(trainerRequestDto.getLastName()).thenReturn("Doe");
         when(trainerRequestDto.getSpecialization()).thenReturn("Fitness");
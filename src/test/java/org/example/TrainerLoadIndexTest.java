@@ -0,0 +1,125 @@
+package org.example;
+
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.stats.TrainerLoadIndex;
+import org.example.stats.TrainerRecommendation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainerLoadIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 15);
+
+    private final MovableClock clock = new MovableClock();
+
+    private final TrainerLoadIndex index = new TrainerLoadIndex(clock, 7, 2);
+
+    private final Trainer idle = trainer("Yoga");
+    private final Trainer busy = trainer("yoga");
+    private final Trainer boxer = trainer("Box");
+
+    @Test
+    void testRanksLeastLoadedAvailableTrainersFirst() {
+        List.of(idle, busy, boxer).forEach(index::register);
+        Training first = training(busy, TODAY.plusDays(1));
+        index.record(first);
+        index.record(training(busy, TODAY.plusDays(1)));
+        index.record(training(busy, TODAY.plusDays(2)));
+        index.record(training(idle, TODAY.plusDays(2)));
+        index.record(training(idle, TODAY.plusDays(30)));
+
+        assertEquals(List.of(idle.getId(), busy.getId()), ids(index.recommend("YOGA", TODAY.plusDays(2), id -> true, 5)));
+        assertEquals(List.of(idle.getId()), ids(index.recommend("Yoga", TODAY.plusDays(1), id -> true, 5)));
+        assertEquals(List.of(busy.getId()), ids(index.recommend("Yoga", TODAY, id -> !id.equals(idle.getId()), 5)));
+        assertEquals(1, index.recommend("Yoga", TODAY, id -> true, 1).size());
+
+        index.remove(first);
+        TrainerRecommendation busyOnDayOne = index.recommend("Yoga", TODAY.plusDays(1), id -> true, 5).get(1);
+        assertEquals(busy.getId(), busyOnDayOne.getTrainerId());
+        assertEquals(2, busyOnDayOne.getLoad());
+        assertEquals(1, busyOnDayOne.getSessionsOnDate());
+    }
+
+    @Test
+    void testFollowsSpecializationChangesAndWindowRollOver() {
+        List.of(idle, busy, boxer).forEach(index::register);
+        index.record(training(boxer, TODAY));
+        index.record(training(boxer, TODAY.plusDays(8)));
+        index.record(training(boxer, TODAY.plusDays(8)));
+        index.register(boxer.withSpecialization("Yoga"));
+
+        assertEquals(1, index.loadOf(boxer.getId()));
+        assertEquals(Set.of(idle.getId(), busy.getId(), boxer.getId()),
+                Set.copyOf(ids(index.recommend("yoga", TODAY, id -> true, 5))));
+        assertTrue(index.recommend("Box", TODAY, id -> true, 5).isEmpty());
+
+        clock.date = TODAY.plusDays(3);
+        assertEquals(2, index.loadOf(boxer.getId()));
+        assertEquals(boxer.getId(), ids(index.recommend("Yoga", TODAY.plusDays(3), id -> true, 5)).get(2));
+
+        index.unregister(boxer.getId());
+        assertEquals(List.of(busy.getId(), idle.getId()).stream().sorted().collect(Collectors.toList()),
+                ids(index.recommend("Yoga", TODAY, id -> true, 5)).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testKeepsLoadsOfRegisteredTrainersOnly() {
+        index.record(training(idle, TODAY));
+        index.record(training(idle, TODAY.plusDays(1)));
+        assertEquals(0, index.loadOf(idle.getId()));
+
+        index.register(idle);
+        assertEquals(2, index.loadOf(idle.getId()));
+        assertEquals(2, index.recommend("Yoga", TODAY, id -> true, 5).get(0).getLoad());
+
+        index.unregister(idle.getId());
+        index.record(training(idle, TODAY.plusDays(2)));
+        assertEquals(0, index.loadOf(idle.getId()));
+        assertTrue(index.recommend("Yoga", TODAY, id -> true, 5).isEmpty());
+    }
+
+    private static List<UUID> ids(List<TrainerRecommendation> recommendations) {
+        return recommendations.stream().map(TrainerRecommendation::getTrainerId).collect(Collectors.toList());
+    }
+
+    private static Trainer trainer(String specialization) {
+        return Trainer.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).specialization(specialization).build();
+    }
+
+    private static Training training(Trainer trainer, LocalDate date) {
+        return Training.builder().id(UUID.randomUUID()).trainerId(trainer.getId()).traineeId(UUID.randomUUID())
+                .name("Session").date(date).duration(60).build();
+    }
+
+    private static class MovableClock extends Clock {
+
+        private LocalDate date = TODAY;
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return date.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import org.example.archive.TrainingArchive;
+import org.example.model.Training;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingArchiveTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2021, 3);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testArchiveAndReopen() throws IOException {
+        List<Training> trainings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Number duration = i % 2 == 0 ? Integer.valueOf(30 + i % 60) : Double.valueOf(45.5);
+            trainings.add(new Training(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                    i % 10 == 0 ? null : UUID.randomUUID(), "Session " + i, MONTH.atDay(1 + i % 31), duration, i));
+        }
+        try (TrainingArchive trainingArchive = new TrainingArchive(tempDir.toString(), 24, 64)) {
+            trainingArchive.open();
+            trainingArchive.archive(MONTH, trainings);
+
+            assertEquals(1, trainingArchive.segmentCount());
+            assertEquals(trainings.get(7), trainingArchive.findById(trainings.get(7).getId()).orElseThrow());
+            assertTrue(trainingArchive.findById(UUID.randomUUID()).isEmpty());
+        }
+
+        try (TrainingArchive reopened = new TrainingArchive(tempDir.toString(), 24, 64)) {
+            reopened.open();
+
+            assertEquals(1000, reopened.size());
+            for (Training training : trainings) {
+                assertEquals(training, reopened.findById(training.getId()).orElseThrow());
+            }
+            List<Training> firstWeek = reopened.findByDateRange(MONTH.atDay(1), MONTH.atDay(7));
+            assertEquals(trainings.stream().filter(t -> t.getDate().getDayOfMonth() <= 7).count(), firstWeek.size());
+            assertTrue(reopened.findByDateRange(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31)).isEmpty());
+        }
+    }
+
+    @Test
+    void testPurgedOwnersStayHiddenAfterReopen() throws IOException {
+        UUID purgedTrainee = UUID.randomUUID();
+        Training purged = new Training(UUID.randomUUID(), purgedTrainee, UUID.randomUUID(), null, "Purged",
+                MONTH.atDay(2), 30, 0);
+        Training kept = new Training(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), null, "Kept",
+                MONTH.atDay(3), 30, 0);
+        try (TrainingArchive trainingArchive = new TrainingArchive(tempDir.toString(), 24, 64)) {
+            trainingArchive.open();
+            trainingArchive.archive(MONTH, List.of(purged, kept));
+
+            trainingArchive.purgeOwner(purgedTrainee);
+
+            assertTrue(trainingArchive.findById(purged.getId()).isEmpty());
+        }
+
+        try (TrainingArchive reopened = new TrainingArchive(tempDir.toString(), 24, 64)) {
+            reopened.open();
+
+            assertTrue(reopened.findById(purged.getId()).isEmpty());
+            assertEquals(List.of(kept), reopened.findByDateRange(MONTH.atDay(1), MONTH.atEndOfMonth()));
+        }
+    }
+
+    @Test
+    void testHorizon() {
+        TrainingArchive trainingArchive = new TrainingArchive(tempDir.toString(), 24, 64);
+
+        assertEquals(YearMonth.of(2022, 7), trainingArchive.horizon(LocalDate.of(2024, 6, 15)));
+    }
+}
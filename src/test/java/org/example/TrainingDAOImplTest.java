@@ -1,17 +1,28 @@
 package org.example;
 
-import org.example.dao.TraineeDAO;
-import org.example.dao.TrainerDAO;
+import org.example.archive.TrainingArchive;
 import org.example.dao.impl.TrainingDAOImpl;
 import org.example.dto.TrainingRequestDto;
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
 import org.example.exception.InvalidInputException;
 import org.example.exception.NotFoundException;
+import org.example.exception.VersionConflictException;
+import org.example.index.ActiveUserIndex;
+import org.example.index.RelationshipGraph;
+import org.example.index.PostingIndex;
+import org.example.index.TrainingBuckets;
 import org.example.model.Trainee;
 import org.example.model.Trainer;
 import org.example.model.Training;
 import org.example.model.TrainingType;
 import org.example.service.InMemoryStorage;
+import org.example.stats.TrainerLoadIndex;
+import org.example.tx.StoreTransactionManager;
+import org.example.stats.TrainingStatistics;
 import org.example.util.UtilService;
+import org.example.validation.RequestValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -19,6 +30,8 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.util.*;
 
@@ -37,10 +50,34 @@ class TrainingDAOImplTest {
     private UtilService utilService;
 
     @Mock
-    private TraineeDAO traineeDAO;
+    private ChangeEventBus changeEventBus;
+
+    @Spy
+    private StoreTransactionManager transactionManager = new StoreTransactionManager(16, 4);
+
+    @Spy
+    private ActiveUserIndex activeUserIndex = new ActiveUserIndex();
+
+    @Spy
+    private RelationshipGraph relationshipGraph = new RelationshipGraph();
+
+    @Spy
+    private TrainingStatistics trainingStatistics = new TrainingStatistics();
+
+    @Spy
+    private TrainerLoadIndex trainerLoadIndex = new TrainerLoadIndex();
+
+    @Spy
+    private TrainingBuckets trainingBuckets = new TrainingBuckets();
+
+    @Spy
+    private PostingIndex<UUID> trainingsByTrainer = new PostingIndex<>();
+
+    @Spy
+    private PostingIndex<UUID> trainingsByTrainee = new PostingIndex<>();
 
     @Mock
-    private TrainerDAO trainerDAO;
+    private TrainingArchive trainingArchive;
 
     @Spy
     private Map<UUID, Training> trainingStorage = new HashMap<>();
@@ -62,15 +99,14 @@ class TrainingDAOImplTest {
         when(inMemoryStorage.getTraineeStorage()).thenReturn(traineeStorage);
         when(inMemoryStorage.getTrainerStorage()).thenReturn(trainerStorage);
         when(inMemoryStorage.getTrainingTypeStorage()).thenReturn(trainingTypeStorage);
+        trainingDAO.setRequestValidator(new RequestValidator(new UtilService(), inMemoryStorage));
     }
 
     @Test
     void testSave() {
         TrainingRequestDto trainingRequestDto = createTrainingRequestDto();
-        Trainee trainee = mockTrainee(UUID.randomUUID());
-        Trainer trainer = mockTrainer(UUID.randomUUID());
-        when(traineeDAO.findById(trainingRequestDto.getTraineeId())).thenReturn(Optional.of(trainee));
-        when(trainerDAO.findById(trainingRequestDto.getTrainerId())).thenReturn(Optional.of(trainer));
+        traineeStorage.put(trainingRequestDto.getTraineeId(), newTrainee(trainingRequestDto.getTraineeId()));
+        trainerStorage.put(trainingRequestDto.getTrainerId(), newTrainer(trainingRequestDto.getTrainerId()));
         when(utilService.generateUniqueKey(trainingStorage)).thenReturn(UUID.randomUUID());
         when(utilService.generateUniqueKey(trainingTypeStorage)).thenReturn(UUID.randomUUID());
 
@@ -92,45 +128,65 @@ class TrainingDAOImplTest {
         assertThrows(InvalidInputException.class, () -> trainingDAO.save(trainingRequestDto));
     }
 
+    @Test
+    void testSaveAllRejectsOnlyInvalidRequests() {
+        TrainingRequestDto first = createTrainingRequestDto();
+        TrainingRequestDto second = createTrainingRequestDto();
+        for (TrainingRequestDto dto : List.of(first, second)) {
+            traineeStorage.put(dto.getTraineeId(), newTrainee(dto.getTraineeId()));
+            trainerStorage.put(dto.getTrainerId(), newTrainer(dto.getTrainerId()));
+        }
+        TrainingRequestDto unknownTrainee = createTrainingRequestDto();
+        trainerStorage.put(unknownTrainee.getTrainerId(), newTrainer(unknownTrainee.getTrainerId()));
+        when(utilService.generateUniqueKey(any())).thenAnswer(invocation -> UUID.randomUUID());
+        Map<Integer, RuntimeException> rejected = new HashMap<>();
+
+        List<Training> saved = trainingDAO.saveAll(List.of(first, new TrainingRequestDto(), second, unknownTrainee),
+                rejected::put);
+
+        assertEquals(4, saved.size());
+        assertNull(saved.get(1));
+        assertNull(saved.get(3));
+        assertEquals(Set.of(1, 3), rejected.keySet());
+        assertInstanceOf(InvalidInputException.class, rejected.get(1));
+        assertInstanceOf(NotFoundException.class, rejected.get(3));
+        assertEquals(2, trainingStorage.size());
+        assertEquals(saved.get(2), trainingStorage.get(saved.get(2).getId()));
+    }
+
     @Test
     void testUpdateTrainingFound() {
         UUID trainingId = UUID.randomUUID();
         TrainingRequestDto updatedDto = createTrainingRequestDto();
 
-        Training training = mockTraining(trainingId);
-        trainingStorage.put(trainingId, training);
-
-        TrainingType trainingType = new TrainingType();
-        trainingType.setId(UUID.randomUUID());
+        TrainingType trainingType = TrainingType.builder().id(UUID.randomUUID()).typeName("Type 0").build();
         trainingTypeStorage.put(trainingType.getId(), trainingType);
 
+        Training training = newTraining(trainingId).withTrainingTypeId(trainingType.getId());
+        trainingStorage.put(trainingId, training);
+
         UUID traineeId = UUID.randomUUID();
-        Trainee trainee = mockTrainee(traineeId);
+        Trainee trainee = newTrainee(traineeId);
         UUID trainerId = UUID.randomUUID();
-        Trainer trainer = mockTrainer(trainerId);
+        Trainer trainer = newTrainer(trainerId);
         traineeStorage.put(traineeId, trainee);
         trainerStorage.put(trainerId, trainer);
 
         updatedDto.setTraineeId(traineeId);
         updatedDto.setTrainerId(trainerId);
 
-        training.setTrainingTypeId(trainingType.getId());
-        when(trainingTypeStorage.get(training.getTrainingTypeId())).thenReturn(trainingType);
-        when(traineeDAO.findById(traineeId)).thenReturn(Optional.of(trainee));
-        when(trainerDAO.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(trainingTypeStorage.get(trainingType.getId())).thenReturn(trainingType);
-
         trainingDAO.update(trainingId, updatedDto);
 
-        verify(training).setName(updatedDto.getName());
-        verify(training).setDate(updatedDto.getDate());
+        assertEquals(updatedDto.getName(), trainingStorage.get(trainingId).getName());
+        assertEquals(updatedDto.getDate(), trainingStorage.get(trainingId).getDate());
+        assertEquals(updatedDto.getTrainingTypeName(), trainingTypeStorage.get(trainingType.getId()).getTypeName());
     }
 
 
     @Test
     void testFindById() {
         UUID trainingId = UUID.randomUUID();
-        Training training = mockTraining(trainingId);
+        Training training = newTraining(trainingId);
         trainingStorage.put(trainingId, training);
 
         Optional<Training> foundTraining = trainingDAO.findById(trainingId);
@@ -148,10 +204,35 @@ class TrainingDAOImplTest {
         assertTrue(foundTraining.isEmpty());
     }
 
+    @Test
+    void testArchiveExpiredFallsBackToArchive() {
+        LocalDate oldDate = LocalDate.now().minusYears(3);
+        TrainingType trainingType = new TrainingType(UUID.randomUUID(), "Yoga", 0);
+        Training training = new Training(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                trainingType.getId(), "Old session", oldDate, 60, 0);
+        trainingTypeStorage.put(trainingType.getId(), trainingType);
+        trainingStorage.put(training.getId(), training);
+        trainingBuckets.add(training.getId(), oldDate);
+        when(trainingArchive.horizon(any())).thenReturn(YearMonth.now().minusMonths(23));
+        when(trainingArchive.findById(training.getId())).thenReturn(Optional.of(training));
+
+        assertEquals(1, trainingDAO.archiveExpired());
+
+        verify(trainingArchive).archive(YearMonth.from(oldDate), List.of(training));
+        verify(changeEventBus).publish(ChangeType.ARCHIVED, EntityType.TRAINING, training.getId(), training);
+        verify(changeEventBus).publish(ChangeType.DELETED, EntityType.TRAINING_TYPE, trainingType.getId(),
+                trainingType);
+        assertTrue(trainingStorage.isEmpty());
+        assertTrue(trainingTypeStorage.isEmpty());
+        assertTrue(trainingBuckets.monthsBefore(YearMonth.now()).isEmpty());
+        assertEquals(Optional.of(training), trainingDAO.findById(training.getId()));
+        assertEquals(0, trainingDAO.archiveExpired());
+    }
+
     @Test
     void testFindAll() {
-        Training training1 = mockTraining(UUID.randomUUID());
-        Training training2 = mockTraining(UUID.randomUUID());
+        Training training1 = newTraining(UUID.randomUUID());
+        Training training2 = newTraining(UUID.randomUUID());
         trainingStorage.put(UUID.randomUUID(), training1);
         trainingStorage.put(UUID.randomUUID(), training2);
 
@@ -163,16 +244,49 @@ class TrainingDAOImplTest {
     @Test
     void testDelete() {
         UUID trainingId = UUID.randomUUID();
-        Training training = mockTraining(trainingId);
         UUID traineeId = UUID.randomUUID();
         UUID trainerId = UUID.randomUUID();
-        training.setTraineeId(traineeId);
-        training.setTrainerId(trainerId);
+        traineeStorage.put(traineeId, newTrainee(traineeId));
+        trainerStorage.put(trainerId, newTrainer(trainerId));
+        Training training = newTraining(trainingId).withTraineeId(traineeId).withTrainerId(trainerId);
         trainingStorage.put(trainingId, training);
         trainingDAO.delete(trainingId);
         assertFalse(trainingStorage.containsKey(trainingId));
-        assertFalse(traineeStorage.containsKey(traineeId));
-        assertFalse(trainerStorage.containsKey(trainerId));
+        assertTrue(traineeStorage.containsKey(traineeId));
+        assertTrue(trainerStorage.containsKey(trainerId));
+    }
+
+    @Test
+    void testDeleteKeepsOwnersAndTheirOtherTrainings() {
+        UUID traineeId = UUID.randomUUID();
+        UUID trainerId = UUID.randomUUID();
+        traineeStorage.put(traineeId, newTrainee(traineeId).withUserId(UUID.randomUUID()));
+        Trainer trainer = newTrainer(trainerId).withUserId(UUID.randomUUID());
+        trainerStorage.put(trainerId, trainer);
+        trainerLoadIndex.register(trainer);
+        Training training = newTraining(UUID.randomUUID()).withTraineeId(traineeId).withTrainerId(trainerId)
+                .withDate(LocalDate.now());
+        Training sameTrainer = newTraining(UUID.randomUUID()).withTraineeId(UUID.randomUUID()).withTrainerId(trainerId)
+                .withDate(LocalDate.now());
+        for (Training stored : List.of(training, sameTrainer)) {
+            trainingStorage.put(stored.getId(), stored);
+            trainingsByTrainer.add(stored.getTrainerId(), stored.getId());
+            trainingsByTrainee.add(stored.getTraineeId(), stored.getId());
+            trainerLoadIndex.record(stored);
+            relationshipGraph.record(stored);
+        }
+
+        trainingDAO.delete(training.getId());
+
+        assertEquals(Set.of(sameTrainer.getId()), trainingStorage.keySet());
+        assertTrue(traineeStorage.containsKey(traineeId));
+        assertTrue(trainerStorage.containsKey(trainerId));
+        assertEquals(1, trainingsByTrainer.count(trainerId));
+        assertEquals(0, trainingsByTrainee.count(traineeId));
+        assertEquals(1, trainerLoadIndex.loadOf(trainerId));
+        assertTrue(relationshipGraph.trainersOf(traineeId).isEmpty());
+        assertEquals(1, relationshipGraph.traineesOf(trainerId).size());
+        verifyNoInteractions(trainingArchive);
     }
 
     @Test
@@ -190,6 +304,37 @@ class TrainingDAOImplTest {
         assertThrows(NotFoundException.class, () -> trainingDAO.update(nonExistentTrainingId, updatedDto));
     }
 
+    @Test
+    void testUpdateVersionConflict() {
+        UUID trainingId = UUID.randomUUID();
+        Training training = Training.builder().id(trainingId).name("Training 1").version(5).build();
+        trainingStorage.put(trainingId, training);
+        TrainingRequestDto updatedDto = new TrainingRequestDto();
+        updatedDto.setName("Training 2");
+
+        assertThrows(VersionConflictException.class, () -> trainingDAO.update(trainingId, 4, updatedDto));
+        assertEquals("Training 1", training.getName());
+
+        Training updatedTraining = trainingDAO.update(trainingId, 5, updatedDto);
+        assertEquals("Training 2", updatedTraining.getName());
+        assertEquals(6, updatedTraining.getVersion());
+    }
+
+    @Test
+    void testUpdateToMissingTrainerChangesNothing() {
+        UUID trainingId = UUID.randomUUID();
+        Training training = newTraining(trainingId);
+        trainingStorage.put(trainingId, training);
+        TrainingRequestDto updatedDto = new TrainingRequestDto();
+        updatedDto.setName("Training 2");
+        updatedDto.setTrainerId(UUID.randomUUID());
+
+        assertThrows(NotFoundException.class, () -> trainingDAO.update(trainingId, updatedDto));
+
+        assertSame(training, trainingStorage.get(trainingId));
+        verifyNoInteractions(changeEventBus);
+    }
+
     private TrainingRequestDto createTrainingRequestDto() {
         TrainingRequestDto trainingRequestDto = new TrainingRequestDto();
         trainingRequestDto.setName("Training 1");
@@ -201,21 +346,15 @@ class TrainingDAOImplTest {
         return trainingRequestDto;
     }
 
-    private Trainee mockTrainee(UUID id) {
-        Trainee trainee = mock(Trainee.class);
-        when(trainee.getId()).thenReturn(id);
-        return trainee;
+    private Trainee newTrainee(UUID id) {
+        return Trainee.builder().id(id).build();
     }
 
-    private Trainer mockTrainer(UUID id) {
-        Trainer trainer = mock(Trainer.class);
-        when(trainer.getId()).thenReturn(id);
-        return trainer;
+    private Trainer newTrainer(UUID id) {
+        return Trainer.builder().id(id).build();
     }
 
-    private Training mockTraining(UUID id) {
-        Training training = mock(Training.class);
-        when(training.getId()).thenReturn(id);
-        return training;
+    private Training newTraining(UUID id) {
+        return Training.builder().id(id).build();
     }
 }
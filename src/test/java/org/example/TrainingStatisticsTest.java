@@ -0,0 +1,140 @@
+package org.example;
+
+import org.example.model.Training;
+import org.example.stats.LeaderboardEntry;
+import org.example.stats.TrainerMetric;
+import org.example.stats.TrainingStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingStatisticsTest {
+
+    private static final LocalDate WEDNESDAY = LocalDate.of(2024, 5, 15);
+
+    private final MutableClock clock = new MutableClock(WEDNESDAY);
+
+    private final TrainingStatistics trainingStatistics = new TrainingStatistics(clock);
+
+    private final UUID busyTrainer = UUID.randomUUID();
+    private final UUID longTrainer = UUID.randomUUID();
+    private final UUID trainee = UUID.randomUUID();
+
+    @Test
+    void testTopTrainersOverWindow() {
+        for (int i = 0; i < 3; i++) {
+            trainingStatistics.record(training(busyTrainer, WEDNESDAY.minusDays(i), 30));
+        }
+        trainingStatistics.record(training(longTrainer, WEDNESDAY, 200));
+        trainingStatistics.record(training(longTrainer, WEDNESDAY.minusDays(30), 500));
+
+        List<LeaderboardEntry> bySessions =
+                trainingStatistics.topTrainers(TrainerMetric.SESSIONS, WEDNESDAY.minusDays(7), WEDNESDAY, 1);
+        List<LeaderboardEntry> byDuration =
+                trainingStatistics.topTrainers(TrainerMetric.DURATION, WEDNESDAY.minusDays(7), WEDNESDAY, 5);
+
+        assertEquals(List.of(new LeaderboardEntry(busyTrainer, 3)), bySessions);
+        assertEquals(List.of(new LeaderboardEntry(longTrainer, 200), new LeaderboardEntry(busyTrainer, 90)),
+                byDuration);
+        assertEquals(List.of(new LeaderboardEntry(trainee, 5)),
+                trainingStatistics.topTrainees(WEDNESDAY.minusDays(60), WEDNESDAY, 3));
+    }
+
+    @Test
+    void testCurrentWeekFollowsRemovalsAndRollsOver() {
+        Training monday = training(busyTrainer, WEDNESDAY.minusDays(2), 30);
+        trainingStatistics.record(monday);
+        trainingStatistics.record(training(busyTrainer, WEDNESDAY, 30));
+        trainingStatistics.record(training(longTrainer, WEDNESDAY.minusDays(3), 300));
+        trainingStatistics.record(training(longTrainer, WEDNESDAY.plusDays(7), 60));
+
+        assertEquals(List.of(new LeaderboardEntry(busyTrainer, 2)),
+                trainingStatistics.topTrainersThisWeek(TrainerMetric.SESSIONS, 5));
+
+        trainingStatistics.remove(monday);
+        assertEquals(List.of(new LeaderboardEntry(busyTrainer, 30)),
+                trainingStatistics.topTrainersThisWeek(TrainerMetric.DURATION, 5));
+
+        clock.set(WEDNESDAY.plusDays(7));
+        assertEquals(List.of(new LeaderboardEntry(longTrainer, 60)),
+                trainingStatistics.topTrainersThisWeek(TrainerMetric.DURATION, 5));
+        assertEquals(List.of(new LeaderboardEntry(trainee, 1)), trainingStatistics.topTraineesThisWeek(5));
+    }
+
+    @Test
+    void testCompactionPrunesZeroCounters() {
+        Training removed = training(longTrainer, WEDNESDAY.minusDays(30), 500);
+        trainingStatistics.record(removed);
+        trainingStatistics.record(training(busyTrainer, WEDNESDAY, 30));
+        trainingStatistics.remove(removed);
+        assertEquals(0.5, trainingStatistics.getOccupancy());
+
+        assertTrue(trainingStatistics.compact() > 0);
+
+        assertEquals(1.0, trainingStatistics.getOccupancy());
+        assertEquals(0, trainingStatistics.getReclaimableBytes());
+        assertEquals(0, trainingStatistics.compact());
+        assertEquals(List.of(new LeaderboardEntry(trainee, 1)),
+                trainingStatistics.topTrainees(WEDNESDAY.minusDays(60), WEDNESDAY, 3));
+        trainingStatistics.record(removed);
+        assertEquals(List.of(new LeaderboardEntry(longTrainer, 500), new LeaderboardEntry(busyTrainer, 30)),
+                trainingStatistics.topTrainers(TrainerMetric.DURATION, WEDNESDAY.minusDays(60), WEDNESDAY, 3));
+    }
+
+    @Test
+    void testNonPositiveCountReturnsNothing() {
+        trainingStatistics.record(training(busyTrainer, WEDNESDAY, 30));
+
+        assertEquals(List.of(), trainingStatistics.topTrainers(TrainerMetric.SESSIONS, WEDNESDAY, WEDNESDAY, -1));
+        assertEquals(List.of(), trainingStatistics.topTrainees(WEDNESDAY, WEDNESDAY, 0));
+        assertEquals(List.of(), trainingStatistics.topTraineesThisWeek(-1));
+    }
+
+    @Test
+    void testUnboundedCountReturnsEveryone() {
+        trainingStatistics.record(training(busyTrainer, WEDNESDAY, 30));
+
+        assertEquals(1, trainingStatistics.topTrainers(TrainerMetric.SESSIONS, WEDNESDAY, WEDNESDAY,
+                Integer.MAX_VALUE).size());
+        assertEquals(1, trainingStatistics.topTrainees(WEDNESDAY, WEDNESDAY, Integer.MAX_VALUE).size());
+    }
+
+    private Training training(UUID trainerId, LocalDate date, int duration) {
+        return new Training(UUID.randomUUID(), trainee, trainerId, UUID.randomUUID(), "Session", date, duration, 0);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(LocalDate date) {
+            set(date);
+        }
+
+        void set(LocalDate date) {
+            this.instant = date.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
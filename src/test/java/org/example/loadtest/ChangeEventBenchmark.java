@@ -0,0 +1,84 @@
+package org.example.loadtest;
+
+import org.example.event.BackpressureStrategy;
+import org.example.event.ChangeEventBus;
+import org.example.event.ChangeEventSubscription;
+import org.example.event.ChangeType;
+import org.example.event.EntityType;
+import org.example.event.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures what publishing a change event costs a writer: nanoseconds per publish with no subscriber, with one
+ * batching subscriber per wait strategy, and with a stalled subscriber under {@link BackpressureStrategy#DROP}.
+ * Usage: {@code ChangeEventBenchmark [threads] [events per thread]}
+ */
+public class ChangeEventBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        System.out.printf("%-28s %8s %14s %10s %10s%n", "scenario", "threads", "events/s", "ns/publish", "dropped");
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run("no subscriber", threads, events, null, BackpressureStrategy.BLOCK, report);
+            for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+                run("subscriber " + waitStrategy, threads, events, waitStrategy, BackpressureStrategy.BLOCK, report);
+            }
+            run("stalled subscriber DROP", threads, events, WaitStrategy.SLEEP, BackpressureStrategy.DROP, report);
+        }
+    }
+
+    private static void run(String scenario, int threads, int events, WaitStrategy waitStrategy,
+                            BackpressureStrategy backpressureStrategy, boolean report) throws InterruptedException {
+        ChangeEventBus bus = new ChangeEventBus(1 << 16, backpressureStrategy);
+        LongAdder consumed = new LongAdder();
+        ChangeEventSubscription subscription = null;
+        if (waitStrategy != null) {
+            boolean stalled = backpressureStrategy == BackpressureStrategy.DROP;
+            subscription = bus.subscribe("benchmark", (event, endOfBatch) -> {
+                if (stalled) {
+                    sleepQuietly();
+                }
+                consumed.increment();
+            }, 256, waitStrategy);
+        }
+        UUID id = UUID.randomUUID();
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                for (int j = 0; j < events; j++) {
+                    bus.publish(ChangeType.UPDATED, EntityType.TRAINING, id, null);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (subscription != null) {
+            subscription.close();
+        }
+        long total = (long) threads * events;
+        if (report) {
+            System.out.printf("%-28s %8d %14.0f %10.1f %10d%n", scenario, threads, total * 1e9 / elapsed,
+                    (double) elapsed * threads / total, bus.getDroppedCount());
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
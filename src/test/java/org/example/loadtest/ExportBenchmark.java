@@ -0,0 +1,108 @@
+package org.example.loadtest;
+
+import org.example.archive.TrainingArchive;
+import org.example.export.ExportFilter;
+import org.example.export.ExportFormat;
+import org.example.model.Training;
+import org.example.model.TrainingType;
+import org.example.service.ExportService;
+import org.example.service.InMemoryStorage;
+import org.example.util.UtilService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Exports generated trainings to a discarding stream and reports rows per second together with the young and full
+ * collections that happened during each export.
+ * Usage: {@code ExportBenchmark [trainings]}; 10M trainings need about {@code -Xmx4g}.
+ */
+public class ExportBenchmark {
+
+    private static final List<String> FULL_COLLECTORS =
+            List.of("G1 Old Generation", "PS MarkSweep", "MarkSweepCompact", "ConcurrentMarkSweep");
+
+    public static void main(String[] args) throws IOException {
+        int trainings = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        InMemoryStorage storage = new InMemoryStorage(new UtilService());
+        populate(storage, trainings);
+        String archiveDirectory = Files.createTempDirectory("export-benchmark").toString();
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(InMemoryStorage.class, () -> storage);
+            context.registerBean(TrainingArchive.class, () -> new TrainingArchive(archiveDirectory, 24, 256),
+                    definition -> definition.setInitMethodName("open"));
+            context.register(ExportService.class);
+            context.refresh();
+            ExportService exportService = context.getBean(ExportService.class);
+            ExportFilter lastMonth = ExportFilter.builder().from(LocalDate.now().minusDays(30)).build();
+
+            System.out.printf("%-22s %12s %14s %8s %8s%n", "export", "rows", "rows/s", "young", "full");
+            for (int round = 0; round < 2; round++) {
+                boolean report = round == 1;
+                for (ExportFormat format : ExportFormat.values()) {
+                    run(format + " all", report, () -> exportService.exportTrainings(
+                            OutputStream.nullOutputStream(), format, ExportFilter.none()));
+                    run(format + " last 30 days", report, () -> exportService.exportTrainings(
+                            OutputStream.nullOutputStream(), format, lastMonth));
+                }
+            }
+        }
+    }
+
+    private static void run(String name, boolean report, Export export) throws IOException {
+        long[] before = collections();
+        long start = System.nanoTime();
+        long rows = export.run();
+        long elapsed = System.nanoTime() - start;
+        long[] after = collections();
+        if (report) {
+            System.out.printf("%-22s %12d %14.0f %8d %8d%n", name, rows, rows * 1e9 / elapsed,
+                    after[0] - before[0], after[1] - before[1]);
+        }
+    }
+
+    private static long[] collections() {
+        long[] counts = new long[2];
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            counts[FULL_COLLECTORS.contains(collector.getName()) ? 1 : 0] += collector.getCollectionCount();
+        }
+        return counts;
+    }
+
+    private static void populate(InMemoryStorage storage, int trainings) {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<UUID, TrainingType> trainingTypeStorage = storage.getTrainingTypeStorage();
+        UUID[] trainingTypeIds = new UUID[8];
+        for (int i = 0; i < trainingTypeIds.length; i++) {
+            trainingTypeIds[i] = UUID.randomUUID();
+            trainingTypeStorage.put(trainingTypeIds[i], new TrainingType(trainingTypeIds[i], "type-" + i, 0));
+        }
+        UUID[] members = new UUID[Math.max(1, trainings / 100)];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = UUID.randomUUID();
+        }
+        LocalDate today = LocalDate.now();
+        Map<UUID, Training> trainingStorage = storage.getTrainingStorage();
+        for (int i = 0; i < trainings; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            trainingStorage.put(id, new Training(id, members[random.nextInt(members.length)],
+                    members[random.nextInt(members.length)], trainingTypeIds[random.nextInt(trainingTypeIds.length)],
+                    "Session " + (i % 1000), today.minusDays(random.nextInt(365)), 30 + random.nextInt(90), 0));
+            storage.getTrainingBuckets().add(id, trainingStorage.get(id).getDate());
+        }
+    }
+
+    private interface Export {
+        long run() throws IOException;
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.loadtest;
+
+import ch.qos.logback.classic.Level;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.serialization.Serialization;
+import org.example.serialization.WireFormat;
+import org.example.service.TraineeService;
+import org.example.service.TrainerService;
+import org.example.web.HttpApiServer;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the {@link HttpApiServer} over keep-alive connections, one raw socket per client thread so the client costs
+ * as little as possible, and reports requests per second and latency percentiles.
+ * Usage: {@code HttpLoadTest [connections] [seconds] [write ratio]}
+ */
+public class HttpLoadTest {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        double writeRatio = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.example")).setLevel(Level.WARN);
+
+        Path seedFile = Files.createTempFile("gym-seed", ".json");
+        seedFile.toFile().deleteOnExit();
+        new WorkloadGenerator(42).writeSeedFile(seedFile, 2000, 0.2);
+        System.setProperty("server.port", "0");
+        try (ConfigurableApplicationContext context = LoadDriver.createContext(seedFile)) {
+            HttpApiServer server = context.getBean(HttpApiServer.class);
+            server.start();
+            List<UUID> traineeIds = context.getBean(TraineeService.class).findAll().stream().map(Trainee::getId).toList();
+            List<UUID> trainerIds = context.getBean(TrainerService.class).findAll().stream().map(Trainer::getId).toList();
+
+            for (int round = 0; round < 2; round++) {
+                boolean report = round == 1;
+                int duration = report ? seconds : Math.max(1, seconds / 3);
+                LatencyRecorder total = run(server.getPort(), connections, duration, writeRatio, traineeIds, trainerIds);
+                if (report) {
+                    System.out.printf("connections=%d duration=%ds writeRatio=%.2f%n", connections, duration, writeRatio);
+                    System.out.printf("%12s %8s", "requests/s", "errors");
+                    for (double percentile : PERCENTILES) {
+                        System.out.printf(" %10s", "p" + percentile);
+                    }
+                    System.out.printf("%n%12.0f %8d", total.getCount() / (double) duration, total.getErrors());
+                    for (double percentile : PERCENTILES) {
+                        System.out.printf(" %8.0fus", total.percentile(percentile) / 1e3);
+                    }
+                    System.out.println();
+                }
+            }
+        }
+    }
+
+    private static LatencyRecorder run(int port, int connections, int seconds, double writeRatio,
+                                       List<UUID> traineeIds, List<UUID> trainerIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(connections);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                WorkloadGenerator generator = new WorkloadGenerator(seed);
+                LatencyRecorder recorder = new LatencyRecorder();
+                try (KeepAliveConnection connection = new KeepAliveConnection(port)) {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        if (random.nextDouble() < writeRatio) {
+                            byte[] body = Serialization.TRAINING_REQUEST.encode(generator.nextTrainingRequest(
+                                    traineeIds.get(random.nextInt(traineeIds.size())),
+                                    trainerIds.get(random.nextInt(trainerIds.size()))), WireFormat.JSON);
+                            status = connection.exchange("POST", "/trainings", body);
+                        } else if (random.nextBoolean()) {
+                            status = connection.exchange("GET", "/trainees/" + traineeIds.get(random.nextInt(traineeIds.size())), null);
+                        } else {
+                            status = connection.exchange("GET", "/trainers/" + trainerIds.get(random.nextInt(trainerIds.size())), null);
+                        }
+                        if (status < 400) {
+                            recorder.record(System.nanoTime() - start);
+                        } else {
+                            recorder.recordError();
+                        }
+                    }
+                }
+                return recorder;
+            }));
+        }
+        LatencyRecorder total = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            total.merge(future.get());
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    /**
+     * Minimal HTTP/1.1 client that reuses one socket and reads responses by their {@code Content-Length}.
+     */
+    private static class KeepAliveConnection implements AutoCloseable {
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final InputStream in;
+        private final byte[] skip = new byte[8192];
+
+        KeepAliveConnection(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new BufferedInputStream(socket.getInputStream(), 16384);
+        }
+
+        int exchange(String method, String path, byte[] body) throws IOException {
+            StringBuilder request = new StringBuilder(128)
+                    .append(method).append(' ').append(path).append(" HTTP/1.1\r\nHost: localhost\r\n");
+            if (body != null) {
+                request.append("Content-Type: application/json\r\nContent-Length: ").append(body.length).append("\r\n");
+            }
+            out.write(request.append("\r\n").toString().getBytes(StandardCharsets.US_ASCII));
+            if (body != null) {
+                out.write(body);
+            }
+            out.flush();
+
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            long contentLength = 0;
+            for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+                if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    contentLength = Long.parseLong(header.substring(15).trim());
+                }
+            }
+            while (contentLength > 0) {
+                int read = in.read(skip, 0, (int) Math.min(skip.length, contentLength));
+                if (read < 0) {
+                    throw new IOException("Connection closed mid-response");
+                }
+                contentLength -= read;
+            }
+            return status;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder(64);
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c < 0) {
+                    throw new IOException("Connection closed");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.loadtest;
+
+import ch.qos.logback.classic.Level;
+import org.example.dto.TrainingRequestDto;
+import org.example.ingest.IngestQueue;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.service.TraineeService;
+import org.example.service.TrainerService;
+import org.example.service.TrainingService;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares concurrent training saves applied directly by the calling threads with saves queued to the ingest writer,
+ * which commits them in batches. Every thread saves in a closed loop; throughput and save latency are reported per
+ * mode, with the average batch size of the queued run. Usage: {@code IngestBenchmark [threads] [seconds]}
+ */
+public class IngestBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.example")).setLevel(Level.WARN);
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Path seedFile = Files.createTempFile("gym-seed", ".json");
+        seedFile.toFile().deleteOnExit();
+        new WorkloadGenerator(42).writeSeedFile(seedFile, 2000, 0.2);
+        try (ConfigurableApplicationContext context = LoadDriver.createContext(seedFile)) {
+            TrainingService trainingService = context.getBean(TrainingService.class);
+            @SuppressWarnings("unchecked")
+            IngestQueue<TrainingRequestDto, Training> queue = context.getBean("trainingIngestQueue", IngestQueue.class);
+            List<UUID> traineeIds = context.getBean(TraineeService.class).findAll().stream().map(Trainee::getId).toList();
+            List<UUID> trainerIds = context.getBean(TrainerService.class).findAll().stream().map(Trainer::getId).toList();
+
+            System.out.printf("%-8s %8s %12s %10s %10s %10s %10s %10s%n", "mode", "threads", "saves/s", "p50 us",
+                    "p99 us", "p999 us", "max us", "batch");
+            for (int round = 0; round < 2; round++) {
+                boolean report = round == 1;
+                int runSeconds = report ? seconds : Math.max(1, seconds / 5);
+                run("direct", threads, runSeconds, traineeIds, trainerIds, trainingService::save, null, report);
+                run("queued", threads, runSeconds, traineeIds, trainerIds,
+                        request -> trainingService.saveAsync(request).join(), queue, report);
+            }
+        }
+    }
+
+    private static void run(String mode, int threads, int seconds, List<UUID> traineeIds, List<UUID> trainerIds,
+                            Save save, IngestQueue<?, ?> queue, boolean report) throws InterruptedException {
+        long batchesBefore = queue == null ? 0 : queue.getBatches();
+        long writtenBefore = queue == null ? 0 : queue.getWritten();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < threads; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            long seed = i;
+            Thread worker = new Thread(() -> {
+                WorkloadGenerator generator = new WorkloadGenerator(seed);
+                Random random = new Random(seed);
+                while (System.nanoTime() < deadline) {
+                    TrainingRequestDto request = generator.nextTrainingRequest(
+                            traineeIds.get(random.nextInt(traineeIds.size())),
+                            trainerIds.get(random.nextInt(trainerIds.size())));
+                    long start = System.nanoTime();
+                    try {
+                        save.save(request);
+                        recorder.record(System.nanoTime() - start);
+                    } catch (RuntimeException e) {
+                        recorder.recordError();
+                    }
+                }
+            }, mode + "-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach(total::merge);
+        if (!report) {
+            return;
+        }
+        String batch = "-";
+        if (queue != null) {
+            long batches = queue.getBatches() - batchesBefore;
+            batch = String.format("%.1f", batches == 0 ? 0 : (queue.getWritten() - writtenBefore) / (double) batches);
+        }
+        System.out.printf("%-8s %8d %12.0f %10d %10d %10d %10d %10s%n", mode, threads,
+                total.getCount() / (double) seconds, micros(total.percentile(50)), micros(total.percentile(99)),
+                micros(total.percentile(99.9)), micros(total.getMaxNanos()), batch);
+        if (total.getErrors() > 0) {
+            System.out.printf("%-8s errors=%d%n", mode, total.getErrors());
+        }
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    @FunctionalInterface
+    private interface Save {
+        void save(TrainingRequestDto request);
+    }
+}
@@ -0,0 +1,256 @@
+package org.example.loadtest;
+
+import ch.qos.logback.classic.Level;
+import org.example.config.StartupMode;
+import org.example.dto.TraineeRequestDto;
+import org.example.dto.TrainerRequestDto;
+import org.example.dto.TrainingRequestDto;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.service.TraineeService;
+import org.example.service.TrainerService;
+import org.example.service.TrainingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.PropertyOverrideConfigurer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a configurable read/write mix against {@link TraineeService}, {@link TrainerService} and
+ * {@link TrainingService} from many threads and reports throughput and latency percentiles per operation.
+ * The application context is built in the {@link StartupMode} named by {@code gym.startup} with the seed file replaced
+ * by a generated one, so a run needs nothing but the local classpath.
+ */
+public class LoadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    enum Operation {
+        FIND_TRAINEE, FIND_TRAINER, FIND_TRAINING,
+        SAVE_TRAINEE, SAVE_TRAINER, SAVE_TRAINING,
+        UPDATE_TRAINEE, UPDATE_TRAINER, UPDATE_TRAINING
+    }
+
+    private final LoadTestConfig config;
+    private final TraineeService traineeService;
+    private final TrainerService trainerService;
+    private final TrainingService trainingService;
+    private final IdPool traineeIds = new IdPool();
+    private final IdPool trainerIds = new IdPool();
+    private final IdPool trainingIds = new IdPool();
+
+    public LoadDriver(LoadTestConfig config, TraineeService traineeService, TrainerService trainerService,
+                      TrainingService trainingService) {
+        this.config = config;
+        this.traineeService = traineeService;
+        this.trainerService = trainerService;
+        this.trainingService = trainingService;
+    }
+
+    /**
+     * Collects the ids of the seeded members and creates the configured number of trainings between them.
+     */
+    public void preload() {
+        traineeService.findAll().forEach(trainee -> traineeIds.add(trainee.getId()));
+        trainerService.findAll().forEach(trainer -> trainerIds.add(trainer.getId()));
+        trainingService.findAll().forEach(training -> trainingIds.add(training.getId()));
+        if (traineeIds.size() == 0 || trainerIds.size() == 0) {
+            throw new IllegalStateException("Seed data must contain at least one trainee and one trainer");
+        }
+        WorkloadGenerator generator = new WorkloadGenerator(config.getRandomSeed());
+        Random random = new Random(config.getRandomSeed());
+        for (int i = 0; i < config.getTrainings(); i++) {
+            TrainingRequestDto request = generator.nextTrainingRequest(traineeIds.pick(random), trainerIds.pick(random));
+            trainingIds.add(trainingService.save(request).getId());
+        }
+        logger.warn("Preloaded {} trainees, {} trainers and {} trainings",
+                traineeIds.size(), trainerIds.size(), trainingIds.size());
+    }
+
+    /**
+     * Runs the warm-up and the measured phase.
+     *
+     * @return Merged latency histograms of the measured phase, per operation.
+     */
+    public Map<Operation, LatencyRecorder> run() throws Exception {
+        long now = System.nanoTime();
+        long measureStart = now + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        List<Future<Map<Operation, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int i = 0; i < config.getThreads(); i++) {
+            long seed = config.getRandomSeed() + i + 1;
+            futures.add(executor.submit(() -> runWorker(seed, measureStart, deadline)));
+        }
+        Map<Operation, LatencyRecorder> merged = newRecorders();
+        try {
+            for (Future<Map<Operation, LatencyRecorder>> future : futures) {
+                future.get().forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return merged;
+    }
+
+    private Map<Operation, LatencyRecorder> runWorker(long seed, long measureStart, long deadline) {
+        Map<Operation, LatencyRecorder> recorders = newRecorders();
+        WorkloadGenerator generator = new WorkloadGenerator(seed);
+        Random random = new Random(seed);
+        Operation[] operations = Operation.values();
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            Operation operation = random.nextDouble() < config.getReadRatio()
+                    ? operations[random.nextInt(3)]
+                    : operations[3 + random.nextInt(6)];
+            LatencyRecorder recorder = recorders.get(operation);
+            try {
+                execute(operation, generator, random);
+                if (now >= measureStart) {
+                    recorder.record(System.nanoTime() - now);
+                }
+            } catch (RuntimeException e) {
+                if (now >= measureStart) {
+                    recorder.recordError();
+                }
+            }
+        }
+        return recorders;
+    }
+
+    private void execute(Operation operation, WorkloadGenerator generator, Random random) {
+        switch (operation) {
+            case FIND_TRAINEE -> traineeService.findById(traineeIds.pick(random));
+            case FIND_TRAINER -> trainerService.findById(trainerIds.pick(random));
+            case FIND_TRAINING -> trainingService.findById(trainingIds.pick(random));
+            case SAVE_TRAINEE -> traineeIds.add(traineeService.save(generator.nextTraineeRequest()).getId());
+            case SAVE_TRAINER -> trainerIds.add(trainerService.save(generator.nextTrainerRequest()).getId());
+            case SAVE_TRAINING -> trainingIds.add(trainingService.save(
+                    generator.nextTrainingRequest(traineeIds.pick(random), trainerIds.pick(random))).getId());
+            case UPDATE_TRAINEE -> {
+                TraineeRequestDto request = new TraineeRequestDto();
+                request.setAddress(generator.nextAddress());
+                traineeService.update(traineeIds.pick(random), request);
+            }
+            case UPDATE_TRAINER -> {
+                TrainerRequestDto request = new TrainerRequestDto();
+                request.setSpecialization(generator.nextSpecialization());
+                trainerService.update(trainerIds.pick(random), request);
+            }
+            case UPDATE_TRAINING -> {
+                TrainingRequestDto request = new TrainingRequestDto();
+                request.setDuration(30 + 15 * random.nextInt(7));
+                trainingService.update(trainingIds.pick(random), request);
+            }
+        }
+    }
+
+    private static Map<Operation, LatencyRecorder> newRecorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    static String formatReport(Map<Operation, LatencyRecorder> results, double seconds) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-16s %10s %8s %12s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            appendRow(report, entry.getKey().name(), entry.getValue(), seconds);
+            total.merge(entry.getValue());
+        }
+        appendRow(report, "TOTAL", total, seconds);
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String name, LatencyRecorder recorder, double seconds) {
+        report.append(String.format("%-16s %10d %8d %12.0f", name, recorder.getCount(), recorder.getErrors(),
+                recorder.getCount() / seconds));
+        for (double percentile : PERCENTILES) {
+            report.append(String.format(" %9.1f", recorder.percentile(percentile) / 1_000.0));
+        }
+        report.append(String.format(" %9.1f%n", recorder.getMaxNanos() / 1_000.0));
+    }
+
+    static ConfigurableApplicationContext createContext(Path seedFile) {
+        ConfigurableApplicationContext context = StartupMode.fromSystemProperties().newContext();
+        Properties overrides = new Properties();
+        overrides.setProperty("inMemoryStorage.userFilePath", seedFile.toAbsolutePath().toString());
+        PropertyOverrideConfigurer overrideConfigurer = new PropertyOverrideConfigurer();
+        overrideConfigurer.setProperties(overrides);
+        context.addBeanFactoryPostProcessor(overrideConfigurer);
+        context.refresh();
+        return context;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        if (config.isQuiet()) {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.example")).setLevel(Level.WARN);
+        }
+        Path seedFile;
+        if (config.getSeedFile() != null) {
+            seedFile = Path.of(config.getSeedFile());
+        } else {
+            seedFile = Files.createTempFile("gym-seed", ".json");
+            seedFile.toFile().deleteOnExit();
+            new WorkloadGenerator(config.getRandomSeed())
+                    .writeSeedFile(seedFile, config.getRecords(), config.getTrainerShare());
+        }
+        try (ConfigurableApplicationContext context = createContext(seedFile)) {
+            LoadDriver driver = new LoadDriver(config, context.getBean(TraineeService.class),
+                    context.getBean(TrainerService.class), context.getBean(TrainingService.class));
+            driver.preload();
+            Map<Operation, LatencyRecorder> results = driver.run();
+            System.out.printf("threads=%d readRatio=%.2f duration=%ds%n",
+                    config.getThreads(), config.getReadRatio(), config.getDurationSeconds());
+            System.out.print(formatReport(results, config.getDurationSeconds()));
+        }
+    }
+
+    /**
+     * Append-only id list that supports uniform random picks while other threads keep adding.
+     */
+    static class IdPool {
+
+        private volatile UUID[] ids = new UUID[1024];
+        private volatile int size;
+
+        synchronized void add(UUID id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = id;
+            size = size + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        UUID pick(Random random) {
+            int currentSize = size;
+            return ids[random.nextInt(currentSize)];
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.loadtest;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Settings of a {@link LoadDriver} run. {@link #fromSystemProperties()} reads them from {@code -Dgym.load.*} flags.
+ */
+@Data
+@Builder
+public class LoadTestConfig {
+
+    private String seedFile;
+    private int records;
+    private double trainerShare;
+    private int trainings;
+    private int threads;
+    private int warmupSeconds;
+    private int durationSeconds;
+    private double readRatio;
+    private long randomSeed;
+    private boolean quiet;
+
+    public static LoadTestConfig fromSystemProperties() {
+        return LoadTestConfig.builder()
+                .seedFile(System.getProperty("gym.load.seedFile"))
+                .records(Integer.getInteger("gym.load.records", 5_000))
+                .trainerShare(Double.parseDouble(System.getProperty("gym.load.trainerShare", "0.1")))
+                .trainings(Integer.getInteger("gym.load.trainings", 20_000))
+                .threads(Integer.getInteger("gym.load.threads", Runtime.getRuntime().availableProcessors()))
+                .warmupSeconds(Integer.getInteger("gym.load.warmupSeconds", 5))
+                .durationSeconds(Integer.getInteger("gym.load.durationSeconds", 30))
+                .readRatio(Double.parseDouble(System.getProperty("gym.load.readRatio", "0.9")))
+                .randomSeed(Long.getLong("gym.load.randomSeed", 42L))
+                .quiet(Boolean.parseBoolean(System.getProperty("gym.load.quiet", "true")))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.loadtest;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.joran.spi.JoranException;
+import org.example.dao.impl.TraineeDAOImpl;
+import org.example.dao.impl.TrainerDAOImpl;
+import org.example.service.InMemoryStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures what the per-entity INFO messages cost the calling threads under the development configuration
+ * ({@code logback.xml}), the production configuration ({@code logback-production.xml}) and the production
+ * configuration without rate limiting. Console output is discarded while measuring.
+ * Usage: {@code LoggingBenchmark [threads] [messages per thread]}
+ */
+public class LoggingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        PrintStream console = System.out;
+        List<String> report = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            report.clear();
+            report.add(run("logback.xml", true, threads, messages));
+            report.add(run("logback-production.xml", false, threads, messages));
+            report.add(run("logback-production.xml", true, threads, messages));
+        }
+        System.setOut(console);
+        configure("logback.xml", true);
+        System.out.printf("%-40s %8s %14s %10s%n", "configuration", "threads", "messages/s", "ns/call");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String configuration, boolean withoutTurboFilters, int threads, int messages)
+            throws Exception {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        LoggerContext context = configure(configuration, withoutTurboFilters);
+        Logger traineeLogger = LoggerFactory.getLogger(TraineeDAOImpl.class);
+        Logger trainerLogger = LoggerFactory.getLogger(TrainerDAOImpl.class);
+        Logger storageLogger = LoggerFactory.getLogger(InMemoryStorage.class);
+
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                for (int j = 0; j < messages; j++) {
+                    switch (j % 3) {
+                        case 0 -> traineeLogger.info("Trainee successfully created");
+                        case 1 -> trainerLogger.info("Trainer successfully updated");
+                        default -> storageLogger.info("Creating User with first name: {} and last name: {}",
+                                "John", "Smith");
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        context.stop();
+
+        long total = (long) threads * messages;
+        String name = configuration + (withoutTurboFilters && !configuration.equals("logback.xml")
+                ? " (no rate limit)" : "");
+        return String.format("%-40s %8d %14.0f %10.1f", name, threads, total * 1e9 / elapsed,
+                (double) elapsed * threads / total);
+    }
+
+    private static LoggerContext configure(String configuration, boolean withoutTurboFilters) throws JoranException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(LoggingBenchmark.class.getClassLoader().getResource(configuration));
+        if (withoutTurboFilters) {
+            context.resetTurboFilterList();
+        }
+        return context;
+    }
+}
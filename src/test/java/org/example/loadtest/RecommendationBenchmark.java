@@ -0,0 +1,60 @@
+package org.example.loadtest;
+
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.stats.TrainerLoadIndex;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a {@link TrainerLoadIndex} with trainers spread over the specializations of the workload and with trainings
+ * over the coming year, then reports the latency of recommendations for random specializations and days.
+ * Usage: {@code RecommendationBenchmark [trainers] [trainings] [queries]}
+ */
+public class RecommendationBenchmark {
+
+    public static void main(String[] args) {
+        int trainerCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int trainingCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        WorkloadGenerator generator = new WorkloadGenerator(42);
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        TrainerLoadIndex index = new TrainerLoadIndex();
+        List<Trainer> trainers = new ArrayList<>(trainerCount);
+        for (int i = 0; i < trainerCount; i++) {
+            Trainer trainer = Trainer.builder().id(UUID.randomUUID()).userId(UUID.randomUUID())
+                    .specialization(generator.nextSpecialization()).build();
+            trainers.add(trainer);
+            index.register(trainer);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < trainingCount; i++) {
+            Trainer trainer = trainers.get(random.nextInt(trainerCount));
+            index.record(Training.builder().id(UUID.randomUUID()).trainerId(trainer.getId())
+                    .traineeId(UUID.randomUUID()).date(today.plusDays(random.nextInt(365))).duration(60).build());
+        }
+        long loadNanos = System.nanoTime() - start;
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        long found = 0;
+        for (int i = 0; i < queries; i++) {
+            String specialization = generator.nextSpecialization();
+            LocalDate date = today.plusDays(random.nextInt(28));
+            long queryStart = System.nanoTime();
+            found += index.recommend(specialization, date, id -> true, 5).size();
+            recorder.record(System.nanoTime() - queryStart);
+        }
+        System.out.printf("trainers=%d trainings=%d recorded in %d ms (%.0f ns/training)%n", trainerCount,
+                trainingCount, TimeUnit.NANOSECONDS.toMillis(loadNanos), loadNanos / (double) trainingCount);
+        System.out.printf("recommend top 5: p50=%d ns p99=%d ns p999=%d ns max=%d ns, %.1f trainers per answer%n",
+                recorder.percentile(50), recorder.percentile(99), recorder.percentile(99.9), recorder.getMaxNanos(),
+                found / (double) queries);
+    }
+}
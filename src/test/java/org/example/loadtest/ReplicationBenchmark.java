@@ -0,0 +1,180 @@
+package org.example.loadtest;
+
+import ch.qos.logback.classic.Level;
+import org.example.event.ChangeEventBus;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.replication.ReplicaStatus;
+import org.example.replication.ReplicationClient;
+import org.example.replication.ReplicationServer;
+import org.example.service.InMemoryStorage;
+import org.example.service.TraineeService;
+import org.example.service.TrainerService;
+import org.example.service.TrainingService;
+import org.example.util.UtilService;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a primary in this JVM and read replicas in child JVMs on localhost, writes trainings on the primary at full
+ * speed and reports, per replica, the worst replication lag seen during the run and how long it took to converge
+ * once writes stopped. Replicas connect after the seed data is loaded, so they also exercise snapshot catch-up.
+ * Usage: {@code ReplicationBenchmark [replicas] [seconds]}
+ */
+public class ReplicationBenchmark {
+
+    private static final String STATUS = "STATUS";
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.example")).setLevel(Level.WARN);
+        if (args.length > 0 && args[0].equals("replica")) {
+            runReplica(args[1], Integer.parseInt(args[2]));
+            return;
+        }
+        int replicaCount = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Path seedFile = Files.createTempFile("gym-seed", ".json");
+        seedFile.toFile().deleteOnExit();
+        new WorkloadGenerator(42).writeSeedFile(seedFile, 2000, 0.2);
+        System.setProperty("spring.profiles.active", "primary");
+        System.setProperty("gym.replication.port", "0");
+        try (ConfigurableApplicationContext context = LoadDriver.createContext(seedFile)) {
+            ReplicationServer server = context.getBean(ReplicationServer.class);
+            TrainingService trainingService = context.getBean(TrainingService.class);
+            List<UUID> traineeIds = context.getBean(TraineeService.class).findAll().stream().map(Trainee::getId).toList();
+            List<UUID> trainerIds = context.getBean(TrainerService.class).findAll().stream().map(Trainer::getId).toList();
+
+            List<ReplicaProcess> replicas = new ArrayList<>();
+            for (int i = 0; i < replicaCount; i++) {
+                replicas.add(new ReplicaProcess(i, server.getPort()));
+            }
+            WorkloadGenerator generator = new WorkloadGenerator(7);
+            Random random = new Random(7);
+            long writes = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < deadline) {
+                trainingService.save(generator.nextTrainingRequest(traineeIds.get(random.nextInt(traineeIds.size())),
+                        trainerIds.get(random.nextInt(trainerIds.size()))));
+                writes++;
+            }
+            long stoppedAt = System.nanoTime();
+            while (server.getLastSequence() < context.getBean(ChangeEventBus.class).getCursor()) {
+                Thread.sleep(1);
+            }
+            long lastSequence = server.getLastSequence();
+            int trainings = context.getBean(InMemoryStorage.class).getTrainingStorage().size();
+
+            System.out.printf("writes=%d (%.0f/s) replicas=%d%n", writes, writes / (double) seconds, replicaCount);
+            System.out.printf("%-8s %14s %12s %14s %12s%n", "replica", "max lag (ops)", "max lag ms", "converge ms",
+                    "trainings");
+            for (ReplicaProcess replica : replicas) {
+                long convergedAt = replica.awaitSequence(lastSequence, TimeUnit.SECONDS.toMillis(30));
+                System.out.printf("%-8d %14d %12d %14s %12s%n", replica.index, replica.maxLagEntries,
+                        replica.maxLagMillis,
+                        convergedAt < 0 ? "timeout" : TimeUnit.NANOSECONDS.toMillis(Math.max(0, convergedAt - stoppedAt)),
+                        replica.trainings + "/" + trainings);
+                replica.process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Replica JVM: applies the log to a fresh storage and prints its status every 50 ms until stdin is closed.
+     */
+    private static void runReplica(String host, int port) throws Exception {
+        InMemoryStorage storage = new InMemoryStorage(new UtilService());
+        try (ReplicationClient client = new ReplicationClient(storage, host, port)) {
+            client.start();
+            Thread watchdog = new Thread(() -> {
+                try {
+                    while (System.in.read() >= 0) {
+                        // drain until the parent goes away
+                    }
+                } catch (Exception ignored) {
+                    // parent gone
+                }
+                System.exit(0);
+            });
+            watchdog.setDaemon(true);
+            watchdog.start();
+            while (true) {
+                ReplicaStatus status = client.getStatus();
+                System.out.printf("%s %b %d %d %d %d%n", STATUS, status.isCaughtUp(), status.getAppliedSequence(),
+                        status.getLagEntries(), status.getLagMillis(), storage.getTrainingStorage().size());
+                System.out.flush();
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private static class ReplicaProcess {
+
+        private final int index;
+        private final Process process;
+        private volatile boolean caughtUp;
+        private volatile long appliedSequence = -1;
+        private volatile long maxLagEntries;
+        private volatile long maxLagMillis;
+        private volatile int trainings;
+        private volatile long statusAt;
+
+        ReplicaProcess(int index, int port) throws Exception {
+            this.index = index;
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            this.process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    ReplicationBenchmark.class.getName(), "replica", "localhost", String.valueOf(port))
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            Thread reader = new Thread(this::read, "replica-" + index + "-status");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith(STATUS)) {
+                        continue;
+                    }
+                    String[] fields = line.split(" ");
+                    caughtUp = Boolean.parseBoolean(fields[1]);
+                    appliedSequence = Long.parseLong(fields[2]);
+                    if (caughtUp) {
+                        maxLagEntries = Math.max(maxLagEntries, Long.parseLong(fields[3]));
+                        maxLagMillis = Math.max(maxLagMillis, Long.parseLong(fields[4]));
+                    }
+                    trainings = Integer.parseInt(fields[5]);
+                    statusAt = System.nanoTime();
+                }
+            } catch (Exception e) {
+                // replica terminated
+            }
+        }
+
+        /**
+         * @return {@link System#nanoTime()} of the first status showing the sequence applied, or -1 on timeout.
+         */
+        long awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (!caughtUp || appliedSequence < sequence) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return -1;
+                }
+                Thread.sleep(5);
+            }
+            return statusAt;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.model.Trainee;
+import org.example.model.Trainer;
+import org.example.model.Training;
+import org.example.model.User;
+import org.example.serialization.Codec;
+import org.example.serialization.Serialization;
+import org.example.serialization.WireFormat;
+import org.example.util.JSONData;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes one entity of each model type in a loop and reports, per type and {@link WireFormat},
+ * operations per second, encoded size and bytes allocated per operation. The last rows repeat the training case with
+ * a mapper built per call, the way the seed file used to be read.
+ * Usage: {@code SerializationBenchmark [iterations]}
+ */
+public class SerializationBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        UUID userId = UUID.randomUUID();
+        Training training = new Training(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                "Morning session", LocalDate.of(2024, 3, 14), 60, 2);
+
+        System.out.printf("%-24s %-6s %8s %14s %14s %12s %12s%n", "type", "format", "bytes", "encode/s",
+                "decode/s", "enc B/op", "dec B/op");
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            int count = report ? iterations : iterations / 4;
+            for (WireFormat format : WireFormat.values()) {
+                run("JSONData", Serialization.JSON_DATA, format, count, report,
+                        new JSONData(null, "John", "Smith", "1359 Maryland Avenue", "trainee", null));
+                run("User", Serialization.USER, format, count, report,
+                        new User(userId, "John", "Smith", "John.Smith", "s3cr3t-passw0rd", true, 0));
+                run("Trainee", Serialization.TRAINEE, format, count, report,
+                        new Trainee(UUID.randomUUID(), userId, "1359 Maryland Avenue", 4));
+                run("Trainer", Serialization.TRAINER, format, count, report,
+                        new Trainer(UUID.randomUUID(), "box", userId, 1));
+                run("Training", Serialization.TRAINING, format, count, report, training);
+            }
+            runFreshMapper(training, count / 20, report);
+        }
+    }
+
+    private static <T> void run(String name, Codec<T> codec, WireFormat format, int iterations, boolean report,
+                                T value) throws IOException {
+        byte[] encoded = codec.encode(value, format);
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            encoded = codec.encode(value, format);
+        }
+        long encodeNanos = System.nanoTime() - start;
+        long encodeBytes = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        start = System.nanoTime();
+        T decoded = null;
+        for (int i = 0; i < iterations; i++) {
+            decoded = codec.decode(encoded, format);
+        }
+        long decodeNanos = System.nanoTime() - start;
+        long decodeBytes = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (!value.equals(decoded)) {
+            throw new IllegalStateException(name + " did not survive a " + format + " round trip: " + decoded);
+        }
+        if (report) {
+            print(name, format, encoded.length, iterations, encodeNanos, decodeNanos, encodeBytes, decodeBytes);
+        }
+    }
+
+    private static void runFreshMapper(Training training, int iterations, boolean report) throws IOException {
+        byte[] encoded = null;
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            encoded = newMapper().writeValueAsBytes(training);
+        }
+        long encodeNanos = System.nanoTime() - start;
+        long encodeBytes = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            newMapper().readValue(encoded, Training.class);
+        }
+        long decodeNanos = System.nanoTime() - start;
+        long decodeBytes = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (report) {
+            print("Training (mapper/call)", WireFormat.JSON, encoded.length, iterations, encodeNanos, decodeNanos,
+                    encodeBytes, decodeBytes);
+        }
+    }
+
+    private static ObjectMapper newMapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static void print(String name, WireFormat format, int size, int iterations, long encodeNanos,
+                              long decodeNanos, long encodeBytes, long decodeBytes) {
+        System.out.printf("%-24s %-6s %8d %14.0f %14.0f %12d %12d%n", name, format, size,
+                iterations * 1e9 / encodeNanos, iterations * 1e9 / decodeNanos,
+                encodeBytes / iterations, decodeBytes / iterations);
+    }
+}
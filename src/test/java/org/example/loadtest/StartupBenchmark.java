@@ -0,0 +1,119 @@
+package org.example.loadtest;
+
+import ch.qos.logback.classic.Level;
+import org.example.config.StartupMode;
+import org.example.web.HttpApiServer;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Starts the application in fresh JVMs in every {@link StartupMode}, alternating the modes, and reports the median
+ * time to a refreshed context and to the first answered HTTP call, measured from {@code main} and from JVM start.
+ * Usage: {@code StartupBenchmark [runs per mode] [seed records]}
+ */
+public class StartupBenchmark {
+
+    private static final String RESULT = "RESULT";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            runChild(Path.of(args[1]));
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int records = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Path seedFile = Files.createTempFile("gym-seed", ".json");
+        seedFile.toFile().deleteOnExit();
+        new WorkloadGenerator(42).writeSeedFile(seedFile, records, 0.2);
+
+        Map<StartupMode, List<long[]>> results = new EnumMap<>(StartupMode.class);
+        for (int run = 0; run < runs; run++) {
+            for (StartupMode mode : StartupMode.values()) {
+                results.computeIfAbsent(mode, key -> new ArrayList<>()).add(runOnce(mode, seedFile));
+            }
+        }
+        System.out.printf("%-14s %18s %20s %20s%n", "mode", "main->context ms", "main->first call ms",
+                "jvm->first call ms");
+        for (Map.Entry<StartupMode, List<long[]>> entry : results.entrySet()) {
+            System.out.printf("%-14s %18d %20d %20d%n", entry.getKey(), median(entry.getValue(), 0),
+                    median(entry.getValue(), 1), median(entry.getValue(), 2));
+        }
+    }
+
+    private static long[] runOnce(StartupMode mode, Path seedFile) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        // Each run gets its own working directory, so no run finds the archive directory of the previous one
+        Path workDir = Files.createTempDirectory("gym-startup");
+        String classPath = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(entry -> Path.of(entry).toAbsolutePath().toString())
+                .collect(Collectors.joining(File.pathSeparator));
+        Process process = new ProcessBuilder(java, "-Dgym.startup=" + mode.name(), "-cp", classPath,
+                StartupBenchmark.class.getName(), "child", seedFile.toAbsolutePath().toString())
+                .directory(workDir.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        long[] result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT)) {
+                    result = Arrays.stream(line.substring(RESULT.length()).trim().split(" "))
+                            .mapToLong(Long::parseLong).toArray();
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException(mode + " startup failed with exit code " + process.exitValue());
+        }
+        return result;
+    }
+
+    /**
+     * Child JVM: boots, answers one call through the HTTP API, prints its timings and exits.
+     */
+    private static void runChild(Path seedFile) throws Exception {
+        long mainStart = System.nanoTime();
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.example")).setLevel(Level.WARN);
+        System.setProperty("server.port", "0");
+        ConfigurableApplicationContext context = LoadDriver.createContext(seedFile);
+        long contextReady = System.nanoTime();
+        HttpApiServer server = context.getBean(HttpApiServer.class);
+        server.start();
+        HttpURLConnection connection = (HttpURLConnection)
+                new URL("http://localhost:" + server.getPort() + "/trainees/active-count").openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            in.readAllBytes();
+        }
+        if (connection.getResponseCode() != 200) {
+            throw new IllegalStateException("First call answered " + connection.getResponseCode());
+        }
+        long firstCall = System.nanoTime();
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf("%s %d %d %d%n", RESULT, (contextReady - mainStart) / 1_000_000,
+                (firstCall - mainStart) / 1_000_000, sinceJvmStart);
+        System.out.flush();
+        context.close();
+        System.exit(0);
+    }
+
+    private static long median(List<long[]> samples, int column) {
+        long[] values = samples.stream().mapToLong(sample -> sample[column]).sorted().toArray();
+        return values[values.length / 2];
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.example.dto.TraineeRequestDto;
+import org.example.dto.TrainerRequestDto;
+import org.example.dto.TrainingRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates synthetic but realistic-looking members and trainings. First and last names are drawn from Zipf-skewed
+ * pools, so popular names collide the way they do in real member exports. A generator is seeded and therefore
+ * reproducible; it is not thread-safe, so every worker thread should own its own instance.
+ */
+public class WorkloadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadGenerator.class);
+
+    private static final String[] COMMON_FIRST_NAMES = {
+            "John", "Mary", "James", "Anna", "Robert", "Linda", "Michael", "Sarah", "David", "Emma", "William", "Olivia",
+            "Richard", "Sophia", "Joseph", "Isabella", "Thomas", "Mia", "Charles", "Amelia", "Daniel", "Harper",
+            "Matthew", "Evelyn", "Anthony", "Abigail", "Mark", "Emily", "Paul", "Ella", "Steven", "Grace", "Andrew",
+            "Chloe", "Kenneth", "Lily", "Joshua", "Hannah", "Kevin", "Zoe", "Brian", "Nora", "George", "Aria",
+            "Edward", "Lucy", "Ronald", "Alice", "Timothy", "Clara", "Jason", "Ruby", "Jeffrey", "Stella", "Ryan",
+            "Hazel", "Jacob", "Violet", "Gary", "Aurora"
+    };
+    private static final String[] COMMON_LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores", "Green",
+            "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts", "Morgan",
+            "Smoke", "Margaryan", "Petrov", "Novak", "Kowalski", "Muller", "Rossi", "Dubois", "Silva"
+    };
+    private static final String[] SYLLABLES = {
+            "ka", "ren", "lo", "mi", "dan", "sa", "ver", "to", "li", "na", "gor", "el", "ri", "ta", "mon", "vi"
+    };
+    private static final String[] STREETS = {
+            "Maryland Avenue", "Prospect Valley Road", "Fulton Street", "Raccoon Run", "Main Street", "Oak Lane",
+            "Park Avenue", "Cedar Court", "Hill Road", "Lake Drive", "Sunset Boulevard", "River Street"
+    };
+    private static final String[] SPECIALIZATIONS = {
+            "cardio", "box", "yoga", "crossfit", "pilates", "strength", "swimming", "stretching"
+    };
+    private static final String[] TRAINING_NAMES = {
+            "Morning Session", "Evening Session", "Personal Training", "Group Class", "Bootcamp", "Recovery"
+    };
+
+    private static final int NAME_POOL_SIZE = 400;
+    private static final double NAME_SKEW = 1.1;
+    private static final List<String> FIRST_NAMES = buildNamePool(COMMON_FIRST_NAMES, 7);
+    private static final List<String> LAST_NAMES = buildNamePool(COMMON_LAST_NAMES, 13);
+    private static final ZipfSampler NAME_SAMPLER = new ZipfSampler(NAME_POOL_SIZE, NAME_SKEW);
+    private static final ZipfSampler SPECIALIZATION_SAMPLER = new ZipfSampler(SPECIALIZATIONS.length, 0.8);
+
+    private final Random random;
+
+    public WorkloadGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public String nextFirstName() {
+        return FIRST_NAMES.get(NAME_SAMPLER.next(random));
+    }
+
+    public String nextLastName() {
+        return LAST_NAMES.get(NAME_SAMPLER.next(random));
+    }
+
+    public String nextAddress() {
+        return (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)];
+    }
+
+    public String nextSpecialization() {
+        return SPECIALIZATIONS[SPECIALIZATION_SAMPLER.next(random)];
+    }
+
+    public TraineeRequestDto nextTraineeRequest() {
+        return new TraineeRequestDto(nextFirstName(), nextLastName(), nextAddress(), null, null);
+    }
+
+    public TrainerRequestDto nextTrainerRequest() {
+        return new TrainerRequestDto(nextFirstName(), nextLastName(), null, null, nextSpecialization());
+    }
+
+    public TrainingRequestDto nextTrainingRequest(UUID traineeId, UUID trainerId) {
+        TrainingRequestDto trainingRequestDto = new TrainingRequestDto();
+        trainingRequestDto.setTraineeId(traineeId);
+        trainingRequestDto.setTrainerId(trainerId);
+        trainingRequestDto.setName(TRAINING_NAMES[random.nextInt(TRAINING_NAMES.length)]);
+        trainingRequestDto.setDate(LocalDate.now().minusDays(random.nextInt(365)));
+        trainingRequestDto.setDuration(30 + 15 * random.nextInt(7));
+        trainingRequestDto.setTrainingTypeName(nextSpecialization());
+        return trainingRequestDto;
+    }
+
+    /**
+     * Streams a seed file in the {@code users.json} format without holding the records in memory.
+     *
+     * @param path         The file to write.
+     * @param records      Number of members to generate.
+     * @param trainerShare Fraction of members that are trainers, between 0 and 1.
+     */
+    public void writeSeedFile(Path path, int records, double trainerShare) throws IOException {
+        JsonFactory jsonFactory = new JsonFactory();
+        try (JsonGenerator generator = jsonFactory.createGenerator(path.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (int i = 0; i < records; i++) {
+                boolean trainer = random.nextDouble() < trainerShare;
+                generator.writeStartObject();
+                generator.writeStringField("firstName", nextFirstName());
+                generator.writeStringField("lastName", nextLastName());
+                generator.writeStringField("address", nextAddress());
+                generator.writeStringField("role", trainer ? "trainer" : "trainee");
+                if (trainer) {
+                    generator.writeStringField("specialization", nextSpecialization());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        logger.info("Generated seed file {} with {} records", path, records);
+    }
+
+    private static List<String> buildNamePool(String[] common, long seed) {
+        List<String> names = new ArrayList<>(NAME_POOL_SIZE);
+        for (String name : common) {
+            names.add(name);
+        }
+        Random random = new Random(seed);
+        while (names.size() < NAME_POOL_SIZE) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int i = 0; i < syllables; i++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            if (!names.contains(name.toString())) {
+                names.add(name.toString());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Usage: {@code WorkloadGenerator <output file> <records> [trainer share] [seed]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: WorkloadGenerator <output file> <records> [trainer share] [seed]");
+            System.exit(1);
+        }
+        double trainerShare = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        new WorkloadGenerator(seed).writeSeedFile(Path.of(args[0]), Integer.parseInt(args[1]), trainerShare);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Samples indexes in {@code [0, size)} following a Zipf distribution, so that low indexes are drawn far more often
+ * than high ones. The cumulative table is computed once; instances are immutable and can be shared between threads.
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Zipf size must be positive");
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int position = index >= 0 ? index : -index - 1;
+        return Math.min(position, cumulative.length - 1);
+    }
+}